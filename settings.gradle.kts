@@ -1,3 +1,8 @@
+plugins {
+  // Provisions the Java toolchain when the build JDK differs from it.
+  id("org.gradle.toolchains.foojay-resolver-convention") version "0.8.0"
+}
+
 rootProject.name = "tis-trainee-actions"
 
 dependencyResolutionManagement {
@@ -21,10 +21,15 @@
 
 package uk.nhs.tis.trainee.actions.api;
 
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.nhs.tis.trainee.actions.model.ActionType.REGISTER_TSS;
 import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
@@ -51,6 +56,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -58,6 +64,7 @@ import uk.nhs.tis.trainee.actions.DockerImageNames;
 import uk.nhs.tis.trainee.actions.model.Action;
 import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
 import uk.nhs.tis.trainee.actions.service.EventPublishingService;
+import uk.nhs.tis.trainee.actions.service.TraineeActionCache;
 
 @SpringBootTest
 @Testcontainers
@@ -83,12 +90,16 @@ class ActionResourceIntegrationTest {
   @Autowired
   private MongoTemplate mongoTemplate;
 
+  @Autowired
+  private TraineeActionCache cache;
+
   @MockitoBean
   private EventPublishingService eventPublishingService;
 
   @AfterEach
   void cleanUp() {
     mongoTemplate.findAllAndRemove(new Query(), Action.class);
+    cache.invalidate(TRAINEE_ID);
   }
 
   @Test
@@ -151,6 +162,46 @@ class ActionResourceIntegrationTest {
         .andExpect(jsonPath("$.[0].completed").isEmpty());
   }
 
+  @Test
+  void shouldReturnNotModifiedWhenTraineeActionsUnchanged() throws Exception {
+    String etag = mockMvc.perform(get("/api/action")
+            .header(HttpHeaders.AUTHORIZATION, getValidToken()))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(get("/api/action")
+            .header(HttpHeaders.AUTHORIZATION, getValidToken())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void shouldReturnTraineeActionsWhenChangedSinceEtag() throws Exception {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID_1, PROGRAMME_MEMBERSHIP);
+    Action action = new Action(null, REVIEW_DATA, TRAINEE_ID, referenceInfo, null, NOW, null);
+    action = mongoTemplate.insert(action);
+
+    String etag = mockMvc.perform(get("/api/action")
+            .header(HttpHeaders.AUTHORIZATION, getValidToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(post("/api/action/{actionId}/complete", action.id())
+            .header(HttpHeaders.AUTHORIZATION, getValidToken()))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/action")
+            .header(HttpHeaders.AUTHORIZATION, getValidToken())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+        .andExpect(jsonPath("$").isEmpty());
+  }
+
   @Test
   void shouldReturnBadRequestWhenCompletingActionWithNoAuthorizationHeader() throws Exception {
     mockMvc.perform(post("/api/action/{actionId}/complete", new ObjectId()))
@@ -261,6 +312,79 @@ class ActionResourceIntegrationTest {
         .andExpect(jsonPath("$.[1].tisReferenceInfo.type").value(PERSON.toString()));
   }
 
+  @Test
+  void shouldReturnProgrammeAndPersonActionsOfEachProgrammeWhenFound() throws Exception {
+    TisReferenceInfo programmeRef1 = new TisReferenceInfo(TIS_ID_1, PROGRAMME_MEMBERSHIP);
+    Action programmeAction1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, programmeRef1,
+        PAST, FUTURE, null);
+    TisReferenceInfo programmeRef2 = new TisReferenceInfo(TIS_ID_2, PROGRAMME_MEMBERSHIP);
+    Action programmeAction2 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, programmeRef2,
+        PAST, FUTURE, null);
+    TisReferenceInfo personRef = new TisReferenceInfo(TRAINEE_ID, PERSON);
+    Action personAction = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID, personRef,
+        null, null, Instant.now());
+    mongoTemplate.insertAll(List.of(programmeAction1, programmeAction2, personAction));
+
+    mockMvc.perform(get("/api/action/{traineeId}", TRAINEE_ID)
+            .param("programmeId", TIS_ID_1, TIS_ID_2, TIS_ID_3))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$['%s'].length()", TIS_ID_1).value(2))
+        .andExpect(jsonPath("$['%s'][0].id", TIS_ID_1).value(programmeAction1.id().toString()))
+        .andExpect(jsonPath("$['%s'][1].id", TIS_ID_1).value(personAction.id().toString()))
+        .andExpect(jsonPath("$['%s'].length()", TIS_ID_2).value(2))
+        .andExpect(jsonPath("$['%s'][0].id", TIS_ID_2).value(programmeAction2.id().toString()))
+        .andExpect(jsonPath("$['%s'][1].id", TIS_ID_2).value(personAction.id().toString()))
+        .andExpect(jsonPath("$['%s'].length()", TIS_ID_3).value(1))
+        .andExpect(jsonPath("$['%s'][0].id", TIS_ID_3).value(personAction.id().toString()));
+  }
+
+  @Test
+  void shouldReturnBadRequestWhenNoTraineesActionsRequested() throws Exception {
+    mockMvc.perform(post("/api/action/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"traineeIds": []}
+                """))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldStreamActionsOfEachRequestedTrainee() throws Exception {
+    String otherTraineeId = UUID.randomUUID().toString();
+    TisReferenceInfo programmeRef = new TisReferenceInfo(TIS_ID_1, PROGRAMME_MEMBERSHIP);
+    Action programmeAction = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, programmeRef,
+        PAST, FUTURE, null);
+    TisReferenceInfo personRef = new TisReferenceInfo(TRAINEE_ID, PERSON);
+    Action personAction = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID, personRef,
+        null, null, Instant.now());
+    TisReferenceInfo placementRef = new TisReferenceInfo(TIS_ID_2, PLACEMENT);
+    Action placementAction = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, placementRef,
+        PAST, FUTURE, null);
+    mongoTemplate.insertAll(List.of(programmeAction, personAction, placementAction));
+
+    MvcResult result = mockMvc.perform(post("/api/action/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {
+                  "traineeIds": ["%s", "%s"],
+                  "programmeIds": ["%s"]
+                }
+                """.formatted(TRAINEE_ID, otherTraineeId, TIS_ID_1)))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$['%s'].length()", TRAINEE_ID).value(2))
+        .andExpect(jsonPath("$['%s'][*].id", TRAINEE_ID).value(
+            containsInAnyOrder(programmeAction.id().toString(), personAction.id().toString())))
+        .andExpect(jsonPath("$['%s']", otherTraineeId).isEmpty());
+  }
+
   /**
    * Generate a valid authentication token.
    *
@@ -23,34 +23,48 @@ package uk.nhs.tis.trainee.actions.repository;
 
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.nhs.tis.trainee.actions.model.ActionType.REGISTER_TSS;
 import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
 import static uk.nhs.tis.trainee.actions.model.ActionType.SIGN_COJ;
+import static uk.nhs.tis.trainee.actions.model.ActionType.SIGN_FORM_R_PART_A;
+import static uk.nhs.tis.trainee.actions.model.ActionType.SIGN_FORM_R_PART_B;
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PERSON;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.NullSource;
-import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import uk.nhs.tis.trainee.actions.DockerImageNames;
 import uk.nhs.tis.trainee.actions.config.MongoConfiguration;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
 import uk.nhs.tis.trainee.actions.model.Action;
 import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.Change;
 
 @DataMongoTest
 @Testcontainers
@@ -62,6 +76,7 @@ class ActionRepositoryIntegrationTest {
   private static final String TRAINEE_ID_2 = UUID.randomUUID().toString();
   private static final LocalDate PAST = LocalDate.now().minusDays(1);
   private static final LocalDate FUTURE = LocalDate.now().plusDays(1);
+  private static final Instant COMPLETED = Instant.parse("2024-02-02T00:00:00.000Z");
 
   @Container
   @ServiceConnection
@@ -71,9 +86,13 @@ class ActionRepositoryIntegrationTest {
   @Autowired
   private ActionRepository repository;
 
+  @Autowired
+  private OutboxRepository outboxRepository;
+
   @AfterEach
   void cleanUp() {
     repository.deleteAll();
+    outboxRepository.deleteAll();
   }
 
   @Test
@@ -122,95 +141,673 @@ class ActionRepositoryIntegrationTest {
   }
 
   @Test
-  void shouldNotDeleteCompleteActionsWhenDeleting() {
-    TisReferenceInfo referenceInfo1 = new TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action1 = new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE,
-        Instant.now());
+  void shouldFindAvailableIncompleteActionsInDueOrder() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action dueLater = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    Action dueSooner = repository.insert(
+        new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, null, PAST, null));
+    repository.insert(new Action(null, SIGN_FORM_R_PART_A, TRAINEE_ID_1, referenceInfo, FUTURE,
+        FUTURE, null));
+    repository.insert(new Action(null, SIGN_FORM_R_PART_B, TRAINEE_ID_1, referenceInfo, PAST,
+        FUTURE, Instant.now()));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_2,
+        new TisReferenceInfo(UUID.randomUUID().toString(), PLACEMENT), PAST, FUTURE, null));
+
+    List<ActionDto> found = repository.findAvailableIncompleteActions(TRAINEE_ID_1,
+        LocalDate.now());
+
+    assertThat("Unexpected action count.", found.size(), is(2));
+
+    ActionDto first = found.get(0);
+    assertThat("Unexpected action id.", first.id(), is(dueSooner.id().toString()));
+    assertThat("Unexpected action type.", first.type(), is(SIGN_COJ.toString()));
+    assertThat("Unexpected available from.", first.availableFrom(), nullValue());
+
+    ActionDto second = found.get(1);
+    assertThat("Unexpected action id.", second.id(), is(dueLater.id().toString()));
+    assertThat("Unexpected action type.", second.type(), is(REVIEW_DATA.toString()));
+    assertThat("Unexpected trainee id.", second.traineeId(), is(TRAINEE_ID_1));
+    assertThat("Unexpected TIS reference.", second.tisReferenceInfo(), is(referenceInfo));
+    assertThat("Unexpected available from.", second.availableFrom(), is(PAST));
+    assertThat("Unexpected due by.", second.dueBy(), is(FUTURE));
+    assertThat("Unexpected completed.", second.completed(), nullValue());
+  }
 
-    repository.insert(action1);
+  @Test
+  void shouldFindProgrammeMembershipAndPersonActionsWithSingleQuery() {
+    String traineeId = "trainee";
+    String pmId1 = "1";
+    String pmId2 = "2";
+    Action pmAction2 = repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo(pmId2, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action pmAction1Coj = repository.insert(new Action(null, SIGN_COJ, traineeId,
+        new TisReferenceInfo(pmId1, PROGRAMME_MEMBERSHIP), PAST, FUTURE, Instant.now()));
+    Action pmAction1Review = repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo(pmId1, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action personAction = repository.insert(new Action(null, REGISTER_TSS, traineeId,
+        new TisReferenceInfo(traineeId, PERSON), null, null, null));
+    repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo("3", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo(pmId1, PLACEMENT), PAST, FUTURE, null));
+    repository.insert(new Action(null, REGISTER_TSS, TRAINEE_ID_2,
+        new TisReferenceInfo(TRAINEE_ID_2, PERSON), null, null, null));
+
+    List<Action> found = repository.findProgrammeMembershipAndPersonActions(traineeId,
+        List.of(pmId1, pmId2));
+
+    assertThat("Unexpected actions.", found.stream().map(Action::id).toList(),
+        is(List.of(pmAction1Review.id(), pmAction1Coj.id(), pmAction2.id(),
+            personAction.id())));
+  }
 
-    List<Action> deletedActions = repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(
-        TRAINEE_ID_1, TIS_ID, PLACEMENT.toString());
-    assertThat("Unexpected delete count.", deletedActions.size(), is(0));
+  @Test
+  void shouldFindAvailableIncompleteActionsPagesInDueOrder() {
+    Action dueNever = repository.insert(new Action(null, REGISTER_TSS, TRAINEE_ID_1,
+        new TisReferenceInfo(TRAINEE_ID_1, PERSON), null, null, null));
+    Action dueSooner = repository.insert(new Action(null, SIGN_COJ, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, PAST, null));
+    Action dueLater1 = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action dueLater2 = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("2", PLACEMENT), PAST, FUTURE, null));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("3", PLACEMENT), FUTURE, FUTURE, null));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("4", PLACEMENT), PAST, FUTURE, Instant.now()));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_2,
+        new TisReferenceInfo("5", PLACEMENT), PAST, FUTURE, null));
+
+    List<Action> page1 = repository.findAvailableIncompleteActionsPage(TRAINEE_ID_1,
+        LocalDate.now(), null, 2);
+    List<Action> page2 = repository.findAvailableIncompleteActionsPage(TRAINEE_ID_1,
+        LocalDate.now(), toCursor(page1.get(1)), 2);
+    List<Action> page3 = repository.findAvailableIncompleteActionsPage(TRAINEE_ID_1,
+        LocalDate.now(), toCursor(page2.get(1)), 2);
+
+    assertThat("Unexpected first page.", page1.stream().map(Action::id).toList(),
+        is(List.of(dueNever.id(), dueSooner.id())));
+    assertThat("Unexpected second page.", page2.stream().map(Action::id).toList(),
+        is(List.of(dueLater1.id(), dueLater2.id())));
+    assertThat("Unexpected third page.", page3.size(), is(0));
   }
 
   @Test
-  void shouldDeleteNotCompleteActionsWhenDeleting() {
-    TisReferenceInfo referenceInfo1 = new TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action1 = new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE,
-        null);
+  void shouldFindProgrammeMembershipAndPersonActionsPagesAfterNullDueDate() {
+    String traineeId = "trainee";
+    Action person1 = repository.insert(new Action(null, REGISTER_TSS, traineeId,
+        new TisReferenceInfo(traineeId, PERSON), null, null, null));
+    Action person2 = repository.insert(new Action(null, SIGN_COJ, traineeId,
+        new TisReferenceInfo(traineeId, PERSON), null, null, Instant.now()));
+    Action programme = repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, Instant.now()));
+    repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo("2", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+
+    List<Action> page1 = repository.findProgrammeMembershipAndPersonActionsPage(traineeId, "1",
+        null, 1);
+    List<Action> page2 = repository.findProgrammeMembershipAndPersonActionsPage(traineeId, "1",
+        toCursor(page1.get(0)), 2);
+
+    assertThat("Unexpected first page.", page1.stream().map(Action::id).toList(),
+        is(List.of(person1.id())));
+    assertThat("Unexpected second page.", page2.stream().map(Action::id).toList(),
+        is(List.of(person2.id(), programme.id())));
+  }
 
-    repository.insert(action1);
+  @Test
+  void shouldStreamAvailableIncompleteActionsInDueOrder() {
+    Action dueLater = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action dueNever = repository.insert(new Action(null, REGISTER_TSS, TRAINEE_ID_1,
+        new TisReferenceInfo(TRAINEE_ID_1, PERSON), null, null, null));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("2", PLACEMENT), FUTURE, FUTURE, null));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("3", PLACEMENT), PAST, FUTURE, Instant.now()));
+    repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_2,
+        new TisReferenceInfo("4", PLACEMENT), PAST, FUTURE, null));
+
+    List<ObjectId> found;
+    try (Stream<Action> actions = repository.streamAvailableIncompleteActions(TRAINEE_ID_1,
+        LocalDate.now())) {
+      found = actions.map(Action::id).toList();
+    }
+
+    assertThat("Unexpected actions.", found, is(List.of(dueNever.id(), dueLater.id())));
+  }
 
-    List<Action> deletedActions = repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(
-        TRAINEE_ID_1, TIS_ID, PLACEMENT.toString());
-    assertThat("Unexpected delete count.", deletedActions.size(), is(1));
+  @Test
+  void shouldStreamProgrammeMembershipAndPersonActionsInDueOrder() {
+    String traineeId = "trainee";
+    Action programme = repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action person = repository.insert(new Action(null, REGISTER_TSS, traineeId,
+        new TisReferenceInfo(traineeId, PERSON), null, null, null));
+    repository.insert(new Action(null, REVIEW_DATA, traineeId,
+        new TisReferenceInfo("2", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+
+    List<ObjectId> found;
+    try (Stream<Action> actions = repository.streamProgrammeMembershipAndPersonActions(traineeId,
+        "1")) {
+      found = actions.map(Action::id).toList();
+    }
+
+    assertThat("Unexpected actions.", found, is(List.of(person.id(), programme.id())));
   }
 
-  @ParameterizedTest
-  @NullSource
-  @ValueSource(strings = {"2024-02-02T00:00:00.000Z"})
-  void shouldDeleteAllActionsWhenDeleting(Instant completed) {
-    TisReferenceInfo referenceInfo1 = new TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action1 = new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE,
-        completed);
+  @Test
+  void shouldStreamTraineesActionsOrderedByTrainee() {
+    Action action2 = repository.insert(new Action(null, REVIEW_DATA, "trainee2",
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action action1Placement = repository.insert(new Action(null, REVIEW_DATA, "trainee1",
+        new TisReferenceInfo("2", PLACEMENT), PAST, FUTURE, null));
+    Action action1Programme = repository.insert(new Action(null, REVIEW_DATA, "trainee1",
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, Instant.now()));
+    repository.insert(new Action(null, REVIEW_DATA, "trainee3",
+        new TisReferenceInfo("3", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+
+    List<ObjectId> found;
+    try (Stream<Action> actions = repository.streamTraineesActions(
+        List.of("trainee2", "trainee1"))) {
+      found = actions.map(Action::id).toList();
+    }
+
+    assertThat("Unexpected actions.", found,
+        is(List.of(action1Programme.id(), action1Placement.id(), action2.id())));
+  }
 
-    repository.insert(action1);
+  @Test
+  void shouldStreamTraineesProgrammeMembershipAndPersonActionsOrderedByTrainee() {
+    Action action2 = repository.insert(new Action(null, REGISTER_TSS, "trainee2",
+        new TisReferenceInfo("trainee2", PERSON), null, null, null));
+    Action action1Programme = repository.insert(new Action(null, REVIEW_DATA, "trainee1",
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action action1Person = repository.insert(new Action(null, REGISTER_TSS, "trainee1",
+        new TisReferenceInfo("trainee1", PERSON), null, null, null));
+    repository.insert(new Action(null, REVIEW_DATA, "trainee1",
+        new TisReferenceInfo("2", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    repository.insert(new Action(null, REVIEW_DATA, "trainee1",
+        new TisReferenceInfo("1", PLACEMENT), PAST, FUTURE, null));
+    repository.insert(new Action(null, REGISTER_TSS, "trainee3",
+        new TisReferenceInfo("trainee3", PERSON), null, null, null));
+
+    List<ObjectId> found;
+    try (Stream<Action> actions = repository.streamTraineesProgrammeMembershipAndPersonActions(
+        List.of("trainee1", "trainee2"), List.of("1"))) {
+      found = actions.map(Action::id).toList();
+    }
+
+    assertThat("Unexpected actions.", found,
+        is(List.of(action1Programme.id(), action1Person.id(), action2.id())));
+  }
 
-    List<Action> deletedActions = repository.deleteByTraineeIdAndTisReferenceInfo(
-        TRAINEE_ID_1, TIS_ID, PLACEMENT.toString());
-    assertThat("Unexpected delete count.", deletedActions.size(), is(1));
+  @Test
+  void shouldFindActionsGroupedByTraineeReference() {
+    TisReferenceInfo referenceInfo1 = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
+    Action action1 = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE, null));
+    Action action2 = repository.insert(
+        new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE, null));
+    TisReferenceInfo referenceInfo2 = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action action3 = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_2, referenceInfo2, PAST, FUTURE, null));
+
+    TraineeReference reference1 = new TraineeReference(TRAINEE_ID_1, referenceInfo1);
+    TraineeReference reference2 = new TraineeReference(TRAINEE_ID_2, referenceInfo2);
+
+    Map<TraineeReference, List<Action>> found = repository.findByTraineeReferences(
+        List.of(reference1, reference2));
+
+    assertThat("Unexpected reference count.", found.size(), is(2));
+    assertThat("Unexpected action count.", found.get(reference1).size(), is(2));
+    assertThat("Unexpected actions.", found.get(reference1), hasItems(action1, action2));
+    assertThat("Unexpected action count.", found.get(reference2).size(), is(1));
+    assertThat("Unexpected actions.", found.get(reference2), hasItems(action3));
   }
 
   @Test
-  void shouldNotDeleteCompleteActionOfTypeWhenDeletingByActionTypeAndNotComplete() {
+  void shouldIncludeEmptyGroupWhenNoActionsFoundForTraineeReference() {
     TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
-    Action action = new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, PAST, FUTURE,
-        Instant.now());
+    repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
 
-    repository.insert(action);
+    TraineeReference otherTrainee = new TraineeReference(TRAINEE_ID_2, referenceInfo);
+    TraineeReference otherType = TraineeReference.of(TRAINEE_ID_1, TIS_ID, PLACEMENT);
 
-    List<Action> deletedActions =
-        repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-            TRAINEE_ID_1, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString());
+    Map<TraineeReference, List<Action>> found = repository.findByTraineeReferences(
+        List.of(otherTrainee, otherType));
 
-    assertThat("Unexpected delete count.", deletedActions.size(), is(0));
-    assertThat("Unexpected remaining count.", repository.findAll().size(), is(1));
+    assertThat("Unexpected reference count.", found.size(), is(2));
+    assertThat("Unexpected action count.", found.get(otherTrainee).size(), is(0));
+    assertThat("Unexpected action count.", found.get(otherType).size(), is(0));
   }
 
   @Test
-  void shouldDeleteIncompleteActionOfTypeWhenDeletingByActionTypeAndNotComplete() {
-    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
-    Action action = new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null);
+  void shouldReturnEmptyMapWhenNoTraineeReferencesGiven() {
+    Map<TraineeReference, List<Action>> found = repository.findByTraineeReferences(List.of());
 
-    repository.insert(action);
+    assertThat("Unexpected reference count.", found.size(), is(0));
+  }
 
-    List<Action> deletedActions =
-        repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-            TRAINEE_ID_1, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString());
+  @Test
+  void shouldApplyChangesInOrder() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action existingAction = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, PAST, null));
+    Action actionToComplete = repository.insert(
+        new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.delete(existingAction);
+    // The replacement would violate the unique index unless the delete is applied first.
+    Action replacement = changes.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    Action completedAction = actionToComplete.withCompleted(COMPLETED);
+    changes.complete(completedAction);
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
 
-    assertThat("Unexpected delete count.", deletedActions.size(), is(1));
-    assertThat("Unexpected remaining count.", repository.findAll().size(), is(0));
+    List<Action> actions = repository.findAll();
+    assertThat("Unexpected action count.", actions.size(), is(2));
+    assertThat("Unexpected actions.", actions, hasItems(replacement, completedAction));
+    assertThat("Unexpected outbox count.", outbox.size(), is(3));
+    assertThat("Unexpected stored outbox count.", outboxRepository.count(), is(3L));
   }
 
   @Test
-  void shouldNotDeleteIncompleteActionOfDifferentTypeWhenDeletingByActionTypeAndNotComplete() {
+  void shouldNotCompleteActionCompletedSinceRead() {
     TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
-    Action actionToDelete = new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, PAST, FUTURE,
-        null);
-    Action actionToKeep = new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE,
-        null);
+    Action readAction = repository.insert(
+        new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    Action completedAction = repository.save(readAction.withCompleted(COMPLETED));
 
-    repository.insert(actionToDelete);
-    repository.insert(actionToKeep);
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.complete(readAction.withCompleted(COMPLETED.plusSeconds(60)));
 
-    List<Action> deletedActions =
-        repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-            TRAINEE_ID_1, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString());
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action.", repository.findById(readAction.id()).orElseThrow(),
+        is(completedAction));
+    assertThat("Unexpected outbox count.", outbox.size(), is(0));
+    assertThat("Unexpected stored outbox count.", outboxRepository.count(), is(0L));
+  }
+
+  @Test
+  void shouldDeleteIncompleteActionWhenDeletingIfIncomplete() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action action = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.deleteIfIncomplete(action);
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action count.", repository.count(), is(0L));
+    assertThat("Unexpected outbox count.", outbox.size(), is(1));
+  }
+
+  @Test
+  void shouldNotDeleteActionCompletedSinceReadWhenDeletingIfIncomplete() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action readAction = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    repository.save(readAction.withCompleted(COMPLETED));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.deleteIfIncomplete(readAction);
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action count.", repository.count(), is(1L));
+    assertThat("Unexpected outbox count.", outbox.size(), is(0));
+    assertThat("Unexpected stored outbox count.", outboxRepository.count(), is(0L));
+  }
+
+  @Test
+  void shouldDeleteActionInsertedInSameChangesWhenDeletingIfIncomplete() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    ActionChangeSet changes = new ActionChangeSet();
+    Action inserted = changes.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    changes.deleteIfIncomplete(inserted);
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action count.", repository.count(), is(0L));
+    assertThat("Unexpected outbox count.", outbox.size(), is(2));
+  }
+
+  @Test
+  void shouldDeleteCompletedActionWhenDeleting() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action action = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, COMPLETED));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.delete(action);
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action count.", repository.count(), is(0L));
+    assertThat("Unexpected outbox count.", outbox.size(), is(1));
+  }
+
+  @Test
+  void shouldRescheduleActionInPlace() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action existingAction = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, PAST, Instant.now()));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    Action rescheduled = new Action(existingAction.id(), REVIEW_DATA, TRAINEE_ID_1, referenceInfo,
+        PAST, FUTURE, null);
+    changes.reschedule(rescheduled);
+
+    repository.applyChanges(changes, this::buildOutboxEntry);
+
+    List<Action> actions = repository.findAll();
+    assertThat("Unexpected action count.", actions.size(), is(1));
+    assertThat("Unexpected action.", actions.get(0), is(rescheduled));
+  }
+
+  @Test
+  void shouldNotRescheduleOrBroadcastActionWhenNotStored() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.reschedule(new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST,
+        FUTURE, null));
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action count.", repository.count(), is(0L));
+    assertThat("Unexpected outbox size.", outbox.size(), is(0));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(0L));
+  }
+
+  @Test
+  void shouldNotRescheduleOrBroadcastActionWhenDueDateUnchanged() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action existingAction = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    changes.reschedule(new Action(existingAction.id(), REVIEW_DATA, TRAINEE_ID_1, referenceInfo,
+        FUTURE, FUTURE, null));
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes, this::buildOutboxEntry);
+
+    assertThat("Unexpected action.", repository.findById(existingAction.id()).orElseThrow(),
+        is(existingAction));
+    assertThat("Unexpected outbox size.", outbox.size(), is(0));
+  }
+
+  @Test
+  void shouldWriteOutboxEntriesWithChanges() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    ActionChangeSet changes = new ActionChangeSet();
+    Action inserted = changes.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    OutboxEntry entry = OutboxEntry.of(buildBroadcast(inserted));
+
+    List<OutboxEntry> written = repository.applyChanges(changes, change -> entry);
+
+    assertThat("Unexpected written outbox.", written, is(List.of(entry)));
+    assertThat("Unexpected action count.", repository.count(), is(1L));
+    List<OutboxEntry> outbox = outboxRepository.findAll();
+    assertThat("Unexpected outbox count.", outbox.size(), is(1));
+    assertThat("Unexpected outbox entry id.", outbox.get(0).id(), is(entry.id()));
+    assertThat("Unexpected broadcast.", outbox.get(0).broadcast().id(),
+        is(inserted.id().toString()));
+  }
+
+  @Test
+  void shouldNotWriteOutboxEntriesWhenChangesFail() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+
+    ActionChangeSet changes = new ActionChangeSet();
+    Action duplicate = changes.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    OutboxEntry entry = OutboxEntry.of(buildBroadcast(duplicate));
+
+    assertThrows(DataAccessException.class,
+        () -> repository.applyChanges(changes, change -> entry));
+
+    assertThat("Unexpected action count.", repository.count(), is(1L));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(0L));
+  }
+
+  @Test
+  void shouldFindUnsentOutboxEntriesInOrder() {
+    OutboxEntry before = OutboxEntry.of(null);
+    OutboxEntry unsent1 = OutboxEntry.of(null);
+    OutboxEntry sent = new OutboxEntry(ObjectId.get(), null, Instant.now(), Instant.now());
+    OutboxEntry unsent2 = OutboxEntry.of(null);
+    OutboxEntry after = OutboxEntry.of(null);
+    outboxRepository.saveAll(List.of(after, unsent2, sent, unsent1, before));
+
+    List<OutboxEntry> found = outboxRepository.findUnsent(before.id(), after.id(),
+        PageRequest.of(0, 10));
+
+    assertThat("Unexpected entries.", found.stream().map(OutboxEntry::id).toList(),
+        is(List.of(unsent1.id(), unsent2.id())));
+  }
+
+  @Test
+  void shouldMarkOutboxEntriesAsSent() {
+    OutboxEntry entry1 = OutboxEntry.of(null);
+    OutboxEntry entry2 = OutboxEntry.of(null);
+    outboxRepository.saveAll(List.of(entry1, entry2));
+
+    long updated = outboxRepository.markSent(List.of(entry1.id()), Instant.now());
+
+    assertThat("Unexpected updated count.", updated, is(1L));
+    assertThat("Unexpected sent.", outboxRepository.findById(entry1.id()).orElseThrow().sent(),
+        notNullValue());
+    assertThat("Unexpected sent.", outboxRepository.findById(entry2.id()).orElseThrow().sent(),
+        nullValue());
+  }
+
+  @Test
+  void shouldNotFailWhenApplyingEmptyChanges() {
+    List<OutboxEntry> outbox = repository.applyChanges(new ActionChangeSet(),
+        this::buildOutboxEntry);
+
+    assertThat("Unexpected outbox.", outbox.size(), is(0));
+
+    assertThat("Unexpected action count.", repository.count(), is(0L));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(0L));
+  }
+
+  @Test
+  void shouldMoveOnlyActionsOfFromTrainee() {
+    TisReferenceInfo referenceInfo1 = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    TisReferenceInfo referenceInfo2 = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
+    String otherTraineeId = UUID.randomUUID().toString();
+    Action toMove1 = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo1, PAST, FUTURE, null));
+    Action toMove2 = repository.insert(
+        new Action(null, SIGN_COJ, TRAINEE_ID_1, referenceInfo2, PAST, FUTURE, null));
+    Action existing = repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_2, referenceInfo2, PAST, FUTURE, null));
+    Action other = repository.insert(
+        new Action(null, REVIEW_DATA, otherTraineeId, referenceInfo1, PAST, FUTURE, null));
+
+    List<OutboxEntry> outbox = repository.moveActions(TRAINEE_ID_1, TRAINEE_ID_2,
+        action -> OutboxEntry.of(buildBroadcast(action)));
+
+    assertThat("Unexpected moved actions.", findTraineeActions(TRAINEE_ID_1).size(),
+        is(0));
+    assertThat("Unexpected trainee actions.", findTraineeActions(TRAINEE_ID_2),
+        hasItems(toMove1.withTraineeId(TRAINEE_ID_2), toMove2.withTraineeId(TRAINEE_ID_2),
+            existing));
+    assertThat("Unexpected other trainee action.", repository.findById(other.id()).orElseThrow(),
+        is(other));
+
+    assertThat("Unexpected outbox size.", outbox.size(), is(2));
+    assertThat("Unexpected broadcast ids.",
+        outbox.stream().map(entry -> entry.broadcast().id()).toList(),
+        hasItems(toMove1.id().toString(), toMove2.id().toString()));
+    assertThat("Unexpected broadcast trainee ids.",
+        outbox.stream().map(entry -> entry.broadcast().traineeId()).distinct().toList(),
+        is(List.of(TRAINEE_ID_2)));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(2L));
+  }
+
+  @Test
+  void shouldNotMoveActionsAgainWhenMoveRepeated() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    repository.insert(
+        new Action(null, REVIEW_DATA, TRAINEE_ID_1, referenceInfo, PAST, FUTURE, null));
+    repository.moveActions(TRAINEE_ID_1, TRAINEE_ID_2,
+        action -> OutboxEntry.of(buildBroadcast(action)));
+
+    List<OutboxEntry> outbox = repository.moveActions(TRAINEE_ID_1, TRAINEE_ID_2,
+        action -> OutboxEntry.of(buildBroadcast(action)));
+
+    assertThat("Unexpected outbox size.", outbox.size(), is(0));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(1L));
+    assertThat("Unexpected moved actions.", findTraineeActions(TRAINEE_ID_2).size(),
+        is(1));
+  }
+
+  @Test
+  void shouldOnlyCompleteIncompleteActionsOfAllowedTypesForTrainee() {
+    Action completable = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PLACEMENT), PAST, FUTURE, null));
+    Instant previouslyCompleted = Instant.parse("2024-02-02T00:00:00.000Z");
+    Action complete = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("2", PLACEMENT), PAST, FUTURE, previouslyCompleted));
+    Action wrongType = repository.insert(new Action(null, SIGN_COJ, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+    Action otherTrainee = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_2,
+        new TisReferenceInfo("3", PLACEMENT), PAST, FUTURE, null));
+    Instant completed = Instant.parse("2025-03-03T00:00:00.000Z");
+
+    List<OutboxEntry> outbox = repository.completeActions(TRAINEE_ID_1,
+        List.of(completable.id(), complete.id(), wrongType.id(), otherTrainee.id()),
+        List.of(REVIEW_DATA), completed, action -> OutboxEntry.of(buildBroadcast(action)));
+
+    assertThat("Unexpected outbox size.", outbox.size(), is(1));
+    assertThat("Unexpected broadcast id.", outbox.get(0).broadcast().id(),
+        is(completable.id().toString()));
+    assertThat("Unexpected broadcast completed.", outbox.get(0).broadcast().completed(),
+        is(completed));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(1L));
+
+    assertThat("Unexpected completed.",
+        repository.findById(completable.id()).orElseThrow().completed(), is(completed));
+    assertThat("Unexpected completed.",
+        repository.findById(complete.id()).orElseThrow().completed(), is(previouslyCompleted));
+    assertThat("Unexpected completed.",
+        repository.findById(wrongType.id()).orElseThrow().completed(), nullValue());
+    assertThat("Unexpected completed.",
+        repository.findById(otherTrainee.id()).orElseThrow().completed(), nullValue());
+  }
+
+  @Test
+  void shouldNotCompleteActionsAgainWhenCompletionRepeated() {
+    Action action = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PLACEMENT), PAST, FUTURE, null));
+    repository.completeActions(TRAINEE_ID_1, List.of(action.id()), List.of(REVIEW_DATA),
+        Instant.now(), completed -> OutboxEntry.of(buildBroadcast(completed)));
+
+    List<OutboxEntry> outbox = repository.completeActions(TRAINEE_ID_1, List.of(action.id()),
+        List.of(REVIEW_DATA), Instant.now(),
+        completed -> OutboxEntry.of(buildBroadcast(completed)));
+
+    assertThat("Unexpected outbox size.", outbox.size(), is(0));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(1L));
+  }
+
+  @Test
+  void shouldCompleteIncompleteActionAndReturnNewDocument() {
+    Action action = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PLACEMENT), PAST, FUTURE, null));
+    Instant completed = Instant.parse("2025-03-03T00:00:00.000Z");
+
+    Optional<OutboxEntry> outboxEntry = repository.completeAction(action.id(), TRAINEE_ID_1,
+        List.of(REVIEW_DATA), completed, updated -> OutboxEntry.of(buildBroadcast(updated)));
+
+    assertThat("Unexpected outbox entry presence.", outboxEntry.isPresent(), is(true));
+    assertThat("Unexpected broadcast completed.", outboxEntry.get().broadcast().completed(),
+        is(completed));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(1L));
+    assertThat("Unexpected completed.",
+        repository.findById(action.id()).orElseThrow().completed(), is(completed));
+  }
+
+  @Test
+  void shouldNotCompleteActionWhenAlreadyCompleted() {
+    Instant previouslyCompleted = Instant.parse("2024-02-02T00:00:00.000Z");
+    Action action = repository.insert(new Action(null, REVIEW_DATA, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PLACEMENT), PAST, FUTURE, previouslyCompleted));
+
+    Optional<OutboxEntry> outboxEntry = repository.completeAction(action.id(), TRAINEE_ID_1,
+        List.of(REVIEW_DATA), Instant.now(), updated -> OutboxEntry.of(buildBroadcast(updated)));
+
+    assertThat("Unexpected outbox entry presence.", outboxEntry.isPresent(), is(false));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(0L));
+    assertThat("Unexpected completed.",
+        repository.findById(action.id()).orElseThrow().completed(), is(previouslyCompleted));
+  }
+
+  @Test
+  void shouldNotCompleteActionWhenTypeOrTraineeNotMatched() {
+    Action action = repository.insert(new Action(null, SIGN_COJ, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, null));
+
+    Optional<OutboxEntry> wrongType = repository.completeAction(action.id(), TRAINEE_ID_1,
+        List.of(REVIEW_DATA), Instant.now(), updated -> OutboxEntry.of(buildBroadcast(updated)));
+    Optional<OutboxEntry> wrongTrainee = repository.completeAction(action.id(), TRAINEE_ID_2,
+        List.of(SIGN_COJ), Instant.now(), updated -> OutboxEntry.of(buildBroadcast(updated)));
+
+    assertThat("Unexpected outbox entry presence.", wrongType.isPresent(), is(false));
+    assertThat("Unexpected outbox entry presence.", wrongTrainee.isPresent(), is(false));
+    assertThat("Unexpected completed.",
+        repository.findById(action.id()).orElseThrow().completed(), nullValue());
+  }
+
+  @Test
+  void shouldUncompleteCompletedActionAndReturnNewDocument() {
+    Action action = repository.insert(new Action(null, SIGN_FORM_R_PART_A, TRAINEE_ID_1,
+        new TisReferenceInfo("1", PROGRAMME_MEMBERSHIP), PAST, FUTURE, Instant.now()));
+
+    Optional<OutboxEntry> outboxEntry = repository.uncompleteAction(action.id(), TRAINEE_ID_1,
+        updated -> OutboxEntry.of(buildBroadcast(updated)));
+    Optional<OutboxEntry> repeated = repository.uncompleteAction(action.id(), TRAINEE_ID_1,
+        updated -> OutboxEntry.of(buildBroadcast(updated)));
+
+    assertThat("Unexpected outbox entry presence.", outboxEntry.isPresent(), is(true));
+    assertThat("Unexpected broadcast completed.", outboxEntry.get().broadcast().completed(),
+        nullValue());
+    assertThat("Unexpected repeated outbox entry presence.", repeated.isPresent(), is(false));
+    assertThat("Unexpected outbox count.", outboxRepository.count(), is(1L));
+    assertThat("Unexpected completed.",
+        repository.findById(action.id()).orElseThrow().completed(), nullValue());
+  }
+
+  private List<Action> findTraineeActions(String traineeId) {
+    return repository.findAll().stream()
+        .filter(action -> action.traineeId().equals(traineeId))
+        .toList();
+  }
+
+  private ActionCursor toCursor(Action action) {
+    return new ActionCursor(action.dueBy(), action.id());
+  }
+
+  private OutboxEntry buildOutboxEntry(Change change) {
+    return OutboxEntry.of(buildBroadcast(change.action()));
+  }
 
-    assertThat("Unexpected delete count.", deletedActions.size(), is(1));
-    List<Action> remaining = repository.findAll();
-    assertThat("Unexpected remaining count.", remaining.size(), is(1));
-    assertThat("Unexpected remaining action type.", remaining.get(0).type(), is(REVIEW_DATA));
+  private ActionBroadcastDto buildBroadcast(Action action) {
+    return new ActionBroadcastDto(action.id().toString(), action.type().toString(),
+        action.traineeId(), action.tisReferenceInfo(), action.availableFrom(), action.dueBy(),
+        action.completed(), ActionStatus.CURRENT, Instant.now());
   }
 }
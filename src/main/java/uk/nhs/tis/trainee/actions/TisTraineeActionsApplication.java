@@ -24,11 +24,13 @@ package uk.nhs.tis.trainee.actions;
 import io.mongock.runner.springboot.EnableMongock;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * An application for the management of trainee actions.
  */
 @EnableMongock
+@EnableScheduling
 @SpringBootApplication
 public class TisTraineeActionsApplication {
 
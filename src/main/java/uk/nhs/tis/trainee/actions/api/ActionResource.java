@@ -21,20 +21,39 @@
 
 package uk.nhs.tis.trainee.actions.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.nhs.tis.trainee.actions.api.util.AuthTokenUtil;
 import uk.nhs.tis.trainee.actions.dto.ActionDto;
+import uk.nhs.tis.trainee.actions.dto.TraineeActionsRequestDto;
+import uk.nhs.tis.trainee.actions.repository.ActionCursor;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
 /**
@@ -45,23 +64,50 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 @RequestMapping("/api/action")
 public class ActionResource {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final int DEFAULT_PAGE_SIZE = 100;
+  static final int MAX_PAGE_SIZE = 1000;
+  static final int MAX_COMPLETE_COUNT = 1000;
+
   private final ActionService service;
+  private final ObjectMapper objectMapper;
 
-  public ActionResource(ActionService service) {
+  /**
+   * Construct a REST controller for actions.
+   *
+   * @param service      The action service.
+   * @param objectMapper The object mapper to write streamed responses with.
+   */
+  public ActionResource(ActionService service, ObjectMapper objectMapper) {
     this.service = service;
+    this.objectMapper = objectMapper;
   }
 
   /**
-   * Get available incomplete actions associated with the authenticated trainee.
+   * Get available incomplete actions associated with the authenticated trainee. If versions are
+   * available the response has an ETag of the version of the trainee's actions, if the given ETag
+   * matches then the actions have not changed and are not retrieved. If a page size or cursor is
+   * given then a single page of actions is returned, ordered by due date, with a cursor to the next
+   * page if there may be more actions.
    *
-   * @param token The authentication token containing the trainee ID.
+   * @param token       The authentication token containing the trainee ID.
+   * @param ifNoneMatch The ETag(s) of the actions already held by the client, may be null.
+   * @param size        The maximum number of actions to return, may be null.
+   * @param cursor      The cursor to return actions after, may be null.
    * @return A list of available incomplete actions associated with the trainee, may be empty.
    */
   @GetMapping
   public ResponseEntity<List<ActionDto>> getTraineeActions(
-      @RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
+      @RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String cursor) {
     log.info("Received request to get actions of authenticated user.");
 
+    if (!isValidPage(size, cursor)) {
+      return ResponseEntity.badRequest().build();
+    }
+
     String traineeId;
     try {
       traineeId = AuthTokenUtil.getTraineeTisId(token);
@@ -75,10 +121,52 @@ public class ActionResource {
       return ResponseEntity.badRequest().build();
     }
 
+    String etag = service.getIncompleteTraineeActionsVersion(traineeId)
+        .map(version -> toEtag(version, size, cursor))
+        .orElse(null);
+    if (isNotModified(ifNoneMatch, etag)) {
+      log.info("Incomplete actions of trainee {} not modified.", traineeId);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    if (size != null || cursor != null) {
+      return getPage(etag, size, cursor,
+          (after, pageSize) -> service.findIncompleteTraineeActions(traineeId, after, pageSize));
+    }
+
     List<ActionDto> actions = service.findIncompleteTraineeActions(traineeId);
     log.info("{} incomplete actions found for trainee {}.", actions.size(), traineeId);
 
-    return ResponseEntity.ok(actions);
+    return ResponseEntity.ok().eTag(etag).body(actions);
+  }
+
+  /**
+   * Stream available incomplete actions associated with the authenticated trainee as newline
+   * delimited JSON, ordered by due date. The actions are written as they are read from the
+   * database, so that large results are never held in memory.
+   *
+   * @param token The authentication token containing the trainee ID.
+   * @return The streamed available incomplete actions associated with the trainee.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamTraineeActions(
+      @RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
+    log.info("Received request to stream actions of authenticated user.");
+
+    String traineeId;
+    try {
+      traineeId = AuthTokenUtil.getTraineeTisId(token);
+      log.info("Trainee {} identified from authentication token.", traineeId);
+
+      if (traineeId == null) {
+        return ResponseEntity.badRequest().build();
+      }
+    } catch (IOException e) {
+      log.warn("Unable to read tisId from token.", e);
+      return ResponseEntity.badRequest().build();
+    }
+
+    return toNdjson(() -> service.streamIncompleteTraineeActions(traineeId));
   }
 
   /**
@@ -110,12 +198,60 @@ public class ActionResource {
     return ResponseEntity.of(action);
   }
 
+  /**
+   * Mark many of a trainee's actions as completed with a single request. Actions which are not
+   * found, already complete or not user-completable are skipped.
+   *
+   * @param token     The authentication token containing the trainee ID.
+   * @param actionIds The IDs of the actions to mark as completed.
+   * @return The completed actions, may be empty.
+   */
+  @PostMapping("/complete")
+  ResponseEntity<List<ActionDto>> completeActions(
+      @RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+      @RequestBody List<String> actionIds) {
+    log.info("Received request to complete {} actions.", actionIds.size());
+
+    if (actionIds.isEmpty() || actionIds.size() > MAX_COMPLETE_COUNT) {
+      log.warn("Action count {} must be between 1 and {}.", actionIds.size(), MAX_COMPLETE_COUNT);
+      return ResponseEntity.badRequest().build();
+    }
+
+    if (actionIds.contains(null)) {
+      log.warn("Action IDs must not be null.");
+      return ResponseEntity.badRequest().build();
+    }
+
+    String traineeId;
+    try {
+      traineeId = AuthTokenUtil.getTraineeTisId(token);
+      log.info("Trainee {} identified from authentication token.", traineeId);
+
+      if (traineeId == null) {
+        return ResponseEntity.badRequest().build();
+      }
+    } catch (IOException e) {
+      log.warn("Unable to read tisId from token.", e);
+      return ResponseEntity.badRequest().build();
+    }
+
+    List<ActionDto> actions = service.completeAllAsUser(traineeId, actionIds);
+    return ResponseEntity.ok(actions);
+  }
+
   /**
    * Get complete and incomplete actions associated with a trainee and programme membership. This is
-   * an internal API without an authorization token.
+   * an internal API without an authorization token. If versions are available the response has an
+   * ETag of the version of the trainee's actions, if the given ETag matches then the actions have
+   * not changed and are not retrieved. If a page size or cursor is given then a single page of
+   * actions is returned, ordered by due date, with a cursor to the next page if there may be more
+   * actions.
    *
    * @param traineeId   The trainee TIS ID.
    * @param programmeId The programme membership ID.
+   * @param ifNoneMatch The ETag(s) of the actions already held by the client, may be null.
+   * @param size        The maximum number of actions to return, may be null.
+   * @param cursor      The cursor to return actions after, may be null.
    * @return A list of all actions associated with the trainee and programme membership, which may
    *         be empty if the programme membership or trainee were not found, but otherwise should
    *         contain an ActionDto for each programmeActionTypes and personActionTypes ActionType.
@@ -123,14 +259,300 @@ public class ActionResource {
   @GetMapping("/{traineeId}/{programmeId}")
   public ResponseEntity<List<ActionDto>> getTraineeProgrammeActions(
       @PathVariable String traineeId,
-      @PathVariable String programmeId) {
+      @PathVariable String programmeId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String cursor) {
     log.info("Received request to get actions for trainee {} programme membership {}.",
         traineeId, programmeId);
 
+    if (!isValidPage(size, cursor)) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    String etag = service.getTraineeActionsVersion(traineeId)
+        .map(version -> toEtag(version, size, cursor))
+        .orElse(null);
+    if (isNotModified(ifNoneMatch, etag)) {
+      log.info("Actions of trainee {} programme membership {} not modified.", traineeId,
+          programmeId);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    if (size != null || cursor != null) {
+      return getPage(etag, size, cursor, (after, pageSize) ->
+          service.findTraineeProgrammeMembershipActions(traineeId, programmeId, after, pageSize));
+    }
+
     List<ActionDto> actions = service.findTraineeProgrammeMembershipActions(traineeId, programmeId);
     log.info("{} actions found for trainee {} programme membership {}.", actions.size(),
         traineeId, programmeId);
 
-    return ResponseEntity.ok(actions);
+    return ResponseEntity.ok().eTag(etag).body(actions);
+  }
+
+  /**
+   * Stream complete and incomplete actions associated with a trainee and programme membership as
+   * newline delimited JSON, ordered by due date. The actions are written as they are read from the
+   * database, so that large results are never held in memory. This is an internal API without an
+   * authorization token.
+   *
+   * @param traineeId   The trainee TIS ID.
+   * @param programmeId The programme membership ID.
+   * @return The streamed actions associated with the trainee and programme membership.
+   */
+  @GetMapping(value = "/{traineeId}/{programmeId}/stream",
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamTraineeProgrammeActions(
+      @PathVariable String traineeId,
+      @PathVariable String programmeId) {
+    log.info("Received request to stream actions for trainee {} programme membership {}.",
+        traineeId, programmeId);
+
+    return toNdjson(() -> service.streamTraineeProgrammeMembershipActions(traineeId,
+        programmeId));
+  }
+
+  /**
+   * Get complete and incomplete actions associated with a trainee for each of many programme
+   * memberships, found with a single query. This is an internal API without an authorization
+   * token. If versions are available the response has an ETag of the version of the trainee's
+   * actions, if the given ETag matches then the actions have not changed and are not retrieved.
+   *
+   * @param traineeId    The trainee TIS ID.
+   * @param programmeIds The programme membership IDs.
+   * @param ifNoneMatch  The ETag(s) of the actions already held by the client, may be null.
+   * @return The actions associated with the trainee and each programme membership, keyed by
+   *         programme membership ID.
+   */
+  @GetMapping(value = "/{traineeId}", params = "programmeId")
+  public ResponseEntity<Map<String, List<ActionDto>>> getTraineeProgrammesActions(
+      @PathVariable String traineeId,
+      @RequestParam("programmeId") List<String> programmeIds,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    log.info("Received request to get actions for trainee {} programme memberships {}.",
+        traineeId, programmeIds);
+
+    String etag = service.getTraineeActionsVersion(traineeId).map(this::toEtag).orElse(null);
+    if (isNotModified(ifNoneMatch, etag)) {
+      log.info("Actions of trainee {} programme memberships {} not modified.", traineeId,
+          programmeIds);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    Map<String, List<ActionDto>> actions = service.findTraineeProgrammeMembershipActions(
+        traineeId, programmeIds);
+    log.info("Actions found for trainee {} and {} programme memberships.", traineeId,
+        actions.size());
+
+    return ResponseEntity.ok().eTag(etag).body(actions);
+  }
+
+  /**
+   * Get the actions of many trainees, found with a single query. This is an internal API without
+   * an authorization token. The response is streamed as a JSON object of each trainee's actions
+   * keyed by trainee ID, including trainees without actions.
+   *
+   * @param request The trainees, and optionally programme memberships, to get actions for.
+   * @return The streamed actions of each trainee.
+   */
+  @PostMapping("/bulk")
+  public ResponseEntity<StreamingResponseBody> getTraineesActions(
+      @RequestBody TraineeActionsRequestDto request) {
+    if (request.traineeIds() == null || request.traineeIds().isEmpty()) {
+      log.warn("Unable to get actions as no trainees were requested.");
+      return ResponseEntity.badRequest().build();
+    }
+
+    List<String> traineeIds = request.traineeIds().stream()
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+    List<String> programmeIds = request.programmeIds() == null ? List.of()
+        : request.programmeIds().stream().filter(Objects::nonNull).distinct().toList();
+    log.info("Received request to get actions for {} trainees and {} programme memberships.",
+        traineeIds.size(), programmeIds.size());
+
+    StreamingResponseBody body = out -> writeTraineesActions(out, traineeIds, programmeIds);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body);
+  }
+
+  /**
+   * Write the actions of many trainees as a JSON object keyed by trainee ID. The actions are
+   * written as they are read, relying on each trainee's actions being consecutive, so that the
+   * whole response is never held in memory.
+   *
+   * @param out          The output stream to write to.
+   * @param traineeIds   The IDs of the trainees to get actions for.
+   * @param programmeIds The IDs of the programme memberships to get actions for, may be empty.
+   * @throws IOException If the actions could not be written.
+   */
+  private void writeTraineesActions(OutputStream out, List<String> traineeIds,
+      List<String> programmeIds) throws IOException {
+    Set<String> remainingTraineeIds = new LinkedHashSet<>(traineeIds);
+    int actionCount = 0;
+
+    try (JsonGenerator generator = objectMapper.createGenerator(out)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Stream<ActionDto> actions = service.streamTraineesActions(traineeIds, programmeIds)) {
+      generator.writeStartObject();
+      Iterator<ActionDto> iterator = actions.iterator();
+      String currentTraineeId = null;
+
+      while (iterator.hasNext()) {
+        ActionDto action = iterator.next();
+
+        if (!action.traineeId().equals(currentTraineeId)) {
+          if (currentTraineeId != null) {
+            generator.writeEndArray();
+          }
+          currentTraineeId = action.traineeId();
+          remainingTraineeIds.remove(currentTraineeId);
+          generator.writeArrayFieldStart(currentTraineeId);
+        }
+
+        generator.writeObject(action);
+        actionCount++;
+      }
+
+      if (currentTraineeId != null) {
+        generator.writeEndArray();
+      }
+
+      for (String traineeId : remainingTraineeIds) {
+        generator.writeArrayFieldStart(traineeId);
+        generator.writeEndArray();
+      }
+
+      generator.writeEndObject();
+    }
+
+    log.info("{} actions found for {} trainees.", actionCount, traineeIds.size());
+  }
+
+  /**
+   * Build a response streaming actions as newline delimited JSON, the actions are opened once the
+   * response body is written and closed once written.
+   *
+   * @param actions A supplier of the stream of actions to write.
+   * @return The streaming response.
+   */
+  private ResponseEntity<StreamingResponseBody> toNdjson(Supplier<Stream<ActionDto>> actions) {
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.createGenerator(out)
+          .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          Stream<ActionDto> stream = actions.get()) {
+        generator.setRootValueSeparator(null);
+        Iterator<ActionDto> iterator = stream.iterator();
+
+        while (iterator.hasNext()) {
+          generator.writeObject(iterator.next());
+          generator.writeRaw('\n');
+        }
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
+  /**
+   * Check whether the page size and cursor are valid, if given.
+   *
+   * @param size   The maximum number of actions to return, may be null.
+   * @param cursor The cursor to return actions after, may be null.
+   * @return Whether the page size is within the allowed range and the cursor can be decoded.
+   */
+  private boolean isValidPage(Integer size, String cursor) {
+    if (size != null && (size < 1 || size > MAX_PAGE_SIZE)) {
+      log.warn("Page size {} must be between 1 and {}.", size, MAX_PAGE_SIZE);
+      return false;
+    }
+
+    if (cursor != null) {
+      try {
+        ActionCursor.decode(cursor);
+      } catch (IllegalArgumentException e) {
+        log.warn("Unable to decode page cursor.", e);
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Get a page of actions, with a cursor to the next page if the page is full.
+   *
+   * @param etag       The ETag of the page, may be null.
+   * @param size       The maximum number of actions to return, or null for the default size.
+   * @param cursor     The cursor to return actions after, may be null.
+   * @param pageReader A function to read a page of actions after a position.
+   * @return The page of actions.
+   */
+  private ResponseEntity<List<ActionDto>> getPage(String etag, Integer size, String cursor,
+      BiFunction<ActionCursor, Integer, List<ActionDto>> pageReader) {
+    int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+    ActionCursor after = cursor == null ? null : ActionCursor.decode(cursor);
+    List<ActionDto> actions = pageReader.apply(after, pageSize);
+    log.info("Page of {} actions found.", actions.size());
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+
+    if (actions.size() == pageSize) {
+      ActionCursor next = ActionCursor.of(actions.get(actions.size() - 1));
+      response.header(NEXT_CURSOR_HEADER, next.encode());
+    }
+
+    return response.body(actions);
+  }
+
+  /**
+   * Convert a version to a strong ETag.
+   *
+   * @param version The version to convert.
+   * @return The quoted ETag.
+   */
+  private String toEtag(String version) {
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Convert a version to a strong ETag for a page of actions, or for all actions if no page size
+   * or cursor is given. Each page has its own ETag, as each page is a different representation.
+   *
+   * @param version The version to convert.
+   * @param size    The maximum number of actions in the page, may be null.
+   * @param cursor  The cursor the page starts after, may be null.
+   * @return The quoted ETag.
+   */
+  private String toEtag(String version, Integer size, String cursor) {
+    if (size == null && cursor == null) {
+      return toEtag(version);
+    }
+
+    int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+    return toEtag(version + "-" + pageSize + "-" + (cursor == null ? "" : cursor));
+  }
+
+  /**
+   * Check whether an If-None-Match header matches the current ETag, meaning the client already has
+   * the current representation.
+   *
+   * @param ifNoneMatch The If-None-Match header value, may be null.
+   * @param etag        The current ETag, null if the actions are not versioned.
+   * @return Whether any of the given ETags match the current ETag.
+   */
+  private boolean isNotModified(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) {
+      return false;
+    }
+
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
   }
 }
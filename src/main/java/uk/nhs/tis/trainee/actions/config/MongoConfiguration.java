@@ -21,24 +21,171 @@
 
 package uk.nhs.tis.trainee.actions.config;
 
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.model.ProcessedMessage;
 
 /**
  * Additional configuration for MongoDB.
  */
+@Slf4j
 @Configuration
 public class MongoConfiguration {
 
+  private static final String COLLECTION_SCAN_STAGE = "COLLSCAN";
+  private static final String SORT_STAGE = "SORT";
+
+  private static final String MONGOS_MESSAGE = "isdbgrid";
+  private static final int REPLICA_SET_TRANSACTION_WIRE_VERSION = 7;
+  private static final int SHARDED_TRANSACTION_WIRE_VERSION = 8;
+
+  /**
+   * The shape of each action query, keyed by the repository method making the query. The values
+   * are placeholders, as only the fields queried affect the choice of index.
+   */
+  private static final Map<String, QueryShape> ACTION_QUERY_SHAPES = buildActionQueryShapes();
+
   private final MongoTemplate template;
+  private final Duration outboxRetention;
+  private final Duration dedupeTtl;
 
-  MongoConfiguration(MongoTemplate template) {
+  MongoConfiguration(MongoTemplate template,
+      @Value("${application.outbox.retention}") Duration outboxRetention,
+      @Value("${application.dedupe.ttl}") Duration dedupeTtl) {
     this.template = template;
+    this.outboxRetention = outboxRetention;
+    this.dedupeTtl = dedupeTtl;
+  }
+
+  /**
+   * Build the shape of each action query.
+   *
+   * @return The query shapes, keyed by the repository method making the query.
+   */
+  private static Map<String, QueryShape> buildActionQueryShapes() {
+    Document trainee = new Document("traineeId", "");
+    Document reference = new Document(trainee)
+        .append("tisReferenceInfo.id", "")
+        .append("tisReferenceInfo.type", "");
+
+    Map<String, QueryShape> shapes = new LinkedHashMap<>();
+    shapes.put("moveActions", new QueryShape(trainee));
+    shapes.put("findAvailableIncompleteActions",
+        new QueryShape(new Document(trainee).append("completed", null)
+            .append("$or", List.of(new Document("availableFrom", null),
+                new Document("availableFrom", new Document("$lte", new Date())))),
+            new Document("dueBy", 1)));
+    shapes.put("completeAction",
+        new QueryShape(new Document("_id", new ObjectId()).append("traineeId", "")
+            .append("completed", null).append("type", new Document("$in", List.of("")))));
+    shapes.put("findByTraineeIdAndTisReferenceInfo", new QueryShape(reference));
+    shapes.put("applyChanges.findStoredActions",
+        new QueryShape(new Document("_id", new Document("$in", List.of(new ObjectId())))));
+    shapes.put("applyChanges.completeOrDeleteIncomplete",
+        new QueryShape(new Document("_id", new ObjectId()).append("completed", null)));
+    shapes.put("applyChanges.reschedule",
+        new QueryShape(new Document("_id", new ObjectId())
+            .append("dueBy", new Document("$ne", new Date()))));
+    shapes.put("applyChanges.delete", new QueryShape(new Document("_id", new ObjectId())));
+    shapes.put("findByTraineeReferences",
+        new QueryShape(new Document("$or", List.of(reference, reference))));
+    shapes.put("findProgrammeMembershipAndPersonActions",
+        new QueryShape(new Document("$or", List.of(
+            new Document(trainee)
+                .append("tisReferenceInfo.id", new Document("$in", List.of("1", "2")))
+                .append("tisReferenceInfo.type", ""),
+            reference)),
+            new Document("tisReferenceInfo.id", 1).append("tisReferenceInfo.type", 1)
+                .append("type", 1)));
+    shapes.put("completeActions",
+        new QueryShape(new Document("_id", new Document("$in", List.of(new ObjectId())))
+            .append("traineeId", "").append("completed", null)
+            .append("type", new Document("$in", List.of("")))));
+    Document dueOrder = new Document("dueBy", 1).append("_id", 1);
+    shapes.put("findAvailableIncompleteActionsPage",
+        new QueryShape(new Document(trainee).append("completed", null)
+            .append("$or", List.of(new Document("availableFrom", null),
+                new Document("availableFrom", new Document("$lte", new Date())))),
+            dueOrder));
+    shapes.put("findProgrammeMembershipAndPersonActionsPage",
+        new QueryShape(new Document(trainee).append("$or", List.of(reference, reference)),
+            dueOrder));
+    Document trainees = new Document("traineeId", new Document("$in", List.of("1", "2")));
+    Document traineeOrder = new Document("traineeId", 1).append("tisReferenceInfo.id", 1)
+        .append("tisReferenceInfo.type", 1).append("type", 1);
+    shapes.put("streamTraineesActions", new QueryShape(trainees, traineeOrder));
+    shapes.put("streamTraineesProgrammeMembershipAndPersonActions",
+        new QueryShape(new Document(trainees).append("$or", List.of(
+            new Document("tisReferenceInfo.id", new Document("$in", List.of("1", "2")))
+                .append("tisReferenceInfo.type", ""),
+            new Document("tisReferenceInfo.type", ""))),
+            traineeOrder));
+    return Collections.unmodifiableMap(shapes);
+  }
+
+  /**
+   * Create a transaction manager, allowing action changes and their outbox entries to be written
+   * atomically.
+   *
+   * @param databaseFactory The factory to get database sessions from.
+   * @return The transaction manager.
+   */
+  @Bean
+  public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+    return new MongoTransactionManager(databaseFactory);
+  }
+
+  /**
+   * Check that the database supports multi-document transactions, which action changes and their
+   * outbox entries rely on. A standalone server, or a version without transactions, would only fail
+   * once the first change is written, so the application fails to start instead.
+   *
+   * @throws IllegalStateException If the database does not support transactions.
+   */
+  @PostConstruct
+  public void verifyTransactionSupport() {
+    Document server = template.executeCommand(new Document("isMaster", 1));
+    boolean replicaSet = server.get("setName") != null;
+    boolean mongos = MONGOS_MESSAGE.equals(server.get("msg"));
+    int wireVersion = server.get("maxWireVersion") instanceof Number number
+        ? number.intValue() : 0;
+
+    boolean supported = server.get("logicalSessionTimeoutMinutes") != null
+        && ((replicaSet && wireVersion >= REPLICA_SET_TRANSACTION_WIRE_VERSION)
+        || (mongos && wireVersion >= SHARDED_TRANSACTION_WIRE_VERSION));
+
+    if (!supported) {
+      throw new IllegalStateException("The database does not support transactions, a MongoDB 4.0+ "
+          + "or DocumentDB 4.0+ replica set, or a MongoDB 4.2+ sharded cluster, is required.");
+    }
+    log.info("Database transactions are supported.");
   }
 
   /**
@@ -47,9 +194,28 @@ public class MongoConfiguration {
   @PostConstruct
   public void initIndexes() {
     IndexOperations indexOps = template.indexOps(Action.class);
+    // Also covers queries by trainee ID alone, as a prefix.
     indexOps.createIndex(new Index()
-        .named("traineeIndex")
+        .named("traineeReferenceIndex")
         .on("traineeId", Direction.ASC)
+        .on("tisReferenceInfo.id", Direction.ASC)
+        .on("tisReferenceInfo.type", Direction.ASC)
+        .on("type", Direction.ASC)
+    );
+    // Incomplete actions have no completed field, which a partial filter can not match, so
+    // completed is part of the key to allow the incomplete actions to be read in due order.
+    indexOps.createIndex(new Index()
+        .named("incompleteTraineeIndex")
+        .on("traineeId", Direction.ASC)
+        .on("completed", Direction.ASC)
+        .on("dueBy", Direction.ASC)
+    );
+    // Allows pages of a trainee's actions to be read after a due date and ID cursor.
+    indexOps.createIndex(new Index()
+        .named("traineeDueIndex")
+        .on("traineeId", Direction.ASC)
+        .on("dueBy", Direction.ASC)
+        .on("_id", Direction.ASC)
     );
     indexOps.createIndex(new Index()
         .named("uniqueActionPerReference")
@@ -57,5 +223,96 @@ public class MongoConfiguration {
         .on("tisReferenceInfo", Direction.ASC)
         .unique()
     );
+
+    IndexOperations outboxIndexOps = template.indexOps(OutboxEntry.class);
+    outboxIndexOps.createIndex(new Index()
+        .named("sentExpiry")
+        .on("sent", Direction.ASC)
+        .expire(outboxRetention)
+    );
+
+    IndexOperations processedIndexOps = template.indexOps(ProcessedMessage.class);
+    processedIndexOps.createIndex(new Index()
+        .named("processedExpiry")
+        .on("processed", Direction.ASC)
+        .expire(dedupeTtl)
+    );
+  }
+
+  /**
+   * Check the query plan of each action query shape once the application is ready, so that any
+   * query which is not supported by the declared indexes is reported.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void verifyIndexes() {
+    try {
+      List<String> unindexed = findUnindexedQueries();
+
+      if (unindexed.isEmpty()) {
+        log.info("All {} action query shapes are supported by indexes.",
+            ACTION_QUERY_SHAPES.size());
+      }
+    } catch (MongoException | DataAccessException e) {
+      log.warn("Unable to verify the action query plans.", e);
+    }
+  }
+
+  /**
+   * Explain each action query shape and find those which fall back to a collection scan or an
+   * in-memory sort.
+   *
+   * @return The names of the query shapes which are not supported by indexes.
+   */
+  List<String> findUnindexedQueries() {
+    MongoCollection<Document> collection = template.getCollection(
+        template.getCollectionName(Action.class));
+    List<String> unindexed = new ArrayList<>();
+
+    ACTION_QUERY_SHAPES.forEach((name, shape) -> {
+      Document explained = collection.find(shape.filter()).sort(shape.sort()).explain();
+      Document queryPlanner = explained.get("queryPlanner", Document.class);
+      Set<String> stages = new HashSet<>();
+      collectStages(queryPlanner == null ? null : queryPlanner.get("winningPlan"), stages);
+
+      if (stages.contains(COLLECTION_SCAN_STAGE) || stages.contains(SORT_STAGE)) {
+        log.warn("Action query '{}' is not supported by an index, plan stages: {}", name, stages);
+        unindexed.add(name);
+      }
+    });
+
+    return unindexed;
+  }
+
+  /**
+   * Collect the stage names from a query plan, including all nested input stages.
+   *
+   * @param plan   The plan, or part of a plan, to collect the stages from.
+   * @param stages The collected stage names.
+   */
+  private void collectStages(Object plan, Set<String> stages) {
+    if (plan instanceof Document document) {
+      document.forEach((key, value) -> {
+        if (key.equals("stage") && value instanceof String stage) {
+          stages.add(stage);
+        } else {
+          collectStages(value, stages);
+        }
+      });
+    } else if (plan instanceof List<?> list) {
+      list.forEach(item -> collectStages(item, stages));
+    }
+  }
+
+  /**
+   * The filter and sort of an action query.
+   *
+   * @param filter The query filter.
+   * @param sort   The query sort, empty if unsorted.
+   */
+  private record QueryShape(Document filter, Document sort) {
+
+    QueryShape(Document filter) {
+      this(filter, new Document());
+    }
   }
 }
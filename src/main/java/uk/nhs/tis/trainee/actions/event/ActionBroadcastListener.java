@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.service.TraineeActionCache;
+
+/**
+ * A listener for action broadcasts, used to invalidate the cached actions of other instances.
+ * Conditional on a per-instance queue subscribed to the action topic being configured.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("!T(org.springframework.util.StringUtils)"
+    + ".isEmpty('${application.queues.action-broadcast:}')")
+public class ActionBroadcastListener {
+
+  private final TraineeActionCache cache;
+  private final Timer lagTimer;
+
+  /**
+   * Construct a listener for action broadcasts.
+   *
+   * @param cache    The cache of trainee actions to invalidate.
+   * @param registry The registry to record the invalidation lag with.
+   */
+  public ActionBroadcastListener(TraineeActionCache cache, MeterRegistry registry) {
+    this.cache = cache;
+    lagTimer = Timer.builder("actions.cache.invalidation.lag")
+        .description("The time between an action changing and cache invalidation.")
+        .register(registry);
+  }
+
+  /**
+   * Handle an action broadcast by invalidating the cached actions of the trainee. Deleted actions
+   * may not identify the trainee, so the trainee is also found from the action ID.
+   *
+   * @param broadcast The action broadcast to handle.
+   */
+  @SqsListener("${application.queues.action-broadcast}")
+  public void handleActionBroadcast(ActionBroadcastDto broadcast) {
+    log.debug("Action broadcast received: {}", broadcast);
+
+    cache.invalidateAction(broadcast.id(), broadcast.traineeId());
+
+    if (broadcast.statusDatetime() != null) {
+      lagTimer.record(Duration.between(broadcast.statusDatetime(), Instant.now()));
+    }
+  }
+}
@@ -23,7 +23,9 @@
 package uk.nhs.tis.trainee.actions.event;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.actions.dto.FormUpdateEvent;
 import uk.nhs.tis.trainee.actions.service.ActionService;
@@ -36,22 +38,40 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 public class FormListener {
 
   private final ActionService actionService;
+  private final TraineeEventDispatcher dispatcher;
+  private final MessageDeduplicator deduplicator;
 
-  public FormListener(ActionService actionService) {
+  /**
+   * Construct a listener for form update events.
+   *
+   * @param actionService The action service.
+   * @param dispatcher    The dispatcher to process the events for each trainee in order.
+   * @param deduplicator  The deduplicator to skip duplicate events.
+   */
+  public FormListener(ActionService actionService, TraineeEventDispatcher dispatcher,
+      MessageDeduplicator deduplicator) {
     this.actionService = actionService;
+    this.dispatcher = dispatcher;
+    this.deduplicator = deduplicator;
   }
 
   /**
-   * Listen for Form Updated Events on the SQS queue.
+   * Listen for Form Updated Events on the SQS queue, in order with other events for the same
+   * trainee. Redeliveries of recently processed messages are skipped.
    *
-   * @param event  The form update event containing the trainee ID and other details.
+   * @param message The message with the form update event containing the trainee ID and other
+   *                details.
+   * @return A future completed once the event has been handled.
    */
-  @SqsListener(value = "${application.queues.form-updated}")
-  void handleFormUpdate(FormUpdateEvent event) {
+  @SqsListener(value = "${application.queues.form-updated}",
+      maxConcurrentMessages = "${application.in-flight.form-updated}")
+  CompletableFuture<Void> handleFormUpdate(Message<FormUpdateEvent> message) {
+    FormUpdateEvent event = message == null ? null : message.getPayload();
     log.debug("Handling form update event {}.", event);
 
     if (event != null) {
-      actionService.updateAction(event);
+      return deduplicator.deduplicate(message,
+          () -> dispatcher.dispatch(event.traineeId(), () -> actionService.updateAction(event)));
     } else {
       throw new IllegalArgumentException("Skipping event handling due to incomplete event data.");
     }
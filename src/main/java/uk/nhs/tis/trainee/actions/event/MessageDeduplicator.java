@@ -0,0 +1,200 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.actions.model.ProcessedMessage;
+
+/**
+ * A deduplicator for inbound messages, which skips redeliveries of a message processed within the
+ * time-to-live. Messages are identified by their message ID, the SQS message ID, rather than their
+ * content so that legitimate repeats of earlier content (e.g. a status changing back) are still
+ * processed. Processed messages are remembered in a bounded in-memory cache, and optionally in a
+ * shared collection so redeliveries are also skipped across instances.
+ */
+@Slf4j
+@Component
+public class MessageDeduplicator {
+
+  private final MongoTemplate template;
+  private final Duration ttl;
+  private final boolean shared;
+  private final Map<String, Instant> processed;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  /**
+   * Create a message deduplicator.
+   *
+   * @param template The template to access the shared processed messages with.
+   * @param registry The registry to record deduplication metrics in.
+   * @param capacity The maximum number of processed messages to remember in memory.
+   * @param ttl      How long processed messages are remembered for.
+   * @param shared   Whether to share processed messages with other instances.
+   */
+  public MessageDeduplicator(MongoTemplate template, MeterRegistry registry,
+      @Value("${application.dedupe.capacity}") int capacity,
+      @Value("${application.dedupe.ttl}") Duration ttl,
+      @Value("${application.dedupe.shared}") boolean shared) {
+    this.template = template;
+    this.ttl = ttl;
+    this.shared = shared;
+    this.processed = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+        return size() > capacity;
+      }
+    };
+
+    hitCounter = Counter.builder("actions.dedupe")
+        .description("The number of inbound messages checked for duplicates.")
+        .tag("result", "hit")
+        .register(registry);
+    missCounter = Counter.builder("actions.dedupe")
+        .description("The number of inbound messages checked for duplicates.")
+        .tag("result", "miss")
+        .register(registry);
+    Gauge.builder("actions.dedupe.hit.rate", this, MessageDeduplicator::getHitRate)
+        .description("The proportion of inbound messages skipped as duplicates.")
+        .register(registry);
+  }
+
+  /**
+   * Handle the message, unless a message with the same ID has already been processed. The message
+   * is only remembered once it has been handled successfully, so failed messages are handled again
+   * when redelivered.
+   *
+   * @param message The message.
+   * @param handler The handler to process the message with.
+   * @return A future completed once the message has been handled or skipped.
+   */
+  public CompletableFuture<Void> deduplicate(Message<?> message,
+      Supplier<CompletableFuture<Void>> handler) {
+    UUID id = message.getHeaders().getId();
+    String key = id == null ? null : id.toString();
+
+    if (key != null && isProcessed(key)) {
+      hitCounter.increment();
+      log.info("Skipping duplicate {} message {}.",
+          message.getPayload().getClass().getSimpleName(), key);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    missCounter.increment();
+    return handler.get().thenRun(() -> {
+      if (key != null) {
+        markProcessed(key);
+      }
+    });
+  }
+
+  /**
+   * Check whether a message with the given key has been processed within the time-to-live.
+   *
+   * @param key The deduplication key of the message.
+   * @return Whether the message has been processed.
+   */
+  private boolean isProcessed(String key) {
+    Instant now = Instant.now();
+
+    synchronized (processed) {
+      Instant processedAt = processed.get(key);
+
+      if (processedAt != null) {
+        if (processedAt.plus(ttl).isAfter(now)) {
+          return true;
+        }
+        processed.remove(key);
+      }
+    }
+
+    if (shared) {
+      try {
+        ProcessedMessage message = template.findOne(
+            query(where("_id").is(key).and("processed").gt(now.minus(ttl))),
+            ProcessedMessage.class);
+
+        if (message != null) {
+          synchronized (processed) {
+            processed.put(key, message.processed());
+          }
+          return true;
+        }
+      } catch (DataAccessException e) {
+        log.warn("Unable to check shared processed messages, message will be processed.", e);
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Remember that the message with the given key has been processed.
+   *
+   * @param key The deduplication key of the message.
+   */
+  private void markProcessed(String key) {
+    Instant now = Instant.now();
+
+    synchronized (processed) {
+      processed.put(key, now);
+    }
+
+    if (shared) {
+      try {
+        template.save(new ProcessedMessage(key, now));
+      } catch (DataAccessException e) {
+        log.warn("Unable to record shared processed message {}.", key, e);
+      }
+    }
+  }
+
+  /**
+   * Get the proportion of checked messages which were duplicates.
+   *
+   * @return The hit rate, between zero and one.
+   */
+  double getHitRate() {
+    double hits = hitCounter.count();
+    double total = hits + missCounter.count();
+    return total == 0 ? 0 : hits / total;
+  }
+}
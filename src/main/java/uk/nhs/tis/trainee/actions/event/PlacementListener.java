@@ -21,10 +21,17 @@
 
 package uk.nhs.tis.trainee.actions.event;
 
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
+
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
-import uk.nhs.tis.trainee.actions.dto.PlacementDto;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
 /**
@@ -35,9 +42,121 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 public class PlacementListener {
 
   private final ActionService actionService;
+  private final TraineeEventDispatcher dispatcher;
+  private final SyncEventCoalescer coalescer;
 
-  public PlacementListener(ActionService actionService) {
+  /**
+   * Construct a listener for placement events.
+   *
+   * @param actionService The action service.
+   * @param dispatcher    The dispatcher to process the events for each trainee in order.
+   * @param coalescer     The coalescer to skip events superseded by later events.
+   */
+  public PlacementListener(ActionService actionService, TraineeEventDispatcher dispatcher,
+      SyncEventCoalescer coalescer) {
     this.actionService = actionService;
+    this.dispatcher = dispatcher;
+    this.coalescer = coalescer;
+  }
+
+  /**
+   * Handle a batch of placement sync events. The whole batch is processed together where possible,
+   * if the batch fails then each event is retried individually so that only the failing events are
+   * left unacknowledged and returned to the queue. The batch is only acknowledged once the
+   * resulting action changes have been broadcast, and is processed in order with other events for
+   * the same trainees. Events superseded by a later event for the same placement within the
+   * coalescing window are acknowledged without being processed.
+   *
+   * @param messages        The batch of event messages to handle.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  @SqsListener(value = "${application.queues.placement-synced}",
+      maxMessagesPerPoll = "${application.sync.batch-size}",
+      maxConcurrentMessages = "${application.in-flight.placement-synced}",
+      acknowledgementMode = "MANUAL")
+  public CompletableFuture<Void> handlePlacementSync(List<Message<PlacementEvent>> messages,
+      BatchAcknowledgement<PlacementEvent> acknowledgement) {
+    log.debug("Placement sync batch of {} event(s) received.", messages.size());
+    return coalescer.coalesce(messages, this::getReference)
+        .thenCompose(coalesced -> CompletableFuture.allOf(
+            acknowledgeSuperseded(coalesced.superseded(), acknowledgement),
+            dispatchBatch(coalesced.latest(), acknowledgement)));
+  }
+
+  /**
+   * Acknowledge the messages superseded by later events for the same placement, the later events
+   * remain on the queue until they have been handled.
+   *
+   * @param messages        The superseded messages.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the messages have been acknowledged.
+   */
+  private CompletableFuture<Void> acknowledgeSuperseded(List<Message<PlacementEvent>> messages,
+      BatchAcknowledgement<PlacementEvent> acknowledgement) {
+    if (messages.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    log.debug("Acknowledging {} superseded placement sync event(s).", messages.size());
+    return acknowledgement.acknowledgeAsync(messages);
+  }
+
+  /**
+   * Dispatch a batch of placement sync events, to be handled in order with other events for the
+   * same trainees.
+   *
+   * @param messages        The batch of event messages to dispatch.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  private CompletableFuture<Void> dispatchBatch(List<Message<PlacementEvent>> messages,
+      BatchAcknowledgement<PlacementEvent> acknowledgement) {
+    if (messages.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    List<String> traineeIds = messages.stream()
+        .map(Message::getPayload)
+        .filter(this::isComplete)
+        .map(event -> event.getPlacement().traineeId())
+        .toList();
+    return dispatcher.dispatchAsync(traineeIds, () -> handleBatch(messages, acknowledgement));
+  }
+
+  /**
+   * Handle a batch of placement sync events, falling back to handling each event individually.
+   *
+   * @param messages        The batch of event messages to handle.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  private CompletableFuture<Void> handleBatch(List<Message<PlacementEvent>> messages,
+      BatchAcknowledgement<PlacementEvent> acknowledgement) {
+    List<PlacementEvent> events = messages.stream().map(Message::getPayload).toList();
+
+    if (events.stream().allMatch(this::isComplete)) {
+      try {
+        return actionService.updatePlacementActions(events)
+            .thenCompose(actions -> acknowledgement.acknowledgeAsync(messages));
+      } catch (RuntimeException e) {
+        log.warn("Placement sync batch failed, processing events individually.", e);
+      }
+    }
+
+    List<Message<PlacementEvent>> handled = new ArrayList<>();
+
+    for (Message<PlacementEvent> message : messages) {
+      try {
+        handlePlacementSync(message.getPayload());
+        handled.add(message);
+      } catch (RuntimeException e) {
+        log.error("Placement sync event {} failed and will be retried.",
+            message.getHeaders().getId(), e);
+      }
+    }
+
+    return acknowledgement.acknowledgeAsync(handled);
   }
 
   /**
@@ -45,16 +164,35 @@ public class PlacementListener {
    *
    * @param event The event to handle.
    */
-  @SqsListener("${application.queues.placement-synced}")
   public void handlePlacementSync(PlacementEvent event) {
     log.debug("Placement sync event received: {}", event);
-    Operation operation = event.getOperation();
-    PlacementDto dto = event.getPlacement();
 
-    if (operation != null && dto != null) {
-      actionService.updateActions(operation, event.getPlacement());
+    if (isComplete(event)) {
+      actionService.updateActions(event.getOperation(), event.getPlacement());
     } else {
       throw new IllegalArgumentException("Skipping event handling due to incomplete event data.");
     }
   }
+
+  /**
+   * Get the TIS record of the placement event, used to coalesce events for the same record.
+   *
+   * @param event The event to get the TIS record of.
+   * @return The TIS record, or null if the event is incomplete.
+   */
+  private TisReferenceInfo getReference(PlacementEvent event) {
+    return isComplete(event)
+        ? new TisReferenceInfo(event.getPlacement().id(), PLACEMENT)
+        : null;
+  }
+
+  /**
+   * Check whether the placement event has the data required to handle it.
+   *
+   * @param event The event to check.
+   * @return Whether the event has both an operation and placement data.
+   */
+  private boolean isComplete(PlacementEvent event) {
+    return event.getOperation() != null && event.getPlacement() != null;
+  }
 }
@@ -22,6 +22,8 @@
 package uk.nhs.tis.trainee.actions.event;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.actions.service.ActionService;
@@ -34,26 +36,32 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 public class ProfileMoveListener {
 
   private final ActionService actionService;
+  private final TraineeEventDispatcher dispatcher;
 
   /**
    * Construct a listener for profile move events.
    *
    * @param actionService The action service.
+   * @param dispatcher    The dispatcher to process the events for each trainee in order.
    */
-  public ProfileMoveListener(ActionService actionService) {
+  public ProfileMoveListener(ActionService actionService, TraineeEventDispatcher dispatcher) {
     this.actionService = actionService;
+    this.dispatcher = dispatcher;
   }
 
   /**
-   * Handle profile move events.
+   * Handle profile move events, in order with other events for both of the trainees.
    *
    * @param event The profile move event.
+   * @return A future completed once the event has been handled.
    */
-  @SqsListener("${application.queues.profile-move}")
-  public void handleProfileMove(ProfileMoveEvent event) {
+  @SqsListener(value = "${application.queues.profile-move}",
+      maxConcurrentMessages = "${application.in-flight.profile-move}")
+  public CompletableFuture<Void> handleProfileMove(ProfileMoveEvent event) {
     log.info("Handling profile move actions from trainee {} to trainee {}",
         event.fromTraineeId(), event.toTraineeId());
 
-    actionService.moveActions(event.fromTraineeId(), event.toTraineeId());
+    return dispatcher.dispatch(Arrays.asList(event.fromTraineeId(), event.toTraineeId()),
+        () -> actionService.moveActions(event.fromTraineeId(), event.toTraineeId()));
   }
 }
@@ -21,11 +21,18 @@
 
 package uk.nhs.tis.trainee.actions.event;
 
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
+
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.actions.dto.CojReceivedEvent;
-import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
 /**
@@ -36,9 +43,128 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 public class ProgrammeMembershipListener {
 
   private final ActionService actionService;
+  private final TraineeEventDispatcher dispatcher;
+  private final SyncEventCoalescer coalescer;
+  private final MessageDeduplicator deduplicator;
 
-  public ProgrammeMembershipListener(ActionService actionService) {
+  /**
+   * Construct a listener for programme membership events.
+   *
+   * @param actionService The action service.
+   * @param dispatcher    The dispatcher to process the events for each trainee in order.
+   * @param coalescer     The coalescer to skip events superseded by later events.
+   * @param deduplicator  The deduplicator to skip duplicate events.
+   */
+  public ProgrammeMembershipListener(ActionService actionService,
+      TraineeEventDispatcher dispatcher, SyncEventCoalescer coalescer,
+      MessageDeduplicator deduplicator) {
     this.actionService = actionService;
+    this.dispatcher = dispatcher;
+    this.coalescer = coalescer;
+    this.deduplicator = deduplicator;
+  }
+
+  /**
+   * Handle a batch of programme membership sync events. The whole batch is processed together where
+   * possible, if the batch fails then each event is retried individually so that only the failing
+   * events are left unacknowledged and returned to the queue. The batch is only acknowledged once
+   * the resulting action changes have been broadcast, and is processed in order with other events
+   * for the same trainees. Events superseded by a later event for the same programme membership
+   * within the coalescing window are acknowledged without being processed.
+   *
+   * @param messages        The batch of event messages to handle.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  @SqsListener(value = "${application.queues.programme-membership-synced}",
+      maxMessagesPerPoll = "${application.sync.batch-size}",
+      maxConcurrentMessages = "${application.in-flight.programme-membership-synced}",
+      acknowledgementMode = "MANUAL")
+  public CompletableFuture<Void> handleProgrammeMembershipSync(
+      List<Message<ProgrammeMembershipEvent>> messages,
+      BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement) {
+    log.debug("Programme membership sync batch of {} event(s) received.", messages.size());
+    return coalescer.coalesce(messages, this::getReference)
+        .thenCompose(coalesced -> CompletableFuture.allOf(
+            acknowledgeSuperseded(coalesced.superseded(), acknowledgement),
+            dispatchBatch(coalesced.latest(), acknowledgement)));
+  }
+
+  /**
+   * Acknowledge the messages superseded by later events for the same programme membership, the
+   * later events remain on the queue until they have been handled.
+   *
+   * @param messages        The superseded messages.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the messages have been acknowledged.
+   */
+  private CompletableFuture<Void> acknowledgeSuperseded(
+      List<Message<ProgrammeMembershipEvent>> messages,
+      BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement) {
+    if (messages.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    log.debug("Acknowledging {} superseded programme membership sync event(s).", messages.size());
+    return acknowledgement.acknowledgeAsync(messages);
+  }
+
+  /**
+   * Dispatch a batch of programme membership sync events, to be handled in order with other events
+   * for the same trainees.
+   *
+   * @param messages        The batch of event messages to dispatch.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  private CompletableFuture<Void> dispatchBatch(List<Message<ProgrammeMembershipEvent>> messages,
+      BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement) {
+    if (messages.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    List<String> traineeIds = messages.stream()
+        .map(Message::getPayload)
+        .filter(this::isComplete)
+        .map(event -> event.getProgrammeMembership().traineeId())
+        .toList();
+    return dispatcher.dispatchAsync(traineeIds, () -> handleBatch(messages, acknowledgement));
+  }
+
+  /**
+   * Handle a batch of programme membership sync events, falling back to handling each event
+   * individually.
+   *
+   * @param messages        The batch of event messages to handle.
+   * @param acknowledgement The acknowledgement for the batch of messages.
+   * @return A future completed once the handled messages have been acknowledged.
+   */
+  private CompletableFuture<Void> handleBatch(List<Message<ProgrammeMembershipEvent>> messages,
+      BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement) {
+    List<ProgrammeMembershipEvent> events = messages.stream().map(Message::getPayload).toList();
+
+    if (events.stream().allMatch(this::isComplete)) {
+      try {
+        return actionService.updateProgrammeMembershipActions(events)
+            .thenCompose(actions -> acknowledgement.acknowledgeAsync(messages));
+      } catch (RuntimeException e) {
+        log.warn("Programme membership sync batch failed, processing events individually.", e);
+      }
+    }
+
+    List<Message<ProgrammeMembershipEvent>> handled = new ArrayList<>();
+
+    for (Message<ProgrammeMembershipEvent> message : messages) {
+      try {
+        handleProgrammeMembershipSync(message.getPayload());
+        handled.add(message);
+      } catch (RuntimeException e) {
+        log.error("Programme membership sync event {} failed and will be retried.",
+            message.getHeaders().getId(), e);
+      }
+    }
+
+    return acknowledgement.acknowledgeAsync(handled);
   }
 
   /**
@@ -46,33 +172,57 @@ public class ProgrammeMembershipListener {
    *
    * @param event The event to handle.
    */
-  @SqsListener("${application.queues.programme-membership-synced}")
   public void handleProgrammeMembershipSync(ProgrammeMembershipEvent event) {
     log.debug("Programme membership sync event received: {}", event);
-    Operation operation = event.getOperation();
-    ProgrammeMembershipDto dto = event.getProgrammeMembership();
 
-    if (operation != null && dto != null) {
-      actionService.updateActions(operation, event.getProgrammeMembership());
+    if (isComplete(event)) {
+      actionService.updateActions(event.getOperation(), event.getProgrammeMembership());
     } else {
       throw new IllegalArgumentException("Skipping event handling due to incomplete event data.");
     }
   }
 
   /**
-   * Handle a COJ-received event.
+   * Handle a COJ-received event, in order with other events for the same trainee. Redeliveries of
+   * recently processed messages are skipped.
    *
-   * @param event The event to handle.
+   * @param message The message with the event to handle.
+   * @return A future completed once the event has been handled.
    */
-  @SqsListener("${application.queues.coj-received}")
-  public void handleCojReceived(CojReceivedEvent event) {
+  @SqsListener(value = "${application.queues.coj-received}",
+      maxConcurrentMessages = "${application.in-flight.coj-received}")
+  public CompletableFuture<Void> handleCojReceived(Message<CojReceivedEvent> message) {
+    CojReceivedEvent event = message == null ? null : message.getPayload();
     log.debug("CoJ received: {}", event);
 
     if (event != null && event.conditionsOfJoining() != null) {
-      actionService.updateAction(event);
+      return deduplicator.deduplicate(message,
+          () -> dispatcher.dispatch(event.traineeId(), () -> actionService.updateAction(event)));
     } else {
       throw new IllegalArgumentException("Skipping event handling due to incomplete event data.");
     }
   }
 
+  /**
+   * Get the TIS record of the programme membership event, used to coalesce events for the same
+   * record.
+   *
+   * @param event The event to get the TIS record of.
+   * @return The TIS record, or null if the event is incomplete.
+   */
+  private TisReferenceInfo getReference(ProgrammeMembershipEvent event) {
+    return isComplete(event)
+        ? new TisReferenceInfo(event.getProgrammeMembership().id(), PROGRAMME_MEMBERSHIP)
+        : null;
+  }
+
+  /**
+   * Check whether the programme membership event has the data required to handle it.
+   *
+   * @param event The event to check.
+   * @return Whether the event has both an operation and programme membership data.
+   */
+  private boolean isComplete(ProgrammeMembershipEvent event) {
+    return event.getOperation() != null && event.getProgrammeMembership() != null;
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
+
+/**
+ * A coalescer for sync events, which holds each event for a short window and keeps only the latest
+ * event received for each TIS record. Events superseded within the window do not need processing,
+ * as the later event for the same record reflects the final state. Held events keep their in-flight
+ * permits, so coalescing is disabled by default and the in-flight limits must allow several batches
+ * per window when it is enabled.
+ */
+@Slf4j
+@Component
+public class SyncEventCoalescer {
+
+  private final Duration window;
+  private final Executor delayedExecutor;
+  private final Counter coalescedCounter;
+  private final Map<TisReferenceInfo, Message<?>> latest = new HashMap<>();
+
+  /**
+   * Create a sync event coalescer.
+   *
+   * @param registry The registry to record coalescing metrics in.
+   * @param window   How long to hold events for, zero to disable coalescing.
+   */
+  public SyncEventCoalescer(MeterRegistry registry,
+      @Value("${application.sync.coalescing-window}") Duration window) {
+    this.window = window;
+    this.delayedExecutor = CompletableFuture.delayedExecutor(window.toMillis(),
+        TimeUnit.MILLISECONDS);
+    this.coalescedCounter = Counter.builder("actions.sync.coalesced")
+        .description("The number of sync events superseded by a later event for the same record.")
+        .register(registry);
+  }
+
+  /**
+   * Coalesce a batch of sync event messages, once the window has passed the messages are split in
+   * to those which are still the latest for their record and those which have been superseded.
+   *
+   * @param messages  The batch of messages to coalesce.
+   * @param reference A function to get the TIS record of an event, null if it can not be found.
+   * @param <E>       The type of the sync event.
+   * @return A future of the coalesced messages, completed once the window has passed.
+   */
+  public <E> CompletableFuture<Coalesced<E>> coalesce(List<Message<E>> messages,
+      Function<E, TisReferenceInfo> reference) {
+    if (window.isZero() || window.isNegative()) {
+      return CompletableFuture.completedFuture(new Coalesced<>(messages, List.of()));
+    }
+
+    List<TisReferenceInfo> references = messages.stream()
+        .map(message -> reference.apply(message.getPayload()))
+        .toList();
+
+    synchronized (latest) {
+      for (int i = 0; i < messages.size(); i++) {
+        TisReferenceInfo key = references.get(i);
+
+        if (key != null) {
+          latest.put(key, messages.get(i));
+        }
+      }
+    }
+
+    return CompletableFuture.supplyAsync(() -> collect(messages, references), delayedExecutor);
+  }
+
+  /**
+   * Split the messages in to those still the latest for their record and those superseded. The
+   * latest messages are released, so later events for the same records are not compared to them.
+   *
+   * @param messages   The messages to split.
+   * @param references The TIS record of each message.
+   * @param <E>        The type of the sync event.
+   * @return The coalesced messages.
+   */
+  private <E> Coalesced<E> collect(List<Message<E>> messages, List<TisReferenceInfo> references) {
+    List<Message<E>> remaining = new ArrayList<>();
+    List<Message<E>> superseded = new ArrayList<>();
+
+    synchronized (latest) {
+      for (int i = 0; i < messages.size(); i++) {
+        Message<E> message = messages.get(i);
+        TisReferenceInfo key = references.get(i);
+
+        if (key == null) {
+          remaining.add(message);
+        } else if (latest.get(key) == message) {
+          latest.remove(key);
+          remaining.add(message);
+        } else {
+          superseded.add(message);
+        }
+      }
+    }
+
+    if (!superseded.isEmpty()) {
+      log.debug("{} sync event(s) superseded by later events for the same record.",
+          superseded.size());
+      coalescedCounter.increment(superseded.size());
+    }
+
+    return new Coalesced<>(remaining, superseded);
+  }
+
+  /**
+   * A batch of coalesced messages.
+   *
+   * @param latest     The messages which are the latest for their record, in the order received.
+   * @param superseded The messages superseded by a later message for the same record.
+   * @param <E>        The type of the sync event.
+   */
+  public record Coalesced<E>(List<Message<E>> latest, List<Message<E>> superseded) {
+
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A dispatcher for processing events in parallel, while keeping the events for each trainee in
+ * order. An event is not processed until all earlier events for any of its trainees have finished,
+ * events for different trainees are processed concurrently by a fixed number of workers, or by a
+ * virtual thread per event when enabled.
+ */
+@Slf4j
+@Component
+public class TraineeEventDispatcher {
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+  private static final String THREAD_NAME_PREFIX = "trainee-event-";
+
+  /**
+   * The total in-flight message limit of the listeners dispatching events, as each in-flight event
+   * may block a worker on database and broadcast I/O.
+   */
+  private static final String TOTAL_IN_FLIGHT = "#{${application.in-flight.account-confirmed}"
+      + " + ${application.in-flight.coj-received} + ${application.in-flight.form-updated}"
+      + " + ${application.in-flight.placement-synced}"
+      + " + ${application.in-flight.programme-membership-synced}"
+      + " + ${application.in-flight.profile-move}}";
+
+  private final ExecutorService executor;
+  private final Map<String, CompletableFuture<?>> tails = new HashMap<>();
+
+  /**
+   * Create a trainee event dispatcher.
+   *
+   * @param registry       The registry to record dispatcher metrics in.
+   * @param workers        The number of worker threads processing events, or zero to use one per
+   *                       in-flight message. Ignored when using virtual threads.
+   * @param inFlight       The total in-flight message limit of the listeners, so that every
+   *                       in-flight event can be processed while others block on I/O.
+   * @param virtualThreads Whether to process each event on a new virtual thread.
+   */
+  public TraineeEventDispatcher(MeterRegistry registry,
+      @Value("${application.dispatch.workers}") int workers,
+      @Value(TOTAL_IN_FLIGHT) int inFlight,
+      @Value("${application.dispatch.virtual-threads}") boolean virtualThreads) {
+    if (virtualThreads) {
+      this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    } else {
+      int threads = workers > 0 ? workers : Math.max(inFlight, 1);
+      this.executor = Executors.newFixedThreadPool(threads,
+          new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+    }
+
+    Gauge.builder("actions.dispatch.trainees", this, TraineeEventDispatcher::getPending)
+        .description("The number of trainees with events being processed or waiting.")
+        .register(registry);
+  }
+
+  /**
+   * Process an event for a trainee once all earlier events for the trainee have finished.
+   *
+   * @param traineeId The ID of the trainee the event is for, null if unknown.
+   * @param task      The event processing to perform.
+   * @return A future completed once the event has been processed.
+   */
+  public CompletableFuture<Void> dispatch(String traineeId, Runnable task) {
+    return dispatch(Collections.singleton(traineeId), task);
+  }
+
+  /**
+   * Process an event for one or more trainees once all earlier events for those trainees have
+   * finished.
+   *
+   * @param traineeIds The IDs of the trainees the event is for, null IDs are ignored.
+   * @param task       The event processing to perform.
+   * @return A future completed once the event has been processed.
+   */
+  public CompletableFuture<Void> dispatch(Collection<String> traineeIds, Runnable task) {
+    return dispatchAsync(traineeIds, () -> {
+      task.run();
+      return CompletableFuture.completedFuture(null);
+    });
+  }
+
+  /**
+   * Process an event for one or more trainees once all earlier events for those trainees have
+   * finished. Later events for the trainees wait until the future returned by the task completes.
+   *
+   * @param traineeIds The IDs of the trainees the event is for, null IDs are ignored.
+   * @param task       The event processing to perform.
+   * @param <T>        The type of the processing result.
+   * @return A future completed with the result of the event processing.
+   */
+  public <T> CompletableFuture<T> dispatchAsync(Collection<String> traineeIds,
+      Supplier<CompletableFuture<T>> task) {
+    Set<String> keys = traineeIds.stream()
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    CompletableFuture<T> result;
+
+    synchronized (tails) {
+      CompletableFuture<?>[] previous = keys.stream()
+          .map(tails::get)
+          .filter(Objects::nonNull)
+          .toArray(CompletableFuture[]::new);
+
+      // Earlier failures must not block the trainee, so only wait for completion.
+      result = CompletableFuture.allOf(previous)
+          .handle((ignored, e) -> null)
+          .thenComposeAsync(ignored -> task.get(), executor);
+      keys.forEach(key -> tails.put(key, result));
+    }
+
+    // Release before completing the caller, so completed events are never counted as pending.
+    return result.whenComplete((ignored, e) -> release(keys, result));
+  }
+
+  /**
+   * Remove the completed event from the trainees, unless later events have been dispatched.
+   *
+   * @param keys   The trainee IDs the event was dispatched for.
+   * @param future The future of the completed event.
+   */
+  private void release(Set<String> keys, CompletableFuture<?> future) {
+    synchronized (tails) {
+      keys.forEach(key -> tails.remove(key, future));
+    }
+  }
+
+  /**
+   * Get the number of trainees which have events being processed or waiting.
+   *
+   * @return The number of pending trainees.
+   */
+  int getPending() {
+    synchronized (tails) {
+      return tails.size();
+    }
+  }
+
+  /**
+   * Stop accepting events and wait for pending events to be processed.
+   *
+   * @throws InterruptedException If interrupted while waiting for pending events.
+   */
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    executor.shutdown();
+
+    if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      log.warn("Events for {} trainee(s) still pending at shutdown.", getPending());
+      executor.shutdownNow();
+    }
+  }
+}
@@ -24,6 +24,7 @@ package uk.nhs.tis.trainee.actions.event;
 import static uk.nhs.tis.trainee.actions.event.Operation.LOAD;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.actions.dto.AccountConfirmedEvent;
@@ -37,25 +38,30 @@ import uk.nhs.tis.trainee.actions.service.ActionService;
 public class UserAccountListener {
 
   private final ActionService actionService;
+  private final TraineeEventDispatcher dispatcher;
 
   /**
    * Construct a listener for user account events.
    *
    * @param actionService The action service.
+   * @param dispatcher    The dispatcher to process the events for each trainee in order.
    */
-  public UserAccountListener(ActionService actionService) {
+  public UserAccountListener(ActionService actionService, TraineeEventDispatcher dispatcher) {
     this.actionService = actionService;
+    this.dispatcher = dispatcher;
   }
 
   /**
-   * Handle account confirmation events.
+   * Handle account confirmation events, in order with other events for the same trainee.
    *
    * @param event The account confirmation event.
+   * @return A future completed once the event has been handled.
    */
-  @SqsListener("${application.queues.account-confirmed}")
-  public void handleAccountConfirmation(AccountConfirmedEvent event) {
+  @SqsListener(value = "${application.queues.account-confirmed}",
+      maxConcurrentMessages = "${application.in-flight.account-confirmed}")
+  public CompletableFuture<Void> handleAccountConfirmation(AccountConfirmedEvent event) {
     log.info("Handling account confirmation event for user {}.", event.traineeId());
-    actionService.updateActions(LOAD, event);
+    return dispatcher.dispatch(event.traineeId(), () -> actionService.updateActions(LOAD, event));
   }
 
 }
@@ -35,6 +35,7 @@ import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
 import uk.nhs.tis.trainee.actions.model.Action;
 import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
 import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.Change;
 
 /**
  * A mapper to convert to and between Action data types.
@@ -60,13 +61,12 @@ public interface ActionMapper {
   List<ActionDto> toDtos(List<Action> entities);
 
   /**
-   * Complete the given action, with the timestamp set to the current time.
+   * Convert an Action broadcast to an Action DTO.
    *
-   * @param action The action to complete.
-   * @return The completed action.
+   * @param broadcast The broadcast to convert.
+   * @return The built DTO.
    */
-  @Mapping(target = "completed", expression = "java(java.time.Instant.now())")
-  Action complete(Action action);
+  ActionDto toDto(ActionBroadcastDto broadcast);
 
   /**
    * Complete the given action, with the given timestamp.
@@ -77,15 +77,6 @@ public interface ActionMapper {
   @Mapping(target = "completed", source = "completedAt")
   Action complete(Action action, Instant completedAt);
 
-  /**
-   * Uncomplete the given action.
-   *
-   * @param action The action to uncomplete.
-   * @return The uncompleted action.
-   */
-  @Mapping(target = "completed", ignore = true)
-  Action uncomplete(Action action);
-
   /**
    * Create an action using Programme Membership data.
    *
@@ -164,6 +155,19 @@ public interface ActionMapper {
   @Mapping(target = "statusDatetime", expression = "java(java.time.Instant.now())")
   ActionBroadcastDto toDeletedActionBroadcastDto(Action action);
 
+  /**
+   * Create the appropriate ActionBroadcastDto for an action change, DELETED for deletions and
+   * CURRENT otherwise.
+   *
+   * @param change The change to map from.
+   * @return The ActionBroadcastDto.
+   */
+  default ActionBroadcastDto toActionBroadcastDto(Change change) {
+    return change.type().isDelete()
+        ? toDeletedActionBroadcastDto(change.action())
+        : toCurrentActionBroadcastDto(change.action());
+  }
+
   /**
    * Map a Programme Membership to a TIS reference info object.
    *
@@ -26,9 +26,11 @@ import io.mongock.api.annotations.Execution;
 import io.mongock.api.annotations.RollbackExecution;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
 import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.service.ActionSweepService;
 import uk.nhs.tis.trainee.actions.service.EventPublishingService;
+import uk.nhs.tis.trainee.actions.service.EventPublishingService.PublishFailure;
 
 /**
  * Broadcast existing actions to SNS topic.
@@ -37,22 +39,42 @@ import uk.nhs.tis.trainee.actions.service.EventPublishingService;
 @ChangeUnit(id = "broadcastExistingActions", order = "1")
 public class BroadcastExistingActions {
 
-  private final MongoTemplate mongoTemplate;
+  static final String SWEEP_NAME = "broadcastExistingActions";
+
+  private final ActionSweepService sweepService;
   private final EventPublishingService eventPublishingService;
 
-  public BroadcastExistingActions(MongoTemplate mongoTemplate,
+  public BroadcastExistingActions(ActionSweepService sweepService,
                                   EventPublishingService eventPublishingService) {
-    this.mongoTemplate = mongoTemplate;
+    this.sweepService = sweepService;
     this.eventPublishingService = eventPublishingService;
   }
 
   /**
-   * Broadcast existing Actions.
+   * Broadcast existing Actions, streamed in batches. An interrupted or failed broadcast resumes
+   * after the last fully broadcast batch when the migration is next run.
    */
   @Execution
   public void migrate() {
-    List<Action> allActions = mongoTemplate.findAll(Action.class, "Action");
-    allActions.stream().forEach(eventPublishingService::publishActionUpdateEvent);
+    long count = sweepService.sweep(SWEEP_NAME, new Criteria(), this::broadcast);
+    log.info("Broadcast {} existing action(s).", count);
+  }
+
+  /**
+   * Broadcast a batch of actions. The batch fails if any action could not be published, so the
+   * sweep is not checkpointed past it and the batch is broadcast again on the next run.
+   *
+   * @param batch The batch of actions to broadcast.
+   */
+  private void broadcast(List<Action> batch) {
+    List<PublishFailure> failures = eventPublishingService.publishActionUpdateEvents(batch);
+
+    if (!failures.isEmpty()) {
+      PublishFailure failure = failures.get(0);
+      throw new IllegalStateException(String.format(
+          "%d of %d action(s) could not be broadcast, first failure %s: %s", failures.size(),
+          batch.size(), failure.code(), failure.message()));
+    }
   }
 
   /**
@@ -21,20 +21,11 @@
 
 package uk.nhs.tis.trainee.actions.migration;
 
-import static uk.nhs.tis.trainee.actions.service.ActionService.ACTIONS_EPOCH;
-
-import com.mongodb.client.result.DeleteResult;
 import io.mongock.api.annotations.ChangeUnit;
 import io.mongock.api.annotations.Execution;
 import io.mongock.api.annotations.RollbackExecution;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import uk.nhs.tis.trainee.actions.model.Action;
-import uk.nhs.tis.trainee.actions.service.EventPublishingService;
+import uk.nhs.tis.trainee.actions.service.ActionPurgeService;
 
 /**
  * Delete old outstanding actions.
@@ -43,19 +34,17 @@ import uk.nhs.tis.trainee.actions.service.EventPublishingService;
 @ChangeUnit(id = "deleteOldOutstandingActions", order = "2")
 public class DeleteOldOutstandingActions {
 
-  private final MongoTemplate mongoTemplate;
-  private final EventPublishingService eventPublishingService;
+  static final String PURGE_NAME = "deleteOldOutstandingActions";
+
+  private final ActionPurgeService purgeService;
 
   /**
    * Initialise the migration.
    *
-   * @param mongoTemplate          The mongo template to use.
-   * @param eventPublishingService The event publishing service to use.
+   * @param purgeService The purge service to use.
    */
-  public DeleteOldOutstandingActions(MongoTemplate mongoTemplate,
-                                     EventPublishingService eventPublishingService) {
-    this.mongoTemplate = mongoTemplate;
-    this.eventPublishingService = eventPublishingService;
+  public DeleteOldOutstandingActions(ActionPurgeService purgeService) {
+    this.purgeService = purgeService;
   }
 
   /**
@@ -63,17 +52,7 @@ public class DeleteOldOutstandingActions {
    */
   @Execution
   public void migrate() {
-    var obsoleteActionsCriteria = Criteria
-        .where("dueBy").lt(ACTIONS_EPOCH)
-        .and("completed").exists(false);
-    Query query = Query.query(obsoleteActionsCriteria);
-    List<Action> actions = mongoTemplate.find(query, Action.class);
-    AtomicInteger count = new AtomicInteger();
-    actions.forEach(a -> {
-      eventPublishingService.publishActionDeleteEvent(a);
-      mongoTemplate.remove(a);
-      count.getAndIncrement();
-    });
+    long count = purgeService.purge(PURGE_NAME, ActionPurgeService.oldOutstandingActions());
     log.info("{} old outstanding actions deleted.", count);
   }
 
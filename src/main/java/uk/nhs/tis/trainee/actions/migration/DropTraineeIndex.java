@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.migration;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import uk.nhs.tis.trainee.actions.model.Action;
+
+/**
+ * Drop the trainee index, which is a prefix of the trainee reference and incomplete trainee
+ * indexes and so only adds to the cost of each write.
+ */
+
+@Slf4j
+@ChangeUnit(id = "dropTraineeIndex", order = "3")
+public class DropTraineeIndex {
+
+  static final String INDEX_NAME = "traineeIndex";
+
+  private final MongoTemplate template;
+
+  /**
+   * Initialise the migration.
+   *
+   * @param template The Mongo template to use.
+   */
+  public DropTraineeIndex(MongoTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Drop the trainee index, if it exists.
+   */
+  @Execution
+  public void migrate() {
+    IndexOperations indexOps = template.indexOps(Action.class);
+    boolean exists = indexOps.getIndexInfo().stream()
+        .anyMatch(index -> index.getName().equals(INDEX_NAME));
+
+    if (exists) {
+      indexOps.dropIndex(INDEX_NAME);
+      log.info("Dropped index '{}'.", INDEX_NAME);
+    } else {
+      log.info("Index '{}' not found, nothing to drop.", INDEX_NAME);
+    }
+  }
+
+  /**
+   * Do not attempt rollback, the index is superseded by the trainee reference index.
+   */
+  @RollbackExecution
+  public void rollback() {
+    log.warn("Rollback requested but not available for 'DropTraineeIndex' migration.");
+  }
+}
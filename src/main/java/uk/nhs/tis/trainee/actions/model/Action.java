@@ -43,6 +43,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
 @Document(collection = "Action")
 public record Action(
     @Id
+    @With
     ObjectId id,
     ActionType type,
     @With
@@ -50,6 +51,7 @@ public record Action(
     TisReferenceInfo tisReferenceInfo,
     LocalDate availableFrom,
     LocalDate dueBy,
+    @With
     Instant completed) {
 
   /**
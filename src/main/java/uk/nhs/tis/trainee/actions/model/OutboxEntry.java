@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.model;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+
+/**
+ * An action broadcast waiting to be published, written in the same transaction as the action
+ * change it describes.
+ *
+ * @param id        The ID of the entry, entries are relayed in ID order.
+ * @param broadcast The action broadcast to publish.
+ * @param created   When the entry was created.
+ * @param sent      When the broadcast was published, null if not yet published.
+ */
+@Document(collection = "ActionOutbox")
+public record OutboxEntry(
+    @Id
+    ObjectId id,
+    ActionBroadcastDto broadcast,
+    Instant created,
+    Instant sent) {
+
+  /**
+   * Create a new unsent outbox entry for the given broadcast.
+   *
+   * @param broadcast The action broadcast to publish.
+   * @return The created outbox entry.
+   */
+  public static OutboxEntry of(ActionBroadcastDto broadcast) {
+    return new OutboxEntry(ObjectId.get(), broadcast, Instant.now(), null);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.model;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import uk.nhs.tis.trainee.actions.dto.ConditionsOfJoining;
+import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
+
+/**
+ * A fingerprint of the programme membership fields which affect its actions, as of the last time
+ * the programme membership was processed. The fingerprint includes the version of the action rules
+ * it was processed with, so stored fingerprints no longer match once the rules change.
+ *
+ * @param id          The TIS ID of the programme membership.
+ * @param fingerprint The rules version, trainee ID, start date, foundation flag and CoJ synced
+ *                    date.
+ * @param updated     When the fingerprint was last updated.
+ */
+@Document(collection = "ProgrammeMembershipFingerprint")
+public record ProgrammeMembershipFingerprint(
+    @Id
+    String id,
+    String fingerprint,
+    Instant updated) {
+
+  /**
+   * The version of the rules which determine a programme membership's actions, such as the action
+   * epoch, action types and due dates. Increment this whenever those rules change, so that
+   * unchanged programme memberships are processed again with the new rules.
+   */
+  public static final int RULES_VERSION = 1;
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * Create a fingerprint of the given programme membership.
+   *
+   * @param dto The programme membership to fingerprint.
+   * @return The programme membership fingerprint.
+   */
+  public static ProgrammeMembershipFingerprint of(ProgrammeMembershipDto dto) {
+    ConditionsOfJoining coj = dto.conditionsOfJoining();
+    String fingerprint = String.join(SEPARATOR,
+        "v" + RULES_VERSION,
+        String.valueOf(dto.traineeId()),
+        String.valueOf(dto.startDate()),
+        String.valueOf(dto.isFoundationProgramme()),
+        String.valueOf(coj == null ? null : coj.syncedAt()));
+    return new ProgrammeMembershipFingerprint(dto.id(), fingerprint, Instant.now());
+  }
+
+  /**
+   * Check whether this fingerprint matches another, ignoring when they were updated.
+   *
+   * @param other The fingerprint to compare with, may be null.
+   * @return Whether the fingerprints match.
+   */
+  public boolean matches(ProgrammeMembershipFingerprint other) {
+    return other != null && id.equals(other.id) && fingerprint.equals(other.fingerprint);
+  }
+}
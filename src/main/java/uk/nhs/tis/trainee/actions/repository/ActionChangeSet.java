@@ -0,0 +1,222 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bson.types.ObjectId;
+import uk.nhs.tis.trainee.actions.model.Action;
+
+/**
+ * An ordered set of action inserts, completions, reschedules and deletes to be written together.
+ */
+public class ActionChangeSet {
+
+  private final List<Change> changes = new ArrayList<>();
+
+  /**
+   * Add an action to be inserted, an ID is assigned to the action if it does not have one.
+   *
+   * @param action The action to insert.
+   * @return The action to be inserted, including the assigned ID.
+   */
+  public Action insert(Action action) {
+    Action toInsert = action.id() == null ? action.withId(ObjectId.get()) : action;
+    changes.add(new Change(ChangeType.INSERT, toInsert));
+    return toInsert;
+  }
+
+  /**
+   * Add an action to be completed, only its completion is updated and only if the stored action
+   * is still incomplete.
+   *
+   * @param action The completed action.
+   */
+  public void complete(Action action) {
+    changes.add(new Change(ChangeType.COMPLETE, action));
+  }
+
+  /**
+   * Add an action to be rescheduled in place, only its available from date, due by date and
+   * completion are updated so the stored action keeps its ID.
+   *
+   * @param action The rescheduled action.
+   */
+  public void reschedule(Action action) {
+    changes.add(new Change(ChangeType.RESCHEDULE, action));
+  }
+
+  /**
+   * Add an action to be deleted, regardless of whether it has been completed.
+   *
+   * @param action The action to delete.
+   */
+  public void delete(Action action) {
+    changes.add(new Change(ChangeType.DELETE, action));
+  }
+
+  /**
+   * Add an action to be deleted only if the stored action is still incomplete, so an action
+   * completed since it was read is kept.
+   *
+   * @param action The action to delete.
+   */
+  public void deleteIfIncomplete(Action action) {
+    changes.add(new Change(ChangeType.DELETE_INCOMPLETE, action));
+  }
+
+  /**
+   * Add all changes from another change set, after the changes already in this set.
+   *
+   * @param other The change set to add.
+   */
+  public void addAll(ActionChangeSet other) {
+    changes.addAll(other.changes);
+  }
+
+  /**
+   * Get all changes, in the order they were added.
+   *
+   * @return The changes.
+   */
+  public List<Change> getChanges() {
+    return Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Get the actions to be inserted.
+   *
+   * @return The actions to insert.
+   */
+  public List<Action> getInserted() {
+    return getActions(ChangeType.INSERT);
+  }
+
+  /**
+   * Get the actions to be completed.
+   *
+   * @return The actions to complete.
+   */
+  public List<Action> getCompleted() {
+    return getActions(ChangeType.COMPLETE);
+  }
+
+  /**
+   * Get the actions to be rescheduled.
+   *
+   * @return The actions to reschedule.
+   */
+  public List<Action> getRescheduled() {
+    return getActions(ChangeType.RESCHEDULE);
+  }
+
+  /**
+   * Get the actions to be deleted, including those only deleted if incomplete.
+   *
+   * @return The actions to delete.
+   */
+  public List<Action> getDeleted() {
+    return changes.stream()
+        .filter(change -> change.type().isDelete())
+        .map(Change::action)
+        .toList();
+  }
+
+  /**
+   * Whether the change set contains any changes.
+   *
+   * @return true if there are no changes, otherwise false.
+   */
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  /**
+   * Apply the changes to a list of actions, such as an in-memory copy of the stored actions.
+   *
+   * @param actions The actions to apply the changes to.
+   * @return A new list of actions with the changes applied.
+   */
+  public List<Action> applyTo(List<Action> actions) {
+    List<Action> applied = new ArrayList<>(actions);
+
+    for (Change change : changes) {
+      Action action = change.action();
+
+      if (change.type().isConditional() && applied.stream()
+          .anyMatch(a -> action.id().equals(a.id()) && a.completed() != null)) {
+        continue;
+      }
+
+      applied.removeIf(a -> a.id() != null && a.id().equals(action.id()));
+
+      if (!change.type().isDelete()) {
+        applied.add(action);
+      }
+    }
+
+    return applied;
+  }
+
+  private List<Action> getActions(ChangeType type) {
+    return changes.stream()
+        .filter(change -> change.type() == type)
+        .map(Change::action)
+        .toList();
+  }
+
+  /**
+   * A single change to an action.
+   *
+   * @param type   The type of change.
+   * @param action The action being changed.
+   */
+  public record Change(ChangeType type, Action action) {
+
+  }
+
+  /**
+   * The types of change which can be made to an action.
+   */
+  public enum ChangeType {
+    INSERT, COMPLETE, RESCHEDULE, DELETE, DELETE_INCOMPLETE;
+
+    /**
+     * Whether the change deletes the action.
+     *
+     * @return true if the action is deleted, otherwise false.
+     */
+    public boolean isDelete() {
+      return this == DELETE || this == DELETE_INCOMPLETE;
+    }
+
+    /**
+     * Whether the change is only applied if the stored action is still incomplete.
+     *
+     * @return true if the change is conditional on the action being incomplete, otherwise false.
+     */
+    public boolean isConditional() {
+      return this == COMPLETE || this == DELETE_INCOMPLETE;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import org.bson.types.ObjectId;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+
+/**
+ * A position in a list of actions ordered by due date and ID, used to read the actions after it.
+ *
+ * @param dueBy The due date of the last read action, may be null.
+ * @param id    The ID of the last read action.
+ */
+public record ActionCursor(LocalDate dueBy, ObjectId id) {
+
+  private static final String SEPARATOR = ",";
+
+  /**
+   * Get the position of an action.
+   *
+   * @param action The action to get the position of.
+   * @return The position of the action.
+   */
+  public static ActionCursor of(ActionDto action) {
+    return new ActionCursor(action.dueBy(), new ObjectId(action.id()));
+  }
+
+  /**
+   * Decode a cursor from its opaque string form.
+   *
+   * @param encoded The encoded cursor.
+   * @return The decoded cursor.
+   * @throws IllegalArgumentException If the cursor could not be decoded.
+   */
+  public static ActionCursor decode(String encoded) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(SEPARATOR, -1);
+
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Unexpected cursor format.");
+      }
+
+      LocalDate dueBy = parts[0].isEmpty() ? null : LocalDate.parse(parts[0]);
+      return new ActionCursor(dueBy, new ObjectId(parts[1]));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Unexpected cursor due date.", e);
+    }
+  }
+
+  /**
+   * Encode the cursor to an opaque string form.
+   *
+   * @return The encoded cursor.
+   */
+  public String encode() {
+    String decoded = (dueBy == null ? "" : dueBy.toString()) + SEPARATOR + id.toHexString();
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -21,112 +21,95 @@
 
 package uk.nhs.tis.trainee.actions.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 import org.bson.types.ObjectId;
-import org.springframework.data.mongodb.repository.DeleteQuery;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
 import uk.nhs.tis.trainee.actions.model.Action;
 
 /**
  * A repository of trainee actions.
  */
 @Repository
-public interface ActionRepository extends MongoRepository<Action, ObjectId> {
+public interface ActionRepository extends MongoRepository<Action, ObjectId>,
+    ActionRepositoryCustom {
 
   /**
-   * Get all actions associated with a given trainee ID.
+   * Get all incomplete actions associated with a given trainee ID which are available on the given
+   * date, ordered by due date. Only the fields of the action DTO are read and mapped directly to
+   * the DTO.
    *
-   * @param traineeId The ID of the trainee to get actions for.
-   * @return A list of actions for the trainee.
+   * @param traineeId   The ID of the trainee to get actions for.
+   * @param availableOn The date the actions must be available on, actions with an unknown
+   *                    available from date are always included.
+   * @return A list of available incomplete actions for the trainee.
    */
-  List<Action> findAllByTraineeId(String traineeId);
+  @Query(value = "{'traineeId': ?0, 'completed': null, "
+      + "$or: [{'availableFrom': null}, {'availableFrom': {$lte: ?1}}]}",
+      fields = "{'type': 1, 'traineeId': 1, 'tisReferenceInfo': 1, 'availableFrom': 1, "
+          + "'dueBy': 1}",
+      sort = "{'dueBy': 1}")
+  List<ActionDto> findAvailableIncompleteActions(String traineeId, LocalDate availableOn);
 
   /**
-   * Get all incomplete actions associated with a given trainee ID.
-   *
-   * @param traineeId The ID of the trainee to get actions for.
-   * @return A list of incomplete actions for the trainee.
-   */
-  List<Action> findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(String traineeId);
-
-  /**
-   * Find an action by its action ID and associated trainee ID.
-   *
-   * @param id        The ID of the action to find.
-   * @param traineeId The trainee that should be associated with the action.
-   * @return The found trainee action, or empty if not found.
-   */
-  Optional<Action> findByIdAndTraineeId(ObjectId id, String traineeId);
-
-  /**
-   * Delete specific TIS entity action(s) for a trainee where these are not complete.
-   *
-   * @param traineeId The trainee ID.
-   * @param tisId     The TIS ID of the entity.
-   * @param type      The entity type.
-   */
-  @DeleteQuery(value = "{$and : [{'traineeId': ?0}, "
-      + "{'tisReferenceInfo.id': ?1}, "
-      + "{'tisReferenceInfo.type': ?2}, "
-      + "{'completed': null}]}")
-  List<Action> deleteByTraineeIdAndTisReferenceInfoAndNotComplete(String traineeId, String tisId,
-      String type);
-
-  /**
-   * Delete specific TIS entity action(s) for a trainee.
+   * Find specific TIS entity action(s) for a trainee.
    *
    * @param traineeId The trainee ID.
    * @param tisId     The TIS ID of the entity.
    * @param type      The entity type.
    */
-  @DeleteQuery(value = "{$and : [{'traineeId': ?0}, "
+  @Query(value = "{$and : [{'traineeId': ?0}, "
       + "{'tisReferenceInfo.id': ?1}, "
       + "{'tisReferenceInfo.type': ?2}]}")
-  List<Action> deleteByTraineeIdAndTisReferenceInfo(String traineeId, String tisId, String type);
+  List<Action> findByTraineeIdAndTisReferenceInfo(String traineeId, String tisId, String type);
 
   /**
-   * Delete specific TIS entity action(s) for a trainee where these are not complete.
+   * Find the programme membership actions of a trainee for any of the given programme
+   * memberships, along with the trainee's person actions, in a single query. The actions are
+   * ordered by TIS reference and action type, following the trainee reference index.
    *
-   * @param traineeId  The trainee ID.
-   * @param tisId      The TIS ID of the entity.
-   * @param type       The entity type.
-   * @param actionType The action type to delete.
+   * @param traineeId              The trainee ID.
+   * @param programmeMembershipIds The IDs of the programme memberships.
+   * @return A list of the programme membership and person actions for the trainee.
    */
-  @DeleteQuery(value = "{$and : [{'traineeId': ?0}, "
-      + "{'tisReferenceInfo.id': ?1}, "
-      + "{'tisReferenceInfo.type': ?2}, "
-      + "{'type': ?3}]}")
-  List<Action> deleteByTraineeIdAndTisReferenceInfoAndActionType(String traineeId,
-      String tisId, String type, String actionType);
+  @Query(value = "{$or: ["
+      + "{'traineeId': ?0, 'tisReferenceInfo.id': {$in: ?1}, "
+      + "'tisReferenceInfo.type': 'PROGRAMME_MEMBERSHIP'}, "
+      + "{'traineeId': ?0, 'tisReferenceInfo.id': ?0, 'tisReferenceInfo.type': 'PERSON'}]}",
+      sort = "{'tisReferenceInfo.id': 1, 'tisReferenceInfo.type': 1, 'type': 1}")
+  List<Action> findProgrammeMembershipAndPersonActions(String traineeId,
+      Collection<String> programmeMembershipIds);
 
   /**
-   * Delete specific incomplete TIS entity action(s) for a trainee by action type.
+   * Stream all actions of many trainees with a single query, ordered by trainee so that each
+   * trainee's actions are consecutive. The stream must be closed once consumed.
    *
-   * @param traineeId  The trainee ID.
-   * @param tisId      The TIS ID of the entity.
-   * @param type       The entity type.
-   * @param actionType The action type to delete.
+   * @param traineeIds The IDs of the trainees to get actions for.
+   * @return A stream of the actions for the trainees.
    */
-  @DeleteQuery(value = "{$and : [{'traineeId': ?0}, "
-      + "{'tisReferenceInfo.id': ?1}, "
-      + "{'tisReferenceInfo.type': ?2}, "
-      + "{'type': ?3}, "
-      + "{'completed': null}]}")
-  List<Action> deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(String traineeId,
-      String tisId, String type, String actionType);
+  @Query(value = "{'traineeId': {$in: ?0}}",
+      sort = "{'traineeId': 1, 'tisReferenceInfo.id': 1, 'tisReferenceInfo.type': 1, 'type': 1}")
+  Stream<Action> streamTraineesActions(Collection<String> traineeIds);
 
   /**
-   * Find specific TIS entity action(s) for a trainee.
+   * Stream the programme membership actions of many trainees for any of the given programme
+   * memberships, along with the trainees' person actions, with a single query. The actions are
+   * ordered by trainee so that each trainee's actions are consecutive. The stream must be closed
+   * once consumed.
    *
-   * @param traineeId The trainee ID.
-   * @param tisId     The TIS ID of the entity.
-   * @param type      The entity type.
+   * @param traineeIds             The IDs of the trainees to get actions for.
+   * @param programmeMembershipIds The IDs of the programme memberships.
+   * @return A stream of the programme membership and person actions for the trainees.
    */
-  @Query(value = "{$and : [{'traineeId': ?0}, "
-      + "{'tisReferenceInfo.id': ?1}, "
-      + "{'tisReferenceInfo.type': ?2}]}")
-  List<Action> findByTraineeIdAndTisReferenceInfo(String traineeId, String tisId, String type);
+  @Query(value = "{'traineeId': {$in: ?0}, $or: ["
+      + "{'tisReferenceInfo.id': {$in: ?1}, 'tisReferenceInfo.type': 'PROGRAMME_MEMBERSHIP'}, "
+      + "{'tisReferenceInfo.type': 'PERSON'}]}",
+      sort = "{'traineeId': 1, 'tisReferenceInfo.id': 1, 'tisReferenceInfo.type': 1, 'type': 1}")
+  Stream<Action> streamTraineesProgrammeMembershipAndPersonActions(Collection<String> traineeIds,
+      Collection<String> programmeMembershipIds);
 }
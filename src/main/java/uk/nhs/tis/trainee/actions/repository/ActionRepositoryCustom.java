@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.Change;
+
+/**
+ * Custom repository operations for trainee actions which can not be derived from method names.
+ */
+public interface ActionRepositoryCustom {
+
+  /**
+   * Find the actions for many trainee references with a single query.
+   *
+   * @param references The trainee references to find actions for.
+   * @return The found actions grouped by trainee reference, every given reference is included in
+   *         the map with an empty list if no actions were found.
+   */
+  Map<TraineeReference, List<Action>> findByTraineeReferences(
+      Collection<TraineeReference> references);
+
+  /**
+   * Apply all changes in the change set with a single ordered bulk write, and write an outbox
+   * entry per applied change, in a single transaction. Rescheduled actions are only updated if
+   * they are still stored and their stored due by date differs, so repeating a reschedule has no
+   * effect. Completions and incomplete-only deletes are skipped for actions which have been
+   * completed since they were read. No outbox entry is written for skipped changes.
+   *
+   * @param changes     The changes to apply.
+   * @param outboxEntry A function to create the outbox entry for an applied change.
+   * @return The outbox entries written for the applied changes.
+   */
+  List<OutboxEntry> applyChanges(ActionChangeSet changes,
+      Function<Change, OutboxEntry> outboxEntry);
+
+  /**
+   * Move all actions from one trainee to another with a single update, and write an outbox entry
+   * per moved action, in a single transaction. Moving from a trainee with no actions, such as when
+   * the same move is repeated, has no effect.
+   *
+   * @param fromTraineeId The trainee ID to move actions from.
+   * @param toTraineeId   The trainee ID to move actions to.
+   * @param outboxEntry   A function to create the outbox entry for a moved action.
+   * @return The outbox entries written for the moved actions.
+   */
+  List<OutboxEntry> moveActions(String fromTraineeId, String toTraineeId,
+      Function<Action, OutboxEntry> outboxEntry);
+
+  /**
+   * Complete many of a trainee's incomplete actions with a single conditional update, and write an
+   * outbox entry per completed action, in a single transaction. Actions which are already
+   * complete, belong to another trainee or are not of an allowed type are not changed.
+   *
+   * @param traineeId   The ID of the trainee who the actions are for.
+   * @param actionIds   The IDs of the actions to complete.
+   * @param types       The action types which may be completed.
+   * @param completed   When the actions were completed.
+   * @param outboxEntry A function to create the outbox entry for a completed action.
+   * @return The outbox entries written for the completed actions.
+   */
+  List<OutboxEntry> completeActions(String traineeId, Collection<ObjectId> actionIds,
+      Collection<ActionType> types, Instant completed, Function<Action, OutboxEntry> outboxEntry);
+
+  /**
+   * Complete an incomplete action with a single conditional find and modify, and write an outbox
+   * entry for the completed action, in a single transaction. The action is only completed if it is
+   * still incomplete when modified, so concurrent completions can not both apply.
+   *
+   * @param actionId    The ID of the action to complete.
+   * @param traineeId   The ID of the trainee who the action is for.
+   * @param types       The action types which may be completed.
+   * @param completed   When the action was completed.
+   * @param outboxEntry A function to create the outbox entry for the completed action.
+   * @return The outbox entry written for the completed action, or empty if no incomplete action of
+   *         an allowed type was found.
+   */
+  Optional<OutboxEntry> completeAction(ObjectId actionId, String traineeId,
+      Collection<ActionType> types, Instant completed, Function<Action, OutboxEntry> outboxEntry);
+
+  /**
+   * Un-complete a completed action with a single conditional find and modify, and write an outbox
+   * entry for the uncompleted action, in a single transaction. The action is only uncompleted if it
+   * is still complete when modified, so concurrent changes can not both apply.
+   *
+   * @param actionId    The ID of the action to un-complete.
+   * @param traineeId   The ID of the trainee who the action is for.
+   * @param outboxEntry A function to create the outbox entry for the uncompleted action.
+   * @return The outbox entry written for the uncompleted action, or empty if no complete action was
+   *         found.
+   */
+  Optional<OutboxEntry> uncompleteAction(ObjectId actionId, String traineeId,
+      Function<Action, OutboxEntry> outboxEntry);
+
+  /**
+   * Find a page of a trainee's incomplete actions which are available on the given date, ordered
+   * by due date and ID.
+   *
+   * @param traineeId   The ID of the trainee to get actions for.
+   * @param availableOn The date the actions must be available on, actions with an unknown
+   *                    available from date are always included.
+   * @param after       The position to read actions after, or null to read from the start.
+   * @param size        The maximum number of actions to read.
+   * @return A page of available incomplete actions for the trainee.
+   */
+  List<Action> findAvailableIncompleteActionsPage(String traineeId, LocalDate availableOn,
+      ActionCursor after, int size);
+
+  /**
+   * Stream a trainee's incomplete actions which are available on the given date, ordered by due
+   * date and ID. The stream must be closed once consumed.
+   *
+   * @param traineeId   The ID of the trainee to get actions for.
+   * @param availableOn The date the actions must be available on, actions with an unknown
+   *                    available from date are always included.
+   * @return A stream of available incomplete actions for the trainee.
+   */
+  Stream<Action> streamAvailableIncompleteActions(String traineeId, LocalDate availableOn);
+
+  /**
+   * Find a page of a trainee's actions for a programme membership, along with the trainee's person
+   * actions, ordered by due date and ID.
+   *
+   * @param traineeId             The ID of the trainee to get actions for.
+   * @param programmeMembershipId The ID of the programme membership.
+   * @param after                 The position to read actions after, or null to read from the
+   *                              start.
+   * @param size                  The maximum number of actions to read.
+   * @return A page of programme membership and person actions for the trainee.
+   */
+  List<Action> findProgrammeMembershipAndPersonActionsPage(String traineeId,
+      String programmeMembershipId, ActionCursor after, int size);
+
+  /**
+   * Stream a trainee's actions for a programme membership, along with the trainee's person
+   * actions, ordered by due date and ID. The stream must be closed once consumed.
+   *
+   * @param traineeId             The ID of the trainee to get actions for.
+   * @param programmeMembershipId The ID of the programme membership.
+   * @return A stream of programme membership and person actions for the trainee.
+   */
+  Stream<Action> streamProgrammeMembershipAndPersonActions(String traineeId,
+      String programmeMembershipId);
+}
@@ -0,0 +1,401 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PERSON;
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.Change;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.ChangeType;
+
+/**
+ * An implementation of the custom action repository operations, using the Mongo template.
+ */
+@Slf4j
+public class ActionRepositoryCustomImpl implements ActionRepositoryCustom {
+
+  private static final String ID_FIELD = "_id";
+  private static final String TRAINEE_ID_FIELD = "traineeId";
+  private static final String AVAILABLE_FROM_FIELD = "availableFrom";
+  private static final String DUE_BY_FIELD = "dueBy";
+  private static final String COMPLETED_FIELD = "completed";
+  private static final String TYPE_FIELD = "type";
+  private static final String TIS_REFERENCE_ID_FIELD = "tisReferenceInfo.id";
+  private static final String TIS_REFERENCE_TYPE_FIELD = "tisReferenceInfo.type";
+  private static final Sort PAGE_SORT = Sort.by(Direction.ASC, DUE_BY_FIELD, ID_FIELD);
+
+  private final MongoTemplate template;
+  private final TransactionTemplate transactionTemplate;
+  private final Timer bulkWriteTimer;
+
+  ActionRepositoryCustomImpl(MongoTemplate template, MongoTransactionManager transactionManager) {
+    this.template = template;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.bulkWriteTimer = Timer.builder("actions.bulk.write")
+        .description("The time taken to apply a change set of actions.")
+        .register(Metrics.globalRegistry);
+  }
+
+  @Override
+  public Map<TraineeReference, List<Action>> findByTraineeReferences(
+      Collection<TraineeReference> references) {
+    Map<TraineeReference, List<Action>> grouped = new HashMap<>();
+    references.forEach(reference -> grouped.put(reference, new ArrayList<>()));
+
+    if (grouped.isEmpty()) {
+      return grouped;
+    }
+
+    Criteria[] referenceCriteria = grouped.keySet().stream()
+        .map(reference -> Criteria.where(TRAINEE_ID_FIELD).is(reference.traineeId())
+            .and("tisReferenceInfo.id").is(reference.tisReferenceInfo().id())
+            .and("tisReferenceInfo.type").is(reference.tisReferenceInfo().type()))
+        .toArray(Criteria[]::new);
+    Query query = Query.query(new Criteria().orOperator(referenceCriteria));
+
+    template.find(query, Action.class).forEach(action ->
+        grouped.computeIfAbsent(TraineeReference.of(action), k -> new ArrayList<>()).add(action));
+    return grouped;
+  }
+
+  @Override
+  public List<OutboxEntry> applyChanges(ActionChangeSet changes,
+      Function<Change, OutboxEntry> outboxEntry) {
+    if (changes.isEmpty()) {
+      return List.of();
+    }
+
+    return bulkWriteTimer.record(() -> transactionTemplate.execute(status -> {
+      // Read within the transaction, so conditional changes are only written and broadcast for
+      // actions which still match their condition, a concurrent change aborts the transaction.
+      Map<ObjectId, Action> stored = findStoredActions(changes);
+      BulkOperations bulkOps = template.bulkOps(BulkMode.ORDERED, Action.class);
+      List<OutboxEntry> outbox = new ArrayList<>();
+
+      for (Change change : changes.getChanges()) {
+        Action action = change.action();
+
+        if (!isApplicable(change, stored.get(action.id()))) {
+          log.debug("Skipping {} of action {} as it no longer applies.", change.type(),
+              action.id());
+          continue;
+        }
+
+        Query byIncompleteId = Query.query(Criteria.where(ID_FIELD).is(action.id())
+            .and(COMPLETED_FIELD).isNull());
+
+        switch (change.type()) {
+          case INSERT -> bulkOps.insert(action);
+          case COMPLETE -> bulkOps.updateOne(byIncompleteId,
+              Update.update(COMPLETED_FIELD, action.completed()));
+          case RESCHEDULE -> bulkOps.updateOne(
+              Query.query(Criteria.where(ID_FIELD).is(action.id())
+                  .and(DUE_BY_FIELD).ne(action.dueBy())),
+              Update.update(AVAILABLE_FROM_FIELD, action.availableFrom())
+                  .set(DUE_BY_FIELD, action.dueBy())
+                  .set(COMPLETED_FIELD, action.completed()));
+          case DELETE -> bulkOps.remove(Query.query(Criteria.where(ID_FIELD).is(action.id())));
+          case DELETE_INCOMPLETE -> bulkOps.remove(byIncompleteId);
+          default -> throw new IllegalArgumentException(
+              "Unsupported change type: " + change.type());
+        }
+
+        // Track the stored actions, so later changes in the set see the earlier changes.
+        if (change.type().isDelete()) {
+          stored.remove(action.id());
+        } else {
+          stored.put(action.id(), action);
+        }
+        outbox.add(outboxEntry.apply(change));
+      }
+
+      if (outbox.isEmpty()) {
+        return outbox;
+      }
+
+      BulkWriteResult result = bulkOps.execute();
+      template.insert(outbox, OutboxEntry.class);
+      log.debug("Applied action changes: {} inserted, {} modified, {} deleted, {} outbox entries.",
+          result.getInsertedCount(), result.getModifiedCount(), result.getDeletedCount(),
+          outbox.size());
+      return outbox;
+    }));
+  }
+
+  /**
+   * Find the stored state of the actions targeted by conditional and reschedule changes.
+   *
+   * @param changes The changes to find the stored actions for.
+   * @return The stored actions with their completed and due dates, keyed by ID.
+   */
+  private Map<ObjectId, Action> findStoredActions(ActionChangeSet changes) {
+    List<ObjectId> ids = changes.getChanges().stream()
+        .filter(change -> change.type().isConditional() || change.type() == ChangeType.RESCHEDULE)
+        .map(change -> change.action().id())
+        .toList();
+
+    Map<ObjectId, Action> stored = new HashMap<>();
+
+    if (!ids.isEmpty()) {
+      Query query = Query.query(Criteria.where(ID_FIELD).in(ids));
+      query.fields().include(ID_FIELD, COMPLETED_FIELD, DUE_BY_FIELD);
+      template.find(query, Action.class).forEach(action -> stored.put(action.id(), action));
+    }
+
+    return stored;
+  }
+
+  /**
+   * Check whether a change still applies to the stored action, matching the condition of the
+   * write made for the change. Conditional changes only apply to stored incomplete actions, and
+   * reschedules only to stored actions with a different due date.
+   *
+   * @param change The change to check.
+   * @param stored The stored action, null if it is not stored or was not read.
+   * @return Whether the change applies.
+   */
+  private boolean isApplicable(Change change, Action stored) {
+    if (change.type().isConditional()) {
+      return stored != null && stored.completed() == null;
+    }
+
+    if (change.type() == ChangeType.RESCHEDULE) {
+      return stored != null && !Objects.equals(stored.dueBy(), change.action().dueBy());
+    }
+
+    return true;
+  }
+
+  @Override
+  public List<OutboxEntry> moveActions(String fromTraineeId, String toTraineeId,
+      Function<Action, OutboxEntry> outboxEntry) {
+    Query byTrainee = Query.query(Criteria.where(TRAINEE_ID_FIELD).is(fromTraineeId));
+
+    return transactionTemplate.execute(status -> {
+      // Read within the transaction, so the moved actions are exactly those updated below.
+      List<Action> moved = template.find(byTrainee, Action.class).stream()
+          .map(action -> action.withTraineeId(toTraineeId))
+          .toList();
+
+      if (moved.isEmpty()) {
+        return List.of();
+      }
+
+      UpdateResult result = template.updateMulti(byTrainee,
+          Update.update(TRAINEE_ID_FIELD, toTraineeId), Action.class);
+      log.debug("Moved {} action(s) from trainee [{}] to trainee [{}].",
+          result.getModifiedCount(), fromTraineeId, toTraineeId);
+
+      List<OutboxEntry> outbox = moved.stream().map(outboxEntry).toList();
+      template.insert(outbox, OutboxEntry.class);
+      return outbox;
+    });
+  }
+
+  @Override
+  public List<OutboxEntry> completeActions(String traineeId, Collection<ObjectId> actionIds,
+      Collection<ActionType> types, Instant completed, Function<Action, OutboxEntry> outboxEntry) {
+    Query completable = Query.query(Criteria.where(ID_FIELD).in(actionIds)
+        .and(TRAINEE_ID_FIELD).is(traineeId)
+        .and(COMPLETED_FIELD).is(null)
+        .and(TYPE_FIELD).in(types));
+
+    return transactionTemplate.execute(status -> {
+      // Read within the transaction, so the completed actions are exactly those updated below.
+      List<Action> completedActions = template.find(completable, Action.class).stream()
+          .map(action -> action.withCompleted(completed))
+          .toList();
+
+      if (completedActions.isEmpty()) {
+        return List.of();
+      }
+
+      UpdateResult result = template.updateMulti(completable,
+          Update.update(COMPLETED_FIELD, completed), Action.class);
+      log.debug("Completed {} action(s) of trainee [{}].", result.getModifiedCount(), traineeId);
+
+      List<OutboxEntry> outbox = completedActions.stream().map(outboxEntry).toList();
+      template.insert(outbox, OutboxEntry.class);
+      return outbox;
+    });
+  }
+
+  @Override
+  public Optional<OutboxEntry> completeAction(ObjectId actionId, String traineeId,
+      Collection<ActionType> types, Instant completed, Function<Action, OutboxEntry> outboxEntry) {
+    Query incomplete = Query.query(Criteria.where(ID_FIELD).is(actionId)
+        .and(TRAINEE_ID_FIELD).is(traineeId)
+        .and(COMPLETED_FIELD).is(null)
+        .and(TYPE_FIELD).in(types));
+    return updateStatus(incomplete, Update.update(COMPLETED_FIELD, completed), outboxEntry);
+  }
+
+  @Override
+  public Optional<OutboxEntry> uncompleteAction(ObjectId actionId, String traineeId,
+      Function<Action, OutboxEntry> outboxEntry) {
+    Query complete = Query.query(Criteria.where(ID_FIELD).is(actionId)
+        .and(TRAINEE_ID_FIELD).is(traineeId)
+        .and(COMPLETED_FIELD).ne(null));
+    return updateStatus(complete, new Update().unset(COMPLETED_FIELD), outboxEntry);
+  }
+
+  /**
+   * Update the status of an action with a single find and modify, and write an outbox entry for the
+   * updated action, in a single transaction.
+   *
+   * @param query       The query matching the action only while it has the previous status.
+   * @param update      The update to apply the new status.
+   * @param outboxEntry A function to create the outbox entry for the updated action.
+   * @return The outbox entry written for the updated action, or empty if no action was matched.
+   */
+  private Optional<OutboxEntry> updateStatus(Query query, Update update,
+      Function<Action, OutboxEntry> outboxEntry) {
+    return transactionTemplate.execute(status -> {
+      Action updated = template.findAndModify(query, update,
+          FindAndModifyOptions.options().returnNew(true), Action.class);
+
+      if (updated == null) {
+        return Optional.empty();
+      }
+
+      OutboxEntry entry = outboxEntry.apply(updated);
+      template.insert(entry);
+      return Optional.of(entry);
+    });
+  }
+
+  @Override
+  public List<Action> findAvailableIncompleteActionsPage(String traineeId, LocalDate availableOn,
+      ActionCursor after, int size) {
+    return findPage(availableIncomplete(traineeId, availableOn), after, size);
+  }
+
+  @Override
+  public Stream<Action> streamAvailableIncompleteActions(String traineeId, LocalDate availableOn) {
+    Query query = Query.query(availableIncomplete(traineeId, availableOn)).with(PAGE_SORT);
+    return template.stream(query, Action.class);
+  }
+
+  @Override
+  public List<Action> findProgrammeMembershipAndPersonActionsPage(String traineeId,
+      String programmeMembershipId, ActionCursor after, int size) {
+    return findPage(programmeMembershipAndPerson(traineeId, programmeMembershipId), after, size);
+  }
+
+  @Override
+  public Stream<Action> streamProgrammeMembershipAndPersonActions(String traineeId,
+      String programmeMembershipId) {
+    Query query = Query.query(programmeMembershipAndPerson(traineeId, programmeMembershipId))
+        .with(PAGE_SORT);
+    return template.stream(query, Action.class);
+  }
+
+  /**
+   * Build the criteria matching a trainee's incomplete actions which are available on a date.
+   *
+   * @param traineeId   The ID of the trainee.
+   * @param availableOn The date the actions must be available on.
+   * @return The built criteria.
+   */
+  private Criteria availableIncomplete(String traineeId, LocalDate availableOn) {
+    return Criteria.where(TRAINEE_ID_FIELD).is(traineeId)
+        .and(COMPLETED_FIELD).is(null)
+        .orOperator(Criteria.where(AVAILABLE_FROM_FIELD).is(null),
+            Criteria.where(AVAILABLE_FROM_FIELD).lte(availableOn));
+  }
+
+  /**
+   * Build the criteria matching a trainee's programme membership and person actions.
+   *
+   * @param traineeId             The ID of the trainee.
+   * @param programmeMembershipId The ID of the programme membership.
+   * @return The built criteria.
+   */
+  private Criteria programmeMembershipAndPerson(String traineeId, String programmeMembershipId) {
+    return Criteria.where(TRAINEE_ID_FIELD).is(traineeId)
+        .orOperator(
+            Criteria.where(TIS_REFERENCE_ID_FIELD).is(programmeMembershipId)
+                .and(TIS_REFERENCE_TYPE_FIELD).is(PROGRAMME_MEMBERSHIP),
+            Criteria.where(TIS_REFERENCE_ID_FIELD).is(traineeId)
+                .and(TIS_REFERENCE_TYPE_FIELD).is(PERSON));
+  }
+
+  /**
+   * Find a page of actions matching the criteria, ordered by due date and ID. The page starts after
+   * the given position, so that pages stay consistent as actions are added and removed.
+   *
+   * @param criteria The criteria the actions must match.
+   * @param after    The position to read actions after, or null to read from the start.
+   * @param size     The maximum number of actions to read.
+   * @return The page of actions.
+   */
+  private List<Action> findPage(Criteria criteria, ActionCursor after, int size) {
+    Criteria pageCriteria = criteria;
+
+    if (after != null) {
+      // Null due dates are ordered first, and only match the ID condition on an equal due date.
+      Criteria laterDueBy = after.dueBy() == null
+          ? Criteria.where(DUE_BY_FIELD).ne(null)
+          : Criteria.where(DUE_BY_FIELD).gt(after.dueBy());
+      Criteria laterId = Criteria.where(DUE_BY_FIELD).is(after.dueBy())
+          .and(ID_FIELD).gt(after.id());
+      pageCriteria = new Criteria().andOperator(criteria,
+          new Criteria().orOperator(laterDueBy, laterId));
+    }
+
+    Query query = Query.query(pageCriteria)
+        .with(PAGE_SORT)
+        .limit(size);
+    return template.find(query, Action.class);
+  }
+}
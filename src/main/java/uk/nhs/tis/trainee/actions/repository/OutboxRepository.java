@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+
+/**
+ * A repository of action broadcasts waiting to be published.
+ */
+@Repository
+public interface OutboxRepository extends MongoRepository<OutboxEntry, ObjectId> {
+
+  /**
+   * Find unsent outbox entries within the given ID range, in ID order.
+   *
+   * @param after    The exclusive lower bound of the entry IDs.
+   * @param before   The exclusive upper bound of the entry IDs.
+   * @param pageable The page of entries to get.
+   * @return The found unsent entries.
+   */
+  @Query(value = "{'_id': {$gt: ?0, $lt: ?1}, 'sent': null}", sort = "{'_id': 1}")
+  List<OutboxEntry> findUnsent(ObjectId after, ObjectId before, Pageable pageable);
+
+  /**
+   * Mark the given outbox entries as sent.
+   *
+   * @param ids  The IDs of the entries to mark as sent.
+   * @param sent When the entries were sent.
+   * @return The number of entries updated.
+   */
+  @Query("{'_id': {$in: ?0}}")
+  @Update("{'$set': {'sent': ?1}}")
+  long markSent(Collection<ObjectId> ids, Instant sent);
+}
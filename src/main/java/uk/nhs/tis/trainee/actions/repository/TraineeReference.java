@@ -0,0 +1,57 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
+import uk.nhs.tis.trainee.actions.model.TisReferenceType;
+
+/**
+ * A reference to the TIS entity behind a trainee's actions.
+ *
+ * @param traineeId        The ID of the trainee.
+ * @param tisReferenceInfo The TIS core object associated with the trainee's actions.
+ */
+public record TraineeReference(String traineeId, TisReferenceInfo tisReferenceInfo) {
+
+  /**
+   * Create a trainee reference for the given TIS entity.
+   *
+   * @param traineeId The ID of the trainee.
+   * @param tisId     The TIS ID of the entity.
+   * @param type      The TIS reference type of the entity.
+   * @return The trainee reference.
+   */
+  public static TraineeReference of(String traineeId, String tisId, TisReferenceType type) {
+    return new TraineeReference(traineeId, new TisReferenceInfo(tisId, type));
+  }
+
+  /**
+   * Get the trainee reference of an action.
+   *
+   * @param action The action to get the reference of.
+   * @return The trainee reference.
+   */
+  public static TraineeReference of(Action action) {
+    return new TraineeReference(action.traineeId(), action.tisReferenceInfo());
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+
+/**
+ * An asynchronous pipeline for broadcasting action changes, decoupling the callers from the
+ * latency of the message system. The number of pending broadcasts is bounded, callers are blocked
+ * when the pipeline is full. Broadcasts which can not be published are left in the outbox for the
+ * {@link OutboxRelay}.
+ */
+@Slf4j
+@Component
+public class ActionBroadcastPipeline {
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final OutboxRelay outboxRelay;
+  private final ExecutorService executor;
+  private final Semaphore capacity;
+  private final int queueCapacity;
+  private final int maxAttempts;
+
+  /**
+   * Create a broadcast pipeline.
+   *
+   * @param outboxRelay   The relay to publish the outbox entries with.
+   * @param registry      The registry to record pipeline metrics in.
+   * @param workers       The number of worker threads publishing broadcasts.
+   * @param queueCapacity The maximum number of pending change sets.
+   * @param maxAttempts   The maximum attempts to publish each action event.
+   */
+  public ActionBroadcastPipeline(OutboxRelay outboxRelay, MeterRegistry registry,
+      @Value("${application.broadcast.workers}") int workers,
+      @Value("${application.broadcast.queue-capacity}") int queueCapacity,
+      @Value("${application.broadcast.max-attempts}") int maxAttempts) {
+    this.outboxRelay = outboxRelay;
+    this.executor = Executors.newFixedThreadPool(workers,
+        new CustomizableThreadFactory("action-broadcast-"));
+    this.capacity = new Semaphore(queueCapacity);
+    this.queueCapacity = queueCapacity;
+    this.maxAttempts = maxAttempts;
+
+    Gauge.builder("actions.broadcast.pending", this, ActionBroadcastPipeline::getPending)
+        .description("The number of change sets waiting to be broadcast.")
+        .register(registry);
+  }
+
+  /**
+   * Broadcast the given outbox entries asynchronously, blocking until there is capacity in the
+   * pipeline.
+   *
+   * @param entries The outbox entries of the applied changes.
+   * @return A future completed once every entry has been published or left for the relay.
+   */
+  public CompletableFuture<Void> publish(List<OutboxEntry> entries) {
+    if (entries.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    try {
+      capacity.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.failedFuture(e);
+    }
+
+    try {
+      return CompletableFuture.runAsync(() -> publishWithRetry(entries), executor)
+          .whenComplete((result, e) -> capacity.release());
+    } catch (RuntimeException e) {
+      capacity.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Publish the entries, retrying any failed events until the maximum attempts are reached. The
+   * changes have already been committed, so publishing errors are logged rather than thrown and
+   * the unsent entries are left for the outbox relay.
+   *
+   * @param entries The outbox entries to publish.
+   */
+  private void publishWithRetry(List<OutboxEntry> entries) {
+    List<OutboxEntry> unsent = send(entries);
+
+    for (int attempt = 2; attempt <= maxAttempts && !unsent.isEmpty(); attempt++) {
+      log.warn("Retrying {} failed action event(s), attempt {} of {}.", unsent.size(), attempt,
+          maxAttempts);
+      unsent = send(unsent);
+    }
+
+    if (!unsent.isEmpty()) {
+      log.warn("{} action event(s) could not be published and were left for the outbox relay.",
+          unsent.size());
+    }
+  }
+
+  /**
+   * Send the entries with the outbox relay, treating every entry as unsent if the send fails.
+   *
+   * @param entries The outbox entries to send.
+   * @return The entries which were not sent.
+   */
+  private List<OutboxEntry> send(List<OutboxEntry> entries) {
+    try {
+      return outboxRelay.send(entries);
+    } catch (RuntimeException e) {
+      log.warn("Failed to publish {} action event(s).", entries.size(), e);
+      return entries;
+    }
+  }
+
+  /**
+   * Get the number of change sets which are pending or being published.
+   *
+   * @return The number of pending change sets.
+   */
+  int getPending() {
+    return queueCapacity - capacity.availablePermits();
+  }
+
+  /**
+   * Stop accepting broadcasts and wait for pending broadcasts to be published.
+   *
+   * @throws InterruptedException If interrupted while waiting for pending broadcasts.
+   */
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    executor.shutdown();
+
+    if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      log.warn("{} action broadcast(s) still pending at shutdown.", getPending());
+      executor.shutdownNow();
+    }
+  }
+}
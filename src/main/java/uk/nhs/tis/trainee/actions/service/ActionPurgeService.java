@@ -0,0 +1,197 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static uk.nhs.tis.trainee.actions.service.ActionService.ACTIONS_EPOCH;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.nhs.tis.trainee.actions.mapper.ActionMapper;
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+
+/**
+ * A service for purging actions matching some criteria. Matching action IDs are streamed in
+ * chunks, each chunk is deleted with a single delete and the deletions are broadcast in batches.
+ */
+@Slf4j
+@Service
+public class ActionPurgeService {
+
+  static final String OLD_OUTSTANDING_PURGE = "purgeOldOutstandingActions";
+
+  private static final String ID_FIELD = "_id";
+  private static final List<String> PURGE_FIELDS = List.of(ID_FIELD, "type", "traineeId");
+
+  private final MongoTemplate template;
+  private final TransactionTemplate transactionTemplate;
+  private final ActionSweepService sweepService;
+  private final CheckpointService checkpointService;
+  private final ActionMapper mapper;
+  private final ActionBroadcastPipeline broadcastPipeline;
+  private final TraineeActionCache cache;
+  private final Duration leaseDuration;
+  private final String owner = UUID.randomUUID().toString();
+
+  /**
+   * Create an action purge service.
+   *
+   * @param template           The template to delete actions with.
+   * @param transactionManager The transaction manager to delete actions and write the outbox in.
+   * @param sweepService       The service to stream matching actions with.
+   * @param checkpointService  The service to lease scheduled purges with.
+   * @param mapper             The mapper to create delete broadcasts with.
+   * @param broadcastPipeline  The pipeline to publish the delete broadcasts with.
+   * @param cache              The cache of trainee actions to invalidate.
+   * @param leaseDuration      How long a scheduled purge is leased to this instance.
+   */
+  public ActionPurgeService(MongoTemplate template, MongoTransactionManager transactionManager,
+      ActionSweepService sweepService, CheckpointService checkpointService, ActionMapper mapper,
+      ActionBroadcastPipeline broadcastPipeline, TraineeActionCache cache,
+      @Value("${application.purge.lease-duration}") Duration leaseDuration) {
+    this.template = template;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.sweepService = sweepService;
+    this.checkpointService = checkpointService;
+    this.mapper = mapper;
+    this.broadcastPipeline = broadcastPipeline;
+    this.cache = cache;
+    this.leaseDuration = leaseDuration;
+  }
+
+  /**
+   * Get the criteria for old (pre actions-epoch) outstanding actions.
+   *
+   * @return The criteria matching old outstanding actions.
+   */
+  public static Criteria oldOutstandingActions() {
+    return Criteria
+        .where("dueBy").lt(ACTIONS_EPOCH)
+        .and("completed").exists(false);
+  }
+
+  /**
+   * Purge old outstanding actions on a schedule, while this instance holds the lease.
+   */
+  @Scheduled(cron = "${application.purge.cron}")
+  public void purgeOldOutstandingActions() {
+    if (!checkpointService.acquireLease(OLD_OUTSTANDING_PURGE, owner, leaseDuration)) {
+      log.debug("Scheduled purge '{}' is running on another instance.", OLD_OUTSTANDING_PURGE);
+      return;
+    }
+
+    try {
+      purge(OLD_OUTSTANDING_PURGE, oldOutstandingActions());
+    } finally {
+      checkpointService.releaseLease(OLD_OUTSTANDING_PURGE, owner);
+    }
+  }
+
+  /**
+   * Purge all actions matching the criteria, an interrupted purge resumes from the last purged
+   * chunk when run again with the same name.
+   *
+   * @param name     The name of the purge, used for the checkpoint.
+   * @param criteria The criteria of the actions to purge.
+   * @return The number of actions deleted.
+   */
+  public long purge(String name, Criteria criteria) {
+    AtomicLong deleted = new AtomicLong();
+    sweepService.sweep(name, criteria, PURGE_FIELDS,
+        chunk -> deleted.addAndGet(purgeChunk(chunk, criteria)));
+    log.info("Purge '{}' deleted {} action(s).", name, deleted.get());
+    return deleted.get();
+  }
+
+  /**
+   * Delete a chunk of actions with a single delete, along with their outbox entries, and broadcast
+   * the deletions. Only the actions deleted by this call are broadcast, actions which no longer
+   * match the criteria or were already deleted (e.g. by an interrupted run of the same purge,
+   * which wrote their outbox entries before it stopped) are neither deleted nor broadcast again.
+   *
+   * @param chunk    The chunk of actions to delete.
+   * @param criteria The criteria of the actions to purge.
+   * @return The number of actions deleted.
+   */
+  private int purgeChunk(List<Action> chunk, Criteria criteria) {
+    List<OutboxEntry> outbox = transactionTemplate.execute(status -> {
+      List<ObjectId> ids = chunk.stream().map(Action::id).toList();
+      Set<ObjectId> matching = findMatching(ids, criteria);
+
+      if (matching.isEmpty()) {
+        return List.of();
+      }
+
+      Query query = Query.query(new Criteria().andOperator(
+          Criteria.where(ID_FIELD).in(matching), criteria));
+      template.remove(query, Action.class);
+
+      List<OutboxEntry> entries = chunk.stream()
+          .filter(action -> matching.contains(action.id()))
+          .map(mapper::toDeletedActionBroadcastDto)
+          .map(OutboxEntry::of)
+          .toList();
+      template.insert(entries, OutboxEntry.class);
+      return entries;
+    });
+
+    if (outbox.isEmpty()) {
+      log.debug("No actions in the chunk still matched the purge criteria.");
+      return 0;
+    }
+
+    cache.invalidate(chunk.stream().map(Action::traineeId).toList());
+    broadcastPipeline.publish(outbox).join();
+    return outbox.size();
+  }
+
+  /**
+   * Find which of the given actions still exist and match the criteria, read within the purge
+   * transaction so the result is exactly the set of actions deleted.
+   *
+   * @param ids      The IDs of the actions to check.
+   * @param criteria The criteria of the actions to purge.
+   * @return The IDs of the actions which still match.
+   */
+  private Set<ObjectId> findMatching(List<ObjectId> ids, Criteria criteria) {
+    Query query = Query.query(new Criteria().andOperator(
+        Criteria.where(ID_FIELD).in(ids), criteria));
+    query.fields().include(ID_FIELD);
+    return template.find(query, Action.class).stream()
+        .map(Action::id)
+        .collect(Collectors.toSet());
+  }
+}
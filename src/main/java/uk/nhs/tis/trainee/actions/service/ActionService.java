@@ -21,8 +21,6 @@
 
 package uk.nhs.tis.trainee.actions.service;
 
-import static uk.nhs.tis.trainee.actions.model.ActionType.REGISTER_TSS;
-import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
 import static uk.nhs.tis.trainee.actions.model.ActionType.SIGN_COJ;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PERSON;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
@@ -31,14 +29,22 @@ import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBER
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import uk.nhs.tis.trainee.actions.dto.AccountConfirmedEvent;
 import uk.nhs.tis.trainee.actions.dto.ActionDto;
@@ -48,10 +54,18 @@ import uk.nhs.tis.trainee.actions.dto.PlacementDto;
 import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
 import uk.nhs.tis.trainee.actions.dto.enumeration.FormLifecycleState;
 import uk.nhs.tis.trainee.actions.event.Operation;
+import uk.nhs.tis.trainee.actions.event.PlacementEvent;
+import uk.nhs.tis.trainee.actions.event.ProgrammeMembershipEvent;
 import uk.nhs.tis.trainee.actions.mapper.ActionMapper;
 import uk.nhs.tis.trainee.actions.model.Action;
 import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.model.ProgrammeMembershipFingerprint;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet;
+import uk.nhs.tis.trainee.actions.repository.ActionCursor;
 import uk.nhs.tis.trainee.actions.repository.ActionRepository;
+import uk.nhs.tis.trainee.actions.repository.ProgrammeMembershipFingerprintRepository;
+import uk.nhs.tis.trainee.actions.repository.TraineeReference;
 
 /**
  * A service provided Action functionality.
@@ -67,28 +81,33 @@ public class ActionService {
 
   private final ActionRepository repository;
   private final ActionMapper mapper;
-  private final EventPublishingService eventPublishingService;
+  private final ActionBroadcastPipeline broadcastPipeline;
+  private final ProgrammeMembershipFingerprintRepository fingerprintRepository;
+  private final TraineeActionCache cache;
 
   /**
    * The constructor of action service.
    */
   public ActionService(ActionRepository repository, ActionMapper mapper,
-      EventPublishingService eventPublishingService) {
+      ActionBroadcastPipeline broadcastPipeline,
+      ProgrammeMembershipFingerprintRepository fingerprintRepository, TraineeActionCache cache) {
     this.repository = repository;
     this.mapper = mapper;
-    this.eventPublishingService = eventPublishingService;
+    this.broadcastPipeline = broadcastPipeline;
+    this.fingerprintRepository = fingerprintRepository;
+    this.cache = cache;
   }
 
   /**
    * Add or update actions for a given Placement DTO.
    *
-   * @param dto     The placement DTO.
-   * @param actions The list of actions to supplement with new or updated actions.
+   * @param dto             The placement DTO.
+   * @param existingActions The existing actions for the placement.
+   * @param actions         The list of actions to supplement with new actions.
+   * @param changes         The change set to add any rescheduled or replaced actions to.
    */
-  private void addOrUpdatePlacementAction(PlacementDto dto, List<Action> actions) {
-    List<Action> existingActions = repository.findByTraineeIdAndTisReferenceInfo(
-        dto.traineeId(), dto.id(), PLACEMENT.toString());
-
+  private void addOrUpdatePlacementAction(PlacementDto dto, List<Action> existingActions,
+      List<Action> actions, ActionChangeSet changes) {
     for (ActionType actionType : ActionType.getPlacementActionTypes()) {
       Action newAction = mapper.toAction(dto, actionType);
       if (existingActions.stream().noneMatch(a -> a.type().equals(actionType))) {
@@ -96,26 +115,63 @@ public class ActionService {
         addActionIfDueAfterEpoch(newAction, actions);
       } else {
         if (replaceUpdatedPlacementAction(existingActions, newAction, dto.id())) {
-          List<Action> deletedActions
-              = repository.deleteByTraineeIdAndTisReferenceInfoAndActionType(
-              newAction.traineeId(), newAction.tisReferenceInfo().id(),
-              newAction.tisReferenceInfo().type().toString(),
-              newAction.type().toString()); //completed actions are deleted here
-          deletedActions.forEach(eventPublishingService::publishActionDeleteEvent);
-          addActionIfDueAfterEpoch(newAction, actions);
+          reschedulePlacementActions(existingActions, newAction, changes);
         }
       }
     }
   }
 
+  /**
+   * Reschedule the existing placement actions of the new action's type in place, keeping the ID of
+   * the first and setting it to not completed. Any other actions of the type are deleted, as are
+   * all actions of the type if the new action is due before the epoch.
+   *
+   * @param existingActions The existing actions for the placement.
+   * @param newAction       The placement action with the updated dates.
+   * @param changes         The change set to add the rescheduled and deleted actions to.
+   */
+  private void reschedulePlacementActions(List<Action> existingActions, Action newAction,
+      ActionChangeSet changes) {
+    List<Action> actionsOfType = existingActions.stream()
+        .filter(a -> a.type().equals(newAction.type()))
+        .toList();
+    boolean reschedule = !newAction.dueBy().isBefore(ACTIONS_EPOCH);
+
+    for (Action existing : actionsOfType) {
+      if (reschedule) {
+        changes.reschedule(new Action(existing.id(), existing.type(), existing.traineeId(),
+            existing.tisReferenceInfo(), newAction.availableFrom(), newAction.dueBy(), null));
+        reschedule = false;
+      } else {
+        changes.delete(existing); //duplicate or pre-epoch actions are deleted here
+      }
+    }
+  }
+
   /**
    * Updates the actions associated with the given Operation and Placement data.
    *
    * @param operation The operation that triggered the update.
    * @param dto       The Placement data associated with the operation.
-   * @return A list of new actions, empty if no new actions added.
+   * @return A list of new or rescheduled actions, empty if no actions added or rescheduled.
    */
   public List<ActionDto> updateActions(Operation operation, PlacementDto dto) {
+    ActionChangeSet changes = new ActionChangeSet();
+    updateActions(operation, dto, repository.findByTraineeIdAndTisReferenceInfo(
+        dto.traineeId(), dto.id(), PLACEMENT.toString()), changes);
+    return applyChanges(changes);
+  }
+
+  /**
+   * Determine the action changes required for the given Operation and Placement data.
+   *
+   * @param operation       The operation that triggered the update.
+   * @param dto             The Placement data associated with the operation.
+   * @param existingActions The existing actions for the placement.
+   * @param changes         The change set to add the required changes to.
+   */
+  private void updateActions(Operation operation, PlacementDto dto, List<Action> existingActions,
+      ActionChangeSet changes) {
     boolean deleteAction = false;
     List<Action> actions = new ArrayList<>();
 
@@ -124,7 +180,7 @@ public class ActionService {
           && PLACEMENT_TYPES_TO_ACT_ON.stream().anyMatch(type ->
           dto.placementType().toLowerCase().startsWith(type.toLowerCase()))) {
 
-        addOrUpdatePlacementAction(dto, actions);
+        addOrUpdatePlacementAction(dto, existingActions, actions, changes);
 
       } else {
         log.info("Placement {} of type {} is ignored", dto.id(), dto.placementType());
@@ -136,33 +192,55 @@ public class ActionService {
     }
 
     if (deleteAction) {
-      Action action = mapper.toAction(dto, REVIEW_DATA);
-      deleteIncompleteActions(action);
+      deleteIncompleteActions(existingActions, changes);
     }
 
     if (actions.isEmpty()) {
       log.info("No new actions required for Placement {}", dto.id());
-      return List.of();
+      return;
     }
 
     log.info("Adding {} new action(s) for Placement {}.", actions.size(), dto.id());
-    List<Action> actionInserted = repository.insert(actions);
-    actionInserted.forEach(eventPublishingService::publishActionUpdateEvent);
-    return mapper.toDtos(actionInserted);
+    actions.forEach(changes::insert);
   }
 
   /**
-   * Updates the actions associated with the given Operation and Programme Membership data.
+   * Updates the actions associated with the given Operation and Programme Membership data. A LOAD
+   * is skipped without reading the existing actions when the fields affecting actions are
+   * unchanged since the programme membership was last processed.
    *
    * @param operation The operation that triggered the update.
    * @param dto       The Programme Membership data associated with the operation.
    * @return A list of updated actions, empty if no actions required.
    */
   public List<ActionDto> updateActions(Operation operation, ProgrammeMembershipDto dto) {
-    List<Action> actions = new ArrayList<>();
+    Map<String, ProgrammeMembershipFingerprint> fingerprints = findFingerprints(List.of(dto));
+    Set<String> fingerprinted = new HashSet<>();
 
-    List<Action> existingActions = repository.findByTraineeIdAndTisReferenceInfo(
-        dto.traineeId(), dto.id(), PROGRAMME_MEMBERSHIP.toString());
+    if (isUnchanged(operation, dto, fingerprints, fingerprinted)) {
+      return List.of();
+    }
+
+    ActionChangeSet changes = new ActionChangeSet();
+    updateActions(operation, dto, repository.findByTraineeIdAndTisReferenceInfo(
+        dto.traineeId(), dto.id(), PROGRAMME_MEMBERSHIP.toString()), changes);
+    CompletableFuture<List<ActionDto>> inserted = applyChangesAsync(changes);
+    saveFingerprints(fingerprints, fingerprinted);
+    return inserted.join();
+  }
+
+  /**
+   * Determine the action changes required for the given Operation and Programme Membership data.
+   * Changes to these rules must increment {@link ProgrammeMembershipFingerprint#RULES_VERSION}.
+   *
+   * @param operation       The operation that triggered the update.
+   * @param dto             The Programme Membership data associated with the operation.
+   * @param existingActions The existing actions for the programme membership.
+   * @param changes         The change set to add the required changes to.
+   */
+  private void updateActions(Operation operation, ProgrammeMembershipDto dto,
+      List<Action> existingActions, ActionChangeSet changes) {
+    List<Action> actions = new ArrayList<>();
 
     if (Objects.equals(operation, Operation.LOAD)
         && !(dto.startDate().isBefore(ACTIONS_EPOCH))) {
@@ -171,7 +249,7 @@ public class ActionService {
           dto.isFoundationProgramme() ? ActionType.getFoundationProgrammeActionTypes()
               : ActionType.getProgrammeActionTypes();
 
-      deleteUnneededActions(dto, existingActions, actionTypes);
+      deleteUnneededActions(dto, existingActions, actionTypes, changes);
 
       for (ActionType actionType : actionTypes) {
         Action newAction = mapper.toAction(dto, actionType);
@@ -186,8 +264,7 @@ public class ActionService {
 
     } else if (Objects.equals(operation, Operation.DELETE)) {
       log.info("Programme membership {} is deleted", dto.id());
-      Action action = mapper.toAction(dto, REVIEW_DATA);
-      deleteIncompleteActions(action);
+      deleteIncompleteActions(existingActions, changes);
     }
 
     // Handle Conditions of Joining (CoJ) action. We ignore ACTIONS_EPOCH and start date here to
@@ -204,21 +281,194 @@ public class ActionService {
         actions.remove(addedAction.get());
         actions.add(mapper.complete(addedAction.get(), dto.conditionsOfJoining().syncedAt()));
       }
-      // Otherwise, if an existing CoJ action exists, complete it (if it's incomplete).
+      // Otherwise, if an existing CoJ action exists, complete it. The completion is conditional on
+      // the stored action being incomplete, so an already complete action keeps its completion.
       Optional<Action> existingAction = existingActions.stream()
           .filter(a -> a.type().equals(SIGN_COJ)).findFirst();
-      existingAction.ifPresent(action -> complete(action, dto.conditionsOfJoining().syncedAt()));
+      existingAction.ifPresent(action -> {
+        Action completed = mapper.complete(action, dto.conditionsOfJoining().syncedAt());
+        changes.complete(completed);
+        log.info("Action {} to be completed at {} if incomplete.", completed.id(),
+            completed.completed());
+      });
     }
 
     if (actions.isEmpty()) {
       log.info("No new actions required for Programme Membership {}", dto.id());
-      return List.of();
+      return;
     }
 
     log.info("Adding {} new action(s) for Programme Membership {}.", actions.size(), dto.id());
-    List<Action> actionInserted = repository.insert(actions);
-    actionInserted.forEach(eventPublishingService::publishActionUpdateEvent);
-    return mapper.toDtos(actionInserted);
+    actions.forEach(changes::insert);
+  }
+
+  /**
+   * Updates the actions associated with a batch of placement events, the events are applied in the
+   * order given. The existing actions for the whole batch are prefetched with a single query and
+   * all resulting changes are written with a single bulk write.
+   *
+   * @param events The placement events to process.
+   * @return A future of the new actions, completed once the changes have been broadcast.
+   */
+  public CompletableFuture<List<ActionDto>> updatePlacementActions(List<PlacementEvent> events) {
+    log.info("Processing batch of {} placement event(s).", events.size());
+    List<TraineeReference> references = events.stream()
+        .map(event -> TraineeReference.of(event.getPlacement().traineeId(),
+            event.getPlacement().id(), PLACEMENT))
+        .toList();
+    Map<TraineeReference, List<Action>> existingActions = new HashMap<>(
+        repository.findByTraineeReferences(references));
+    ActionChangeSet batchChanges = new ActionChangeSet();
+
+    for (int i = 0; i < events.size(); i++) {
+      PlacementEvent event = events.get(i);
+      TraineeReference reference = references.get(i);
+      List<Action> referenceActions = existingActions.getOrDefault(reference, List.of());
+
+      ActionChangeSet changes = new ActionChangeSet();
+      updateActions(event.getOperation(), event.getPlacement(), referenceActions, changes);
+
+      // Keep the in-memory actions current for any later events for the same reference.
+      existingActions.put(reference, changes.applyTo(referenceActions));
+      batchChanges.addAll(changes);
+    }
+
+    return applyChangesAsync(batchChanges);
+  }
+
+  /**
+   * Updates the actions associated with a batch of programme membership events, the events are
+   * applied in the order given. LOAD events are skipped when the fields affecting actions are
+   * unchanged since the programme membership was last processed. The existing actions for the rest
+   * of the batch are prefetched with a single query and all resulting changes are written with a
+   * single bulk write.
+   *
+   * @param events The programme membership events to process.
+   * @return A future of the new actions, completed once the changes have been broadcast.
+   */
+  public CompletableFuture<List<ActionDto>> updateProgrammeMembershipActions(
+      List<ProgrammeMembershipEvent> events) {
+    log.info("Processing batch of {} programme membership event(s).", events.size());
+    Map<String, ProgrammeMembershipFingerprint> fingerprints = findFingerprints(
+        events.stream().map(ProgrammeMembershipEvent::getProgrammeMembership).toList());
+    Set<String> fingerprinted = new HashSet<>();
+    List<ProgrammeMembershipEvent> changedEvents = events.stream()
+        .filter(event -> !isUnchanged(event.getOperation(), event.getProgrammeMembership(),
+            fingerprints, fingerprinted))
+        .toList();
+
+    if (changedEvents.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+
+    List<TraineeReference> references = changedEvents.stream()
+        .map(event -> TraineeReference.of(event.getProgrammeMembership().traineeId(),
+            event.getProgrammeMembership().id(), PROGRAMME_MEMBERSHIP))
+        .toList();
+    Map<TraineeReference, List<Action>> existingActions = new HashMap<>(
+        repository.findByTraineeReferences(references));
+    ActionChangeSet batchChanges = new ActionChangeSet();
+
+    for (int i = 0; i < changedEvents.size(); i++) {
+      ProgrammeMembershipEvent event = changedEvents.get(i);
+      TraineeReference reference = references.get(i);
+      List<Action> referenceActions = existingActions.getOrDefault(reference, List.of());
+
+      ActionChangeSet changes = new ActionChangeSet();
+      updateActions(event.getOperation(), event.getProgrammeMembership(), referenceActions,
+          changes);
+
+      // Keep the in-memory actions current for any later events for the same reference.
+      existingActions.put(reference, changes.applyTo(referenceActions));
+      batchChanges.addAll(changes);
+    }
+
+    CompletableFuture<List<ActionDto>> inserted = applyChangesAsync(batchChanges);
+    saveFingerprints(fingerprints, fingerprinted);
+    return inserted;
+  }
+
+  /**
+   * Find the stored fingerprints of the given programme memberships.
+   *
+   * @param dtos The programme memberships to find the fingerprints of.
+   * @return The found fingerprints, keyed by programme membership ID.
+   */
+  private Map<String, ProgrammeMembershipFingerprint> findFingerprints(
+      List<ProgrammeMembershipDto> dtos) {
+    Set<String> ids = dtos.stream()
+        .map(ProgrammeMembershipDto::id)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+    Map<String, ProgrammeMembershipFingerprint> fingerprints = new HashMap<>();
+    fingerprintRepository.findAllById(ids)
+        .forEach(fingerprint -> fingerprints.put(fingerprint.id(), fingerprint));
+    return fingerprints;
+  }
+
+  /**
+   * Check whether a programme membership event can be skipped because it is a LOAD with an
+   * unchanged fingerprint. Otherwise, the fingerprints are updated to reflect the event, so that
+   * later events in the same batch are compared against it.
+   *
+   * @param operation     The operation of the event.
+   * @param dto           The Programme Membership data of the event.
+   * @param fingerprints  The current fingerprints, keyed by programme membership ID.
+   * @param fingerprinted The IDs of the programme memberships with updated fingerprints.
+   * @return Whether the event is unchanged and can be skipped.
+   */
+  private boolean isUnchanged(Operation operation, ProgrammeMembershipDto dto,
+      Map<String, ProgrammeMembershipFingerprint> fingerprints, Set<String> fingerprinted) {
+    if (dto.id() == null) {
+      return false;
+    }
+
+    if (Objects.equals(operation, Operation.LOAD)) {
+      ProgrammeMembershipFingerprint fingerprint = ProgrammeMembershipFingerprint.of(dto);
+
+      if (fingerprint.matches(fingerprints.get(dto.id()))) {
+        log.info("Programme Membership {} is unchanged, skipping.", dto.id());
+        return true;
+      }
+
+      fingerprints.put(dto.id(), fingerprint);
+      fingerprinted.add(dto.id());
+    } else if (Objects.equals(operation, Operation.DELETE)) {
+      fingerprints.remove(dto.id());
+      fingerprinted.add(dto.id());
+    }
+
+    return false;
+  }
+
+  /**
+   * Store the updated fingerprints once their changes have been applied, the fingerprints of
+   * deleted programme memberships are removed. Failures are logged, as a missing fingerprint only
+   * means the next LOAD is processed in full.
+   *
+   * @param fingerprints  The current fingerprints, keyed by programme membership ID.
+   * @param fingerprinted The IDs of the programme memberships with updated fingerprints.
+   */
+  private void saveFingerprints(Map<String, ProgrammeMembershipFingerprint> fingerprints,
+      Set<String> fingerprinted) {
+    List<ProgrammeMembershipFingerprint> updated = fingerprinted.stream()
+        .map(fingerprints::get)
+        .filter(Objects::nonNull)
+        .toList();
+    List<String> deleted = fingerprinted.stream()
+        .filter(id -> !fingerprints.containsKey(id))
+        .toList();
+
+    try {
+      if (!updated.isEmpty()) {
+        fingerprintRepository.saveAll(updated);
+      }
+      if (!deleted.isEmpty()) {
+        fingerprintRepository.deleteAllById(deleted);
+      }
+    } catch (DataAccessException e) {
+      log.warn("Unable to store programme membership fingerprints.", e);
+    }
   }
 
   /**
@@ -229,6 +479,7 @@ public class ActionService {
    * @return A list of updated actions, empty if no actions required.
    */
   public List<ActionDto> updateActions(Operation operation, AccountConfirmedEvent account) {
+    ActionChangeSet changes = new ActionChangeSet();
     List<Action> actions = new ArrayList<>();
 
     if (Objects.equals(operation, Operation.LOAD)) {
@@ -246,8 +497,9 @@ public class ActionService {
       }
     } else if (Objects.equals(operation, Operation.DELETE)) {
       log.info("Account for person {} is deleted.", account.traineeId());
-      Action action = mapper.toAction(account, REGISTER_TSS);
-      deleteIncompleteActions(action);
+      List<Action> existingActions = repository.findByTraineeIdAndTisReferenceInfo(
+          account.traineeId(), account.traineeId(), PERSON.toString());
+      deleteIncompleteActions(existingActions, changes);
       //None will be deleted since these are all complete actions - is this correct?
       //What if they register, deregister and then need to reregister?
       //At present, only if incomplete confirmation actions are created by some other process will
@@ -256,49 +508,41 @@ public class ActionService {
 
     if (actions.isEmpty()) {
       log.info("No new actions required for Person account {}", account.traineeId());
-      return List.of();
+    } else {
+      log.info("Adding {} new action(s) for Person account {}.", actions.size(),
+          account.traineeId());
+      actions.forEach(changes::insert);
     }
 
-    log.info("Adding {} new action(s) for Person account {}.", actions.size(), account.traineeId());
-    List<Action> actionInserted = repository.insert(actions);
-    actionInserted.forEach(eventPublishingService::publishActionUpdateEvent);
-    return mapper.toDtos(actionInserted);
+    return applyChanges(changes);
   }
 
   /**
    * Delete incomplete programme membership actions that are not valid.
    *
-   * @param dto The programme membership being processed.
-   * @param existingActions The existing actions for the programme membership.
+   * @param dto              The programme membership being processed.
+   * @param existingActions  The existing actions for the programme membership.
    * @param validActionTypes The valid action types for the programme membership.
+   * @param changes          The change set to add the deleted actions to.
    */
-  private void deleteUnneededActions(
-      ProgrammeMembershipDto dto, List<Action> existingActions, Set<ActionType> validActionTypes) {
-    // To avoid expensive database calls to delete non-existent actions, we filter the existing
-    // actions to find any incomplete actions that are not valid,
-    // and only then delete those actions from the database using their type.
-    List<ActionType> unneededActionTypes =
+  private void deleteUnneededActions(ProgrammeMembershipDto dto, List<Action> existingActions,
+      Set<ActionType> validActionTypes, ActionChangeSet changes) {
+    // The existing actions are filtered to find any incomplete actions that are not valid, only
+    // those actions are deleted.
+    List<Action> unneededActions =
         existingActions.stream()
             .filter(action -> action.completed() == null)
-            .map(Action::type)
-            .filter(actionType -> !validActionTypes.contains(actionType))
-            .distinct()
+            .filter(action -> !validActionTypes.contains(action.type()))
             .toList();
-    unneededActionTypes.forEach(
-        actionType -> {
-          List<Action> deletedActions =
-              repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-                  dto.traineeId(),
-                  dto.id(),
-                  PROGRAMME_MEMBERSHIP.toString(),
-                  actionType.toString());
+    unneededActions.forEach(
+        action -> {
           log.info(
-              "{} unneeded action(s) of type {} deleted for {} {}",
-              deletedActions.size(),
-              actionType,
+              "Unneeded action {} of type {} deleted for {} {}",
+              action.id(),
+              action.type(),
               PROGRAMME_MEMBERSHIP,
               dto.id());
-          deletedActions.forEach(eventPublishingService::publishActionDeleteEvent);
+          changes.deleteIfIncomplete(action);
         });
   }
 
@@ -388,33 +632,118 @@ public class ActionService {
   }
 
   /**
-   * Delete any not-completed actions (of any type) that match the given action item.
+   * Delete any not-completed actions (of any type) from the given existing actions.
    *
-   * @param likeAction The action to use to identify candidates for deletion.
+   * @param existingActions The existing actions to identify candidates for deletion from.
+   * @param changes         The change set to add the deleted actions to.
    */
-  private void deleteIncompleteActions(Action likeAction) {
+  private void deleteIncompleteActions(List<Action> existingActions, ActionChangeSet changes) {
     //remove any pre-existing saved action(s) that have not been completed
-    List<Action> deletedActions = repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(
-        likeAction.traineeId(),
-        likeAction.tisReferenceInfo().id(),
-        likeAction.tisReferenceInfo().type().toString());
-    log.info("{} obsolete not completed action(s) deleted for {} {}", deletedActions.size(),
-        likeAction.tisReferenceInfo().type(), likeAction.tisReferenceInfo().id());
-    deletedActions.forEach(eventPublishingService::publishActionDeleteEvent);
+    List<Action> obsoleteActions = existingActions.stream()
+        .filter(action -> action.completed() == null)
+        .toList();
+    obsoleteActions.forEach(changes::deleteIfIncomplete);
+    obsoleteActions.stream().findAny().ifPresent(action ->
+        log.info("{} obsolete not completed action(s) deleted for {} {}", obsoleteActions.size(),
+            action.tisReferenceInfo().type(), action.tisReferenceInfo().id()));
+  }
+
+  /**
+   * Apply the changes with a single bulk write and wait for the changed actions to be broadcast.
+   *
+   * @param changes The changes to apply.
+   * @return The inserted and rescheduled actions, empty if no actions were inserted or
+   *         rescheduled.
+   */
+  private List<ActionDto> applyChanges(ActionChangeSet changes) {
+    return applyChangesAsync(changes).join();
   }
 
   /**
-   * Find all available incomplete actions associated with a given trainee ID.
+   * Apply the changes with a single bulk write, along with an outbox entry per applied change,
+   * and broadcast the changed actions asynchronously.
+   *
+   * @param changes The changes to apply.
+   * @return A future of the inserted and rescheduled actions, completed once the changes have been
+   *         broadcast.
+   */
+  private CompletableFuture<List<ActionDto>> applyChangesAsync(ActionChangeSet changes) {
+    if (changes.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+
+    List<OutboxEntry> outbox = repository.applyChanges(changes,
+        change -> OutboxEntry.of(mapper.toActionBroadcastDto(change)));
+    cache.invalidate(changes.getChanges().stream()
+        .map(change -> change.action().traineeId())
+        .toList());
+    List<Action> current = new ArrayList<>(changes.getInserted());
+    current.addAll(changes.getRescheduled());
+    List<ActionDto> currentDtos = mapper.toDtos(current);
+    return broadcastPipeline.publish(outbox).thenApply(published -> currentDtos);
+  }
+
+  /**
+   * Find all available incomplete actions associated with a given trainee ID, the actions are
+   * cached until the trainee's actions are changed.
    *
    * @param traineeId The ID of the trainee to get actions for.
    * @return The found actions, empty if no actions found.
    */
   public List<ActionDto> findIncompleteTraineeActions(String traineeId) {
-    List<Action> actions = repository.findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(
-            traineeId).stream()
-        .filter(a -> a.availableFrom() == null || !a.availableFrom().isAfter(LocalDate.now()))
-        .toList();
-    return mapper.toDtos(actions);
+    return cache.get(traineeId,
+        () -> repository.findAvailableIncompleteActions(traineeId, LocalDate.now()));
+  }
+
+  /**
+   * Find a page of the available incomplete actions associated with a given trainee ID, ordered by
+   * due date and ID. Pages are read directly from the database rather than the cache.
+   *
+   * @param traineeId The ID of the trainee to get actions for.
+   * @param after     The position to read actions after, or null to read from the start.
+   * @param size      The maximum number of actions to read.
+   * @return The found actions, empty if no more actions found.
+   */
+  public List<ActionDto> findIncompleteTraineeActions(String traineeId, ActionCursor after,
+      int size) {
+    return mapper.toDtos(repository.findAvailableIncompleteActionsPage(traineeId, LocalDate.now(),
+        after, size));
+  }
+
+  /**
+   * Stream the available incomplete actions associated with a given trainee ID, ordered by due
+   * date and ID. Actions are read directly from the database rather than the cache, the stream
+   * must be closed once consumed.
+   *
+   * @param traineeId The ID of the trainee to get actions for.
+   * @return A stream of the found actions, empty if no actions found.
+   */
+  public Stream<ActionDto> streamIncompleteTraineeActions(String traineeId) {
+    return repository.streamAvailableIncompleteActions(traineeId, LocalDate.now())
+        .map(mapper::toDto);
+  }
+
+  /**
+   * Get the current version of a trainee's available incomplete actions, which changes whenever
+   * the trainee's actions are changed or on a new day as the available actions depend on the date.
+   *
+   * @param traineeId The ID of the trainee to get the version of.
+   * @return The version of the trainee's available incomplete actions, or empty if versions are
+   *         not available.
+   */
+  public Optional<String> getIncompleteTraineeActionsVersion(String traineeId) {
+    return cache.getVersion(traineeId).map(version -> version + "-" + LocalDate.now());
+  }
+
+  /**
+   * Get the current version of a trainee's actions, which changes whenever the trainee's actions
+   * are changed.
+   *
+   * @param traineeId The ID of the trainee to get the version of.
+   * @return The version of the trainee's actions, or empty if versions are not available.
+   */
+  public Optional<String> getTraineeActionsVersion(String traineeId) {
+    return cache.getVersion(traineeId);
   }
 
   /**
@@ -426,67 +755,188 @@ public class ActionService {
    */
   public List<ActionDto> findTraineeProgrammeMembershipActions(String traineeId,
       String programmeMembershipId) {
-    List<Action> programmeActions = repository.findByTraineeIdAndTisReferenceInfo(
-        traineeId, programmeMembershipId, PROGRAMME_MEMBERSHIP.toString());
-    List<Action> traineeActions = repository.findByTraineeIdAndTisReferenceInfo(
-        traineeId, traineeId, PERSON.toString());
-    List<Action> allActions = Stream.concat(programmeActions.stream(), traineeActions.stream())
-        .toList();
-    return mapper.toDtos(allActions);
+    return findTraineeProgrammeMembershipActions(traineeId, List.of(programmeMembershipId))
+        .get(programmeMembershipId);
   }
 
   /**
-   * Complete an action.
+   * Find a page of the actions associated with a given trainee ID and programme membership ID,
+   * ordered by due date and ID.
    *
-   * @param action      The action to complete.
-   * @param complete    Whether to complete the action or not.
-   * @param completedAt The timestamp when the action was completed. If null, current time is used.
-   * @return The completed action, or empty if not found.
+   * @param traineeId             The ID of the trainee to get actions for.
+   * @param programmeMembershipId The ID of the programme membership to get actions for.
+   * @param after                 The position to read actions after, or null to read from the
+   *                              start.
+   * @param size                  The maximum number of actions to read.
+   * @return The found actions, empty if no more actions found.
    */
-  private Optional<ActionDto> updateActionStatus(Action action, boolean complete,
-      Instant completedAt) {
-    if ((action.completed() != null && complete)
-        || (action.completed() == null && !complete)) {
-      log.info("Skipping action completion = {} as the action already had that status.", complete);
-      return Optional.empty();
+  public List<ActionDto> findTraineeProgrammeMembershipActions(String traineeId,
+      String programmeMembershipId, ActionCursor after, int size) {
+    return mapper.toDtos(repository.findProgrammeMembershipAndPersonActionsPage(traineeId,
+        programmeMembershipId, after, size));
+  }
+
+  /**
+   * Stream the actions associated with a given trainee ID and programme membership ID, ordered by
+   * due date and ID. The stream must be closed once consumed.
+   *
+   * @param traineeId             The ID of the trainee to get actions for.
+   * @param programmeMembershipId The ID of the programme membership to get actions for.
+   * @return A stream of the found actions, empty if no actions found.
+   */
+  public Stream<ActionDto> streamTraineeProgrammeMembershipActions(String traineeId,
+      String programmeMembershipId) {
+    return repository.streamProgrammeMembershipAndPersonActions(traineeId, programmeMembershipId)
+        .map(mapper::toDto);
+  }
+
+  /**
+   * Find all actions associated with a given trainee ID for each of the given programme membership
+   * IDs. The actions of all programme memberships are found with a single query, each programme
+   * membership's actions are followed by the trainee's person actions.
+   *
+   * @param traineeId              The ID of the trainee to get actions for.
+   * @param programmeMembershipIds The IDs of the programme memberships to get actions for.
+   * @return The found actions keyed by programme membership ID, in the order given.
+   */
+  public Map<String, List<ActionDto>> findTraineeProgrammeMembershipActions(String traineeId,
+      Collection<String> programmeMembershipIds) {
+    List<String> pmIds = programmeMembershipIds.stream().distinct().toList();
+
+    if (pmIds.isEmpty()) {
+      return Map.of();
     }
 
-    Action updatedAction;
-    if (complete) {
-      if (completedAt == null) {
-        updatedAction = mapper.complete(action);
-      } else {
-        updatedAction = mapper.complete(action, completedAt);
-      }
-    } else {
-      updatedAction = mapper.uncomplete(action);
+    List<Action> actions = repository.findProgrammeMembershipAndPersonActions(traineeId, pmIds);
+    List<ActionDto> personActions = mapper.toDtos(actions.stream()
+        .filter(action -> action.tisReferenceInfo().type() == PERSON)
+        .toList());
+    Map<String, List<Action>> programmeActions = actions.stream()
+        .filter(action -> action.tisReferenceInfo().type() == PROGRAMME_MEMBERSHIP)
+        .collect(Collectors.groupingBy(action -> action.tisReferenceInfo().id()));
+
+    Map<String, List<ActionDto>> pmActions = new LinkedHashMap<>();
+    pmIds.forEach(pmId -> {
+      List<ActionDto> dtos = new ArrayList<>(
+          mapper.toDtos(programmeActions.getOrDefault(pmId, List.of())));
+      dtos.addAll(personActions);
+      pmActions.put(pmId, dtos);
+    });
+    return pmActions;
+  }
+
+  /**
+   * Stream the actions of many trainees with a single query, ordered by trainee so that each
+   * trainee's actions are consecutive. The stream must be closed once consumed.
+   *
+   * @param traineeIds             The IDs of the trainees to get actions for.
+   * @param programmeMembershipIds The IDs of the programme memberships to get actions for, if
+   *                               empty then all actions of the trainees are included, otherwise
+   *                               only these programme memberships' actions and the trainees'
+   *                               person actions are included.
+   * @return A stream of the found actions, empty if no actions found.
+   */
+  public Stream<ActionDto> streamTraineesActions(Collection<String> traineeIds,
+      Collection<String> programmeMembershipIds) {
+    if (traineeIds.isEmpty()) {
+      return Stream.empty();
     }
-    updatedAction = repository.save(updatedAction);
-    eventPublishingService.publishActionUpdateEvent(updatedAction);
-    log.info("Action {} marked as completed = {} at {}.", updatedAction.id(),
-        complete, updatedAction.completed());
-    return Optional.of(mapper.toDto(updatedAction));
+
+    Stream<Action> actions = programmeMembershipIds.isEmpty()
+        ? repository.streamTraineesActions(traineeIds)
+        : repository.streamTraineesProgrammeMembershipAndPersonActions(traineeIds,
+            programmeMembershipIds);
+    return actions.map(mapper::toDto);
   }
 
   /**
-   * Complete an action.
+   * Complete an action, unless it is already complete. The stored action is completed with a
+   * single conditional update, so the completion is only applied once even if the given action is
+   * out of date.
    *
    * @param action      The action to complete.
    * @param completedAt The timestamp when the action was completed. If null, current time is used.
-   * @return The completed action, or empty if not found.
+   * @return The completed action, or empty if the action was already complete.
    */
   private Optional<ActionDto> complete(Action action, Instant completedAt) {
-    return updateActionStatus(action, true, completedAt);
+    if (action.completed() != null) {
+      log.info("Skipping action completion as the action was already complete.");
+      return Optional.empty();
+    }
+
+    return complete(action.id(), action.traineeId(), Set.of(action.type()), completedAt);
+  }
+
+  /**
+   * Complete an incomplete action of one of the given types with a single conditional update.
+   *
+   * @param actionId    The ID of the action to complete.
+   * @param traineeId   The ID of the trainee who owns the action.
+   * @param types       The action types which may be completed.
+   * @param completedAt The timestamp when the action was completed. If null, current time is used.
+   * @return The completed action, or empty if no incomplete action of the given types was found.
+   */
+  private Optional<ActionDto> complete(ObjectId actionId, String traineeId,
+      Collection<ActionType> types, Instant completedAt) {
+    Instant completed = completedAt == null ? Instant.now() : completedAt;
+    Optional<OutboxEntry> outboxEntry = repository.completeAction(actionId, traineeId, types,
+        completed, this::toOutboxEntry);
+    return publishStatusChange(traineeId, outboxEntry, true);
   }
 
   /**
-   * Un-complete an action.
+   * Un-complete an action, unless it is already incomplete. The stored action is uncompleted with
+   * a single conditional update, so the change is only applied once even if the given action is
+   * out of date.
    *
    * @param action The action to un-complete.
-   * @return The uncompleted action, or empty if not found.
+   * @return The uncompleted action, or empty if the action was already incomplete.
    */
   private Optional<ActionDto> uncomplete(Action action) {
-    return updateActionStatus(action, false, null);
+    if (action.completed() == null) {
+      log.info("Skipping action un-completion as the action was already incomplete.");
+      return Optional.empty();
+    }
+
+    Optional<OutboxEntry> outboxEntry = repository.uncompleteAction(action.id(),
+        action.traineeId(), this::toOutboxEntry);
+    return publishStatusChange(action.traineeId(), outboxEntry, false);
+  }
+
+  /**
+   * Create the outbox entry broadcasting the current state of an action.
+   *
+   * @param action The action to broadcast.
+   * @return The created outbox entry.
+   */
+  private OutboxEntry toOutboxEntry(Action action) {
+    return OutboxEntry.of(mapper.toCurrentActionBroadcastDto(action));
+  }
+
+  /**
+   * Invalidate the cached actions of the trainee and broadcast an action status change, if the
+   * status was changed.
+   *
+   * @param traineeId   The ID of the trainee who owns the action.
+   * @param outboxEntry The outbox entry written for the status change, empty if not changed.
+   * @param complete    Whether the action was completed or uncompleted.
+   * @return The updated action, or empty if the status was not changed.
+   */
+  private Optional<ActionDto> publishStatusChange(String traineeId,
+      Optional<OutboxEntry> outboxEntry, boolean complete) {
+    if (outboxEntry.isEmpty()) {
+      log.info("Skipping action completion = {} as no action with the other status was found.",
+          complete);
+      return Optional.empty();
+    }
+
+    cache.invalidate(List.of(traineeId));
+    broadcastPipeline.publish(List.of(outboxEntry.get())).join();
+
+    ActionDto action = mapper.toDto(outboxEntry.get().broadcast());
+    log.info("Action {} marked as completed = {} at {}.", action.id(), complete,
+        action.completed());
+    return Optional.of(action);
   }
 
   /**
@@ -502,23 +952,45 @@ public class ActionService {
       return Optional.empty();
     }
 
-    Optional<Action> optionalAction = repository.findByIdAndTraineeId(new ObjectId(actionId),
-        traineeId);
+    return complete(new ObjectId(actionId), traineeId,
+        ActionType.getUserCompletableActionTypes(), null);
+  }
 
-    if (optionalAction.isEmpty()) {
-      log.info("Skipping action completion as the action was not found.");
-      return Optional.empty();
+  /**
+   * Complete many of a trainee's actions with a single conditional update, then broadcast the
+   * completed actions as one batch. Only incomplete user-completable actions are completed, any
+   * other or unknown actions are skipped.
+   *
+   * @param traineeId The ID of the trainee who owns the actions to be completed.
+   * @param actionIds The IDs of the actions to complete.
+   * @return The completed actions, empty if no actions were completed.
+   */
+  public List<ActionDto> completeAllAsUser(String traineeId, Collection<String> actionIds) {
+    Set<ObjectId> ids = actionIds.stream()
+        .filter(Objects::nonNull)
+        .filter(ObjectId::isValid)
+        .map(ObjectId::new)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    if (ids.isEmpty()) {
+      log.info("Skipping bulk action completion as no valid ids were given.");
+      return List.of();
     }
 
-    Action action = optionalAction.get();
+    List<OutboxEntry> outbox = repository.completeActions(traineeId, ids,
+        ActionType.getUserCompletableActionTypes(), Instant.now(), this::toOutboxEntry);
 
-    if (!ActionType.getUserCompletableActionTypes().contains(action.type())) {
-      log.info("Skipping action completion as the action type {} is not user-completable.",
-          action.type());
-      return Optional.empty();
+    if (!outbox.isEmpty()) {
+      cache.invalidate(List.of(traineeId));
+      broadcastPipeline.publish(outbox).join();
     }
 
-    return complete(action, null);
+    log.info("Completed {} of {} requested action(s) for trainee {}.", outbox.size(),
+        actionIds.size(), traineeId);
+    return outbox.stream()
+        .map(OutboxEntry::broadcast)
+        .map(mapper::toDto)
+        .toList();
   }
 
   /**
@@ -540,7 +1012,7 @@ public class ActionService {
         .findAny();
     if (actionWithDifferentDueDate.isPresent()) {
       //the saved action has a different placement start date, so replace it
-      log.info("Placement {} already has {} {} action(s), these are replaced and set to "
+      log.info("Placement {} already has {} {} action(s), these are rescheduled and set to "
               + "not completed as placement start date has changed from {} to {}", placementId,
           actionsOfType.size(), action.type(), actionWithDifferentDueDate.get().dueBy(),
           action.dueBy());
@@ -554,24 +1026,20 @@ public class ActionService {
 
   /**
    * Move all actions from one trainee to another. Assumes that fromTraineeId and toTraineeId are
-   * valid. The updated actions are broadcast as events.
+   * valid. The actions are moved with a single update and the moved actions are broadcast as
+   * events, repeating a move has no effect once the actions have been moved.
    *
    * @param fromTraineeId The trainee ID to move actions from.
    * @param toTraineeId   The trainee ID to move actions to.
    */
   public void moveActions(String fromTraineeId, String toTraineeId) {
-    AtomicReference<Integer> movedCount = new AtomicReference<>(0);
-    List<Action> actions = repository.findAllByTraineeId(fromTraineeId);
-
-    actions.forEach(action -> {
-      log.debug("Moving action [{}] from trainee [{}] to trainee [{}]",
-          action.id(), fromTraineeId, toTraineeId);
-      // note tisReferenceInfo is not changed
-      Action updatedAction = repository.save(action.withTraineeId(toTraineeId));
-      eventPublishingService.publishActionUpdateEvent(updatedAction);
-      movedCount.getAndSet(movedCount.get() + 1);
-    });
+    // note tisReferenceInfo is not changed
+    List<OutboxEntry> outbox = repository.moveActions(fromTraineeId, toTraineeId,
+        this::toOutboxEntry);
+    cache.invalidate(List.of(fromTraineeId, toTraineeId));
+    broadcastPipeline.publish(outbox).join();
+
     log.info("Moved {} actions from trainee [{}] to trainee [{}]",
-        movedCount.get(), fromTraineeId, toTraineeId);
+        outbox.size(), fromTraineeId, toTraineeId);
   }
 }
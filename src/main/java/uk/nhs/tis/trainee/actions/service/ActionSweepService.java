@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import uk.nhs.tis.trainee.actions.model.Action;
+
+/**
+ * A service for sweeping the whole action collection, or all actions matching some criteria,
+ * without loading them all into memory. Actions are streamed from a cursor in ID order and handled
+ * in bounded batches, with a checkpoint saved after each batch so that an interrupted sweep
+ * resumes from the last handled action.
+ */
+@Slf4j
+@Service
+public class ActionSweepService {
+
+  private static final String ID_FIELD = "_id";
+
+  private final MongoTemplate template;
+  private final CheckpointService checkpointService;
+  private final MeterRegistry registry;
+  private final int batchSize;
+
+  /**
+   * Create an action sweep service.
+   *
+   * @param template          The template to stream actions with.
+   * @param checkpointService The service to record sweep progress with.
+   * @param registry          The registry to record sweep metrics in.
+   * @param batchSize         The maximum number of actions to handle per batch.
+   */
+  public ActionSweepService(MongoTemplate template, CheckpointService checkpointService,
+      MeterRegistry registry, @Value("${application.sweep.batch-size}") int batchSize) {
+    this.template = template;
+    this.checkpointService = checkpointService;
+    this.registry = registry;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Sweep all actions matching the criteria, resuming from the checkpoint of a previous
+   * interrupted sweep with the same name. The checkpoint is cleared once the sweep completes.
+   *
+   * @param name     The name of the sweep, used for the checkpoint.
+   * @param criteria The criteria of the actions to sweep.
+   * @param handler  The handler for each batch of actions, a batch is not checkpointed if the
+   *                 handler throws.
+   * @return The number of actions swept by this run.
+   */
+  public long sweep(String name, Criteria criteria, Consumer<List<Action>> handler) {
+    return sweep(name, criteria, List.of(), handler);
+  }
+
+  /**
+   * Sweep all actions matching the criteria, resuming from the checkpoint of a previous
+   * interrupted sweep with the same name. The checkpoint is cleared once the sweep completes.
+   *
+   * @param name     The name of the sweep, used for the checkpoint.
+   * @param criteria The criteria of the actions to sweep.
+   * @param fields   The fields to include in the swept actions, all fields if empty.
+   * @param handler  The handler for each batch of actions, a batch is not checkpointed if the
+   *                 handler throws.
+   * @return The number of actions swept by this run.
+   */
+  public long sweep(String name, Criteria criteria, List<String> fields,
+      Consumer<List<Action>> handler) {
+    ObjectId position = checkpointService.getPosition(name).orElse(null);
+    Criteria sweepCriteria = criteria;
+
+    if (position != null) {
+      log.info("Resuming sweep '{}' after action {}.", name, position);
+      sweepCriteria = new Criteria().andOperator(criteria, Criteria.where(ID_FIELD).gt(position));
+    }
+
+    Query query = Query.query(sweepCriteria)
+        .with(Sort.by(Direction.ASC, ID_FIELD))
+        .cursorBatchSize(batchSize);
+    fields.forEach(field -> query.fields().include(field));
+
+    SweepProgress progress = new SweepProgress(name);
+
+    try (Stream<Action> actions = template.stream(query, Action.class)) {
+      Iterator<Action> iterator = actions.iterator();
+      List<Action> batch = new ArrayList<>(batchSize);
+
+      while (iterator.hasNext()) {
+        batch.add(iterator.next());
+
+        if (batch.size() == batchSize) {
+          handleBatch(name, batch, handler, progress);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+
+      if (!batch.isEmpty()) {
+        handleBatch(name, batch, handler, progress);
+      }
+    }
+
+    checkpointService.reset(name);
+    log.info("Sweep '{}' complete, {} action(s) swept in {}.", name, progress.count,
+        progress.elapsed());
+    return progress.count;
+  }
+
+  /**
+   * Handle a batch of swept actions and checkpoint the last action in the batch.
+   *
+   * @param name     The name of the sweep.
+   * @param batch    The batch of actions to handle.
+   * @param handler  The handler for the batch.
+   * @param progress The progress of the sweep.
+   */
+  private void handleBatch(String name, List<Action> batch, Consumer<List<Action>> handler,
+      SweepProgress progress) {
+    handler.accept(batch);
+    checkpointService.advance(name, batch.get(batch.size() - 1).id());
+    progress.add(batch.size());
+  }
+
+  /**
+   * The progress and throughput of a running sweep.
+   */
+  private class SweepProgress {
+
+    private final String name;
+    private final Counter counter;
+    private final long start = System.nanoTime();
+    private long count;
+
+    SweepProgress(String name) {
+      this.name = name;
+      counter = Counter.builder("actions.sweep.processed")
+          .description("The number of actions handled by collection sweeps.")
+          .tag("sweep", name)
+          .register(registry);
+    }
+
+    void add(int batchCount) {
+      count += batchCount;
+      counter.increment(batchCount);
+
+      Duration elapsed = elapsed();
+      double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+      log.info("Sweep '{}' progress: {} action(s) swept in {}, {} per second.", name, count,
+          elapsed, Math.round(count / seconds));
+    }
+
+    Duration elapsed() {
+      return Duration.ofNanos(System.nanoTime() - start);
+    }
+  }
+}
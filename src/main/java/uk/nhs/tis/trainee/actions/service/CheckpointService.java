@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import uk.nhs.tis.trainee.actions.model.Checkpoint;
+
+/**
+ * A service for tracking the progress of resumable background jobs, and ensuring each job is only
+ * run by a single instance at a time.
+ */
+@Slf4j
+@Service
+public class CheckpointService {
+
+  private static final String ID_FIELD = "_id";
+  private static final String POSITION_FIELD = "position";
+  private static final String LEASE_OWNER_FIELD = "leaseOwner";
+  private static final String LEASE_EXPIRY_FIELD = "leaseExpiry";
+  private static final String UPDATED_FIELD = "updated";
+
+  private final MongoTemplate template;
+
+  public CheckpointService(MongoTemplate template) {
+    this.template = template;
+  }
+
+  /**
+   * Get the last position recorded for a job.
+   *
+   * @param name The name of the job.
+   * @return The ID of the last document processed, or empty if the job has not recorded progress.
+   */
+  public Optional<ObjectId> getPosition(String name) {
+    return Optional.ofNullable(template.findById(name, Checkpoint.class))
+        .map(Checkpoint::position);
+  }
+
+  /**
+   * Advance the position of a job, the position is never moved backwards.
+   *
+   * @param name     The name of the job.
+   * @param position The ID of the last document processed.
+   */
+  public void advance(String name, ObjectId position) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(name));
+    Update update = new Update()
+        .max(POSITION_FIELD, position)
+        .set(UPDATED_FIELD, Instant.now());
+    template.upsert(query, update, Checkpoint.class);
+  }
+
+  /**
+   * Clear the position of a job, so that it will start from the beginning when next run.
+   *
+   * @param name The name of the job.
+   */
+  public void reset(String name) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(name));
+    Update update = new Update()
+        .unset(POSITION_FIELD)
+        .set(UPDATED_FIELD, Instant.now());
+    template.updateFirst(query, update, Checkpoint.class);
+  }
+
+  /**
+   * Acquire or renew the lease for a job, the lease is only granted if it is not held by another
+   * instance or the other instance's lease has expired.
+   *
+   * @param name     The name of the job.
+   * @param owner    The instance requesting the lease.
+   * @param duration How long the lease should be held for.
+   * @return Whether the lease was granted.
+   */
+  public boolean acquireLease(String name, String owner, Duration duration) {
+    Instant now = Instant.now();
+    Query query = Query.query(Criteria.where(ID_FIELD).is(name).orOperator(
+        Criteria.where(LEASE_OWNER_FIELD).is(null),
+        Criteria.where(LEASE_OWNER_FIELD).is(owner),
+        Criteria.where(LEASE_EXPIRY_FIELD).lt(now)));
+    Update update = new Update()
+        .set(LEASE_OWNER_FIELD, owner)
+        .set(LEASE_EXPIRY_FIELD, now.plus(duration));
+
+    try {
+      template.upsert(query, update, Checkpoint.class);
+      return true;
+    } catch (DuplicateKeyException e) {
+      // The checkpoint exists but the lease is held by another instance.
+      log.debug("Lease for '{}' is held by another instance.", name);
+      return false;
+    }
+  }
+
+  /**
+   * Release the lease for a job, if held by the given owner.
+   *
+   * @param name  The name of the job.
+   * @param owner The instance releasing the lease.
+   */
+  public void releaseLease(String name, String owner) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(name).and(LEASE_OWNER_FIELD).is(owner));
+    Update update = new Update()
+        .unset(LEASE_OWNER_FIELD)
+        .unset(LEASE_EXPIRY_FIELD);
+    template.updateFirst(query, update, Checkpoint.class);
+  }
+}
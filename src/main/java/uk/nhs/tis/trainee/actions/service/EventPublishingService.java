@@ -21,12 +21,24 @@
 
 package uk.nhs.tis.trainee.actions.service;
 
-import io.awspring.cloud.sns.core.SnsNotification;
-import io.awspring.cloud.sns.core.SnsTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
 import uk.nhs.tis.trainee.actions.mapper.ActionMapper;
 import uk.nhs.tis.trainee.actions.model.Action;
@@ -38,57 +50,140 @@ import uk.nhs.tis.trainee.actions.model.Action;
 @Service
 public class EventPublishingService {
 
-  private final SnsTemplate snsTemplate;
+  /**
+   * The maximum number of entries allowed in a single SNS PublishBatch request.
+   */
+  public static final int MAX_BATCH_SIZE = 10;
+
+  private static final MessageAttributeValue JSON_CONTENT_TYPE = MessageAttributeValue.builder()
+      .dataType("String")
+      .stringValue(MimeTypeUtils.APPLICATION_JSON_VALUE)
+      .build();
+
+  private final SnsClient snsClient;
+  private final ObjectMapper objectMapper;
   private final ActionMapper actionMapper;
   private final URI topicArn;
 
   /**
    * The constructor of event publishing service.
    */
-  public EventPublishingService(SnsTemplate snsTemplate, ActionMapper actionMapper,
+  public EventPublishingService(SnsClient snsClient, ObjectMapper objectMapper,
+                                ActionMapper actionMapper,
                                 @Value("${application.sns.arn}") URI arn) {
-    this.snsTemplate = snsTemplate;
+    this.snsClient = snsClient;
+    this.objectMapper = objectMapper;
     this.actionMapper = actionMapper;
     this.topicArn = arn;
   }
 
   /**
-   * Publish a action record with ActionStatus ACTIVE for a updated action.
+   * Publish action records with ActionStatus ACTIVE for updated actions, in batches.
+   *
+   * @param actions The updated Actions to publish.
+   * @return The actions which failed to publish, empty if all were published.
+   */
+  public List<PublishFailure> publishActionUpdateEvents(Collection<Action> actions) {
+    List<ActionBroadcastDto> broadcastActions = actions.stream()
+        .map(actionMapper::toCurrentActionBroadcastDto)
+        .toList();
+    return publishActionBroadcastEvents(broadcastActions);
+  }
+
+  /**
+   * Publish blank records with ActionStatus DELETED for deleted actions, in batches.
    *
-   * @param action The updated Action to publish.
+   * @param actions The deleted Actions to publish.
+   * @return The actions which failed to publish, empty if all were published.
    */
-  public void publishActionUpdateEvent(Action action) {
-    ActionBroadcastDto broadcastAction = actionMapper.toCurrentActionBroadcastDto(action);
-    publishActionBroadcastEvent(broadcastAction);
+  public List<PublishFailure> publishActionDeleteEvents(Collection<Action> actions) {
+    List<ActionBroadcastDto> broadcastActions = actions.stream()
+        .map(actionMapper::toDeletedActionBroadcastDto)
+        .toList();
+    return publishActionBroadcastEvents(broadcastActions);
   }
 
   /**
-   * Publish a blank record with ActionStatus DELETED for a deleted action.
+   * Publish action events using SNS PublishBatch, up to {@link #MAX_BATCH_SIZE} per request.
    *
-   * @param action The deleted Action to publish.
+   * @param actions The broadcast DTOs of the actions to publish.
+   * @return The actions which failed to publish, empty if all were published.
    */
-  public void publishActionDeleteEvent(Action action) {
-    ActionBroadcastDto broadcastAction = actionMapper.toDeletedActionBroadcastDto(action);
-    publishActionBroadcastEvent(broadcastAction);
+  public List<PublishFailure> publishActionBroadcastEvents(List<ActionBroadcastDto> actions) {
+    List<PublishFailure> failures = new ArrayList<>();
+
+    for (int start = 0; start < actions.size(); start += MAX_BATCH_SIZE) {
+      List<ActionBroadcastDto> batch = actions.subList(start,
+          Math.min(start + MAX_BATCH_SIZE, actions.size()));
+      failures.addAll(publishActionBroadcastBatch(batch));
+    }
+
+    if (!actions.isEmpty()) {
+      log.info("Published {} of {} action event(s) to topic {}",
+          actions.size() - failures.size(), actions.size(), topicArn);
+    }
+    return failures;
   }
 
   /**
-   * Publish an action event.
+   * Publish a single batch of action events, the batch must not exceed {@link #MAX_BATCH_SIZE}.
    *
-   * @param action The broadcast DTO of the action to publish.
+   * @param batch The broadcast DTOs of the actions to publish.
+   * @return The actions which failed to publish, empty if all were published.
    */
-  private void publishActionBroadcastEvent(ActionBroadcastDto action) {
-    String actionId = action.id();
-    log.info("Publishing {} event for {} action {}", action.status(), action.type(), actionId);
-
-    SnsNotification<ActionBroadcastDto> message;
-    if (topicArn.toString().endsWith(".fifo")) {
-      message = SnsNotification.builder(action).groupId(actionId).build();
-    } else {
-      message = SnsNotification.builder(action).build();
+  private List<PublishFailure> publishActionBroadcastBatch(List<ActionBroadcastDto> batch) {
+    List<PublishFailure> failures = new ArrayList<>();
+    List<PublishBatchRequestEntry> entries = new ArrayList<>();
+    boolean fifo = topicArn.toString().endsWith(".fifo");
+
+    // The position in the batch is used as the entry ID, so failures can be matched back.
+    for (int i = 0; i < batch.size(); i++) {
+      ActionBroadcastDto action = batch.get(i);
+
+      try {
+        PublishBatchRequestEntry.Builder entry = PublishBatchRequestEntry.builder()
+            .id(String.valueOf(i))
+            .message(objectMapper.writeValueAsString(action))
+            .messageAttributes(Map.of(MessageHeaders.CONTENT_TYPE, JSON_CONTENT_TYPE));
+
+        if (fifo) {
+          entry.messageGroupId(action.id());
+        }
+        entries.add(entry.build());
+      } catch (JsonProcessingException e) {
+        log.error("Unable to serialize {} event for action {}", action.status(), action.id(), e);
+        failures.add(new PublishFailure(action, "SerializationFailure", e.getMessage()));
+      }
+    }
+
+    if (entries.isEmpty()) {
+      return failures;
+    }
+
+    PublishBatchRequest request = PublishBatchRequest.builder()
+        .topicArn(topicArn.toString())
+        .publishBatchRequestEntries(entries)
+        .build();
+    PublishBatchResponse response = snsClient.publishBatch(request);
+
+    for (BatchResultErrorEntry failed : response.failed()) {
+      ActionBroadcastDto action = batch.get(Integer.parseInt(failed.id()));
+      log.error("Failed to publish {} event for {} action {}: [{}] {}", action.status(),
+          action.type(), action.id(), failed.code(), failed.message());
+      failures.add(new PublishFailure(action, failed.code(), failed.message()));
     }
-    snsTemplate.sendNotification(topicArn.toString(), message);
-    log.info("Published {} event for {} action {} to topic {}", action.status(), action.type(),
-        actionId, topicArn);
+
+    return failures;
+  }
+
+  /**
+   * An action event which could not be published.
+   *
+   * @param action  The broadcast DTO of the action which failed to publish.
+   * @param code    The error code describing the failure.
+   * @param message The error message describing the failure.
+   */
+  public record PublishFailure(ActionBroadcastDto action, String code, String message) {
+
   }
 }
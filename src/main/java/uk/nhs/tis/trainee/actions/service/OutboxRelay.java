@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.repository.OutboxRepository;
+import uk.nhs.tis.trainee.actions.service.EventPublishingService.PublishFailure;
+
+/**
+ * A relay which publishes the action broadcasts left unsent in the outbox. Entries are relayed in
+ * ID order and in batches, with the relay's progress checkpointed so that it resumes from the
+ * last relayed entry.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+  static final String CHECKPOINT_NAME = "action-outbox-relay";
+  private static final ObjectId START = new ObjectId("000000000000000000000000");
+
+  private final OutboxRepository outboxRepository;
+  private final EventPublishingService eventPublishingService;
+  private final CheckpointService checkpointService;
+  private final Counter relayedCounter;
+  private final int batchSize;
+  private final Duration gracePeriod;
+  private final Duration leaseDuration;
+  private final String owner = UUID.randomUUID().toString();
+
+  /**
+   * Create an outbox relay.
+   *
+   * @param outboxRepository       The repository of outbox entries.
+   * @param eventPublishingService The service to publish the broadcasts with.
+   * @param checkpointService      The service to record the relay's progress with.
+   * @param registry               The registry to record relay metrics in.
+   * @param batchSize              The number of entries to relay per batch.
+   * @param gracePeriod            How long to leave new entries to be sent before relaying them.
+   * @param leaseDuration          How long the relay is leased to this instance per batch.
+   */
+  public OutboxRelay(OutboxRepository outboxRepository,
+      EventPublishingService eventPublishingService, CheckpointService checkpointService,
+      MeterRegistry registry,
+      @Value("${application.outbox.batch-size}") int batchSize,
+      @Value("${application.outbox.grace-period}") Duration gracePeriod,
+      @Value("${application.outbox.lease-duration}") Duration leaseDuration) {
+    this.outboxRepository = outboxRepository;
+    this.eventPublishingService = eventPublishingService;
+    this.checkpointService = checkpointService;
+    this.batchSize = batchSize;
+    this.gracePeriod = gracePeriod;
+    this.leaseDuration = leaseDuration;
+
+    relayedCounter = Counter.builder("actions.outbox.relayed")
+        .description("The number of outbox entries published by the relay.")
+        .register(registry);
+  }
+
+  /**
+   * Publish the given outbox entries and mark the published entries as sent.
+   *
+   * @param entries The outbox entries to publish.
+   * @return The entries which failed to publish, empty if all were published.
+   */
+  public List<OutboxEntry> send(List<OutboxEntry> entries) {
+    if (entries.isEmpty()) {
+      return List.of();
+    }
+
+    List<PublishFailure> failures = eventPublishingService.publishActionBroadcastEvents(
+        entries.stream().map(OutboxEntry::broadcast).toList());
+    Set<ActionBroadcastDto> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+    failures.forEach(failure -> failed.add(failure.action()));
+
+    List<ObjectId> sent = new ArrayList<>();
+    List<OutboxEntry> unsent = new ArrayList<>();
+
+    for (OutboxEntry entry : entries) {
+      if (failed.contains(entry.broadcast())) {
+        unsent.add(entry);
+      } else {
+        sent.add(entry.id());
+      }
+    }
+
+    if (!sent.isEmpty()) {
+      outboxRepository.markSent(sent, Instant.now());
+    }
+
+    return unsent;
+  }
+
+  /**
+   * Relay all settled unsent outbox entries, batch by batch, while this instance holds the lease.
+   */
+  @Scheduled(fixedDelayString = "${application.outbox.relay-interval}",
+      initialDelayString = "${application.outbox.relay-interval}")
+  public void relay() {
+    if (!checkpointService.acquireLease(CHECKPOINT_NAME, owner, leaseDuration)) {
+      log.debug("Outbox relay is running on another instance.");
+      return;
+    }
+
+    try {
+      boolean hasMore = relayBatch();
+
+      while (hasMore && checkpointService.acquireLease(CHECKPOINT_NAME, owner, leaseDuration)) {
+        hasMore = relayBatch();
+      }
+    } finally {
+      checkpointService.releaseLease(CHECKPOINT_NAME, owner);
+    }
+  }
+
+  /**
+   * Relay the next batch of unsent outbox entries, older than the grace period, after the
+   * checkpoint. The checkpoint is advanced to the last entry before the first failure, so the
+   * failed entries are retried by the next batch.
+   *
+   * @return Whether a full batch was relayed without failures, so more entries may be waiting.
+   */
+  boolean relayBatch() {
+    ObjectId position = checkpointService.getPosition(CHECKPOINT_NAME).orElse(START);
+    ObjectId settled = new ObjectId(Date.from(Instant.now().minus(gracePeriod)));
+    List<OutboxEntry> entries = outboxRepository.findUnsent(position, settled,
+        PageRequest.of(0, batchSize));
+
+    if (entries.isEmpty()) {
+      return false;
+    }
+
+    List<OutboxEntry> unsent = send(entries);
+    ObjectId checkpoint = null;
+
+    for (OutboxEntry entry : entries) {
+      if (unsent.contains(entry)) {
+        break;
+      }
+      checkpoint = entry.id();
+    }
+
+    if (checkpoint != null) {
+      checkpointService.advance(CHECKPOINT_NAME, checkpoint);
+    }
+
+    int relayed = entries.size() - unsent.size();
+    relayedCounter.increment(relayed);
+    log.info("Relayed {} outbox entries, {} failed and will be retried.", relayed, unsent.size());
+
+    return unsent.isEmpty() && entries.size() == batchSize;
+  }
+}
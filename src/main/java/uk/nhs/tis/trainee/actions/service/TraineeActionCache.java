@@ -0,0 +1,305 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+
+/**
+ * A bounded read-through cache of each trainee's available incomplete actions. Entries are
+ * evicted when least recently used, once the time-to-live has passed, or at the end of the day
+ * they were loaded on as the available actions depend on the date. Entries must be invalidated
+ * whenever a trainee's actions are changed, the cached actions are indexed by ID so that changes
+ * which do not identify the trainee can also be invalidated.
+ *
+ * <p>A version is also kept for each trainee, which changes whenever the trainee's actions are
+ * invalidated so that clients can check whether their copy of the actions is still current. The
+ * versions are unique to this instance, so a version from another instance never matches.
+ *
+ * <p>Changes made by other instances are only seen through the action broadcast queue, so the
+ * cache and versions are only enabled when that queue is configured. Otherwise, cached actions and
+ * versions could stay current after another instance changed the trainee's actions, so actions are
+ * always loaded and no versions are available.
+ */
+@Slf4j
+@Component
+public class TraineeActionCache {
+
+  private static final String REQUESTS_METRIC = "actions.cache.requests";
+  private static final String EVICTIONS_METRIC = "actions.cache.evictions";
+
+  private final Duration ttl;
+  private final boolean enabled;
+  private final Map<String, Entry> entries;
+  private final Map<String, Object> loading = new HashMap<>();
+  private final Map<String, String> actionTrainees = new HashMap<>();
+  private final Map<String, Long> versions;
+  private final String instanceId = UUID.randomUUID().toString();
+  private long versionSequence;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter sizeEvictionCounter;
+  private final Counter expiryEvictionCounter;
+  private final Counter invalidationCounter;
+
+  /**
+   * Create a trainee action cache.
+   *
+   * @param registry          The registry to record cache metrics in.
+   * @param capacity          The maximum number of trainees to cache the actions of.
+   * @param ttl               How long cached actions are used for before being loaded again.
+   * @param invalidationQueue The queue of action broadcasts from all instances, may be empty.
+   */
+  public TraineeActionCache(MeterRegistry registry,
+      @Value("${application.cache.capacity}") int capacity,
+      @Value("${application.cache.ttl}") Duration ttl,
+      @Value("${application.queues.action-broadcast:}") String invalidationQueue) {
+    this.ttl = ttl;
+    this.enabled = StringUtils.hasText(invalidationQueue);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        boolean evict = size() > capacity;
+        if (evict) {
+          unindex(eldest.getKey(), eldest.getValue());
+          sizeEvictionCounter.increment();
+        }
+        return evict;
+      }
+    };
+    this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+        return size() > capacity;
+      }
+    };
+
+    hitCounter = Counter.builder(REQUESTS_METRIC)
+        .description("The number of trainee action cache requests.")
+        .tag("result", "hit")
+        .register(registry);
+    missCounter = Counter.builder(REQUESTS_METRIC)
+        .description("The number of trainee action cache requests.")
+        .tag("result", "miss")
+        .register(registry);
+    sizeEvictionCounter = Counter.builder(EVICTIONS_METRIC)
+        .description("The number of trainee action cache entries evicted.")
+        .tag("cause", "size")
+        .register(registry);
+    expiryEvictionCounter = Counter.builder(EVICTIONS_METRIC)
+        .description("The number of trainee action cache entries evicted.")
+        .tag("cause", "expiry")
+        .register(registry);
+    invalidationCounter = Counter.builder("actions.cache.invalidations")
+        .description("The number of trainee action cache invalidations.")
+        .register(registry);
+    Gauge.builder("actions.cache.size", this, TraineeActionCache::size)
+        .description("The number of trainees with cached actions.")
+        .register(registry);
+  }
+
+  /**
+   * Get the cached actions of a trainee, loading and caching them if not cached. A load which
+   * overlaps an invalidation of the trainee is returned but not cached, as it may be stale. The
+   * actions are always loaded when the cache is not enabled.
+   *
+   * @param traineeId The ID of the trainee to get the actions of.
+   * @param loader    The loader to get the actions of the trainee from the database.
+   * @return The actions of the trainee.
+   */
+  public List<ActionDto> get(String traineeId, Supplier<List<ActionDto>> loader) {
+    if (!enabled) {
+      return loader.get();
+    }
+
+    Object token = new Object();
+
+    synchronized (this) {
+      Entry entry = entries.get(traineeId);
+
+      if (entry != null) {
+        if (entry.isValid()) {
+          hitCounter.increment();
+          return entry.actions();
+        }
+
+        unindex(traineeId, entries.remove(traineeId));
+        expiryEvictionCounter.increment();
+      }
+
+      loading.put(traineeId, token);
+    }
+
+    missCounter.increment();
+    List<ActionDto> actions;
+
+    try {
+      actions = List.copyOf(loader.get());
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        loading.remove(traineeId, token);
+      }
+      throw e;
+    }
+
+    synchronized (this) {
+      if (loading.remove(traineeId, token)) {
+        Entry entry = new Entry(actions, LocalDate.now(), Instant.now().plus(ttl));
+        unindex(traineeId, entries.put(traineeId, entry));
+        actions.stream()
+            .filter(action -> action.id() != null)
+            .forEach(action -> actionTrainees.put(action.id(), traineeId));
+      } else {
+        log.debug("Actions of trainee {} were changed while loading, not caching.", traineeId);
+      }
+    }
+
+    return actions;
+  }
+
+  /**
+   * Invalidate the cached actions of a trainee, including any load in progress.
+   *
+   * @param traineeId The ID of the trainee whose actions have changed.
+   */
+  public void invalidate(String traineeId) {
+    invalidate(List.of(traineeId));
+  }
+
+  /**
+   * Invalidate the cached actions of many trainees, including any loads in progress.
+   *
+   * @param traineeIds The IDs of the trainees whose actions have changed.
+   */
+  public synchronized void invalidate(Collection<String> traineeIds) {
+    traineeIds.stream()
+        .filter(Objects::nonNull)
+        .distinct()
+        .forEach(traineeId -> {
+          unindex(traineeId, entries.remove(traineeId));
+          loading.remove(traineeId);
+          versions.remove(traineeId);
+          invalidationCounter.increment();
+        });
+  }
+
+  /**
+   * Invalidate the cached actions of the trainee with the given action, and the trainee the
+   * action belonged to when cached in case it has since been moved. Changes such as deletions may
+   * not identify the trainee, loads in progress can not be checked for the action so none of them
+   * are cached, and if neither trainee is known then all versions are changed.
+   *
+   * @param actionId  The ID of the changed action.
+   * @param traineeId The ID of the trainee with the changed action, may be null if not known.
+   */
+  public synchronized void invalidateAction(String actionId, String traineeId) {
+    String cachedTraineeId = actionTrainees.get(actionId);
+
+    if (cachedTraineeId == null && traineeId == null) {
+      versions.clear();
+    } else {
+      invalidate(Stream.of(cachedTraineeId, traineeId).toList());
+    }
+
+    loading.clear();
+  }
+
+  /**
+   * Get the current version of a trainee's actions, which changes whenever the trainee's actions
+   * are invalidated. The version must be got before the actions it describes, so that a change
+   * between the two can not be hidden behind the newer version.
+   *
+   * @param traineeId The ID of the trainee to get the version of.
+   * @return The version of the trainee's actions, or empty if changes made by other instances can
+   *         not be seen.
+   */
+  public synchronized Optional<String> getVersion(String traineeId) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+
+    long version = versions.computeIfAbsent(traineeId, id -> ++versionSequence);
+    return Optional.of(instanceId + "-" + version);
+  }
+
+  /**
+   * Remove the actions of a trainee's entry from the action index.
+   *
+   * @param traineeId The ID of the trainee the entry is for.
+   * @param entry     The entry being removed, may be null.
+   */
+  private void unindex(String traineeId, Entry entry) {
+    if (entry != null) {
+      entry.actions().stream()
+          .filter(action -> action.id() != null)
+          .forEach(action -> actionTrainees.remove(action.id(), traineeId));
+    }
+  }
+
+  /**
+   * Get the number of trainees with cached actions.
+   *
+   * @return The number of cached trainees.
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * The cached actions of a trainee.
+   *
+   * @param actions  The available incomplete actions.
+   * @param loadedOn The date the actions were loaded on, which they are available as of.
+   * @param expires  When the cached actions expire.
+   */
+  private record Entry(List<ActionDto> actions, LocalDate loadedOn, Instant expires) {
+
+    /**
+     * Check whether the cached actions can still be used.
+     *
+     * @return Whether the cached actions are unexpired and from the current date.
+     */
+    boolean isValid() {
+      return Instant.now().isBefore(expires) && loadedOn.equals(LocalDate.now());
+    }
+  }
+}
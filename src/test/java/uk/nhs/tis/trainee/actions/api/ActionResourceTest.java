@@ -23,22 +23,44 @@ package uk.nhs.tis.trainee.actions.api;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.nhs.tis.trainee.actions.dto.ActionDto;
+import uk.nhs.tis.trainee.actions.dto.TraineeActionsRequestDto;
+import uk.nhs.tis.trainee.actions.repository.ActionCursor;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
 class ActionResourceTest {
@@ -48,11 +70,15 @@ class ActionResourceTest {
 
   private ActionResource controller;
   private ActionService service;
+  private ObjectMapper objectMapper;
 
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    controller = new ActionResource(service);
+    objectMapper = JsonMapper.builder()
+        .findAndAddModules()
+        .build();
+    controller = new ActionResource(service, objectMapper);
   }
 
   @Test
@@ -61,7 +87,8 @@ class ActionResourceTest {
         .encodeToString("[]".getBytes(StandardCharsets.UTF_8));
     String token = String.format("aa.%s.cc", encodedPayload);
 
-    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token);
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        null, null, null);
 
     assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
     assertThat("Unexpected response body presence.", response.hasBody(), is(false));
@@ -75,7 +102,8 @@ class ActionResourceTest {
         .encodeToString("{}".getBytes(StandardCharsets.UTF_8));
     String token = String.format("aa.%s.cc", encodedPayload);
 
-    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token);
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        null, null, null);
 
     assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
     assertThat("Unexpected response body presence.", response.hasBody(), is(false));
@@ -94,7 +122,8 @@ class ActionResourceTest {
     ActionDto dto2 = new ActionDto("2", null, null, null, null, null, null);
     when(service.findIncompleteTraineeActions(TRAINEE_ID)).thenReturn(List.of(dto1, dto2));
 
-    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token);
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        null, null, null);
 
     assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
     assertThat("Unexpected response body presence.", response.hasBody(), is(true));
@@ -106,6 +135,65 @@ class ActionResourceTest {
     assertThat("Unexpected action.", actions.get(1), sameInstance(dto2));
   }
 
+  @Test
+  void shouldReturnTraineeActionsEtagWhenTraineeIdAvailable() {
+    String token = buildToken();
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findIncompleteTraineeActions(TRAINEE_ID)).thenReturn(List.of());
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        null, null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v1\""));
+  }
+
+  @Test
+  void shouldNotReturnTraineeActionsEtagWhenVersionNotAvailable() {
+    String token = buildToken();
+    ActionDto dto = new ActionDto("1", null, null, null, null, null, null);
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.empty());
+    when(service.findIncompleteTraineeActions(TRAINEE_ID)).thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        "*", null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), nullValue());
+  }
+
+  @Test
+  void shouldReturnTraineeActionsWhenEtagNotMatched() {
+    String token = buildToken();
+    ActionDto dto = new ActionDto("1", null, null, null, null, null, null);
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v2"));
+    when(service.findIncompleteTraineeActions(TRAINEE_ID)).thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        "\"v1\"", null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v2\""));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"\"v1\"", "W/\"v1\"", "\"v0\", \"v1\"", "*"})
+  void shouldReturnNotModifiedTraineeActionsWhenEtagMatched(String ifNoneMatch) {
+    String token = buildToken();
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token,
+        ifNoneMatch, null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+    assertThat("Unexpected response body presence.", response.hasBody(), is(false));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v1\""));
+
+    verify(service, never()).findIncompleteTraineeActions(TRAINEE_ID);
+  }
+
   @Test
   void shouldReturnBadRequestCompletingActionWhenTokenInvalid() {
     String encodedPayload = Base64.getEncoder()
@@ -168,6 +256,52 @@ class ActionResourceTest {
     assertThat("Unexpected action.", action, sameInstance(dto));
   }
 
+  @Test
+  void shouldReturnBadRequestCompletingActionsWhenTokenInvalid() {
+    String encodedPayload = Base64.getEncoder()
+        .encodeToString("[]".getBytes(StandardCharsets.UTF_8));
+    String token = String.format("aa.%s.cc", encodedPayload);
+
+    ResponseEntity<List<ActionDto>> response = controller.completeActions(token,
+        List.of(ACTION_ID));
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    verifyNoInteractions(service);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, ActionResource.MAX_COMPLETE_COUNT + 1})
+  void shouldReturnBadRequestCompletingActionsWhenActionCountInvalid(int count) {
+    List<String> actionIds = Stream.generate(() -> ACTION_ID).limit(count).toList();
+
+    ResponseEntity<List<ActionDto>> response = controller.completeActions(buildToken(),
+        actionIds);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void shouldReturnBadRequestCompletingActionsWhenActionIdNull() {
+    ResponseEntity<List<ActionDto>> response = controller.completeActions(buildToken(),
+        Arrays.asList(ACTION_ID, null));
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void shouldReturnCompletedActionsWhenCompletingActions() {
+    ActionDto dto = new ActionDto("1", null, null, null, null, null, null);
+    when(service.completeAllAsUser(TRAINEE_ID, List.of("1", "2"))).thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.completeActions(buildToken(),
+        List.of("1", "2"));
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+  }
+
   @Test
   void shouldReturnActionsWhenGetTraineeProgrammeActions() {
     String traineeId = "traineeId";
@@ -179,7 +313,7 @@ class ActionResourceTest {
         .thenReturn(List.of(dto1, dto2));
 
     ResponseEntity<List<ActionDto>> response = controller.getTraineeProgrammeActions(
-        traineeId, programmeId);
+        traineeId, programmeId, null, null, null);
 
     assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
     assertThat("Unexpected response body presence.", response.hasBody(), is(true));
@@ -190,4 +324,295 @@ class ActionResourceTest {
     assertThat("Unexpected action.", actions.get(0), sameInstance(dto1));
     assertThat("Unexpected action.", actions.get(1), sameInstance(dto2));
   }
+
+  @Test
+  void shouldReturnTraineeProgrammeActionsEtag() {
+    when(service.getTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findTraineeProgrammeMembershipActions(TRAINEE_ID, "programmeId"))
+        .thenReturn(List.of());
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeProgrammeActions(
+        TRAINEE_ID, "programmeId", "\"v0\"", null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v1\""));
+  }
+
+  @Test
+  void shouldReturnNotModifiedTraineeProgrammeActionsWhenEtagMatched() {
+    when(service.getTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeProgrammeActions(
+        TRAINEE_ID, "programmeId", "\"v1\"", null, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+    assertThat("Unexpected response body presence.", response.hasBody(), is(false));
+
+    verify(service, never()).findTraineeProgrammeMembershipActions(TRAINEE_ID, "programmeId");
+  }
+
+  @Test
+  void shouldReturnActionsOfEachProgrammeWhenGetTraineeProgrammesActions() {
+    ActionDto dto1 = new ActionDto("1", null, null, null, null, null, null);
+    ActionDto dto2 = new ActionDto("2", null, null, null, null, null, null);
+    Map<String, List<ActionDto>> programmeActions = Map.of("pm1", List.of(dto1), "pm2",
+        List.of(dto2));
+    when(service.getTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findTraineeProgrammeMembershipActions(TRAINEE_ID, List.of("pm1", "pm2")))
+        .thenReturn(programmeActions);
+
+    ResponseEntity<Map<String, List<ActionDto>>> response =
+        controller.getTraineeProgrammesActions(TRAINEE_ID, List.of("pm1", "pm2"), null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), sameInstance(programmeActions));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v1\""));
+  }
+
+  @Test
+  void shouldReturnNotModifiedTraineeProgrammesActionsWhenEtagMatched() {
+    when(service.getTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+
+    ResponseEntity<Map<String, List<ActionDto>>> response =
+        controller.getTraineeProgrammesActions(TRAINEE_ID, List.of("pm1"), "\"v1\"");
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+    assertThat("Unexpected response body presence.", response.hasBody(), is(false));
+
+    verify(service, never()).findTraineeProgrammeMembershipActions(TRAINEE_ID, List.of("pm1"));
+  }
+
+  @ParameterizedTest
+  @NullAndEmptySource
+  void shouldReturnBadRequestGettingTraineesActionsWhenNoTraineesRequested(
+      List<String> traineeIds) {
+    ResponseEntity<StreamingResponseBody> response = controller.getTraineesActions(
+        new TraineeActionsRequestDto(traineeIds, null));
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    assertThat("Unexpected response body presence.", response.hasBody(), is(false));
+
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void shouldStreamActionsKeyedByTraineeWhenGettingTraineesActions() throws IOException {
+    ActionDto dto1 = new ActionDto("1", "REVIEW_DATA", "trainee1", null, null, null, null);
+    ActionDto dto2 = new ActionDto("2", "SIGN_COJ", "trainee1", null, null, null, null);
+    ActionDto dto3 = new ActionDto("3", "REVIEW_DATA", "trainee2", null, null, null, null);
+    when(service.streamTraineesActions(List.of("trainee1", "trainee2", "trainee3"), List.of()))
+        .thenReturn(Stream.of(dto1, dto2, dto3));
+
+    ResponseEntity<StreamingResponseBody> response = controller.getTraineesActions(
+        new TraineeActionsRequestDto(List.of("trainee1", "trainee2", "trainee3", "trainee1"),
+            null));
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected content type.", response.getHeaders().getContentType(),
+        is(MediaType.APPLICATION_JSON));
+
+    Map<String, List<ActionDto>> actions = readStreamedActions(response);
+    assertThat("Unexpected trainees.", List.copyOf(actions.keySet()),
+        is(List.of("trainee1", "trainee2", "trainee3")));
+    assertThat("Unexpected actions.", actions.get("trainee1"), is(List.of(dto1, dto2)));
+    assertThat("Unexpected actions.", actions.get("trainee2"), is(List.of(dto3)));
+    assertThat("Unexpected actions.", actions.get("trainee3"), is(List.of()));
+  }
+
+  @Test
+  void shouldFilterProgrammesWhenGettingTraineesActionsForProgrammes() throws IOException {
+    when(service.streamTraineesActions(List.of("trainee1"), List.of("pm1", "pm2")))
+        .thenReturn(Stream.of());
+
+    ResponseEntity<StreamingResponseBody> response = controller.getTraineesActions(
+        new TraineeActionsRequestDto(List.of("trainee1"), List.of("pm1", "pm2", "pm1")));
+
+    Map<String, List<ActionDto>> actions = readStreamedActions(response);
+    assertThat("Unexpected actions.", actions, is(Map.of("trainee1", List.of())));
+    verify(service).streamTraineesActions(List.of("trainee1"), List.of("pm1", "pm2"));
+  }
+
+  @Test
+  void shouldReturnPageOfTraineeActionsWithNextCursorWhenPageFull() {
+    String token = buildToken();
+    ObjectId id1 = ObjectId.get();
+    ObjectId id2 = ObjectId.get();
+    ActionDto dto1 = new ActionDto(id1.toString(), null, null, null, null, LocalDate.MIN, null);
+    ActionDto dto2 = new ActionDto(id2.toString(), null, null, null, null, LocalDate.MAX, null);
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findIncompleteTraineeActions(TRAINEE_ID, null, 2))
+        .thenReturn(List.of(dto1, dto2));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token, null, 2,
+        null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto1, dto2)));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is("\"v1-2-\""));
+
+    String nextCursor = response.getHeaders().getFirst(ActionResource.NEXT_CURSOR_HEADER);
+    assertThat("Unexpected next cursor.", ActionCursor.decode(nextCursor),
+        is(new ActionCursor(LocalDate.MAX, id2)));
+    verify(service, never()).findIncompleteTraineeActions(TRAINEE_ID);
+  }
+
+  @Test
+  void shouldReturnPageOfTraineeActionsWhenUnpagedEtagMatched() {
+    String token = buildToken();
+    ActionDto dto = new ActionDto(ObjectId.get().toString(), null, null, null, null, null, null);
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findIncompleteTraineeActions(TRAINEE_ID, null, 2)).thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token, "\"v1\"", 2,
+        null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+  }
+
+  @Test
+  void shouldReturnNotModifiedPageOfTraineeActionsWhenPageEtagMatched() {
+    String token = buildToken();
+    ActionCursor cursor = new ActionCursor(LocalDate.MIN, ObjectId.get());
+    when(service.getIncompleteTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    String etag = "\"v1-" + ActionResource.DEFAULT_PAGE_SIZE + "-" + cursor.encode() + "\"";
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token, etag, null,
+        cursor.encode());
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(), is(etag));
+    verify(service, never()).findIncompleteTraineeActions(any(), any(), anyInt());
+  }
+
+  @Test
+  void shouldReturnLastPageOfTraineeActionsWithoutNextCursor() {
+    String token = buildToken();
+    ActionCursor cursor = new ActionCursor(LocalDate.MIN, ObjectId.get());
+    ActionDto dto = new ActionDto(ObjectId.get().toString(), null, null, null, null, null, null);
+    when(service.findIncompleteTraineeActions(TRAINEE_ID, cursor,
+        ActionResource.DEFAULT_PAGE_SIZE)).thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(token, null, null,
+        cursor.encode());
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+    assertThat("Unexpected next cursor.",
+        response.getHeaders().containsKey(ActionResource.NEXT_CURSOR_HEADER), is(false));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {-1, 0, ActionResource.MAX_PAGE_SIZE + 1})
+  void shouldReturnBadRequestGettingTraineeActionsWhenPageSizeInvalid(int size) {
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeActions(buildToken(), null,
+        size, null);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    verifyNoInteractions(service);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "not-a-cursor", "MjAyNC0wMS0wMQ", "eC0xLTEsMQ"})
+  void shouldReturnBadRequestGettingTraineeProgrammeActionsWhenCursorInvalid(String cursor) {
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeProgrammeActions(TRAINEE_ID,
+        "programmeId", null, 10, cursor);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void shouldReturnPageOfTraineeProgrammeActionsWhenPageSizeGiven() {
+    ActionCursor cursor = new ActionCursor(null, ObjectId.get());
+    ActionDto dto = new ActionDto(ObjectId.get().toString(), null, null, null, null, null, null);
+    when(service.getTraineeActionsVersion(TRAINEE_ID)).thenReturn(Optional.of("v1"));
+    when(service.findTraineeProgrammeMembershipActions(TRAINEE_ID, "programmeId", cursor, 1))
+        .thenReturn(List.of(dto));
+
+    ResponseEntity<List<ActionDto>> response = controller.getTraineeProgrammeActions(TRAINEE_ID,
+        "programmeId", null, 1, cursor.encode());
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected actions.", response.getBody(), is(List.of(dto)));
+    assertThat("Unexpected ETag.", response.getHeaders().getETag(),
+        is("\"v1-1-" + cursor.encode() + "\""));
+    assertThat("Unexpected next cursor.",
+        response.getHeaders().getFirst(ActionResource.NEXT_CURSOR_HEADER),
+        is(ActionCursor.of(dto).encode()));
+  }
+
+  @Test
+  void shouldStreamTraineeProgrammeActionsAsNdjson() throws IOException {
+    ActionDto dto1 = new ActionDto("1", "REVIEW_DATA", TRAINEE_ID, null, null, null, null);
+    ActionDto dto2 = new ActionDto("2", "SIGN_COJ", TRAINEE_ID, null, null, null, null);
+    when(service.streamTraineeProgrammeMembershipActions(TRAINEE_ID, "programmeId"))
+        .thenReturn(Stream.of(dto1, dto2));
+
+    ResponseEntity<StreamingResponseBody> response = controller.streamTraineeProgrammeActions(
+        TRAINEE_ID, "programmeId");
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected content type.", response.getHeaders().getContentType(),
+        is(MediaType.APPLICATION_NDJSON));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+    assertThat("Unexpected line count.", lines.length, is(2));
+    assertThat("Unexpected action.", objectMapper.readValue(lines[0], ActionDto.class), is(dto1));
+    assertThat("Unexpected action.", objectMapper.readValue(lines[1], ActionDto.class), is(dto2));
+  }
+
+  @Test
+  void shouldReturnBadRequestStreamingActionsWhenTokenInvalid() {
+    String encodedPayload = Base64.getEncoder()
+        .encodeToString("[]".getBytes(StandardCharsets.UTF_8));
+    String token = String.format("aa.%s.cc", encodedPayload);
+
+    ResponseEntity<StreamingResponseBody> response = controller.streamTraineeActions(token);
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+    assertThat("Unexpected response body presence.", response.hasBody(), is(false));
+
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void shouldStreamTraineeActionsAsNdjson() throws IOException {
+    ActionDto dto1 = new ActionDto("1", "REVIEW_DATA", TRAINEE_ID, null, null, null, null);
+    ActionDto dto2 = new ActionDto("2", "SIGN_COJ", TRAINEE_ID, null, null, null, null);
+    when(service.streamIncompleteTraineeActions(TRAINEE_ID)).thenReturn(Stream.of(dto1, dto2));
+
+    ResponseEntity<StreamingResponseBody> response = controller.streamTraineeActions(
+        buildToken());
+
+    assertThat("Unexpected status code.", response.getStatusCode(), is(HttpStatus.OK));
+    assertThat("Unexpected content type.", response.getHeaders().getContentType(),
+        is(MediaType.APPLICATION_NDJSON));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+    assertThat("Unexpected line count.", lines.length, is(2));
+    assertThat("Unexpected action.", objectMapper.readValue(lines[0], ActionDto.class), is(dto1));
+    assertThat("Unexpected action.", objectMapper.readValue(lines[1], ActionDto.class), is(dto2));
+  }
+
+  private String buildToken() {
+    String payload = String.format("{\"%s\":\"%s\"}", "custom:tisId", TRAINEE_ID);
+    String encodedPayload = Base64.getEncoder()
+        .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    return String.format("aa.%s.cc", encodedPayload);
+  }
+
+  private Map<String, List<ActionDto>> readStreamedActions(
+      ResponseEntity<StreamingResponseBody> response) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+    return objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+    });
+  }
 }
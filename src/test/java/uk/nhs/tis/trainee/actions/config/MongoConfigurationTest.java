@@ -24,23 +24,41 @@ package uk.nhs.tis.trainee.actions.config;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.IndexOperations;
 import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.model.ProcessedMessage;
 
 class MongoConfigurationTest {
 
+  private static final Duration OUTBOX_RETENTION = Duration.ofDays(7);
+  private static final Duration DEDUPE_TTL = Duration.ofHours(1);
+
   private MongoConfiguration configuration;
 
   private MongoTemplate template;
@@ -48,7 +66,55 @@ class MongoConfigurationTest {
   @BeforeEach
   void setUp() {
     template = mock(MongoTemplate.class);
-    configuration = new MongoConfiguration(template);
+    configuration = new MongoConfiguration(template, OUTBOX_RETENTION, DEDUPE_TTL);
+
+    when(template.indexOps(OutboxEntry.class)).thenReturn(mock(IndexOperations.class));
+    when(template.indexOps(ProcessedMessage.class)).thenReturn(mock(IndexOperations.class));
+  }
+
+  @Test
+  void shouldVerifyTransactionSupportWhenReplicaSet() {
+    when(template.executeCommand(any(Document.class))).thenReturn(
+        new Document("setName", "rs0").append("maxWireVersion", 7)
+            .append("logicalSessionTimeoutMinutes", 30));
+
+    assertDoesNotThrow(() -> configuration.verifyTransactionSupport());
+  }
+
+  @Test
+  void shouldVerifyTransactionSupportWhenShardedCluster() {
+    when(template.executeCommand(any(Document.class))).thenReturn(
+        new Document("msg", "isdbgrid").append("maxWireVersion", 8)
+            .append("logicalSessionTimeoutMinutes", 30));
+
+    assertDoesNotThrow(() -> configuration.verifyTransactionSupport());
+  }
+
+  @Test
+  void shouldFailTransactionSupportWhenStandalone() {
+    when(template.executeCommand(any(Document.class))).thenReturn(
+        new Document("maxWireVersion", 21).append("logicalSessionTimeoutMinutes", 30));
+
+    assertThrows(IllegalStateException.class, () -> configuration.verifyTransactionSupport());
+  }
+
+  @Test
+  void shouldFailTransactionSupportWhenSessionsNotSupported() {
+    when(template.executeCommand(any(Document.class))).thenReturn(
+        new Document("setName", "rs0").append("maxWireVersion", 21));
+
+    assertThrows(IllegalStateException.class, () -> configuration.verifyTransactionSupport());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"setName", "msg"})
+  void shouldFailTransactionSupportWhenVersionTooOld(String topologyField) {
+    String topology = topologyField.equals("msg") ? "isdbgrid" : "rs0";
+    when(template.executeCommand(any(Document.class))).thenReturn(
+        new Document(topologyField, topology).append("maxWireVersion", 6)
+            .append("logicalSessionTimeoutMinutes", 30));
+
+    assertThrows(IllegalStateException.class, () -> configuration.verifyTransactionSupport());
   }
 
   @Test
@@ -62,16 +128,36 @@ class MongoConfigurationTest {
     verify(indexOperations, atLeastOnce()).createIndex(indexCaptor.capture());
 
     List<Index> indexes = indexCaptor.getAllValues();
-    assertThat("Unexpected number of indexes.", indexes.size(), is(2));
+    assertThat("Unexpected number of indexes.", indexes.size(), is(4));
 
     List<String> indexKeys = indexes.stream()
         .flatMap(i -> i.getIndexKeys().keySet().stream())
         .toList();
-    assertThat("Unexpected number of index keys.", indexKeys.size(), is(3));
+    assertThat("Unexpected number of index keys.", indexKeys.size(), is(12));
+  }
+
+  @Test
+  void shouldInitTraineeReferenceIndexForActionCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(Action.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+    verify(indexOperations, atLeastOnce()).createIndex(indexCaptor.capture());
+
+    List<Index> indexes = indexCaptor.getAllValues();
+    Set<String> indexKeys = indexes.stream()
+        .filter(i -> i.getIndexOptions().get("name").equals("traineeReferenceIndex"))
+        .map(i -> i.getIndexKeys().keySet())
+        .findAny()
+        .orElseThrow();
+    assertThat("Unexpected index keys.", List.copyOf(indexKeys),
+        is(List.of("traineeId", "tisReferenceInfo.id", "tisReferenceInfo.type", "type")));
   }
 
   @Test
-  void shouldInitTraineeIndexForActionCollection() {
+  void shouldInitIncompleteTraineeIndexForActionCollection() {
     IndexOperations indexOperations = mock(IndexOperations.class);
     when(template.indexOps(Action.class)).thenReturn(indexOperations);
 
@@ -82,12 +168,32 @@ class MongoConfigurationTest {
 
     List<Index> indexes = indexCaptor.getAllValues();
     Set<String> indexKeys = indexes.stream()
-        .filter(i -> i.getIndexOptions().get("name").equals("traineeIndex"))
+        .filter(i -> i.getIndexOptions().get("name").equals("incompleteTraineeIndex"))
         .map(i -> i.getIndexKeys().keySet())
         .findAny()
         .orElseThrow();
-    assertThat("Unexpected number of index keys.", indexKeys.size(), is(1));
-    assertThat("Unexpected index keys.", indexKeys, hasItems("traineeId"));
+    assertThat("Unexpected index keys.", List.copyOf(indexKeys),
+        is(List.of("traineeId", "completed", "dueBy")));
+  }
+
+  @Test
+  void shouldInitTraineeDueIndexForActionCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(Action.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+    verify(indexOperations, atLeastOnce()).createIndex(indexCaptor.capture());
+
+    List<Index> indexes = indexCaptor.getAllValues();
+    Set<String> indexKeys = indexes.stream()
+        .filter(i -> i.getIndexOptions().get("name").equals("traineeDueIndex"))
+        .map(i -> i.getIndexKeys().keySet())
+        .findAny()
+        .orElseThrow();
+    assertThat("Unexpected index keys.", List.copyOf(indexKeys),
+        is(List.of("traineeId", "dueBy", "_id")));
   }
 
   @Test
@@ -109,4 +215,97 @@ class MongoConfigurationTest {
     assertThat("Unexpected number of index keys.", indexKeys.size(), is(2));
     assertThat("Unexpected index keys.", indexKeys, hasItems("type", "tisReferenceInfo"));
   }
+
+  @Test
+  void shouldInitSentExpiryIndexForOutboxCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(Action.class)).thenReturn(mock(IndexOperations.class));
+    when(template.indexOps(OutboxEntry.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+    verify(indexOperations).createIndex(indexCaptor.capture());
+
+    Index index = indexCaptor.getValue();
+    assertThat("Unexpected index name.", index.getIndexOptions().get("name"), is("sentExpiry"));
+    assertThat("Unexpected index keys.", index.getIndexKeys().keySet(), is(Set.of("sent")));
+    assertThat("Unexpected index expiry.", index.getIndexOptions().get("expireAfterSeconds"),
+        is(OUTBOX_RETENTION.toSeconds()));
+  }
+
+  @Test
+  void shouldInitProcessedExpiryIndexForProcessedMessageCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(Action.class)).thenReturn(mock(IndexOperations.class));
+    when(template.indexOps(ProcessedMessage.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<Index> indexCaptor = ArgumentCaptor.forClass(Index.class);
+    verify(indexOperations).createIndex(indexCaptor.capture());
+
+    Index index = indexCaptor.getValue();
+    assertThat("Unexpected index name.", index.getIndexOptions().get("name"),
+        is("processedExpiry"));
+    assertThat("Unexpected index keys.", index.getIndexKeys().keySet(),
+        is(Set.of("processed")));
+    assertThat("Unexpected index expiry.", index.getIndexOptions().get("expireAfterSeconds"),
+        is(DEDUPE_TTL.toSeconds()));
+  }
+
+  @Test
+  void shouldFindNoUnindexedQueriesWhenAllQueriesUseIndexes() {
+    stubExplain(new Document("queryPlanner", new Document("winningPlan",
+        new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN")))));
+
+    List<String> unindexed = configuration.findUnindexedQueries();
+
+    assertThat("Unexpected unindexed query count.", unindexed.size(), is(0));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"COLLSCAN", "SORT"})
+  void shouldFindUnindexedQueriesWhenQueriesFallBack(String stage) {
+    stubExplain(new Document("queryPlanner", new Document("winningPlan",
+        new Document("queryPlan", new Document("stage", "OR").append("inputStages",
+            List.of(new Document("stage", "IXSCAN"), new Document("stage", stage)))))));
+
+    List<String> unindexed = configuration.findUnindexedQueries();
+
+    assertThat("Unexpected unindexed queries.", unindexed,
+        hasItems("moveActions", "findAvailableIncompleteActions",
+            "findByTraineeReferences", "findProgrammeMembershipAndPersonActions",
+            "applyChanges.findStoredActions", "applyChanges.completeOrDeleteIncomplete",
+            "applyChanges.reschedule", "applyChanges.delete"));
+  }
+
+  @Test
+  void shouldNotFailWhenQueryPlansCanNotBeVerified() {
+    when(template.getCollectionName(Action.class)).thenReturn("Action");
+    when(template.getCollection("Action")).thenThrow(new MongoException("Unavailable."));
+
+    assertDoesNotThrow(() -> configuration.verifyIndexes());
+  }
+
+  @Test
+  void shouldCreateMongoTransactionManager() {
+    MongoDatabaseFactory databaseFactory = mock(MongoDatabaseFactory.class);
+
+    MongoTransactionManager transactionManager = configuration.transactionManager(
+        databaseFactory);
+
+    assertThat("Unexpected database factory.", transactionManager.getDatabaseFactory(),
+        is(databaseFactory));
+  }
+
+  private void stubExplain(Document explained) {
+    MongoCollection<Document> collection = mock(MongoCollection.class);
+    FindIterable<Document> findIterable = mock(FindIterable.class);
+    when(template.getCollectionName(Action.class)).thenReturn("Action");
+    when(template.getCollection("Action")).thenReturn(collection);
+    when(collection.find(any(Bson.class))).thenReturn(findIterable);
+    when(findIterable.sort(any())).thenReturn(findIterable);
+    when(findIterable.explain()).thenReturn(explained);
+  }
 }
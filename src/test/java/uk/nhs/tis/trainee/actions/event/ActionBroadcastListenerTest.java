@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
+import uk.nhs.tis.trainee.actions.service.TraineeActionCache;
+
+class ActionBroadcastListenerTest {
+
+  private static final String ACTION_ID = "1";
+  private static final String TRAINEE_ID = "40";
+
+  private ActionBroadcastListener listener;
+  private TraineeActionCache cache;
+  private MeterRegistry registry;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    cache = new TraineeActionCache(registry, 10, Duration.ofMinutes(5), "actionBroadcastQueue");
+    listener = new ActionBroadcastListener(cache, registry);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void shouldInvalidateCachedActionsOfTraineeWhenActionBroadcast() {
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+
+    listener.handleActionBroadcast(
+        buildBroadcast("2", TRAINEE_ID, ActionStatus.CURRENT, Instant.now()));
+
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+    assertThat("Unexpected load count.", loads.get(), is(2));
+  }
+
+  @Test
+  void shouldInvalidateCachedActionsOfTraineeWhenDeletedActionBroadcast() {
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+
+    listener.handleActionBroadcast(
+        buildBroadcast(ACTION_ID, null, ActionStatus.DELETED, Instant.now()));
+
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+    assertThat("Unexpected load count.", loads.get(), is(2));
+  }
+
+  @Test
+  void shouldNotInvalidateOtherCachedActionsWhenDeletedActionBroadcast() {
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+
+    listener.handleActionBroadcast(
+        buildBroadcast("2", null, ActionStatus.DELETED, Instant.now()));
+
+    cache.get(TRAINEE_ID, loader(ACTION_ID));
+    assertThat("Unexpected load count.", loads.get(), is(1));
+  }
+
+  @Test
+  void shouldRecordInvalidationLagWhenStatusDatetimeSet() {
+    Instant statusDatetime = Instant.now().minusSeconds(2);
+
+    listener.handleActionBroadcast(
+        buildBroadcast(ACTION_ID, TRAINEE_ID, ActionStatus.CURRENT, statusDatetime));
+
+    assertThat("Unexpected lag count.",
+        registry.get("actions.cache.invalidation.lag").timer().count(), is(1L));
+    assertThat("Unexpected lag.", registry.get("actions.cache.invalidation.lag").timer()
+        .totalTime(TimeUnit.SECONDS) >= 2, is(true));
+  }
+
+  @Test
+  void shouldNotRecordInvalidationLagWhenStatusDatetimeNull() {
+    listener.handleActionBroadcast(
+        buildBroadcast(ACTION_ID, TRAINEE_ID, ActionStatus.CURRENT, null));
+
+    assertThat("Unexpected lag count.",
+        registry.get("actions.cache.invalidation.lag").timer().count(), is(0L));
+  }
+
+  private Supplier<List<ActionDto>> loader(String actionId) {
+    return () -> {
+      loads.incrementAndGet();
+      return List.of(new ActionDto(actionId, "REVIEW_DATA", TRAINEE_ID, null, null, null, null));
+    };
+  }
+
+  private ActionBroadcastDto buildBroadcast(String id, String traineeId, ActionStatus status,
+      Instant statusDatetime) {
+    return new ActionBroadcastDto(id, "REVIEW_DATA", traineeId, null, null, null, null, status,
+        statusDatetime);
+  }
+}
@@ -23,14 +23,21 @@
 package uk.nhs.tis.trainee.actions.event;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import uk.nhs.tis.trainee.actions.dto.FormUpdateEvent;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
@@ -44,7 +51,10 @@ class FormListenerTest {
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    listener = new FormListener(service);
+    listener = new FormListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false),
+        new MessageDeduplicator(mock(MongoTemplate.class), new SimpleMeterRegistry(), 10,
+            Duration.ofHours(1), false));
   }
 
   @Test
@@ -58,8 +68,50 @@ class FormListenerTest {
     FormUpdateEvent event = new FormUpdateEvent("form name", "SUBMITTED",
         TRAINEE_ID, "formr-a", Instant.now(), Map.of());
 
-    listener.handleFormUpdate(event);
+    listener.handleFormUpdate(MessageBuilder.withPayload(event).build()).join();
 
     verify(service).updateAction(event);
   }
+
+  @Test
+  void shouldSkipRedeliveredEvent() {
+    FormUpdateEvent event = new FormUpdateEvent("form name", "SUBMITTED",
+        TRAINEE_ID, "formr-a", Instant.now(), Map.of());
+    Message<FormUpdateEvent> message = MessageBuilder.withPayload(event).build();
+
+    listener.handleFormUpdate(message).join();
+    listener.handleFormUpdate(message).join();
+
+    verify(service, times(1)).updateAction(any(FormUpdateEvent.class));
+  }
+
+  @Test
+  void shouldNotSkipDistinctEvents() {
+    FormUpdateEvent event1 = new FormUpdateEvent("form name", "SUBMITTED",
+        TRAINEE_ID, "formr-a", Instant.now(), Map.of());
+    FormUpdateEvent event2 = new FormUpdateEvent("form name", "APPROVED",
+        TRAINEE_ID, "formr-a", Instant.now(), Map.of());
+
+    listener.handleFormUpdate(MessageBuilder.withPayload(event1).build()).join();
+    listener.handleFormUpdate(MessageBuilder.withPayload(event2).build()).join();
+
+    verify(service).updateAction(event1);
+    verify(service).updateAction(event2);
+  }
+
+  @Test
+  void shouldNotSkipRepeatedContentInDistinctMessages() {
+    Instant eventDate = Instant.now();
+    FormUpdateEvent submitted = new FormUpdateEvent("form name", "SUBMITTED",
+        TRAINEE_ID, "formr-a", eventDate, Map.of());
+    FormUpdateEvent unsubmitted = new FormUpdateEvent("form name", "UNSUBMITTED",
+        TRAINEE_ID, "formr-a", eventDate, Map.of());
+
+    listener.handleFormUpdate(MessageBuilder.withPayload(submitted).build()).join();
+    listener.handleFormUpdate(MessageBuilder.withPayload(unsubmitted).build()).join();
+    listener.handleFormUpdate(MessageBuilder.withPayload(submitted).build()).join();
+
+    verify(service, times(2)).updateAction(submitted);
+    verify(service).updateAction(unsubmitted);
+  }
 }
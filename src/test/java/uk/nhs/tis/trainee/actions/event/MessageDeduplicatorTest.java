@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import uk.nhs.tis.trainee.actions.model.ProcessedMessage;
+
+class MessageDeduplicatorTest {
+
+  private static final Duration TTL = Duration.ofHours(1);
+
+  private MongoTemplate template;
+  private MeterRegistry registry;
+  private MessageDeduplicator deduplicator;
+
+  private AtomicInteger handled;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(MongoTemplate.class);
+    registry = new SimpleMeterRegistry();
+    deduplicator = new MessageDeduplicator(template, registry, 10, TTL, false);
+    handled = new AtomicInteger();
+  }
+
+  @Test
+  void shouldHandleFirstMessage() {
+    deduplicator.deduplicate(buildMessage(new TestEvent("1", Instant.now())), this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(1));
+    assertThat("Unexpected miss count.", getCount("miss"), is(1.0));
+    assertThat("Unexpected hit count.", getCount("hit"), is(0.0));
+  }
+
+  @Test
+  void shouldSkipRedeliveredMessage() {
+    Message<TestEvent> message = buildMessage(new TestEvent("1", Instant.now()));
+
+    deduplicator.deduplicate(message, this::handle).join();
+    deduplicator.deduplicate(message, this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(1));
+    assertThat("Unexpected miss count.", getCount("miss"), is(1.0));
+    assertThat("Unexpected hit count.", getCount("hit"), is(1.0));
+    assertThat("Unexpected hit rate.", registry.get("actions.dedupe.hit.rate").gauge().value(),
+        is(0.5));
+  }
+
+  @Test
+  void shouldHandleMessagesWithSameContentAndDifferentIds() {
+    TestEvent event = new TestEvent("1", Instant.now());
+
+    deduplicator.deduplicate(buildMessage(event), this::handle).join();
+    deduplicator.deduplicate(buildMessage(new TestEvent("2", Instant.now())), this::handle).join();
+    deduplicator.deduplicate(buildMessage(event), this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(3));
+  }
+
+  @Test
+  void shouldHandleMessageAgainWhenHandlingFailed() {
+    Message<TestEvent> message = buildMessage(new TestEvent("1", Instant.now()));
+
+    CompletableFuture<Void> failed = deduplicator.deduplicate(message,
+        () -> CompletableFuture.failedFuture(new IllegalStateException("Expected error.")));
+    assertThrows(CompletionException.class, failed::join);
+
+    deduplicator.deduplicate(message, this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(1));
+  }
+
+  @Test
+  void shouldHandleMessageAgainWhenTtlExpired() {
+    deduplicator = new MessageDeduplicator(template, registry, 10, Duration.ZERO,
+        false);
+    Message<TestEvent> message = buildMessage(new TestEvent("1", Instant.now()));
+
+    deduplicator.deduplicate(message, this::handle).join();
+    deduplicator.deduplicate(message, this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(2));
+  }
+
+  @Test
+  void shouldHandleMessageAgainWhenEvictedFromCache() {
+    deduplicator = new MessageDeduplicator(template, registry, 1, TTL, false);
+    Message<TestEvent> message1 = buildMessage(new TestEvent("1", Instant.now()));
+    Message<TestEvent> message2 = buildMessage(new TestEvent("2", Instant.now()));
+
+    deduplicator.deduplicate(message1, this::handle).join();
+    deduplicator.deduplicate(message2, this::handle).join();
+    deduplicator.deduplicate(message1, this::handle).join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(3));
+  }
+
+  @Test
+  void shouldNotUseSharedStoreWhenNotShared() {
+    deduplicator.deduplicate(buildMessage(new TestEvent("1", Instant.now())), this::handle)
+        .join();
+
+    verifyNoInteractions(template);
+  }
+
+  @Test
+  void shouldSkipMessageProcessedByAnotherInstanceWhenShared() {
+    deduplicator = new MessageDeduplicator(template, registry, 10, TTL, true);
+    when(template.findOne(any(Query.class), eq(ProcessedMessage.class))).thenReturn(
+        new ProcessedMessage("key", Instant.now()));
+
+    deduplicator.deduplicate(buildMessage(new TestEvent("1", Instant.now())), this::handle)
+        .join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(0));
+    assertThat("Unexpected hit count.", getCount("hit"), is(1.0));
+  }
+
+  @Test
+  void shouldRecordProcessedMessageWhenShared() {
+    deduplicator = new MessageDeduplicator(template, registry, 10, TTL, true);
+
+    deduplicator.deduplicate(buildMessage(new TestEvent("1", Instant.now())), this::handle)
+        .join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(1));
+    verify(template).save(any(ProcessedMessage.class));
+  }
+
+  @Test
+  void shouldHandleMessageWhenSharedStoreUnavailable() {
+    deduplicator = new MessageDeduplicator(template, registry, 10, TTL, true);
+    when(template.findOne(any(Query.class), eq(ProcessedMessage.class))).thenThrow(
+        new DataAccessResourceFailureException("Expected error."));
+    when(template.save(any(ProcessedMessage.class))).thenThrow(
+        new DataAccessResourceFailureException("Expected error."));
+
+    deduplicator.deduplicate(buildMessage(new TestEvent("1", Instant.now())), this::handle)
+        .join();
+
+    assertThat("Unexpected handled count.", handled.get(), is(1));
+  }
+
+  private CompletableFuture<Void> handle() {
+    handled.incrementAndGet();
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private static <T> Message<T> buildMessage(T payload) {
+    return MessageBuilder.withPayload(payload).build();
+  }
+
+  private double getCount(String result) {
+    return registry.get("actions.dedupe").tag("result", result).counter().count();
+  }
+
+  record TestEvent(String id, Instant timestamp) {
+
+  }
+}
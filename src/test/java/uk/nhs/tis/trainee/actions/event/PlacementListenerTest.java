@@ -25,20 +25,31 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
 import uk.nhs.tis.trainee.actions.dto.PlacementDto;
 import uk.nhs.tis.trainee.actions.service.ActionService;
 
@@ -56,7 +67,9 @@ class PlacementListenerTest {
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    listener = new PlacementListener(service);
+    listener = new PlacementListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false),
+        new SyncEventCoalescer(new SimpleMeterRegistry(), Duration.ZERO));
     mapper = JsonMapper.builder()
         .findAndAddModules()
         .build();
@@ -122,4 +135,135 @@ class PlacementListenerTest {
     assertThat("Unexpected trainee ID", dto.traineeId(), is(TRAINEE_ID));
     assertThat("Unexpected start date", dto.startDate(), is(START_DATE));
   }
+
+  @Test
+  void shouldUpdateActionsAsBatchWhenAllSyncEventsValid() throws JsonProcessingException {
+    PlacementEvent event1 = buildEvent(Operation.LOAD);
+    PlacementEvent event2 = buildEvent(Operation.DELETE);
+    List<Message<PlacementEvent>> messages = List.of(
+        MessageBuilder.withPayload(event1).build(),
+        MessageBuilder.withPayload(event2).build());
+    BatchAcknowledgement<PlacementEvent> acknowledgement = mock(BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+    when(service.updatePlacementActions(any())).thenReturn(
+        CompletableFuture.completedFuture(List.of()));
+
+    listener.handlePlacementSync(messages, acknowledgement).join();
+
+    verify(service).updatePlacementActions(List.of(event1, event2));
+    verify(service, never()).updateActions(any(Operation.class), any(PlacementDto.class));
+    verify(acknowledgement).acknowledgeAsync(messages);
+  }
+
+  @Test
+  void shouldNotAcknowledgeBatchUntilBroadcastComplete() throws JsonProcessingException {
+    PlacementEvent event1 = buildEvent(Operation.LOAD);
+    PlacementEvent event2 = buildEvent(Operation.DELETE);
+    List<Message<PlacementEvent>> messages = List.of(
+        MessageBuilder.withPayload(event1).build(),
+        MessageBuilder.withPayload(event2).build());
+    BatchAcknowledgement<PlacementEvent> acknowledgement = mock(BatchAcknowledgement.class);
+
+    CompletableFuture<List<ActionDto>> broadcast = new CompletableFuture<>();
+    when(service.updatePlacementActions(any())).thenReturn(broadcast);
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+
+    CompletableFuture<Void> result = listener.handlePlacementSync(messages, acknowledgement);
+
+    assertThat("Unexpected completion.", result.isDone(), is(false));
+    verify(acknowledgement, never()).acknowledgeAsync(any());
+
+    broadcast.complete(List.of());
+
+    result.join();
+    verify(acknowledgement).acknowledgeAsync(messages);
+  }
+
+  @Test
+  void shouldOnlyAcknowledgeSuccessfulSyncEventsWhenBatchFails() throws JsonProcessingException {
+    PlacementEvent event1 = buildEvent(Operation.LOAD);
+    PlacementEvent event2 = buildEvent(Operation.DELETE);
+    Message<PlacementEvent> message1 = MessageBuilder.withPayload(event1).build();
+    Message<PlacementEvent> message2 = MessageBuilder.withPayload(event2).build();
+    BatchAcknowledgement<PlacementEvent> acknowledgement = mock(BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+    when(service.updatePlacementActions(any())).thenThrow(IllegalStateException.class);
+    when(service.updateActions(eq(Operation.DELETE), any(PlacementDto.class))).thenThrow(
+        IllegalStateException.class);
+
+    listener.handlePlacementSync(List.of(message1, message2), acknowledgement).join();
+
+    verify(service).updateActions(eq(Operation.LOAD), any(PlacementDto.class));
+    verify(service).updateActions(eq(Operation.DELETE), any(PlacementDto.class));
+    verify(acknowledgement).acknowledgeAsync(List.of(message1));
+  }
+
+  @Test
+  void shouldNotAcknowledgeIncompleteSyncEventsInBatch() throws JsonProcessingException {
+    PlacementEvent validEvent = buildEvent(Operation.LOAD);
+    PlacementEvent invalidEvent = mapper.readValue("""
+        {
+          "record": {
+            "operation": "LOAD"
+          }
+        }""", PlacementEvent.class);
+    Message<PlacementEvent> validMessage = MessageBuilder.withPayload(validEvent).build();
+    Message<PlacementEvent> invalidMessage = MessageBuilder.withPayload(invalidEvent).build();
+    BatchAcknowledgement<PlacementEvent> acknowledgement = mock(BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+
+    listener.handlePlacementSync(List.of(validMessage, invalidMessage), acknowledgement).join();
+
+    verify(service, never()).updatePlacementActions(any());
+    verify(service).updateActions(eq(Operation.LOAD), any(PlacementDto.class));
+    verify(acknowledgement).acknowledgeAsync(List.of(validMessage));
+  }
+
+  @Test
+  void shouldOnlyProcessLatestSyncEventPerPlacementWhenCoalescing()
+      throws JsonProcessingException {
+    listener = new PlacementListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false),
+        new SyncEventCoalescer(new SimpleMeterRegistry(), Duration.ofMillis(10)));
+
+    Message<PlacementEvent> loadMessage = MessageBuilder.withPayload(buildEvent(Operation.LOAD))
+        .build();
+    Message<PlacementEvent> deleteMessage = MessageBuilder.withPayload(
+        buildEvent(Operation.DELETE)).build();
+    BatchAcknowledgement<PlacementEvent> acknowledgement = mock(BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+    when(service.updatePlacementActions(any())).thenReturn(
+        CompletableFuture.completedFuture(List.of()));
+
+    listener.handlePlacementSync(List.of(loadMessage, deleteMessage), acknowledgement).join();
+
+    verify(service).updatePlacementActions(List.of(deleteMessage.getPayload()));
+    verify(acknowledgement).acknowledgeAsync(List.of(loadMessage));
+    verify(acknowledgement).acknowledgeAsync(List.of(deleteMessage));
+  }
+
+  private PlacementEvent buildEvent(Operation operation) throws JsonProcessingException {
+    String eventJson = """
+        {
+          "record": {
+            "data": {
+              "tisId": "%s",
+              "traineeId": "%s",
+              "dateFrom": "%s",
+              "placementType": "In post"
+            },
+            "operation": "%s"
+          }
+        }""".formatted(PLACEMENT_ID, TRAINEE_ID, START_DATE, operation);
+    return mapper.readValue(eventJson, PlacementEvent.class);
+  }
 }
@@ -28,6 +28,7 @@ import static org.mockito.Mockito.verify;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,7 +49,8 @@ class ProfileMoveListenerTest {
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    listener = new ProfileMoveListener(service);
+    listener = new ProfileMoveListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false));
     mapper = JsonMapper.builder()
         .findAndAddModules()
         .build();
@@ -63,7 +65,7 @@ class ProfileMoveListenerTest {
         }""".formatted(FROM_TRAINEE_ID, TO_TRAINEE_ID);
     ProfileMoveEvent event = mapper.readValue(eventJson, ProfileMoveEvent.class);
 
-    listener.handleProfileMove(event);
+    listener.handleProfileMove(event).join();
 
     verify(service).moveActions(FROM_TRAINEE_ID, TO_TRAINEE_ID);
   }
@@ -24,21 +24,34 @@ package uk.nhs.tis.trainee.actions.event;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
 import uk.nhs.tis.trainee.actions.dto.CojReceivedEvent;
 import uk.nhs.tis.trainee.actions.dto.ConditionsOfJoining;
 import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
@@ -58,10 +71,14 @@ class ProgrammeMembershipListenerTest {
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    listener = new ProgrammeMembershipListener(service);
     mapper = JsonMapper.builder()
         .findAndAddModules()
         .build();
+    listener = new ProgrammeMembershipListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false),
+        new SyncEventCoalescer(new SimpleMeterRegistry(), Duration.ZERO),
+        new MessageDeduplicator(mock(MongoTemplate.class), new SimpleMeterRegistry(), 10,
+            Duration.ofHours(1), false));
   }
 
   @Test
@@ -152,6 +169,105 @@ class ProgrammeMembershipListenerTest {
     assertThat("Unexpected start date", dto.startDate(), is(START_DATE));
   }
 
+  @Test
+  void shouldUpdateActionsAsBatchWhenAllSyncEventsValid() throws JsonProcessingException {
+    ProgrammeMembershipEvent event1 = buildEvent(Operation.LOAD);
+    ProgrammeMembershipEvent event2 = buildEvent(Operation.DELETE);
+    List<Message<ProgrammeMembershipEvent>> messages = List.of(
+        MessageBuilder.withPayload(event1).build(),
+        MessageBuilder.withPayload(event2).build());
+    BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement = mock(
+        BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+    when(service.updateProgrammeMembershipActions(any())).thenReturn(
+        CompletableFuture.completedFuture(List.of()));
+
+    listener.handleProgrammeMembershipSync(messages, acknowledgement).join();
+
+    verify(service).updateProgrammeMembershipActions(List.of(event1, event2));
+    verify(service, never()).updateActions(any(Operation.class),
+        any(ProgrammeMembershipDto.class));
+    verify(acknowledgement).acknowledgeAsync(messages);
+  }
+
+  @Test
+  void shouldNotAcknowledgeBatchUntilBroadcastComplete() throws JsonProcessingException {
+    ProgrammeMembershipEvent event1 = buildEvent(Operation.LOAD);
+    ProgrammeMembershipEvent event2 = buildEvent(Operation.DELETE);
+    List<Message<ProgrammeMembershipEvent>> messages = List.of(
+        MessageBuilder.withPayload(event1).build(),
+        MessageBuilder.withPayload(event2).build());
+    BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement = mock(
+        BatchAcknowledgement.class);
+
+    CompletableFuture<List<ActionDto>> broadcast = new CompletableFuture<>();
+    when(service.updateProgrammeMembershipActions(any())).thenReturn(broadcast);
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+
+    CompletableFuture<Void> result = listener.handleProgrammeMembershipSync(messages,
+        acknowledgement);
+
+    assertThat("Unexpected completion.", result.isDone(), is(false));
+    verify(acknowledgement, never()).acknowledgeAsync(any());
+
+    broadcast.complete(List.of());
+
+    result.join();
+    verify(acknowledgement).acknowledgeAsync(messages);
+  }
+
+  @Test
+  void shouldOnlyAcknowledgeSuccessfulSyncEventsWhenBatchFails() throws JsonProcessingException {
+    ProgrammeMembershipEvent event1 = buildEvent(Operation.LOAD);
+    ProgrammeMembershipEvent event2 = buildEvent(Operation.DELETE);
+    Message<ProgrammeMembershipEvent> message1 = MessageBuilder.withPayload(event1).build();
+    Message<ProgrammeMembershipEvent> message2 = MessageBuilder.withPayload(event2).build();
+    BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement = mock(
+        BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+    when(service.updateProgrammeMembershipActions(any())).thenThrow(IllegalStateException.class);
+    when(service.updateActions(eq(Operation.DELETE), any(ProgrammeMembershipDto.class)))
+        .thenThrow(IllegalStateException.class);
+
+    listener.handleProgrammeMembershipSync(List.of(message1, message2), acknowledgement).join();
+
+    verify(service).updateActions(eq(Operation.LOAD), any(ProgrammeMembershipDto.class));
+    verify(service).updateActions(eq(Operation.DELETE), any(ProgrammeMembershipDto.class));
+    verify(acknowledgement).acknowledgeAsync(List.of(message1));
+  }
+
+  @Test
+  void shouldNotAcknowledgeIncompleteSyncEventsInBatch() throws JsonProcessingException {
+    ProgrammeMembershipEvent validEvent = buildEvent(Operation.LOAD);
+    ProgrammeMembershipEvent invalidEvent = mapper.readValue("""
+        {
+          "record": {
+            "operation": "LOAD"
+          }
+        }""", ProgrammeMembershipEvent.class);
+    Message<ProgrammeMembershipEvent> validMessage = MessageBuilder.withPayload(validEvent)
+        .build();
+    Message<ProgrammeMembershipEvent> invalidMessage = MessageBuilder.withPayload(invalidEvent)
+        .build();
+    BatchAcknowledgement<ProgrammeMembershipEvent> acknowledgement = mock(
+        BatchAcknowledgement.class);
+
+    when(acknowledgement.acknowledgeAsync(any())).thenReturn(
+        CompletableFuture.completedFuture(null));
+
+    listener.handleProgrammeMembershipSync(List.of(validMessage, invalidMessage),
+        acknowledgement).join();
+
+    verify(service, never()).updateProgrammeMembershipActions(any());
+    verify(service).updateActions(eq(Operation.LOAD), any(ProgrammeMembershipDto.class));
+    verify(acknowledgement).acknowledgeAsync(List.of(validMessage));
+  }
+
   @Test
   void shouldThrowExceptionWhenCojEventNull() {
     assertThrows(IllegalArgumentException.class,
@@ -161,9 +277,10 @@ class ProgrammeMembershipListenerTest {
   @Test
   void shouldThrowExceptionWhenCojDataNull() {
     CojReceivedEvent event = new CojReceivedEvent(PROGRAMME_MEMBERSHIP_ID, TRAINEE_ID, null);
+    Message<CojReceivedEvent> message = MessageBuilder.withPayload(event).build();
 
     assertThrows(IllegalArgumentException.class,
-        () -> listener.handleCojReceived(event));
+        () -> listener.handleCojReceived(message));
   }
 
   @Test
@@ -171,8 +288,47 @@ class ProgrammeMembershipListenerTest {
     ConditionsOfJoining coj = new ConditionsOfJoining(Instant.now(), "1.0", Instant.now());
     CojReceivedEvent event = new CojReceivedEvent(PROGRAMME_MEMBERSHIP_ID, TRAINEE_ID, coj);
 
-    listener.handleCojReceived(event);
+    listener.handleCojReceived(MessageBuilder.withPayload(event).build()).join();
 
     verify(service).updateAction(event);
   }
+
+  @Test
+  void shouldSkipRedeliveredCojEvent() {
+    ConditionsOfJoining coj = new ConditionsOfJoining(Instant.now(), "1.0", Instant.now());
+    CojReceivedEvent event = new CojReceivedEvent(PROGRAMME_MEMBERSHIP_ID, TRAINEE_ID, coj);
+    Message<CojReceivedEvent> message = MessageBuilder.withPayload(event).build();
+
+    listener.handleCojReceived(message).join();
+    listener.handleCojReceived(message).join();
+
+    verify(service, times(1)).updateAction(any(CojReceivedEvent.class));
+  }
+
+  @Test
+  void shouldNotSkipCojEventWithSameContentInDistinctMessage() {
+    ConditionsOfJoining coj = new ConditionsOfJoining(Instant.now(), "1.0", Instant.now());
+    CojReceivedEvent event = new CojReceivedEvent(PROGRAMME_MEMBERSHIP_ID, TRAINEE_ID, coj);
+
+    listener.handleCojReceived(MessageBuilder.withPayload(event).build()).join();
+    listener.handleCojReceived(MessageBuilder.withPayload(event).build()).join();
+
+    verify(service, times(2)).updateAction(event);
+  }
+
+  private ProgrammeMembershipEvent buildEvent(Operation operation)
+      throws JsonProcessingException {
+    String eventJson = """
+        {
+          "record": {
+            "data": {
+              "tisId": "%s",
+              "personId": "%s",
+              "startDate": "%s"
+            },
+            "operation": "%s"
+          }
+        }""".formatted(PROGRAMME_MEMBERSHIP_ID, TRAINEE_ID, START_DATE, operation);
+    return mapper.readValue(eventJson, ProgrammeMembershipEvent.class);
+  }
 }
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import uk.nhs.tis.trainee.actions.event.SyncEventCoalescer.Coalesced;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
+
+class SyncEventCoalescerTest {
+
+  private static final TisReferenceInfo PLACEMENT_1 = new TisReferenceInfo("1", PLACEMENT);
+  private static final TisReferenceInfo PLACEMENT_2 = new TisReferenceInfo("2", PLACEMENT);
+  private static final TisReferenceInfo PROGRAMME_MEMBERSHIP_1 = new TisReferenceInfo("1",
+      PROGRAMME_MEMBERSHIP);
+
+  private MeterRegistry registry;
+  private SyncEventCoalescer coalescer;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    coalescer = new SyncEventCoalescer(registry, Duration.ofMillis(10));
+  }
+
+  @Test
+  void shouldNotCoalesceWhenWindowZero() {
+    coalescer = new SyncEventCoalescer(registry, Duration.ZERO);
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PLACEMENT_1);
+
+    Coalesced<TisReferenceInfo> coalesced = coalescer.coalesce(List.of(message1, message2),
+        Function.identity()).join();
+
+    assertThat("Unexpected latest.", coalesced.latest(), is(List.of(message1, message2)));
+    assertThat("Unexpected superseded.", coalesced.superseded(), is(List.of()));
+  }
+
+  @Test
+  void shouldKeepLatestMessagePerRecordInBatch() {
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PLACEMENT_2);
+    Message<TisReferenceInfo> message3 = buildMessage(PLACEMENT_1);
+
+    Coalesced<TisReferenceInfo> coalesced = coalescer.coalesce(
+        List.of(message1, message2, message3), Function.identity()).join();
+
+    assertThat("Unexpected latest.", coalesced.latest(), is(List.of(message2, message3)));
+    assertThat("Unexpected superseded.", coalesced.superseded(), is(List.of(message1)));
+    assertThat("Unexpected coalesced count.",
+        registry.get("actions.sync.coalesced").counter().count(), is(1.0));
+  }
+
+  @Test
+  void shouldKeepLatestMessagePerRecordAcrossBatches() {
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PLACEMENT_1);
+
+    CompletableFuture<Coalesced<TisReferenceInfo>> first = coalescer.coalesce(
+        List.of(message1), Function.identity());
+    CompletableFuture<Coalesced<TisReferenceInfo>> second = coalescer.coalesce(
+        List.of(message2), Function.identity());
+
+    assertThat("Unexpected first latest.", first.join().latest(), is(List.of()));
+    assertThat("Unexpected first superseded.", first.join().superseded(),
+        is(List.of(message1)));
+    assertThat("Unexpected second latest.", second.join().latest(), is(List.of(message2)));
+    assertThat("Unexpected second superseded.", second.join().superseded(), is(List.of()));
+  }
+
+  @Test
+  void shouldNotCoalesceMessagesForDifferentReferenceTypes() {
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PROGRAMME_MEMBERSHIP_1);
+
+    Coalesced<TisReferenceInfo> coalesced = coalescer.coalesce(List.of(message1, message2),
+        Function.identity()).join();
+
+    assertThat("Unexpected latest.", coalesced.latest(), is(List.of(message1, message2)));
+    assertThat("Unexpected superseded.", coalesced.superseded(), is(List.of()));
+  }
+
+  @Test
+  void shouldNotCoalesceMessagesWithoutReference() {
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PLACEMENT_1);
+
+    Coalesced<TisReferenceInfo> coalesced = coalescer.coalesce(List.of(message1, message2),
+        reference -> null).join();
+
+    assertThat("Unexpected latest.", coalesced.latest(), is(List.of(message1, message2)));
+    assertThat("Unexpected superseded.", coalesced.superseded(), is(List.of()));
+  }
+
+  @Test
+  void shouldNotCoalesceWithMessagesAlreadyReleased() {
+    Message<TisReferenceInfo> message1 = buildMessage(PLACEMENT_1);
+    Message<TisReferenceInfo> message2 = buildMessage(PLACEMENT_1);
+
+    Coalesced<TisReferenceInfo> first = coalescer.coalesce(List.of(message1),
+        Function.identity()).join();
+    Coalesced<TisReferenceInfo> second = coalescer.coalesce(List.of(message2),
+        Function.identity()).join();
+
+    assertThat("Unexpected first latest.", first.latest(), is(List.of(message1)));
+    assertThat("Unexpected second latest.", second.latest(), is(List.of(message2)));
+  }
+
+  private Message<TisReferenceInfo> buildMessage(TisReferenceInfo reference) {
+    return MessageBuilder.withPayload(reference).build();
+  }
+}
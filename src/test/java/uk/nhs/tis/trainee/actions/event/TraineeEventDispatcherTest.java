@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.event;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TraineeEventDispatcherTest {
+
+  private static final String TRAINEE_ID_1 = "trainee1";
+  private static final String TRAINEE_ID_2 = "trainee2";
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private TraineeEventDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    dispatcher = new TraineeEventDispatcher(new SimpleMeterRegistry(), 4, 10, false);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  void shouldProcessEventsForSameTraineeInOrder() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+
+    CompletableFuture<Void> first = dispatcher.dispatch(TRAINEE_ID_1, () -> {
+      await(release);
+      processed.add(1);
+    });
+    CompletableFuture<Void> second = dispatcher.dispatch(TRAINEE_ID_1, () -> processed.add(2));
+
+    Thread.sleep(100);
+    assertThat("Unexpected second event state.", second.isDone(), is(false));
+
+    release.countDown();
+    CompletableFuture.allOf(first, second).join();
+
+    assertThat("Unexpected processing order.", processed, is(List.of(1, 2)));
+  }
+
+  @Test
+  void shouldProcessEventsForDifferentTraineesConcurrently() {
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Void> first = dispatcher.dispatch(TRAINEE_ID_1, () -> await(release));
+    CompletableFuture<Void> second = dispatcher.dispatch(TRAINEE_ID_2, () -> { });
+
+    second.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+    assertThat("Unexpected first event state.", first.isDone(), is(false));
+
+    release.countDown();
+    first.join();
+  }
+
+  @Test
+  void shouldWaitForAllTraineesOfMultiTraineeEvent() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+
+    CompletableFuture<Void> first = dispatcher.dispatch(TRAINEE_ID_1, () -> {
+      await(release);
+      processed.add(1);
+    });
+    CompletableFuture<Void> second = dispatcher.dispatch(
+        List.of(TRAINEE_ID_1, TRAINEE_ID_2), () -> processed.add(2));
+    CompletableFuture<Void> third = dispatcher.dispatch(TRAINEE_ID_2, () -> processed.add(3));
+
+    Thread.sleep(100);
+    assertThat("Unexpected second event state.", second.isDone(), is(false));
+    assertThat("Unexpected third event state.", third.isDone(), is(false));
+
+    release.countDown();
+    CompletableFuture.allOf(first, second, third).join();
+
+    assertThat("Unexpected processing order.", processed, is(List.of(1, 2, 3)));
+  }
+
+  @Test
+  void shouldWaitForAsyncResultBeforeNextEvent() throws InterruptedException {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    CompletableFuture<String> first = dispatcher.dispatchAsync(List.of(TRAINEE_ID_1),
+        () -> pending);
+    CompletableFuture<Void> second = dispatcher.dispatch(TRAINEE_ID_1, () -> { });
+
+    Thread.sleep(100);
+    assertThat("Unexpected second event state.", second.isDone(), is(false));
+
+    pending.complete("result");
+
+    assertThat("Unexpected result.", first.join(), is("result"));
+    second.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+  }
+
+  @Test
+  void shouldProcessLaterEventsWhenEarlierEventFails() {
+    CompletableFuture<Void> first = dispatcher.dispatch(TRAINEE_ID_1, () -> {
+      throw new IllegalStateException("Expected error.");
+    });
+    CompletableFuture<Void> second = dispatcher.dispatch(TRAINEE_ID_1, () -> { });
+
+    CompletionException exception = assertThrows(CompletionException.class, first::join);
+    assertThat("Unexpected cause.", exception.getCause(),
+        instanceOf(IllegalStateException.class));
+    second.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+  }
+
+  @Test
+  void shouldProcessEventsWithoutTraineeId() {
+    CompletableFuture<Void> future = dispatcher.dispatch(Arrays.asList(null, null), () -> { });
+
+    future.orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+    assertThat("Unexpected pending trainees.", dispatcher.getPending(), is(0));
+  }
+
+  @Test
+  void shouldReleaseTraineesWhenEventsComplete() {
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Void> future = dispatcher.dispatch(List.of(TRAINEE_ID_1, TRAINEE_ID_2),
+        () -> await(release));
+
+    assertThat("Unexpected pending trainees.", dispatcher.getPending(), is(2));
+
+    release.countDown();
+    future.join();
+
+    assertThat("Unexpected pending trainees.", dispatcher.getPending(), is(0));
+  }
+
+  @Test
+  void shouldProcessAsManyEventsConcurrentlyAsInFlightWhenWorkersNotSet()
+      throws InterruptedException {
+    TraineeEventDispatcher inFlightDispatcher = new TraineeEventDispatcher(
+        new SimpleMeterRegistry(), 0, 3, false);
+    CountDownLatch started = new CountDownLatch(3);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try {
+      for (String traineeId : List.of(TRAINEE_ID_1, TRAINEE_ID_2, "trainee3")) {
+        inFlightDispatcher.dispatch(traineeId, () -> {
+          started.countDown();
+          await(release);
+        });
+      }
+
+      assertThat("Unexpected concurrent events.",
+          started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+    } finally {
+      release.countDown();
+      inFlightDispatcher.shutdown();
+    }
+  }
+
+  @Test
+  void shouldProcessEventsOnVirtualThreadsWhenEnabled() throws InterruptedException {
+    TraineeEventDispatcher virtualDispatcher = new TraineeEventDispatcher(
+        new SimpleMeterRegistry(), 0, 10, true);
+    List<Boolean> virtual = new CopyOnWriteArrayList<>();
+
+    try {
+      virtualDispatcher.dispatch(TRAINEE_ID_1,
+          () -> virtual.add(Thread.currentThread().isVirtual())).join();
+    } finally {
+      virtualDispatcher.shutdown();
+    }
+
+    assertThat("Unexpected thread type.", virtual, is(List.of(true)));
+  }
+
+  @Test
+  void shouldProcessEventsOnPlatformThreadsWhenVirtualThreadsDisabled() {
+    List<Boolean> virtual = new CopyOnWriteArrayList<>();
+
+    dispatcher.dispatch(TRAINEE_ID_1, () -> virtual.add(Thread.currentThread().isVirtual()))
+        .join();
+
+    assertThat("Unexpected thread type.", virtual, is(List.of(false)));
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -31,6 +31,7 @@ import static uk.nhs.tis.trainee.actions.event.Operation.LOAD;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,7 +56,8 @@ class UserAccountListenerTest {
   @BeforeEach
   void setUp() {
     service = mock(ActionService.class);
-    listener = new UserAccountListener(service);
+    listener = new UserAccountListener(service,
+        new TraineeEventDispatcher(new SimpleMeterRegistry(), 1, 10, false));
     mapper = JsonMapper.builder()
         .findAndAddModules()
         .build();
@@ -71,7 +73,7 @@ class UserAccountListenerTest {
         }""".formatted(USER_ID, TRAINEE_ID, EMAIL);
     AccountConfirmedEvent event = mapper.readValue(eventJson, AccountConfirmedEvent.class);
 
-    listener.handleAccountConfirmation(event);
+    listener.handleAccountConfirmation(event).join();
 
     ArgumentCaptor<AccountConfirmedEvent> dtoCaptor
         = ArgumentCaptor.forClass(AccountConfirmedEvent.class);
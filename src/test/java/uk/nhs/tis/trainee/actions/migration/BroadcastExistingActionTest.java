@@ -22,11 +22,14 @@
 package uk.nhs.tis.trainee.actions.migration;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.actions.migration.BroadcastExistingActions.SWEEP_NAME;
 import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
 
@@ -34,13 +37,14 @@ import com.mongodb.MongoException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.bson.types.ObjectId;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.service.ActionSweepService;
 import uk.nhs.tis.trainee.actions.service.EventPublishingService;
+import uk.nhs.tis.trainee.actions.service.EventPublishingService.PublishFailure;
 
 class BroadcastExistingActionTest {
   private static final String TIS_ID = UUID.randomUUID().toString();
@@ -51,49 +55,75 @@ class BroadcastExistingActionTest {
   private static final LocalDate PAST = NOW.minusDays(1);
   private static final LocalDate FUTURE = NOW.plusDays(1);
   private BroadcastExistingActions migration;
-  private MongoTemplate template;
+  private ActionSweepService sweepService;
   private EventPublishingService eventPublishingService;
 
   @BeforeEach
   void setUp() {
-    template = mock(MongoTemplate.class);
+    sweepService = mock(ActionSweepService.class);
     eventPublishingService = mock(EventPublishingService.class);
-    migration = new BroadcastExistingActions(template, eventPublishingService);
+    migration = new BroadcastExistingActions(sweepService, eventPublishingService);
   }
 
   @Test
   void shouldNotFailWhenNoDocumentsToMigrate() {
-    when(template.findAll(Action.class, "Action")).thenReturn(List.of());
+    when(sweepService.sweep(eq(SWEEP_NAME), any(), any())).thenReturn(0L);
 
     assertDoesNotThrow(() -> migration.migrate());
+    verifyNoInteractions(eventPublishingService);
   }
 
   @Test
-  void shouldBroadcastExistingActions() {
-
+  @SuppressWarnings("unchecked")
+  void shouldBroadcastExistingActionsInSweptBatches() {
     Action action1 = new Action(ACTION_ID_1, REVIEW_DATA, TRAINEE_ID,
         new Action.TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
     Action action2 = new Action(ACTION_ID_2, REVIEW_DATA, TRAINEE_ID,
         new Action.TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
 
-    when(template.findAll(Action.class, "Action")).thenReturn(List.of(action1, action2));
+    when(sweepService.sweep(eq(SWEEP_NAME), any(), any())).thenAnswer(inv -> {
+      Consumer<List<Action>> handler = inv.getArgument(2);
+      handler.accept(List.of(action1));
+      handler.accept(List.of(action2));
+      return 2L;
+    });
 
     migration.migrate();
 
-    verify(eventPublishingService).publishActionUpdateEvent(action1);
-    verify(eventPublishingService).publishActionUpdateEvent(action2);
+    verify(eventPublishingService).publishActionUpdateEvents(List.of(action1));
+    verify(eventPublishingService).publishActionUpdateEvents(List.of(action2));
   }
 
   @Test
-  void shouldCatchMongoExceptionNotThrowIt() {
-    when(template.updateMulti(any(), any(), (String) any()))
+  @SuppressWarnings("unchecked")
+  void shouldFailBatchWhenActionsCouldNotBeBroadcast() {
+    Action action1 = new Action(ACTION_ID_1, REVIEW_DATA, TRAINEE_ID,
+        new Action.TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
+    Action action2 = new Action(ACTION_ID_2, REVIEW_DATA, TRAINEE_ID,
+        new Action.TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
+
+    when(eventPublishingService.publishActionUpdateEvents(List.of(action1, action2)))
+        .thenReturn(List.of(new PublishFailure(null, "InternalError", "Publish failed.")));
+    when(sweepService.sweep(eq(SWEEP_NAME), any(), any())).thenAnswer(inv -> {
+      Consumer<List<Action>> handler = inv.getArgument(2);
+      handler.accept(List.of(action1, action2));
+      return 2L;
+    });
+
+    assertThrows(IllegalStateException.class, () -> migration.migrate());
+  }
+
+  @Test
+  void shouldThrowSweepExceptionSoMigrationResumesOnNextRun() {
+    when(sweepService.sweep(eq(SWEEP_NAME), any(), any()))
         .thenThrow(new MongoException("exception"));
-    Assertions.assertDoesNotThrow(() -> migration.migrate());
+
+    assertThrows(MongoException.class, () -> migration.migrate());
   }
 
   @Test
   void shouldNotAttemptRollback() {
     migration.rollback();
-    verifyNoInteractions(template);
+    verifyNoInteractions(sweepService);
   }
 }
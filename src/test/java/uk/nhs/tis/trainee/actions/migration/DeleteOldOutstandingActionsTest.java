@@ -30,92 +30,51 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
-import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
+import static uk.nhs.tis.trainee.actions.migration.DeleteOldOutstandingActions.PURGE_NAME;
 import static uk.nhs.tis.trainee.actions.service.ActionService.ACTIONS_EPOCH;
 
-import com.mongodb.client.result.DeleteResult;
-import java.time.LocalDate;
-import java.util.List;
-import java.util.UUID;
-import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import uk.nhs.tis.trainee.actions.model.Action;
-import uk.nhs.tis.trainee.actions.service.EventPublishingService;
+import uk.nhs.tis.trainee.actions.service.ActionPurgeService;
 
 class DeleteOldOutstandingActionsTest {
-  private static final String TIS_ID = UUID.randomUUID().toString();
-  private static final String TRAINEE_ID = UUID.randomUUID().toString();
-  private static final ObjectId ACTION_ID_1 = ObjectId.get();
-  private static final ObjectId ACTION_ID_2 = ObjectId.get();
-  private static final LocalDate PRE_EPOCH = ACTIONS_EPOCH.minusDays(1);
   private DeleteOldOutstandingActions migration;
-  private MongoTemplate template;
-  private EventPublishingService eventPublishingService;
-  DeleteResult deleted;
+  private ActionPurgeService purgeService;
 
   @BeforeEach
   void setUp() {
-    template = mock(MongoTemplate.class);
-    eventPublishingService = mock(EventPublishingService.class);
-    migration = new DeleteOldOutstandingActions(template, eventPublishingService);
-
-    deleted = new DeleteResult() {
-      @Override
-      public boolean wasAcknowledged() {
-        return true;
-      }
-
-      @Override
-      public long getDeletedCount() {
-        return 2;
-      }
-    };
+    purgeService = mock(ActionPurgeService.class);
+    migration = new DeleteOldOutstandingActions(purgeService);
   }
 
   @Test
   void shouldNotFailWhenNoActionsToProcess() {
-    when(template.find(any(), eq(Action.class))).thenReturn(List.of());
-    when(template.remove(any(), eq(Action.class))).thenReturn(deleted);
+    when(purgeService.purge(eq(PURGE_NAME), any())).thenReturn(0L);
 
     assertDoesNotThrow(() -> migration.migrate());
   }
 
   @Test
-  void shouldDeleteOldOutstandingActions() {
-    Action action1 = new Action(ACTION_ID_1, REVIEW_DATA, TRAINEE_ID,
-        new Action.TisReferenceInfo(TIS_ID, PLACEMENT), LocalDate.MIN, PRE_EPOCH, null);
-    Action action2 = new Action(ACTION_ID_2, REVIEW_DATA, TRAINEE_ID,
-        new Action.TisReferenceInfo(TIS_ID, PLACEMENT), LocalDate.MIN, PRE_EPOCH, null);
-
-    when(template.find(any(), eq(Action.class))).thenReturn(List.of(action1, action2));
+  void shouldPurgeOldOutstandingActions() {
+    when(purgeService.purge(eq(PURGE_NAME), any())).thenReturn(2L);
 
     migration.migrate();
 
-    verify(eventPublishingService).publishActionDeleteEvent(action1);
-    verify(eventPublishingService).publishActionDeleteEvent(action2);
-    verify(template).remove(action1);
-    verify(template).remove(action2);
-
     var obsoleteActionsCriteria = Criteria
         .where("dueBy").lt(ACTIONS_EPOCH)
         .and("completed").exists(false);
-    Query expectedQuery = Query.query(obsoleteActionsCriteria);
 
-    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
-    verify(template).find(queryCaptor.capture(), eq(Action.class));
-    Query queryUsed = queryCaptor.getValue();
-    assertThat("Unexpected query.", queryUsed, is(expectedQuery));
+    ArgumentCaptor<Criteria> criteriaCaptor = ArgumentCaptor.forClass(Criteria.class);
+    verify(purgeService).purge(eq(PURGE_NAME), criteriaCaptor.capture());
+    Criteria criteriaUsed = criteriaCaptor.getValue();
+    assertThat("Unexpected criteria.", criteriaUsed, is(obsoleteActionsCriteria));
   }
 
   @Test
   void shouldNotAttemptRollback() {
     migration.rollback();
-    verifyNoInteractions(template);
+    verifyNoInteractions(purgeService);
   }
 }
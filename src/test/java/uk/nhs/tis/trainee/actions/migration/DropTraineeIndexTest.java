@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.migration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.actions.migration.DropTraineeIndex.INDEX_NAME;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import uk.nhs.tis.trainee.actions.model.Action;
+
+class DropTraineeIndexTest {
+
+  private DropTraineeIndex migration;
+  private MongoTemplate template;
+  private IndexOperations indexOps;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(MongoTemplate.class);
+    indexOps = mock(IndexOperations.class);
+    when(template.indexOps(Action.class)).thenReturn(indexOps);
+    migration = new DropTraineeIndex(template);
+  }
+
+  @Test
+  void shouldDropTraineeIndexWhenExists() {
+    when(indexOps.getIndexInfo()).thenReturn(List.of(buildIndexInfo("_id_"),
+        buildIndexInfo(INDEX_NAME)));
+
+    migration.migrate();
+
+    verify(indexOps).dropIndex(INDEX_NAME);
+  }
+
+  @Test
+  void shouldNotDropIndexWhenTraineeIndexNotExists() {
+    when(indexOps.getIndexInfo()).thenReturn(List.of(buildIndexInfo("_id_")));
+
+    migration.migrate();
+
+    verify(indexOps, never()).dropIndex(any());
+  }
+
+  @Test
+  void shouldNotAttemptRollback() {
+    migration.rollback();
+    verifyNoInteractions(template);
+  }
+
+  private IndexInfo buildIndexInfo(String name) {
+    return new IndexInfo(List.of(), name, false, false, null);
+  }
+}
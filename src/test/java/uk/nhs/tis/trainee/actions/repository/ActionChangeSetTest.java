@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
+import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.ChangeType;
+
+class ActionChangeSetTest {
+
+  private static final String TRAINEE_ID = "40";
+  private static final TisReferenceInfo TIS_REFERENCE = new TisReferenceInfo("123", PLACEMENT);
+  private static final LocalDate NOW = LocalDate.now();
+
+  private ActionChangeSet changes;
+
+  @BeforeEach
+  void setUp() {
+    changes = new ActionChangeSet();
+  }
+
+  @Test
+  void shouldBeEmptyWhenNoChangesAdded() {
+    assertThat("Unexpected empty flag.", changes.isEmpty(), is(true));
+    assertThat("Unexpected change count.", changes.getChanges().size(), is(0));
+  }
+
+  @Test
+  void shouldAssignIdWhenInsertingActionWithoutId() {
+    Action inserted = changes.insert(buildAction(null, null));
+
+    assertThat("Unexpected action id.", inserted.id(), notNullValue());
+    assertThat("Unexpected inserted actions.", changes.getInserted(), is(List.of(inserted)));
+  }
+
+  @Test
+  void shouldKeepIdWhenInsertingActionWithId() {
+    ObjectId id = ObjectId.get();
+
+    Action inserted = changes.insert(buildAction(id, null));
+
+    assertThat("Unexpected action id.", inserted.id(), is(id));
+  }
+
+  @Test
+  void shouldKeepChangesInOrderAdded() {
+    Action deleted = buildAction(ObjectId.get(), null);
+    Action completed = buildAction(ObjectId.get(), Instant.now());
+
+    changes.delete(deleted);
+    Action inserted = changes.insert(buildAction(null, null));
+    changes.complete(completed);
+
+    List<ActionChangeSet.Change> all = changes.getChanges();
+    assertThat("Unexpected change count.", all.size(), is(3));
+    assertThat("Unexpected change type.", all.get(0).type(), is(ChangeType.DELETE));
+    assertThat("Unexpected change type.", all.get(1).type(), is(ChangeType.INSERT));
+    assertThat("Unexpected change type.", all.get(2).type(), is(ChangeType.COMPLETE));
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(deleted)));
+    assertThat("Unexpected inserted actions.", changes.getInserted(), is(List.of(inserted)));
+    assertThat("Unexpected completed actions.", changes.getCompleted(), is(List.of(completed)));
+  }
+
+  @Test
+  void shouldAddChangesFromOtherChangeSetAfterExistingChanges() {
+    Action deleted = buildAction(ObjectId.get(), null);
+    changes.delete(deleted);
+
+    ActionChangeSet other = new ActionChangeSet();
+    Action inserted = other.insert(buildAction(null, null));
+
+    changes.addAll(other);
+
+    List<ActionChangeSet.Change> all = changes.getChanges();
+    assertThat("Unexpected change count.", all.size(), is(2));
+    assertThat("Unexpected action.", all.get(0).action(), is(deleted));
+    assertThat("Unexpected action.", all.get(1).action(), is(inserted));
+  }
+
+  @Test
+  void shouldApplyChangesToActions() {
+    Action unchanged = buildAction(ObjectId.get(), null);
+    Action toDelete = buildAction(ObjectId.get(), null);
+    Action toComplete = buildAction(ObjectId.get(), null);
+
+    changes.delete(toDelete);
+    Action completed = toComplete.withCompleted(Instant.now());
+    changes.complete(completed);
+    Action inserted = changes.insert(buildAction(null, null));
+
+    List<Action> applied = changes.applyTo(List.of(unchanged, toDelete, toComplete));
+
+    assertThat("Unexpected actions.", applied, is(List.of(unchanged, completed, inserted)));
+  }
+
+  @Test
+  void shouldNotApplyConditionalChangesToCompletedActions() {
+    Action alreadyCompleted = buildAction(ObjectId.get(), Instant.EPOCH);
+
+    changes.complete(alreadyCompleted.withCompleted(Instant.now()));
+    changes.deleteIfIncomplete(alreadyCompleted);
+
+    List<Action> applied = changes.applyTo(List.of(alreadyCompleted));
+
+    assertThat("Unexpected actions.", applied, is(List.of(alreadyCompleted)));
+  }
+
+  @Test
+  void shouldApplyRescheduledActionsInPlace() {
+    Action toReschedule = buildAction(ObjectId.get(), Instant.now());
+    Action rescheduled = new Action(toReschedule.id(), REVIEW_DATA, TRAINEE_ID, TIS_REFERENCE,
+        NOW, NOW.plusDays(1), null);
+
+    changes.reschedule(rescheduled);
+
+    List<Action> applied = changes.applyTo(List.of(toReschedule));
+
+    assertThat("Unexpected change type.", changes.getChanges().get(0).type(),
+        is(ChangeType.RESCHEDULE));
+    assertThat("Unexpected rescheduled actions.", changes.getRescheduled(),
+        is(List.of(rescheduled)));
+    assertThat("Unexpected actions.", applied, is(List.of(rescheduled)));
+  }
+
+  @Test
+  void shouldIncludeIncompleteOnlyDeletesInDeletedActions() {
+    Action deleted = buildAction(ObjectId.get(), Instant.now());
+    Action deletedIfIncomplete = buildAction(ObjectId.get(), null);
+
+    changes.delete(deleted);
+    changes.deleteIfIncomplete(deletedIfIncomplete);
+
+    List<Action> applied = changes.applyTo(List.of(deleted, deletedIfIncomplete));
+
+    assertThat("Unexpected change type.", changes.getChanges().get(1).type(),
+        is(ChangeType.DELETE_INCOMPLETE));
+    assertThat("Unexpected deleted actions.", changes.getDeleted(),
+        is(List.of(deleted, deletedIfIncomplete)));
+    assertThat("Unexpected action count.", applied.size(), is(0));
+  }
+
+  @Test
+  void shouldOnlyMakeCompletionsAndIncompleteDeletesConditional() {
+    assertThat("Unexpected conditional flag.", ChangeType.INSERT.isConditional(), is(false));
+    assertThat("Unexpected conditional flag.", ChangeType.COMPLETE.isConditional(), is(true));
+    assertThat("Unexpected conditional flag.", ChangeType.RESCHEDULE.isConditional(), is(false));
+    assertThat("Unexpected conditional flag.", ChangeType.DELETE.isConditional(), is(false));
+    assertThat("Unexpected conditional flag.", ChangeType.DELETE_INCOMPLETE.isConditional(),
+        is(true));
+  }
+
+  @Test
+  void shouldNotModifyGivenActionsWhenApplyingChanges() {
+    Action toDelete = buildAction(ObjectId.get(), null);
+    List<Action> actions = List.of(toDelete);
+    changes.delete(toDelete);
+
+    List<Action> applied = changes.applyTo(actions);
+
+    assertThat("Unexpected action count.", applied.size(), is(0));
+    assertThat("Unexpected original action count.", actions.size(), is(1));
+  }
+
+  private Action buildAction(ObjectId id, Instant completed) {
+    return new Action(id, REVIEW_DATA, TRAINEE_ID, TIS_REFERENCE, NOW, NOW, completed);
+  }
+}
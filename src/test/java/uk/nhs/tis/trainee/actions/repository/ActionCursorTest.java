@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.repository;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+
+class ActionCursorTest {
+
+  @Test
+  void shouldGetCursorOfAction() {
+    ObjectId id = ObjectId.get();
+    LocalDate dueBy = LocalDate.now();
+    ActionDto action = new ActionDto(id.toString(), null, null, null, null, dueBy, null);
+
+    ActionCursor cursor = ActionCursor.of(action);
+
+    assertThat("Unexpected cursor due date.", cursor.dueBy(), is(dueBy));
+    assertThat("Unexpected cursor ID.", cursor.id(), is(id));
+  }
+
+  @Test
+  void shouldDecodeEncodedCursor() {
+    ActionCursor cursor = new ActionCursor(LocalDate.now(), ObjectId.get());
+
+    ActionCursor decoded = ActionCursor.decode(cursor.encode());
+
+    assertThat("Unexpected cursor.", decoded, is(cursor));
+  }
+
+  @Test
+  void shouldDecodeEncodedCursorWhenDueDateNull() {
+    ActionCursor cursor = new ActionCursor(null, ObjectId.get());
+
+    ActionCursor decoded = ActionCursor.decode(cursor.encode());
+
+    assertThat("Unexpected cursor.", decoded, is(cursor));
+  }
+
+  @Test
+  void shouldEncodeCursorAsUrlSafeString() {
+    ActionCursor cursor = new ActionCursor(LocalDate.now(), ObjectId.get());
+
+    String encoded = cursor.encode();
+
+    assertThat("Unexpected URL safe encoding.", encoded.matches("[A-Za-z0-9_-]+"), is(true));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "not-a-cursor", "MjAyNC0wMS0wMQ", "eC0xLTEsMQ", "LDE", "!"})
+  void shouldThrowExceptionDecodingInvalidCursor(String encoded) {
+    assertThrows(IllegalArgumentException.class, () -> ActionCursor.decode(encoded));
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkException;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
+import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+
+class ActionBroadcastPipelineTest {
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private ActionBroadcastPipeline pipeline;
+  private OutboxRelay outboxRelay;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    outboxRelay = mock(OutboxRelay.class);
+    registry = new SimpleMeterRegistry();
+    pipeline = new ActionBroadcastPipeline(outboxRelay, registry, 1, 2, MAX_ATTEMPTS);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    pipeline.shutdown();
+  }
+
+  @Test
+  void shouldNotPublishWhenNoEntries() {
+    pipeline.publish(List.of()).join();
+
+    verifyNoInteractions(outboxRelay);
+  }
+
+  @Test
+  void shouldCompleteWhenEntriesPublished() {
+    List<OutboxEntry> entries = List.of(buildEntry(), buildEntry());
+
+    when(outboxRelay.send(entries)).thenReturn(List.of());
+
+    pipeline.publish(entries).join();
+
+    verify(outboxRelay).send(entries);
+    assertThat("Unexpected pending count.", pipeline.getPending(), is(0));
+  }
+
+  @Test
+  void shouldRetryFailedEntriesWhenPublishPartiallyFails() {
+    OutboxEntry entry1 = buildEntry();
+    OutboxEntry entry2 = buildEntry();
+    List<OutboxEntry> entries = List.of(entry1, entry2);
+
+    when(outboxRelay.send(entries)).thenReturn(List.of(entry2));
+    when(outboxRelay.send(List.of(entry2))).thenReturn(List.of());
+
+    pipeline.publish(entries).join();
+
+    verify(outboxRelay).send(entries);
+    verify(outboxRelay).send(List.of(entry2));
+  }
+
+  @Test
+  void shouldLeaveEntriesForRelayWhenNotPublishedAfterMaxAttempts() {
+    List<OutboxEntry> entries = List.of(buildEntry());
+
+    when(outboxRelay.send(any())).thenReturn(entries);
+
+    pipeline.publish(entries).join();
+
+    verify(outboxRelay, times(MAX_ATTEMPTS)).send(entries);
+    assertThat("Unexpected pending count.", pipeline.getPending(), is(0));
+  }
+
+  @Test
+  void shouldRetryEntriesWhenPublishThrows() {
+    List<OutboxEntry> entries = List.of(buildEntry());
+
+    when(outboxRelay.send(entries))
+        .thenThrow(SdkException.create("Publish failed.", null))
+        .thenReturn(List.of());
+
+    pipeline.publish(entries).join();
+
+    verify(outboxRelay, times(2)).send(entries);
+  }
+
+  @Test
+  void shouldCompleteNormallyWhenPublishAlwaysThrows() {
+    List<OutboxEntry> entries = List.of(buildEntry());
+
+    when(outboxRelay.send(any())).thenThrow(new IllegalStateException("Publish failed."));
+
+    CompletableFuture<Void> published = pipeline.publish(entries);
+
+    assertDoesNotThrow(published::join);
+    verify(outboxRelay, times(MAX_ATTEMPTS)).send(entries);
+    assertThat("Unexpected pending count.", pipeline.getPending(), is(0));
+  }
+
+  @Test
+  void shouldRegisterPendingGauge() {
+    assertThat("Unexpected pending gauge.",
+        registry.get("actions.broadcast.pending").gauge().value(), is(0.0));
+  }
+
+  private OutboxEntry buildEntry() {
+    ActionBroadcastDto broadcast = new ActionBroadcastDto(ObjectId.get().toString(),
+        ActionType.REVIEW_DATA.toString(), "traineeId", null, LocalDate.now(), LocalDate.now(),
+        null, ActionStatus.CURRENT, Instant.now());
+    return OutboxEntry.of(broadcast);
+  }
+}
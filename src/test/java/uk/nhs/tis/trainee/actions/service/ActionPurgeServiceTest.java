@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
+import static uk.nhs.tis.trainee.actions.model.ActionType.SIGN_COJ;
+import static uk.nhs.tis.trainee.actions.service.ActionPurgeService.OLD_OUTSTANDING_PURGE;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
+import uk.nhs.tis.trainee.actions.mapper.ActionMapperImpl;
+import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+
+class ActionPurgeServiceTest {
+
+  private static final String PURGE_NAME = "test-purge";
+  private static final Duration LEASE_DURATION = Duration.ofHours(1);
+  private static final Criteria CRITERIA = Criteria.where("completed").exists(false);
+
+  private ActionPurgeService service;
+  private MongoTemplate template;
+  private ActionSweepService sweepService;
+  private CheckpointService checkpointService;
+  private ActionBroadcastPipeline broadcastPipeline;
+  private TraineeActionCache cache;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(MongoTemplate.class);
+    sweepService = mock(ActionSweepService.class);
+    checkpointService = mock(CheckpointService.class);
+    broadcastPipeline = mock(ActionBroadcastPipeline.class);
+    cache = mock(TraineeActionCache.class);
+    service = new ActionPurgeService(template, mock(MongoTransactionManager.class), sweepService,
+        checkpointService, new ActionMapperImpl(), broadcastPipeline, cache, LEASE_DURATION);
+
+    when(broadcastPipeline.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+  }
+
+  @Test
+  void shouldSweepOnlyIdTypeAndTraineeOfMatchingActions() {
+    service.purge(PURGE_NAME, CRITERIA);
+
+    verify(sweepService).sweep(eq(PURGE_NAME), eq(CRITERIA),
+        eq(List.of("_id", "type", "traineeId")), any());
+  }
+
+  @Test
+  void shouldDeleteEachChunkWithSingleDelete() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, null, null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, null, null, null, null, null);
+    sweepChunks(List.of(action1, action2));
+    when(template.find(any(), eq(Action.class))).thenReturn(List.of(action1, action2));
+
+    long count = service.purge(PURGE_NAME, CRITERIA);
+
+    assertThat("Unexpected deleted count.", count, is(2L));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(template).remove(queryCaptor.capture(), eq(Action.class));
+    Document query = queryCaptor.getValue().getQueryObject();
+    List<Document> clauses = query.getList("$and", Document.class);
+    assertThat("Unexpected delete clause count.", clauses.size(), is(2));
+    assertThat("Unexpected deleted ids.",
+        Set.copyOf(clauses.get(0).get("_id", Document.class).get("$in", Collection.class)),
+        is(Set.of(action1.id(), action2.id())));
+    assertThat("Unexpected delete criteria.", clauses.get(1),
+        is(new Document("completed", new Document("$exists", false))));
+  }
+
+  @Test
+  void shouldFindMatchingActionsOfChunkBeforeDeleting() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, null, null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, null, null, null, null, null);
+    sweepChunks(List.of(action1, action2));
+
+    service.purge(PURGE_NAME, CRITERIA);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(template).find(queryCaptor.capture(), eq(Action.class));
+    Query query = queryCaptor.getValue();
+    Document expected = new Document("$and", List.of(
+        new Document("_id", new Document("$in", List.of(action1.id(), action2.id()))),
+        new Document("completed", new Document("$exists", false))));
+    assertThat("Unexpected find query.", query.getQueryObject(), is(expected));
+    assertThat("Unexpected find projection.", query.getFieldsObject(),
+        is(new Document("_id", 1)));
+  }
+
+  @Test
+  void shouldInvalidateCachedActionsOfPurgedTrainees() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, "40", null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, "41", null, null, null, null);
+    sweepChunks(List.of(action1, action2));
+    when(template.find(any(), eq(Action.class))).thenReturn(List.of(action1, action2));
+
+    service.purge(PURGE_NAME, CRITERIA);
+
+    verify(cache).invalidate(List.of("40", "41"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldWriteAndPublishDeletedOutboxEntriesForEachChunk() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, null, null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, null, null, null, null, null);
+    sweepChunks(List.of(action1), List.of(action2));
+    when(template.find(any(), eq(Action.class))).thenReturn(List.of(action1), List.of(action2));
+
+    service.purge(PURGE_NAME, CRITERIA);
+
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline, times(2)).publish(outboxCaptor.capture());
+
+    List<List<OutboxEntry>> published = outboxCaptor.getAllValues();
+    assertThat("Unexpected broadcast id.", published.get(0).get(0).broadcast().id(),
+        is(action1.id().toString()));
+    assertThat("Unexpected broadcast status.", published.get(0).get(0).broadcast().status(),
+        is(ActionStatus.DELETED));
+    assertThat("Unexpected broadcast id.", published.get(1).get(0).broadcast().id(),
+        is(action2.id().toString()));
+    verify(template).insert(published.get(0), OutboxEntry.class);
+    verify(template).insert(published.get(1), OutboxEntry.class);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldNotBroadcastActionsWhichNoLongerMatch() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, null, null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, null, null, null, null, null);
+    sweepChunks(List.of(action1, action2));
+    when(template.find(any(), eq(Action.class))).thenReturn(List.of(
+        new Action(action1.id(), null, null, null, null, null, null)));
+
+    long count = service.purge(PURGE_NAME, CRITERIA);
+
+    assertThat("Unexpected deleted count.", count, is(1L));
+
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    assertThat("Unexpected outbox count.", outbox.size(), is(1));
+    assertThat("Unexpected broadcast id.", outbox.get(0).broadcast().id(),
+        is(action1.id().toString()));
+  }
+
+  @Test
+  void shouldNotDeleteOrBroadcastAgainWhenChunkAlreadyPurged() {
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, null, null, null, null, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, null, null, null, null, null);
+    sweepChunks(List.of(action1, action2));
+    when(template.find(any(), eq(Action.class))).thenReturn(List.of());
+
+    long count = service.purge(PURGE_NAME, CRITERIA);
+
+    assertThat("Unexpected deleted count.", count, is(0L));
+    verify(template, never()).remove(any(Query.class), eq(Action.class));
+    verify(template, never()).insert(anyList(), eq(OutboxEntry.class));
+    verify(broadcastPipeline, never()).publish(any());
+    verifyNoInteractions(cache);
+  }
+
+  @Test
+  void shouldNotRunScheduledPurgeWhenLeaseHeldByAnotherInstance() {
+    when(checkpointService.acquireLease(eq(OLD_OUTSTANDING_PURGE), any(), eq(LEASE_DURATION)))
+        .thenReturn(false);
+
+    service.purgeOldOutstandingActions();
+
+    verifyNoInteractions(sweepService);
+    verify(checkpointService, never()).releaseLease(any(), any());
+  }
+
+  @Test
+  void shouldRunScheduledPurgeAndReleaseLeaseWhenLeaseAcquired() {
+    when(checkpointService.acquireLease(eq(OLD_OUTSTANDING_PURGE), any(), eq(LEASE_DURATION)))
+        .thenReturn(true);
+
+    service.purgeOldOutstandingActions();
+
+    verify(sweepService).sweep(eq(OLD_OUTSTANDING_PURGE),
+        eq(ActionPurgeService.oldOutstandingActions()), anyList(), any());
+    verify(checkpointService).releaseLease(eq(OLD_OUTSTANDING_PURGE), any());
+  }
+
+  @SafeVarargs
+  private void sweepChunks(List<Action>... chunks) {
+    when(sweepService.sweep(eq(PURGE_NAME), eq(CRITERIA), anyList(), any())).thenAnswer(inv -> {
+      Consumer<List<Action>> handler = inv.getArgument(3);
+      long count = 0;
+
+      for (List<Action> chunk : chunks) {
+        handler.accept(chunk);
+        count += chunk.size();
+      }
+
+      return count;
+    });
+  }
+}
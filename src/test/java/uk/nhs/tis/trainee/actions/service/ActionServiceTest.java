@@ -23,13 +23,11 @@ package uk.nhs.tis.trainee.actions.service;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.in;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyIterable;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -47,6 +45,8 @@ import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
 import static uk.nhs.tis.trainee.actions.service.ActionService.ACTIONS_EPOCH;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -57,6 +57,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
@@ -69,7 +71,9 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
 import uk.nhs.tis.trainee.actions.dto.AccountConfirmedEvent;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
 import uk.nhs.tis.trainee.actions.dto.ActionDto;
 import uk.nhs.tis.trainee.actions.dto.CojReceivedEvent;
 import uk.nhs.tis.trainee.actions.dto.ConditionsOfJoining;
@@ -77,14 +81,25 @@ import uk.nhs.tis.trainee.actions.dto.FormUpdateEvent;
 import uk.nhs.tis.trainee.actions.dto.PlacementDto;
 import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto;
 import uk.nhs.tis.trainee.actions.dto.ProgrammeMembershipDto.CurriculumDto;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
 import uk.nhs.tis.trainee.actions.dto.enumeration.FormLifecycleState;
 import uk.nhs.tis.trainee.actions.event.Operation;
+import uk.nhs.tis.trainee.actions.event.PlacementEvent;
+import uk.nhs.tis.trainee.actions.event.ProgrammeMembershipEvent;
 import uk.nhs.tis.trainee.actions.mapper.ActionMapperImpl;
 import uk.nhs.tis.trainee.actions.model.Action;
 import uk.nhs.tis.trainee.actions.model.Action.TisReferenceInfo;
 import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.model.ProgrammeMembershipFingerprint;
 import uk.nhs.tis.trainee.actions.model.TisReferenceType;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.Change;
+import uk.nhs.tis.trainee.actions.repository.ActionChangeSet.ChangeType;
+import uk.nhs.tis.trainee.actions.repository.ActionCursor;
 import uk.nhs.tis.trainee.actions.repository.ActionRepository;
+import uk.nhs.tis.trainee.actions.repository.ProgrammeMembershipFingerprintRepository;
+import uk.nhs.tis.trainee.actions.repository.TraineeReference;
 
 class ActionServiceTest {
 
@@ -105,13 +120,24 @@ class ActionServiceTest {
 
   private ActionService service;
   private ActionRepository repository;
-  private EventPublishingService eventPublishingService;
+  private ActionBroadcastPipeline broadcastPipeline;
+  private ProgrammeMembershipFingerprintRepository fingerprintRepository;
 
   @BeforeEach
   void setUp() {
     repository = mock(ActionRepository.class);
-    eventPublishingService = mock(EventPublishingService.class);
-    service = new ActionService(repository, new ActionMapperImpl(), eventPublishingService);
+    when(repository.applyChanges(any(), any())).thenAnswer(invocation -> {
+      ActionChangeSet changes = invocation.getArgument(0);
+      Function<Change, OutboxEntry> outboxEntry = invocation.getArgument(1);
+      return changes.getChanges().stream().map(outboxEntry).toList();
+    });
+    broadcastPipeline = mock(ActionBroadcastPipeline.class);
+    when(broadcastPipeline.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+    fingerprintRepository = mock(ProgrammeMembershipFingerprintRepository.class);
+    service = new ActionService(repository, new ActionMapperImpl(), broadcastPipeline,
+        fingerprintRepository,
+        new TraineeActionCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(5),
+            "actionBroadcastQueue"));
   }
 
   @ParameterizedTest
@@ -122,8 +148,6 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(new ArrayList<>());
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
 
     Set<ActionType> actionTypes =
@@ -132,11 +156,15 @@ class ActionServiceTest {
     int expectedActionCount = actionTypes.size();
     assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
 
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+
     // should broadcast inserted action
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(eventPublishingService, times(expectedActionCount))
-        .publishActionUpdateEvent(actionCaptor.capture());
-    List<Action> actionsPublished = actionCaptor.getAllValues();
+    verify(broadcastPipeline).publish(any());
+    List<Action> actionsPublished = changes.getInserted();
+    assertThat("Unexpected published action count.", actionsPublished.size(),
+        is(expectedActionCount));
 
     for (ActionType actionType : actionTypes) {
       Optional<ActionDto> actionOfType = actions.stream()
@@ -144,7 +172,7 @@ class ActionServiceTest {
           .findFirst();
       assertThat("Missing action for type: " + actionType, actionOfType.isPresent(), is(true));
       ActionDto action = actionOfType.get();
-      assertThat("Unexpected action id.", action.id(), nullValue());
+      assertThat("Unexpected action id.", action.id(), notNullValue());
       assertThat("Unexpected action type.", action.type(), is(actionType.toString()));
       assertThat("Unexpected trainee id.", action.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", action.availableFrom(), is(NOW));
@@ -162,7 +190,7 @@ class ActionServiceTest {
       assertThat("Missing action for type: " + actionType, actionPublishedOfType.isPresent(),
           is(true));
       Action actionPublished = actionPublishedOfType.get();
-      assertThat("Unexpected action id.", actionPublished.id(), nullValue());
+      assertThat("Unexpected action id.", actionPublished.id(), notNullValue());
       assertThat("Unexpected action type.", actionPublished.type(), is(actionType));
       assertThat("Unexpected trainee id.", actionPublished.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", actionPublished.availableFrom(),
@@ -186,7 +214,7 @@ class ActionServiceTest {
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -208,10 +236,9 @@ class ActionServiceTest {
 
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
-    verify(repository, never()).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        any(), any(), any(), any());
+    verify(repository, never()).applyChanges(any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoMoreInteractions(eventPublishingService);
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @Test
@@ -233,10 +260,9 @@ class ActionServiceTest {
 
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
-    verify(repository, never()).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        any(), any(), any(), any());
+    verify(repository, never()).applyChanges(any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoMoreInteractions(eventPublishingService);
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @Test
@@ -251,25 +277,22 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(List.of(incompleteCoj, incompleteFormA, existingReviewData));
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString()))
-        .thenReturn(List.of(incompleteCoj));
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_FORM_R_PART_A.toString()))
-        .thenReturn(List.of(incompleteFormA));
 
     ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
         List.of(new CurriculumDto("Foundation", null)));
 
     service.updateActions(Operation.LOAD, dto);
 
-    verify(repository).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString());
-    verify(repository).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_FORM_R_PART_A.toString());
-    verify(eventPublishingService).publishActionDeleteEvent(incompleteCoj);
-    verify(eventPublishingService).publishActionDeleteEvent(incompleteFormA);
-    verifyNoMoreInteractions(eventPublishingService);
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    assertThat("Unexpected deleted actions.", changes.getDeleted(),
+        is(List.of(incompleteCoj, incompleteFormA)));
+    assertThat("Unexpected inserted actions.", changes.getInserted().size(), is(0));
+    assertThat("Unexpected completed actions.", changes.getCompleted().size(), is(0));
+
+    verify(broadcastPipeline).publish(any());
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @Test
@@ -288,9 +311,8 @@ class ActionServiceTest {
 
     service.updateActions(Operation.LOAD, dto);
 
-    verify(repository, never()).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        any(), any(), any(), any());
-    verifyNoInteractions(eventPublishingService);
+    verify(repository, never()).applyChanges(any(), any());
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -307,9 +329,8 @@ class ActionServiceTest {
 
     service.updateActions(Operation.LOAD, dto);
 
-    verify(repository, never()).deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        any(), any(), any(), any());
-    verifyNoInteractions(eventPublishingService);
+    verify(repository, never()).applyChanges(any(), any());
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -320,15 +341,13 @@ class ActionServiceTest {
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(new ArrayList<>());
 
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
 
     Optional<ActionDto> actionOfType = actions.stream()
         .filter(a -> a.type().equals(SIGN_COJ.toString())).findFirst();
     assertThat("Missing action for SIGN_COJ.", actionOfType.isPresent(), is(true));
     ActionDto action = actionOfType.get();
-    assertThat("Unexpected action id.", action.id(), nullValue());
+    assertThat("Unexpected action id.", action.id(), notNullValue());
     assertThat("Unexpected trainee id.", action.traineeId(), is(TRAINEE_ID));
     assertThat("Unexpected available from date.", action.availableFrom(), is(NOW));
     assertThat("Unexpected due by date.", action.dueBy(), is(ACTIONS_EPOCH));
@@ -352,14 +371,18 @@ class ActionServiceTest {
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(existingActions);
 
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
     List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
     assertThat("Unexpected action count.", actions.size(), is(0)); //since PRE_EPOCH
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
-    Action actionPublished = actionCaptor.getValue();
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    List<Action> completedActions = changesCaptor.getValue().getCompleted();
+    assertThat("Unexpected completed action count.", completedActions.size(), is(1));
+    assertThat("Unexpected change type.", changesCaptor.getValue().getChanges().get(0).type(),
+        is(ChangeType.COMPLETE));
+
+    verify(broadcastPipeline).publish(any());
+    Action actionPublished = completedActions.get(0);
 
     assertThat("Unexpected action id.", actionPublished.id(), notNullValue());
     assertThat("Unexpected action type.", actionPublished.type(), is(SIGN_COJ));
@@ -387,15 +410,16 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(List.of(existingCoj, existingReviewData));
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionTypeAndNotComplete(
-        TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP.toString(), SIGN_COJ.toString()))
-        .thenReturn(List.of(existingCoj));
 
     service.updateActions(Operation.LOAD, dto);
 
-    verify(repository, never()).save(any());
-    verify(eventPublishingService).publishActionDeleteEvent(existingCoj);
-    verifyNoMoreInteractions(eventPublishingService);
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    assertThat("Unexpected completed actions.", changes.getCompleted().size(), is(0));
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(existingCoj)));
+    verify(broadcastPipeline).publish(any());
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @Test
@@ -406,7 +430,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action updated.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -423,7 +447,7 @@ class ActionServiceTest {
     verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PROGRAMME_MEMBERSHIP));
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -436,8 +460,7 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PROGRAMME_MEMBERSHIP))).thenReturn(List.of(existingAction));
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
+    stubStatusUpdates(existingAction);
     Optional<ActionDto> optionalAction = service.updateAction(event);
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(true));
@@ -453,12 +476,13 @@ class ActionServiceTest {
     assertThat("Unexpected TIS id.", refInfo.id(), is(TIS_ID));
     assertThat("Unexpected TIS type.", refInfo.type(), is(PROGRAMME_MEMBERSHIP));
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
-    Action actionPublished = actionCaptor.getValue();
+    verify(repository).completeAction(eq(ACTION_ID), eq(TRAINEE_ID), eq(Set.of(SIGN_COJ)),
+        eq(Instant.MAX), any());
+    verify(repository, never()).applyChanges(any(), any());
 
-    assertThat("Unexpected action id.", actionPublished.id(), is(ACTION_ID));
-    assertThat("Unexpected action type.", actionPublished.type(), is(SIGN_COJ));
+    ActionBroadcastDto actionPublished = capturePublishedBroadcast();
+    assertThat("Unexpected action id.", actionPublished.id(), is(ACTION_ID.toString()));
+    assertThat("Unexpected action type.", actionPublished.type(), is(SIGN_COJ.toString()));
     assertThat("Unexpected trainee id.", actionPublished.traineeId(), is(TRAINEE_ID));
     assertThat("Unexpected available from date.", actionPublished.availableFrom(), is(PAST));
     assertThat("Unexpected due by date.", actionPublished.dueBy(), is(FUTURE));
@@ -482,7 +506,7 @@ class ActionServiceTest {
     verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PROGRAMME_MEMBERSHIP));
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -494,7 +518,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -506,7 +530,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -520,7 +544,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -533,7 +557,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -546,7 +570,7 @@ class ActionServiceTest {
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -563,7 +587,7 @@ class ActionServiceTest {
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -586,7 +610,7 @@ class ActionServiceTest {
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -604,7 +628,7 @@ class ActionServiceTest {
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -625,8 +649,7 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         PROGRAMME_MEMBERSHIP.toString())).thenReturn(List.of(existingAction));
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
+    stubStatusUpdates(existingAction);
     Optional<ActionDto> optionalAction = service.updateAction(event);
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(true));
@@ -634,11 +657,11 @@ class ActionServiceTest {
     assertThat("Unexpected action id.", actionDto.id(), is(ACTION_ID.toString()));
     assertThat("Unexpected completed date.", actionDto.completed(), is(completedAt));
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(repository).save(actionCaptor.capture());
-    verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
+    verify(repository).completeAction(eq(ACTION_ID), eq(TRAINEE_ID), eq(Set.of(actionType)),
+        eq(completedAt), any());
+    verify(repository, never()).applyChanges(any(), any());
 
-    Action updatedAction = actionCaptor.getValue();
+    ActionBroadcastDto updatedAction = capturePublishedBroadcast();
     assertThat("Unexpected completed date.", updatedAction.completed(), is(completedAt));
   }
 
@@ -665,8 +688,7 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         PROGRAMME_MEMBERSHIP.toString())).thenReturn(List.of(existingAction));
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
+    stubStatusUpdates(existingAction);
     Optional<ActionDto> optionalAction = service.updateAction(event);
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(true));
@@ -674,178 +696,334 @@ class ActionServiceTest {
     assertThat("Unexpected action id.", actionDto.id(), is(ACTION_ID.toString()));
     assertThat("Unexpected completed date.", actionDto.completed(), nullValue());
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(repository).save(actionCaptor.capture());
-    verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
+    verify(repository).uncompleteAction(eq(ACTION_ID), eq(TRAINEE_ID), any());
+    verify(repository, never()).applyChanges(any(), any());
 
-    Action updatedAction = actionCaptor.getValue();
+    ActionBroadcastDto updatedAction = capturePublishedBroadcast();
     assertThat("Unexpected completed date.", updatedAction.completed(), nullValue());
   }
 
   @Test
   void shouldReturnEmptyWhenTraineeActionsNotFound() {
-    when(repository.findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(TRAINEE_ID)).thenReturn(
-        List.of());
+    when(repository.findAvailableIncompleteActions(TRAINEE_ID, NOW)).thenReturn(List.of());
 
     List<ActionDto> dtos = service.findIncompleteTraineeActions(TRAINEE_ID);
 
     assertThat("Unexpected action count.", dtos.size(), is(0));
 
-    verifyNoMoreInteractions(eventPublishingService);
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
   @EnumSource(TisReferenceType.class)
-  void shouldReturnActionsWhenTraineeActionsFound(TisReferenceType tisType) {
+  void shouldReturnActionsAvailableTodayWhenTraineeActionsFound(TisReferenceType tisType) {
     TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
-    ObjectId objectId1 = ObjectId.get();
-    Action action1 = new Action(objectId1, REVIEW_DATA, TRAINEE_ID, tisReference, POST_EPOCH,
-        FUTURE, null);
-    ObjectId objectId2 = ObjectId.get();
-    Action action2 = new Action(objectId2, REVIEW_DATA, TRAINEE_ID, tisReference, POST_EPOCH,
-        FUTURE, null);
-    List<Action> actions = List.of(action1, action2);
+    ActionDto action1 = new ActionDto(ObjectId.get().toString(), REVIEW_DATA.toString(),
+        TRAINEE_ID, tisReference, POST_EPOCH, FUTURE, null);
+    ActionDto action2 = new ActionDto(ObjectId.get().toString(), REVIEW_DATA.toString(),
+        TRAINEE_ID, tisReference, null, FUTURE, null);
 
-    when(repository.findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(TRAINEE_ID)).thenReturn(
-        actions);
+    when(repository.findAvailableIncompleteActions(TRAINEE_ID, NOW)).thenReturn(
+        List.of(action1, action2));
 
     List<ActionDto> dtos = service.findIncompleteTraineeActions(TRAINEE_ID);
 
-    assertThat("Unexpected action count.", dtos.size(), is(2));
-    ActionDto dto = dtos.get(0);
-    assertThat("Unexpected action ID.", dto.id(), is(objectId1.toString()));
-    dto = dtos.get(1);
-    assertThat("Unexpected action ID.", dto.id(), is(objectId2.toString()));
+    assertThat("Unexpected actions.", dtos, is(List.of(action1, action2)));
+    verify(repository).findAvailableIncompleteActions(TRAINEE_ID, NOW);
+  }
+
+  @Test
+  void shouldCacheTraineeActionsWhenFound() {
+    when(repository.findAvailableIncompleteActions(TRAINEE_ID, NOW)).thenReturn(List.of());
 
-    dtos.forEach(actDto -> {
-      assertThat("Unexpected action type.", actDto.type(), is(REVIEW_DATA.toString()));
-      assertThat("Unexpected trainee id.", actDto.traineeId(), is(TRAINEE_ID));
-      assertThat("Unexpected available from date.", actDto.availableFrom(), is(POST_EPOCH));
-      assertThat("Unexpected due by date.", actDto.dueBy(), is(FUTURE));
-      assertThat("Unexpected completed date.", actDto.completed(), nullValue());
+    service.findIncompleteTraineeActions(TRAINEE_ID);
+    service.findIncompleteTraineeActions(TRAINEE_ID);
 
-      TisReferenceInfo refInfo = actDto.tisReferenceInfo();
-      assertThat("Unexpected TIS id.", refInfo.id(), is(TIS_ID));
-      assertThat("Unexpected TIS type.", refInfo.type(), is(tisType));
-    });
+    verify(repository).findAvailableIncompleteActions(TRAINEE_ID, NOW);
   }
 
-  @ParameterizedTest
-  @EnumSource(TisReferenceType.class)
-  void shouldExcludeNotAvailableActionsWhenTraineeActionsFound(TisReferenceType tisType) {
-    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
-    ObjectId objectId1 = ObjectId.get();
-    Action action1 = new Action(objectId1, REVIEW_DATA, TRAINEE_ID, tisReference, FUTURE,
-        FUTURE, null);
-    List<Action> actions = List.of(action1);
+  @Test
+  void shouldInvalidateCachedTraineeActionsWhenActionsChanged() {
+    when(repository.findAvailableIncompleteActions(TRAINEE_ID, NOW)).thenReturn(List.of());
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
 
-    when(repository.findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(TRAINEE_ID)).thenReturn(
-        actions);
+    service.findIncompleteTraineeActions(TRAINEE_ID);
+    service.updateActions(Operation.LOAD,
+        new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE));
+    service.findIncompleteTraineeActions(TRAINEE_ID);
 
-    List<ActionDto> dtos = service.findIncompleteTraineeActions(TRAINEE_ID);
+    verify(repository, times(2)).findAvailableIncompleteActions(TRAINEE_ID, NOW);
+  }
 
-    assertThat("Unexpected action count.", dtos.size(), is(0));
+  @Test
+  void shouldNotInvalidateCachedTraineeActionsWhenOtherTraineeActionsChanged() {
+    when(repository.findAvailableIncompleteActions(TRAINEE_ID, NOW)).thenReturn(List.of());
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+
+    service.findIncompleteTraineeActions(TRAINEE_ID);
+    service.updateActions(Operation.LOAD,
+        new PlacementDto(TIS_ID, "otherTraineeId", POST_EPOCH, PLACEMENT_TYPE));
+    service.findIncompleteTraineeActions(TRAINEE_ID);
+
+    verify(repository).findAvailableIncompleteActions(TRAINEE_ID, NOW);
   }
 
-  @ParameterizedTest
-  @EnumSource(TisReferenceType.class)
-  void shouldIncludeUnknownAvailableActionsWhenTraineeActionsFound(TisReferenceType tisType) {
-    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
-    ObjectId objectId1 = ObjectId.get();
-    Action action1 = new Action(objectId1, REVIEW_DATA, TRAINEE_ID, tisReference, null,
-        FUTURE, null);
-    List<Action> actions = List.of(action1);
+  @Test
+  void shouldIncludeDateInIncompleteTraineeActionsVersion() {
+    String version = service.getIncompleteTraineeActionsVersion(TRAINEE_ID).orElseThrow();
 
-    when(repository.findAllByTraineeIdAndCompletedIsNullOrderByDueByAsc(TRAINEE_ID)).thenReturn(
-        actions);
+    assertThat("Unexpected version.", version.endsWith("-" + NOW), is(true));
+  }
 
-    List<ActionDto> dtos = service.findIncompleteTraineeActions(TRAINEE_ID);
+  @Test
+  void shouldChangeTraineeActionsVersionWhenActionsChanged() {
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
 
-    assertThat("Unexpected action count.", dtos.size(), is(1));
-    ActionDto dto = dtos.get(0);
-    assertThat("Unexpected action ID.", dto.id(), is(objectId1.toString()));
-    assertThat("Unexpected action type.", dto.type(), is(REVIEW_DATA.toString()));
-    assertThat("Unexpected trainee id.", dto.traineeId(), is(TRAINEE_ID));
-    assertThat("Unexpected available from date.", dto.availableFrom(), nullValue());
-    assertThat("Unexpected due by date.", dto.dueBy(), is(FUTURE));
-    assertThat("Unexpected completed date.", dto.completed(), nullValue());
+    Optional<String> version = service.getTraineeActionsVersion(TRAINEE_ID);
+    Optional<String> incompleteVersion = service.getIncompleteTraineeActionsVersion(TRAINEE_ID);
+    service.updateActions(Operation.LOAD,
+        new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE));
 
-    TisReferenceInfo refInfo = dto.tisReferenceInfo();
-    assertThat("Unexpected TIS id.", refInfo.id(), is(TIS_ID));
-    assertThat("Unexpected TIS type.", refInfo.type(), is(tisType));
+    assertThat("Unexpected version.", service.getTraineeActionsVersion(TRAINEE_ID),
+        not(version));
+    assertThat("Unexpected version.", service.getIncompleteTraineeActionsVersion(TRAINEE_ID),
+        not(incompleteVersion));
   }
 
   @Test
-  void shouldNotCompleteActionWhenActionIdInvalid() {
-    Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, "40");
+  void shouldNotChangeTraineeActionsVersionWhenOtherTraineeActionsChanged() {
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+
+    Optional<String> version = service.getTraineeActionsVersion(TRAINEE_ID);
+    service.updateActions(Operation.LOAD,
+        new PlacementDto(TIS_ID, "otherTraineeId", POST_EPOCH, PLACEMENT_TYPE));
+
+    assertThat("Unexpected version.", service.getTraineeActionsVersion(TRAINEE_ID), is(version));
+  }
+
+  @Test
+  void shouldStreamNoTraineesActionsWhenNoTraineesGiven() {
+    try (Stream<ActionDto> actions = service.streamTraineesActions(List.of(), List.of())) {
+      assertThat("Unexpected action count.", actions.count(), is(0L));
+    }
 
-    assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
     verifyNoInteractions(repository);
   }
 
   @Test
-  void shouldNotCompleteActionWhenActionNotFound() {
-    when(repository.findByIdAndTraineeId(ACTION_ID, TRAINEE_ID)).thenReturn(Optional.empty());
+  void shouldStreamAllTraineesActionsWhenNoProgrammeMembershipsGiven() {
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
+    when(repository.streamTraineesActions(List.of(TRAINEE_ID))).thenReturn(Stream.of(action));
+
+    try (Stream<ActionDto> actions = service.streamTraineesActions(List.of(TRAINEE_ID),
+        List.of())) {
+      assertThat("Unexpected action IDs.", actions.map(ActionDto::id).toList(),
+          is(List.of(action.id().toString())));
+    }
 
-    Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, ACTION_ID.toString());
+    verify(repository, never()).streamTraineesProgrammeMembershipAndPersonActions(any(), any());
+  }
 
-    assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
-    verify(repository, never()).save(any());
+  @Test
+  void shouldStreamTraineesProgrammeActionsWhenProgrammeMembershipsGiven() {
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    when(repository.streamTraineesProgrammeMembershipAndPersonActions(List.of(TRAINEE_ID),
+        List.of(TIS_ID))).thenReturn(Stream.of(action));
+
+    try (Stream<ActionDto> actions = service.streamTraineesActions(List.of(TRAINEE_ID),
+        List.of(TIS_ID))) {
+      assertThat("Unexpected action IDs.", actions.map(ActionDto::id).toList(),
+          is(List.of(action.id().toString())));
+    }
+
+    verify(repository, never()).streamTraineesActions(any());
   }
 
-  @ParameterizedTest
-  @EnumSource(TisReferenceType.class)
-  void shouldNotCompleteActionWhenActionAlreadyCompleted(TisReferenceType tisType) {
-    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        Instant.now());
-    when(repository.findByIdAndTraineeId(ACTION_ID, TRAINEE_ID)).thenReturn(Optional.of(action));
+  @Test
+  void shouldFindPageOfIncompleteTraineeActionsWithoutCache() {
+    ActionCursor cursor = new ActionCursor(PAST, ObjectId.get());
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, null);
+    when(repository.findAvailableIncompleteActionsPage(TRAINEE_ID, NOW, cursor, 10))
+        .thenReturn(List.of(action));
+
+    List<ActionDto> actions = service.findIncompleteTraineeActions(TRAINEE_ID, cursor, 10);
+
+    assertThat("Unexpected action IDs.", actions.stream().map(ActionDto::id).toList(),
+        is(List.of(action.id().toString())));
+    verify(repository, never()).findAvailableIncompleteActions(any(), any());
+  }
 
-    Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, ACTION_ID.toString());
+  @Test
+  void shouldFindPageOfTraineeProgrammeMembershipActions() {
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    when(repository.findProgrammeMembershipAndPersonActionsPage(TRAINEE_ID, TIS_ID, null, 10))
+        .thenReturn(List.of(action));
 
-    assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
-    verify(repository, never()).save(any());
-    verifyNoInteractions(eventPublishingService);
+    List<ActionDto> actions = service.findTraineeProgrammeMembershipActions(TRAINEE_ID, TIS_ID,
+        null, 10);
+
+    assertThat("Unexpected action IDs.", actions.stream().map(ActionDto::id).toList(),
+        is(List.of(action.id().toString())));
   }
 
-  @ParameterizedTest
-  @MethodSource("listNonUserCompletableActionTypes")
-  void shouldNotCompleteActionWhenActionNotUserCompletable(ActionType nonUserCompletableType) {
-    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
-    Action action = new Action(ACTION_ID, nonUserCompletableType, TRAINEE_ID, tisReference, PAST,
-        FUTURE, null);
-    when(repository.findByIdAndTraineeId(ACTION_ID, TRAINEE_ID)).thenReturn(Optional.of(action));
+  @Test
+  void shouldStreamIncompleteTraineeActions() {
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    when(repository.streamAvailableIncompleteActions(TRAINEE_ID, LocalDate.now()))
+        .thenReturn(Stream.of(action));
+
+    try (Stream<ActionDto> actions = service.streamIncompleteTraineeActions(TRAINEE_ID)) {
+      assertThat("Unexpected action IDs.", actions.map(ActionDto::id).toList(),
+          is(List.of(action.id().toString())));
+    }
+  }
 
+  @Test
+  void shouldStreamTraineeProgrammeMembershipActions() {
+    Action action = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    when(repository.streamProgrammeMembershipAndPersonActions(TRAINEE_ID, TIS_ID))
+        .thenReturn(Stream.of(action));
+
+    try (Stream<ActionDto> actions = service.streamTraineeProgrammeMembershipActions(TRAINEE_ID,
+        TIS_ID)) {
+      assertThat("Unexpected action IDs.", actions.map(ActionDto::id).toList(),
+          is(List.of(action.id().toString())));
+    }
+  }
+
+  @Test
+  void shouldNotCompleteAllActionsWhenNoActionIdsValid() {
+    List<ActionDto> actions = service.completeAllAsUser(TRAINEE_ID, List.of("40", "41"));
+
+    assertThat("Unexpected action count.", actions.size(), is(0));
+    verifyNoInteractions(repository);
+    verifyNoInteractions(broadcastPipeline);
+  }
+
+  @Test
+  void shouldSkipNullActionIdsWhenCompletingAllActions() {
+    ObjectId id = ObjectId.get();
+    when(repository.completeActions(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+    service.completeAllAsUser(TRAINEE_ID, Arrays.asList("x", null, id.toString()));
+
+    verify(repository).completeActions(eq(TRAINEE_ID), eq(Set.of(id)),
+        eq(ActionType.getUserCompletableActionTypes()), any(), any());
+  }
+
+  @Test
+  void shouldCompleteAllUserCompletableActionsWithSingleUpdate() {
+    ObjectId id1 = ObjectId.get();
+    ObjectId id2 = ObjectId.get();
+    when(repository.completeActions(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+      Function<Action, OutboxEntry> outboxEntry = inv.getArgument(4);
+      Action action = new Action(id1, REVIEW_DATA, TRAINEE_ID,
+          new TisReferenceInfo(TIS_ID, PLACEMENT), PAST, FUTURE, inv.getArgument(3));
+      return List.of(outboxEntry.apply(action));
+    });
+
+    List<ActionDto> actions = service.completeAllAsUser(TRAINEE_ID,
+        List.of(id1.toString(), id2.toString(), id1.toString(), "40"));
+
+    verify(repository).completeActions(eq(TRAINEE_ID), eq(Set.of(id1, id2)),
+        eq(ActionType.getUserCompletableActionTypes()), any(), any());
+
+    assertThat("Unexpected action count.", actions.size(), is(1));
+    ActionDto action = actions.get(0);
+    assertThat("Unexpected action id.", action.id(), is(id1.toString()));
+    assertThat("Unexpected action type.", action.type(), is(REVIEW_DATA.toString()));
+    assertThat("Unexpected trainee id.", action.traineeId(), is(TRAINEE_ID));
+    assertThat("Unexpected completed.", action.completed(), notNullValue());
+
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    assertThat("Unexpected broadcast count.", outbox.size(), is(1));
+    ActionBroadcastDto broadcast = outbox.get(0).broadcast();
+    assertThat("Unexpected broadcast id.", broadcast.id(), is(id1.toString()));
+    assertThat("Unexpected broadcast status.", broadcast.status(), is(ActionStatus.CURRENT));
+    assertThat("Unexpected broadcast completed.", broadcast.completed(),
+        is(action.completed()));
+  }
+
+  @Test
+  void shouldNotBroadcastWhenNoActionsCompleted() {
+    when(repository.completeActions(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+    List<ActionDto> actions = service.completeAllAsUser(TRAINEE_ID,
+        List.of(ObjectId.get().toString()));
+
+    assertThat("Unexpected action count.", actions.size(), is(0));
+    verifyNoInteractions(broadcastPipeline);
+  }
+
+  @Test
+  void shouldChangeTraineeActionsVersionWhenActionsCompleted() {
+    when(repository.completeActions(any(), any(), any(), any(), any())).thenReturn(List.of(
+        OutboxEntry.of(new ActionBroadcastDto(ObjectId.get().toString(), REVIEW_DATA.toString(),
+            TRAINEE_ID, null, PAST, FUTURE, Instant.now(), ActionStatus.CURRENT,
+            Instant.now()))));
+
+    Optional<String> version = service.getTraineeActionsVersion(TRAINEE_ID);
+    service.completeAllAsUser(TRAINEE_ID, List.of(ObjectId.get().toString()));
+
+    assertThat("Unexpected version.", service.getTraineeActionsVersion(TRAINEE_ID),
+        not(version));
+  }
+
+  @Test
+  void shouldNotCompleteActionWhenActionIdInvalid() {
+    Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, "40");
+
+    assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldNotCompleteActionWhenNoIncompleteCompletableActionFound() {
     Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, ACTION_ID.toString());
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
-    verify(repository, never()).save(any());
-    verifyNoInteractions(eventPublishingService);
+    verify(repository).completeAction(eq(ACTION_ID), eq(TRAINEE_ID),
+        eq(ActionType.getUserCompletableActionTypes()), any(), any());
+    verify(repository, never()).applyChanges(any(), any());
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
   @EnumSource(TisReferenceType.class)
-  void shouldSaveCompletedActionWhenActionCompletableAndTraineeMatches(TisReferenceType tisType) {
+  void shouldCompleteActionWithSingleConditionalUpdateWhenCompletingAsUser(
+      TisReferenceType tisType) {
     TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
     Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
         null);
-    when(repository.findByIdAndTraineeId(ACTION_ID, TRAINEE_ID)).thenReturn(Optional.of(action));
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    stubStatusUpdates(action);
 
     service.completeAsUser(TRAINEE_ID, ACTION_ID.toString());
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(repository).save(actionCaptor.capture());
-    verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
+    verify(repository).completeAction(eq(ACTION_ID), eq(TRAINEE_ID),
+        eq(ActionType.getUserCompletableActionTypes()), any(Instant.class), any());
+    verifyNoMoreInteractions(repository);
 
-    Action completedAction = actionCaptor.getValue();
-    assertThat("Unexpected action id.", completedAction.id(), is(ACTION_ID));
-    assertThat("Unexpected action type.", completedAction.type(), is(REVIEW_DATA));
+    ActionBroadcastDto completedAction = capturePublishedBroadcast();
+    assertThat("Unexpected action id.", completedAction.id(), is(ACTION_ID.toString()));
+    assertThat("Unexpected action type.", completedAction.type(), is(REVIEW_DATA.toString()));
     assertThat("Unexpected trainee id.", completedAction.traineeId(), is(TRAINEE_ID));
     assertThat("Unexpected available from date.", completedAction.availableFrom(), is(PAST));
     assertThat("Unexpected due by date.", completedAction.dueBy(), is(FUTURE));
     assertThat("Unexpected completed date.", completedAction.completed(),
         instanceOf(Instant.class));
+    assertThat("Unexpected status.", completedAction.status(), is(ActionStatus.CURRENT));
 
     TisReferenceInfo refInfo = completedAction.tisReferenceInfo();
     assertThat("Unexpected TIS id.", refInfo.id(), is(TIS_ID));
@@ -858,9 +1036,7 @@ class ActionServiceTest {
     TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, tisType);
     Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
         null);
-    when(repository.findByIdAndTraineeId(ACTION_ID, TRAINEE_ID)).thenReturn(Optional.of(action));
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
+    stubStatusUpdates(action);
     Optional<ActionDto> optionalAction = service.completeAsUser(TRAINEE_ID, ACTION_ID.toString());
 
     assertThat("Unexpected action presence.", optionalAction.isPresent(), is(true));
@@ -879,6 +1055,24 @@ class ActionServiceTest {
     assertThat("Unexpected TIS type.", refInfo.type(), is(tisType));
   }
 
+  @Test
+  void shouldNotBroadcastWhenActionCompletedConcurrently() {
+    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
+    Action staleAction = new Action(ACTION_ID, SIGN_COJ, TRAINEE_ID, tisReference, PAST, FUTURE,
+        null);
+    CojReceivedEvent event = new CojReceivedEvent(TIS_ID, TRAINEE_ID,
+        new ConditionsOfJoining(Instant.MIN, "version", Instant.MAX));
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        String.valueOf(PROGRAMME_MEMBERSHIP))).thenReturn(List.of(staleAction));
+    when(repository.completeAction(any(), any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
+
+    Optional<ActionDto> optionalAction = service.updateAction(event);
+
+    assertThat("Unexpected action presence.", optionalAction.isPresent(), is(false));
+    verifyNoInteractions(broadcastPipeline);
+  }
+
   @Test
   void shouldInsertActionsWhenPlacementOperationLoadAndPostEpoch() {
     PlacementDto dto = new PlacementDto(TIS_ID, TRAINEE_ID, ACTIONS_EPOCH, PLACEMENT_TYPE);
@@ -889,7 +1083,11 @@ class ActionServiceTest {
     service.updateActions(Operation.LOAD, dto);
 
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
-    verify(repository).insert(anyList());
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    assertThat("Unexpected inserted action count.", changesCaptor.getValue().getInserted().size(),
+        is(ActionType.getPlacementActionTypes().size()));
   }
 
   @Test
@@ -901,8 +1099,8 @@ class ActionServiceTest {
 
     service.updateActions(Operation.LOAD, dto);
 
-    verifyNoInteractions(eventPublishingService);
-    verify(repository, never()).insert(anyList());
+    verifyNoInteractions(broadcastPipeline);
+    verify(repository, never()).applyChanges(any(), any());
   }
 
   @ParameterizedTest
@@ -912,12 +1110,12 @@ class ActionServiceTest {
       String placementType) {
     PlacementDto dto = new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, placementType);
 
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionType(eq(TRAINEE_ID),
-        eq(TIS_ID), eq(String.valueOf(PLACEMENT)), any())).thenReturn(Collections.emptyList());
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        String.valueOf(PLACEMENT))).thenReturn(Collections.emptyList());
 
     service.updateActions(Operation.LOAD, dto);
-    verifyNoInteractions(eventPublishingService);
-    verify(repository, never()).insert(anyList());
+    verifyNoInteractions(broadcastPipeline);
+    verify(repository, never()).applyChanges(any(), any());
   }
 
   @ParameterizedTest
@@ -925,17 +1123,25 @@ class ActionServiceTest {
   void shouldDeleteAnyExistingNotCompleteActionsWhenPlacementOperationIsDelete(LocalDate theDate) {
     PlacementDto dto = new PlacementDto(TIS_ID, TRAINEE_ID, theDate, PLACEMENT_TYPE);
 
-    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, null, null,
+    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, tisReference, null,
         POST_EPOCH, null);
-    Action action2 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, null, null,
+    Action action2 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, tisReference, null,
         POST_EPOCH, null);
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(TRAINEE_ID, TIS_ID,
-        String.valueOf(PLACEMENT))).thenReturn(List.of(action1, action2));
+    Action completedAction = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, tisReference, null,
+        POST_EPOCH, Instant.now());
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        String.valueOf(PLACEMENT))).thenReturn(List.of(action1, action2, completedAction));
 
     service.updateActions(Operation.DELETE, dto);
-    verify(eventPublishingService).publishActionDeleteEvent(action1);
-    verify(eventPublishingService).publishActionDeleteEvent(action2);
-    verify(repository, never()).insert(anyList());
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    verify(broadcastPipeline).publish(any());
+    verifyNoMoreInteractions(broadcastPipeline);
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(action1, action2)));
+    assertThat("Unexpected inserted actions.", changes.getInserted().size(), is(0));
   }
 
   @ParameterizedTest
@@ -945,17 +1151,62 @@ class ActionServiceTest {
     ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, theDate, null,
         null);
 
-    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, null, null,
+    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, tisReference, null,
+        POST_EPOCH, null);
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, TRAINEE_ID, tisReference, null,
+        POST_EPOCH, null);
+    Action completedAction = new Action(ObjectId.get(), SIGN_COJ, TRAINEE_ID, tisReference, null,
+        POST_EPOCH, Instant.now());
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        String.valueOf(PROGRAMME_MEMBERSHIP)))
+        .thenReturn(List.of(action1, action2, completedAction));
+
+    service.updateActions(Operation.DELETE, dto);
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    verify(broadcastPipeline).publish(any());
+    verifyNoMoreInteractions(broadcastPipeline);
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(action1, action2)));
+    changes.getChanges().forEach(change -> assertThat("Unexpected change type.", change.type(),
+        is(ChangeType.DELETE_INCOMPLETE)));
+    assertThat("Unexpected inserted actions.", changes.getInserted().size(), is(0));
+  }
+
+  @Test
+  void shouldPublishTheOutboxEntriesWrittenWithTheChanges() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+
+    TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, tisReference, null,
         POST_EPOCH, null);
-    Action action2 = new Action(ObjectId.get(), SIGN_COJ, TRAINEE_ID, null, null,
+    Action action2 = new Action(ObjectId.get(), SIGN_COJ, TRAINEE_ID, tisReference, null,
         POST_EPOCH, null);
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(TRAINEE_ID, TIS_ID,
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PROGRAMME_MEMBERSHIP))).thenReturn(List.of(action1, action2));
 
     service.updateActions(Operation.DELETE, dto);
-    verify(eventPublishingService).publishActionDeleteEvent(action1);
-    verify(eventPublishingService).publishActionDeleteEvent(action2);
-    verify(repository, never()).insert(anyList());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    verify(repository).applyChanges(any(), any());
+
+    assertThat("Unexpected outbox entry count.", outbox.size(), is(2));
+    OutboxEntry entry1 = outbox.get(0);
+    assertThat("Unexpected outbox entry id.", entry1.id(), notNullValue());
+    assertThat("Unexpected outbox entry sent.", entry1.sent(), nullValue());
+    assertThat("Unexpected broadcast id.", entry1.broadcast().id(), is(action1.id().toString()));
+    assertThat("Unexpected broadcast status.", entry1.broadcast().status(),
+        is(ActionStatus.DELETED));
+    OutboxEntry entry2 = outbox.get(1);
+    assertThat("Unexpected broadcast id.", entry2.broadcast().id(), is(action2.id().toString()));
+    assertThat("Unexpected broadcast status.", entry2.broadcast().status(),
+        is(ActionStatus.DELETED));
   }
 
   @Test
@@ -972,7 +1223,7 @@ class ActionServiceTest {
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -983,13 +1234,8 @@ class ActionServiceTest {
           new TisReferenceInfo(TIS_ID, PLACEMENT), PRE_EPOCH, POST_EPOCH.minusDays(1),
           Instant.now());
       existingActions.add(existingAction);
-      when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionType(TRAINEE_ID,
-          TIS_ID, String.valueOf(PLACEMENT), String.valueOf(actionType)))
-          .thenReturn(Collections.singletonList(existingAction));
     }
 
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PLACEMENT))).thenReturn(existingActions);
 
@@ -1006,18 +1252,58 @@ class ActionServiceTest {
           .filter(a -> a.type().equals(actionType.toString()))
           .findFirst();
       assertThat("Missing action for type: " + actionType, actionOfType.isPresent(), is(true));
-      verify(repository).deleteByTraineeIdAndTisReferenceInfoAndActionType(
-          TRAINEE_ID, TIS_ID, PLACEMENT.toString(), actionType.toString());
-      ArgumentCaptor<Action> deletedActionCaptor = ArgumentCaptor.forClass(Action.class);
-      verify(eventPublishingService).publishActionDeleteEvent(deletedActionCaptor.capture());
-      Action deletedAction = deletedActionCaptor.getValue();
-      assertThat("Unexpected deleted action published.",
-          existingActions.contains(deletedAction), is(true));
     }
 
-    verify(repository).insert(anyList());
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
+    ActionChangeSet changes = changesCaptor.getValue();
+    assertThat("Unexpected deleted action count.", changes.getDeleted().size(), is(0));
+    assertThat("Unexpected inserted action count.", changes.getInserted().size(), is(0));
+
+    List<Action> rescheduled = changes.getRescheduled();
+    assertThat("Unexpected rescheduled action count.", rescheduled.size(),
+        is(expectedActionCount));
+    for (int i = 0; i < rescheduled.size(); i++) {
+      Action action = rescheduled.get(i);
+      assertThat("Unexpected action id.", action.id(), is(existingActions.get(i).id()));
+      assertThat("Unexpected due by.", action.dueBy(), is(POST_EPOCH));
+      assertThat("Unexpected completed.", action.completed(), nullValue());
+    }
+
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    assertThat("Unexpected broadcast count.", outbox.size(), is(expectedActionCount));
+    outbox.forEach(entry -> assertThat("Unexpected broadcast status.",
+        entry.broadcast().status(), is(ActionStatus.CURRENT)));
     verifyNoMoreInteractions(repository);
-    verify(eventPublishingService, times(expectedActionCount)).publishActionUpdateEvent(any());
+    verify(broadcastPipeline).publish(any());
+  }
+
+  @Test
+  void shouldRescheduleOnePlacementActionAndDeleteDuplicatesWhenDueDateChanged() {
+    TisReferenceInfo referenceInfo = new TisReferenceInfo(TIS_ID, PLACEMENT);
+    Action existingAction = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, referenceInfo,
+        PRE_EPOCH, POST_EPOCH.minusDays(1), null);
+    Action duplicateAction = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID, referenceInfo,
+        PRE_EPOCH, POST_EPOCH.minusDays(2), null);
+
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        String.valueOf(PLACEMENT))).thenReturn(List.of(existingAction, duplicateAction));
+
+    PlacementDto dto = new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE);
+    service.updateActions(Operation.LOAD, dto);
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    assertThat("Unexpected deleted actions.", changes.getDeleted(),
+        is(List.of(duplicateAction)));
+
+    List<Action> rescheduled = changes.getRescheduled();
+    assertThat("Unexpected rescheduled action count.", rescheduled.size(), is(1));
+    assertThat("Unexpected action id.", rescheduled.get(0).id(), is(ACTION_ID));
+    assertThat("Unexpected due by.", rescheduled.get(0).dueBy(), is(POST_EPOCH));
   }
 
   @Test
@@ -1027,23 +1313,22 @@ class ActionServiceTest {
         new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, new TisReferenceInfo(TIS_ID, PLACEMENT),
             PRE_EPOCH, POST_EPOCH.minusDays(1), Instant.now());
 
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
         String.valueOf(PLACEMENT))).thenReturn(List.of(existingAction));
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndActionType(TRAINEE_ID, TIS_ID,
-        String.valueOf(PLACEMENT), String.valueOf(REVIEW_DATA)))
-        .thenReturn(List.of(existingAction));
 
     List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
 
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
-    verify(repository).deleteByTraineeIdAndTisReferenceInfoAndActionType(any(), any(), any(),
-        any());
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(existingAction)));
+    assertThat("Unexpected inserted actions.", changes.getInserted().size(), is(0));
     verifyNoMoreInteractions(repository);
-    verify(eventPublishingService).publishActionDeleteEvent(existingAction);
-    verifyNoMoreInteractions(eventPublishingService);
+    verify(broadcastPipeline).publish(any());
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @ParameterizedTest
@@ -1051,8 +1336,6 @@ class ActionServiceTest {
   void shouldInsertActionsOnPlacementCreate(String placementType) {
     PlacementDto dto = new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, placementType);
 
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(Collections.emptyList());
 
@@ -1061,13 +1344,18 @@ class ActionServiceTest {
     int expectedActionCount = ActionType.getPlacementActionTypes().size();
     assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
 
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    verify(broadcastPipeline).publish(any());
+
     for (ActionType actionType : ActionType.getPlacementActionTypes()) {
       Optional<ActionDto> actionOfType = actions.stream()
           .filter(a -> a.type().equals(actionType.toString()))
           .findFirst();
       assertThat("Missing action for type: " + actionType, actionOfType.isPresent(), is(true));
       ActionDto action = actionOfType.get();
-      assertThat("Unexpected action id.", action.id(), nullValue());
+      assertThat("Unexpected action id.", action.id(), notNullValue());
       assertThat("Unexpected action type.", action.type(), is(actionType.toString()));
       assertThat("Unexpected trainee id.", action.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", action.availableFrom(),
@@ -1080,11 +1368,12 @@ class ActionServiceTest {
       assertThat("Unexpected TIS type.", tisReference.type(), is(PLACEMENT));
 
       // should broadcast inserted action
-      ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-      verify(eventPublishingService).publishActionUpdateEvent(actionCaptor.capture());
-
-      Action broadcastAction = actionCaptor.getValue();
-      assertThat("Unexpected action id.", broadcastAction.id(), nullValue());
+      Action broadcastAction = changes.getInserted().stream()
+          .filter(a -> a.type().equals(actionType))
+          .findFirst()
+          .orElseThrow(
+              () -> new AssertionError("Missing action published for type: " + actionType));
+      assertThat("Unexpected action id.", broadcastAction.id(), notNullValue());
       assertThat("Unexpected action type.", broadcastAction.type(), is(actionType));
       assertThat("Unexpected trainee id.", broadcastAction.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", broadcastAction.availableFrom(),
@@ -1097,6 +1386,268 @@ class ActionServiceTest {
     }
   }
 
+  @Test
+  void shouldUpdatePlacementActionsForEachEventInBatch() {
+    String otherTisId = UUID.randomUUID().toString();
+    PlacementEvent event1 = mock(PlacementEvent.class);
+    when(event1.getOperation()).thenReturn(Operation.LOAD);
+    when(event1.getPlacement()).thenReturn(
+        new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE));
+    PlacementEvent event2 = mock(PlacementEvent.class);
+    when(event2.getOperation()).thenReturn(Operation.LOAD);
+    when(event2.getPlacement()).thenReturn(
+        new PlacementDto(otherTisId, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE));
+
+    TraineeReference reference1 = TraineeReference.of(TRAINEE_ID, TIS_ID, PLACEMENT);
+    TraineeReference reference2 = TraineeReference.of(TRAINEE_ID, otherTisId, PLACEMENT);
+    when(repository.findByTraineeReferences(List.of(reference1, reference2))).thenReturn(
+        Map.of(reference1, List.of(), reference2, List.of()));
+    List<ActionDto> actions = service.updatePlacementActions(List.of(event1, event2)).join();
+
+    verify(repository).findByTraineeReferences(any());
+    verify(repository, never()).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
+    verify(repository).applyChanges(any(), any());
+
+    int expectedActionCount = ActionType.getPlacementActionTypes().size() * 2;
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
+
+    List<String> tisIds = actions.stream().map(a -> a.tisReferenceInfo().id()).toList();
+    assertThat("Unexpected TIS id.", tisIds.get(0), is(TIS_ID));
+    assertThat("Unexpected TIS id.", tisIds.get(tisIds.size() - 1), is(otherTisId));
+  }
+
+  @Test
+  void shouldUpdateProgrammeMembershipActionsForEachEventInBatch() {
+    String otherTisId = UUID.randomUUID().toString();
+    ProgrammeMembershipEvent event1 = mock(ProgrammeMembershipEvent.class);
+    when(event1.getOperation()).thenReturn(Operation.LOAD);
+    when(event1.getProgrammeMembership()).thenReturn(
+        new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null, null));
+    ProgrammeMembershipEvent event2 = mock(ProgrammeMembershipEvent.class);
+    when(event2.getOperation()).thenReturn(Operation.LOAD);
+    when(event2.getProgrammeMembership()).thenReturn(
+        new ProgrammeMembershipDto(otherTisId, TRAINEE_ID, POST_EPOCH, null, null));
+
+    TraineeReference reference1 = TraineeReference.of(TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP);
+    TraineeReference reference2 = TraineeReference.of(TRAINEE_ID, otherTisId,
+        PROGRAMME_MEMBERSHIP);
+    when(repository.findByTraineeReferences(List.of(reference1, reference2))).thenReturn(
+        Map.of(reference1, List.of(), reference2, List.of()));
+    List<ActionDto> actions = service.updateProgrammeMembershipActions(List.of(event1, event2))
+        .join();
+
+    verify(repository).findByTraineeReferences(any());
+    verify(repository, never()).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
+    verify(repository).applyChanges(any(), any());
+
+    int expectedActionCount = ActionType.getProgrammeActionTypes().size() * 2;
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
+
+    List<String> tisIds = actions.stream().map(a -> a.tisReferenceInfo().id()).toList();
+    assertThat("Unexpected TIS id.", tisIds.get(0), is(TIS_ID));
+    assertThat("Unexpected TIS id.", tisIds.get(tisIds.size() - 1), is(otherTisId));
+  }
+
+  @Test
+  void shouldSkipProgrammeMembershipLoadWhenFingerprintUnchanged() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    when(fingerprintRepository.findAllById(Set.of(TIS_ID))).thenReturn(
+        List.of(ProgrammeMembershipFingerprint.of(dto)));
+
+    List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
+
+    assertThat("Unexpected action count.", actions.size(), is(0));
+    verifyNoInteractions(repository);
+    verify(fingerprintRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldUpdateProgrammeMembershipFingerprintWhenLoadChanged() {
+    ProgrammeMembershipDto previous = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, PRE_EPOCH,
+        null, null);
+    when(fingerprintRepository.findAllById(Set.of(TIS_ID))).thenReturn(
+        List.of(ProgrammeMembershipFingerprint.of(previous)));
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+
+    service.updateActions(Operation.LOAD, dto);
+
+    verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        PROGRAMME_MEMBERSHIP.toString());
+
+    ArgumentCaptor<List<ProgrammeMembershipFingerprint>> captor = ArgumentCaptor.forClass(
+        List.class);
+    verify(fingerprintRepository).saveAll(captor.capture());
+
+    List<ProgrammeMembershipFingerprint> saved = captor.getValue();
+    assertThat("Unexpected fingerprint count.", saved.size(), is(1));
+    assertThat("Unexpected fingerprint match.",
+        saved.get(0).matches(ProgrammeMembershipFingerprint.of(dto)), is(true));
+  }
+
+  @Test
+  void shouldProcessProgrammeMembershipLoadWhenFingerprintRulesVersionChanged() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    String fingerprint = ProgrammeMembershipFingerprint.of(dto).fingerprint()
+        .replaceFirst("^v" + ProgrammeMembershipFingerprint.RULES_VERSION, "v0");
+    when(fingerprintRepository.findAllById(Set.of(TIS_ID))).thenReturn(
+        List.of(new ProgrammeMembershipFingerprint(TIS_ID, fingerprint, Instant.now())));
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+
+    service.updateActions(Operation.LOAD, dto);
+
+    verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        PROGRAMME_MEMBERSHIP.toString());
+
+    ArgumentCaptor<List<ProgrammeMembershipFingerprint>> captor = ArgumentCaptor.forClass(
+        List.class);
+    verify(fingerprintRepository).saveAll(captor.capture());
+
+    List<ProgrammeMembershipFingerprint> saved = captor.getValue();
+    assertThat("Unexpected fingerprint match.",
+        saved.get(0).matches(ProgrammeMembershipFingerprint.of(dto)), is(true));
+  }
+
+  @Test
+  void shouldDeleteProgrammeMembershipFingerprintWhenDeleted() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    when(fingerprintRepository.findAllById(Set.of(TIS_ID))).thenReturn(
+        List.of(ProgrammeMembershipFingerprint.of(dto)));
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+
+    service.updateActions(Operation.DELETE, dto);
+
+    verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TIS_ID,
+        PROGRAMME_MEMBERSHIP.toString());
+    verify(fingerprintRepository).deleteAllById(List.of(TIS_ID));
+    verify(fingerprintRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldNotFailProgrammeMembershipUpdateWhenFingerprintNotStored() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
+        .thenReturn(new ArrayList<>());
+    when(fingerprintRepository.saveAll(any())).thenThrow(
+        new DataAccessResourceFailureException("Store unavailable."));
+
+    List<ActionDto> actions = service.updateActions(Operation.LOAD, dto);
+
+    int expectedActionCount = ActionType.getProgrammeActionTypes().size();
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
+  }
+
+  @Test
+  void shouldSkipUnchangedProgrammeMembershipEventsInBatch() {
+    String otherTisId = UUID.randomUUID().toString();
+    ProgrammeMembershipDto unchanged = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH,
+        null, null);
+    ProgrammeMembershipEvent event1 = mock(ProgrammeMembershipEvent.class);
+    when(event1.getOperation()).thenReturn(Operation.LOAD);
+    when(event1.getProgrammeMembership()).thenReturn(unchanged);
+    ProgrammeMembershipEvent event2 = mock(ProgrammeMembershipEvent.class);
+    when(event2.getOperation()).thenReturn(Operation.LOAD);
+    when(event2.getProgrammeMembership()).thenReturn(
+        new ProgrammeMembershipDto(otherTisId, TRAINEE_ID, POST_EPOCH, null, null));
+
+    when(fingerprintRepository.findAllById(any())).thenReturn(
+        List.of(ProgrammeMembershipFingerprint.of(unchanged)));
+    TraineeReference reference = TraineeReference.of(TRAINEE_ID, otherTisId,
+        PROGRAMME_MEMBERSHIP);
+    when(repository.findByTraineeReferences(List.of(reference))).thenReturn(
+        Map.of(reference, List.of()));
+
+    List<ActionDto> actions = service.updateProgrammeMembershipActions(List.of(event1, event2))
+        .join();
+
+    verify(repository).findByTraineeReferences(List.of(reference));
+
+    int expectedActionCount = ActionType.getProgrammeActionTypes().size();
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
+    assertThat("Unexpected TIS id.", actions.get(0).tisReferenceInfo().id(), is(otherTisId));
+  }
+
+  @Test
+  void shouldSkipAllUnchangedProgrammeMembershipEventsInBatch() {
+    ProgrammeMembershipDto unchanged = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH,
+        null, null);
+    ProgrammeMembershipEvent event = mock(ProgrammeMembershipEvent.class);
+    when(event.getOperation()).thenReturn(Operation.LOAD);
+    when(event.getProgrammeMembership()).thenReturn(unchanged);
+
+    when(fingerprintRepository.findAllById(any())).thenReturn(
+        List.of(ProgrammeMembershipFingerprint.of(unchanged)));
+
+    List<ActionDto> actions = service.updateProgrammeMembershipActions(List.of(event)).join();
+
+    assertThat("Unexpected action count.", actions.size(), is(0));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldCompareProgrammeMembershipAgainstEarlierEventInBatch() {
+    ProgrammeMembershipDto dto = new ProgrammeMembershipDto(TIS_ID, TRAINEE_ID, POST_EPOCH, null,
+        null);
+    ProgrammeMembershipEvent event1 = mock(ProgrammeMembershipEvent.class);
+    when(event1.getOperation()).thenReturn(Operation.LOAD);
+    when(event1.getProgrammeMembership()).thenReturn(dto);
+    ProgrammeMembershipEvent event2 = mock(ProgrammeMembershipEvent.class);
+    when(event2.getOperation()).thenReturn(Operation.LOAD);
+    when(event2.getProgrammeMembership()).thenReturn(dto);
+
+    TraineeReference reference = TraineeReference.of(TRAINEE_ID, TIS_ID, PROGRAMME_MEMBERSHIP);
+    when(repository.findByTraineeReferences(any())).thenReturn(Map.of(reference, List.of()));
+
+    List<ActionDto> actions = service.updateProgrammeMembershipActions(List.of(event1, event2))
+        .join();
+
+    int expectedActionCount = ActionType.getProgrammeActionTypes().size();
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
+  }
+
+  @Test
+  void shouldApplyEarlierChangesWhenPlacementRepeatedInBatch() {
+    PlacementEvent event1 = mock(PlacementEvent.class);
+    when(event1.getOperation()).thenReturn(Operation.LOAD);
+    when(event1.getPlacement()).thenReturn(
+        new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH, PLACEMENT_TYPE));
+    PlacementEvent event2 = mock(PlacementEvent.class);
+    when(event2.getOperation()).thenReturn(Operation.LOAD);
+    when(event2.getPlacement()).thenReturn(
+        new PlacementDto(TIS_ID, TRAINEE_ID, POST_EPOCH.plusDays(1), PLACEMENT_TYPE));
+
+    TraineeReference reference = TraineeReference.of(TRAINEE_ID, TIS_ID, PLACEMENT);
+    when(repository.findByTraineeReferences(any())).thenReturn(Map.of(reference, List.of()));
+
+    List<ActionDto> actions = service.updatePlacementActions(List.of(event1, event2)).join();
+
+    int expectedActionCount = ActionType.getPlacementActionTypes().size();
+    assertThat("Unexpected action count.", actions.size(), is(expectedActionCount * 2));
+    verify(repository, never()).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+
+    List<Action> inserted = changes.getInserted();
+    List<Action> rescheduled = changes.getRescheduled();
+    assertThat("Unexpected deleted action count.", changes.getDeleted().size(), is(0));
+    assertThat("Unexpected rescheduled action count.", rescheduled.size(),
+        is(expectedActionCount));
+    assertThat("Unexpected rescheduled action.", rescheduled.get(0).id(),
+        is(inserted.get(0).id()));
+    assertThat("Unexpected due by date.", rescheduled.get(0).dueBy(),
+        is(POST_EPOCH.plusDays(1)));
+  }
+
   @Test
   void shouldInsertAllActionsOnFirstSightOfAccountConfirmation() {
     AccountConfirmedEvent event = new AccountConfirmedEvent(UUID.randomUUID(), TRAINEE_ID,
@@ -1104,18 +1655,20 @@ class ActionServiceTest {
 
     when(repository.findByTraineeIdAndTisReferenceInfo(any(), any(), any()))
         .thenReturn(new ArrayList<>());
-    when(repository.insert(anyIterable())).thenAnswer(inv -> inv.getArgument(0));
-
     List<ActionDto> actions = service.updateActions(Operation.LOAD, event);
 
     int expectedActionCount = ActionType.getPersonActionTypes().size();
     assertThat("Unexpected action count.", actions.size(), is(expectedActionCount));
 
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+
     // should broadcast inserted action
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(eventPublishingService, times(expectedActionCount))
-        .publishActionUpdateEvent(actionCaptor.capture());
-    List<Action> actionsPublished = actionCaptor.getAllValues();
+    verify(broadcastPipeline).publish(any());
+    List<Action> actionsPublished = changes.getInserted();
+    assertThat("Unexpected published action count.", actionsPublished.size(),
+        is(expectedActionCount));
 
     for (ActionType actionType : ActionType.getPersonActionTypes()) {
       Optional<ActionDto> actionOfType = actions.stream()
@@ -1123,7 +1676,7 @@ class ActionServiceTest {
           .findFirst();
       assertThat("Missing action for type: " + actionType, actionOfType.isPresent(), is(true));
       ActionDto action = actionOfType.get();
-      assertThat("Unexpected action id.", action.id(), nullValue());
+      assertThat("Unexpected action id.", action.id(), notNullValue());
       assertThat("Unexpected action type.", action.type(), is(actionType.toString()));
       assertThat("Unexpected trainee id.", action.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", action.availableFrom(), nullValue());
@@ -1140,7 +1693,7 @@ class ActionServiceTest {
           .orElseThrow(
               () -> new AssertionError("Missing action published for type: " + actionType));
 
-      assertThat("Unexpected action id.", actionPublished.id(), nullValue());
+      assertThat("Unexpected action id.", actionPublished.id(), notNullValue());
       assertThat("Unexpected action type.", actionPublished.type(), is(actionType));
       assertThat("Unexpected trainee id.", actionPublished.traineeId(), is(TRAINEE_ID));
       assertThat("Unexpected available from date.", actionPublished.availableFrom(),
@@ -1173,7 +1726,7 @@ class ActionServiceTest {
     assertThat("Unexpected action count.", actions.size(), is(0));
     verify(repository).findByTraineeIdAndTisReferenceInfo(any(), any(), any());
     verifyNoMoreInteractions(repository);
-    verifyNoMoreInteractions(eventPublishingService);
+    verifyNoMoreInteractions(broadcastPipeline);
   }
 
   @Test
@@ -1181,33 +1734,34 @@ class ActionServiceTest {
     AccountConfirmedEvent event = new AccountConfirmedEvent(UUID.randomUUID(), TRAINEE_ID,
         "some@email.test");
 
-    Action action1 = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID, null, null,
+    TisReferenceInfo tisReference = new TisReferenceInfo(TRAINEE_ID, PERSON);
+    Action action1 = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID, tisReference, null,
         null, null);
-    when(repository.deleteByTraineeIdAndTisReferenceInfoAndNotComplete(TRAINEE_ID, TRAINEE_ID,
+    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TRAINEE_ID,
         String.valueOf(PERSON))).thenReturn(List.of(action1));
 
     service.updateActions(Operation.DELETE, event);
-    verify(eventPublishingService).publishActionDeleteEvent(action1);
-    verify(repository, never()).insert(anyList());
+
+    ArgumentCaptor<ActionChangeSet> changesCaptor = ArgumentCaptor.forClass(ActionChangeSet.class);
+    verify(repository).applyChanges(changesCaptor.capture(), any());
+    ActionChangeSet changes = changesCaptor.getValue();
+    verify(broadcastPipeline).publish(any());
+    assertThat("Unexpected deleted actions.", changes.getDeleted(), is(List.of(action1)));
+    assertThat("Unexpected inserted actions.", changes.getInserted().size(), is(0));
   }
 
   @Test
   void shouldReturnEmptyTraineeProgrammeMembershipActionsWhenNoActionsFound() {
     String pmId = UUID.randomUUID().toString();
-    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, pmId,
-        PROGRAMME_MEMBERSHIP.toString())).thenReturn(List.of());
-    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TRAINEE_ID,
-        PERSON.toString())).thenReturn(List.of());
+    when(repository.findProgrammeMembershipAndPersonActions(TRAINEE_ID, List.of(pmId)))
+        .thenReturn(List.of());
 
     List<ActionDto> actions = service.findTraineeProgrammeMembershipActions(TRAINEE_ID, pmId);
 
     assertThat("Unexpected action count.", actions.size(), is(0));
-    verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, pmId,
-        PROGRAMME_MEMBERSHIP.toString());
-    verify(repository).findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TRAINEE_ID,
-        PERSON.toString());
+    verify(repository).findProgrammeMembershipAndPersonActions(TRAINEE_ID, List.of(pmId));
     verifyNoMoreInteractions(repository);
-    verifyNoInteractions(eventPublishingService);
+    verifyNoInteractions(broadcastPipeline);
   }
 
   @Test
@@ -1224,10 +1778,10 @@ class ActionServiceTest {
             Instant.now())
     );
 
-    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, pmId,
-        PROGRAMME_MEMBERSHIP.toString())).thenReturn(programmeActions);
-    when(repository.findByTraineeIdAndTisReferenceInfo(TRAINEE_ID, TRAINEE_ID,
-        PERSON.toString())).thenReturn(personActions);
+    List<Action> allActions = new ArrayList<>(personActions);
+    allActions.addAll(programmeActions);
+    when(repository.findProgrammeMembershipAndPersonActions(TRAINEE_ID, List.of(pmId)))
+        .thenReturn(allActions);
 
     List<ActionDto> actions = service.findTraineeProgrammeMembershipActions(TRAINEE_ID, pmId);
 
@@ -1250,50 +1804,134 @@ class ActionServiceTest {
     assertThat("Unexpected TIS type.", personRefInfo.type(), is(PERSON));
   }
 
+  @Test
+  void shouldReturnProgrammeMembershipActionsFirstWhenBothTypesFound() {
+    String pmId = UUID.randomUUID().toString();
+    Action programmeAction = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(pmId, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    Action personAction = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID,
+        new TisReferenceInfo(TRAINEE_ID, PERSON), null, null, null);
+
+    when(repository.findProgrammeMembershipAndPersonActions(TRAINEE_ID, List.of(pmId)))
+        .thenReturn(List.of(personAction, programmeAction));
+
+    List<ActionDto> actions = service.findTraineeProgrammeMembershipActions(TRAINEE_ID, pmId);
+
+    assertThat("Unexpected action count.", actions.size(), is(2));
+    assertThat("Unexpected first action.", actions.get(0).id(),
+        is(programmeAction.id().toString()));
+    assertThat("Unexpected second action.", actions.get(1).id(),
+        is(personAction.id().toString()));
+  }
+
+  @Test
+  void shouldReturnEmptyTraineeProgrammeMembershipsActionsWhenNoProgrammeMemberships() {
+    Map<String, List<ActionDto>> actions = service.findTraineeProgrammeMembershipActions(
+        TRAINEE_ID, List.of());
+
+    assertThat("Unexpected programme membership count.", actions.size(), is(0));
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void shouldReturnActionsOfEachProgrammeMembershipWithSingleQuery() {
+    String pmId1 = UUID.randomUUID().toString();
+    String pmId2 = UUID.randomUUID().toString();
+    String pmId3 = UUID.randomUUID().toString();
+    Action programmeAction1 = new Action(ObjectId.get(), REVIEW_DATA, TRAINEE_ID,
+        new TisReferenceInfo(pmId1, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    Action programmeAction2 = new Action(ObjectId.get(), SIGN_COJ, TRAINEE_ID,
+        new TisReferenceInfo(pmId2, PROGRAMME_MEMBERSHIP), PAST, FUTURE, null);
+    Action personAction = new Action(ObjectId.get(), REGISTER_TSS, TRAINEE_ID,
+        new TisReferenceInfo(TRAINEE_ID, PERSON), null, null, null);
+
+    when(repository.findProgrammeMembershipAndPersonActions(TRAINEE_ID,
+        List.of(pmId1, pmId2, pmId3))).thenReturn(
+        List.of(programmeAction1, programmeAction2, personAction));
+
+    Map<String, List<ActionDto>> actions = service.findTraineeProgrammeMembershipActions(
+        TRAINEE_ID, List.of(pmId1, pmId2, pmId3, pmId1));
+
+    verify(repository).findProgrammeMembershipAndPersonActions(TRAINEE_ID,
+        List.of(pmId1, pmId2, pmId3));
+    verifyNoMoreInteractions(repository);
+
+    assertThat("Unexpected programme memberships.", List.copyOf(actions.keySet()),
+        is(List.of(pmId1, pmId2, pmId3)));
+    assertThat("Unexpected actions.", actions.get(pmId1).stream().map(ActionDto::id).toList(),
+        is(List.of(programmeAction1.id().toString(), personAction.id().toString())));
+    assertThat("Unexpected actions.", actions.get(pmId2).stream().map(ActionDto::id).toList(),
+        is(List.of(programmeAction2.id().toString(), personAction.id().toString())));
+    assertThat("Unexpected actions.", actions.get(pmId3).stream().map(ActionDto::id).toList(),
+        is(List.of(personAction.id().toString())));
+  }
+
   @Test
   void shouldMoveTraineeActionsWhenActionsExist() {
     String fromTraineeId = "fromTraineeId";
     String toTraineeId = "toTraineeId";
     TisReferenceInfo tisReference = new TisReferenceInfo(TIS_ID, PROGRAMME_MEMBERSHIP);
-    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, fromTraineeId, tisReference, PAST,
+    Action action1 = new Action(ObjectId.get(), REVIEW_DATA, toTraineeId, tisReference, PAST,
         FUTURE, null);
-    Action action2 = new Action(ObjectId.get(), REGISTER_TSS, fromTraineeId, tisReference, PAST,
+    Action action2 = new Action(ObjectId.get(), REGISTER_TSS, toTraineeId, tisReference, PAST,
         FUTURE, Instant.now());
-    List<Action> actionstoMove = List.of(action1, action2);
 
-    when(repository.findAllByTraineeId(fromTraineeId)).thenReturn(actionstoMove);
-    when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.moveActions(eq(fromTraineeId), eq(toTraineeId), any())).thenAnswer(inv -> {
+      Function<Action, OutboxEntry> outboxEntry = inv.getArgument(2);
+      return Stream.of(action1, action2).map(outboxEntry).toList();
+    });
 
     service.moveActions(fromTraineeId, toTraineeId);
 
-    ArgumentCaptor<Action> actionCaptor = ArgumentCaptor.forClass(Action.class);
-    verify(repository, times(2)).save(actionCaptor.capture());
-    verify(eventPublishingService, times(2)).publishActionUpdateEvent(actionCaptor.capture());
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
 
-    List<Action> savedActions = actionCaptor.getAllValues();
-    savedActions.forEach(action -> {
-      assertThat("Unexpected trainee id.", action.traineeId(), is(toTraineeId));
-      assertThat("Unexpected saved action.", action.withTraineeId(fromTraineeId),
-          is(in(actionstoMove)));
-    });
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    assertThat("Unexpected outbox size.", outbox.size(), is(2));
+
+    ActionBroadcastDto broadcast1 = outbox.get(0).broadcast();
+    assertThat("Unexpected action id.", broadcast1.id(), is(action1.id().toString()));
+    assertThat("Unexpected trainee id.", broadcast1.traineeId(), is(toTraineeId));
+    assertThat("Unexpected status.", broadcast1.status(), is(ActionStatus.CURRENT));
+
+    ActionBroadcastDto broadcast2 = outbox.get(1).broadcast();
+    assertThat("Unexpected action id.", broadcast2.id(), is(action2.id().toString()));
+    assertThat("Unexpected trainee id.", broadcast2.traineeId(), is(toTraineeId));
+    assertThat("Unexpected status.", broadcast2.status(), is(ActionStatus.CURRENT));
+
+    verify(repository, never()).save(any());
   }
 
   @Test
-  void shouldNotMoveTraineeActionsWhenNoActionsExist() {
+  void shouldNotBroadcastMovedActionsWhenNoActionsExist() {
     String fromTraineeId = "fromTraineeId";
     String toTraineeId = "toTraineeId";
 
-    when(repository.findAllByTraineeId(fromTraineeId)).thenReturn(Collections.emptyList());
+    when(repository.moveActions(eq(fromTraineeId), eq(toTraineeId), any())).thenReturn(
+        List.of());
 
     service.moveActions(fromTraineeId, toTraineeId);
 
     verify(repository, never()).save(any());
-    verifyNoInteractions(eventPublishingService);
+    verify(broadcastPipeline).publish(List.of());
   }
 
-  static Stream<ActionType> listNonUserCompletableActionTypes() {
-    return Arrays.stream(ActionType.values())
-        .filter(a -> !ActionType.getUserCompletableActionTypes().contains(a));
+  @Test
+  void shouldInvalidateCachedTraineeActionsWhenActionsMoved() {
+    String fromTraineeId = "fromTraineeId";
+    String toTraineeId = "toTraineeId";
+    when(repository.findAvailableIncompleteActions(any(), any())).thenReturn(List.of());
+    when(repository.moveActions(eq(fromTraineeId), eq(toTraineeId), any())).thenReturn(
+        List.of());
+
+    service.findIncompleteTraineeActions(fromTraineeId);
+    service.findIncompleteTraineeActions(toTraineeId);
+    service.moveActions(fromTraineeId, toTraineeId);
+    service.findIncompleteTraineeActions(fromTraineeId);
+    service.findIncompleteTraineeActions(toTraineeId);
+
+    verify(repository, times(2)).findAvailableIncompleteActions(fromTraineeId, NOW);
+    verify(repository, times(2)).findAvailableIncompleteActions(toTraineeId, NOW);
   }
 
   static Stream<Arguments> providePreAndPostEpochDates() {
@@ -1302,4 +1940,25 @@ class ActionServiceTest {
         Arguments.of(POST_EPOCH)
     );
   }
+
+  private void stubStatusUpdates(Action action) {
+    when(repository.completeAction(eq(action.id()), eq(action.traineeId()), any(), any(), any()))
+        .thenAnswer(inv -> {
+          Function<Action, OutboxEntry> outboxEntry = inv.getArgument(4);
+          return Optional.of(outboxEntry.apply(action.withCompleted(inv.getArgument(3))));
+        });
+    when(repository.uncompleteAction(eq(action.id()), eq(action.traineeId()), any()))
+        .thenAnswer(inv -> {
+          Function<Action, OutboxEntry> outboxEntry = inv.getArgument(2);
+          return Optional.of(outboxEntry.apply(action.withCompleted(null)));
+        });
+  }
+
+  private ActionBroadcastDto capturePublishedBroadcast() {
+    ArgumentCaptor<List<OutboxEntry>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+    verify(broadcastPipeline).publish(outboxCaptor.capture());
+    List<OutboxEntry> outbox = outboxCaptor.getValue();
+    assertThat("Unexpected published action count.", outbox.size(), is(1));
+    return outbox.get(0).broadcast();
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import uk.nhs.tis.trainee.actions.model.Action;
+
+class ActionSweepServiceTest {
+
+  private static final String SWEEP_NAME = "test-sweep";
+  private static final int BATCH_SIZE = 2;
+
+  private ActionSweepService service;
+  private MongoTemplate template;
+  private CheckpointService checkpointService;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(MongoTemplate.class);
+    checkpointService = mock(CheckpointService.class);
+    registry = new SimpleMeterRegistry();
+    service = new ActionSweepService(template, checkpointService, registry, BATCH_SIZE);
+
+    when(checkpointService.getPosition(SWEEP_NAME)).thenReturn(Optional.empty());
+  }
+
+  @Test
+  void shouldHandleActionsInBoundedBatches() {
+    List<Action> actions = buildActions(5);
+    when(template.stream(any(), eq(Action.class))).thenReturn(actions.stream());
+
+    List<List<Action>> batches = new ArrayList<>();
+    long count = service.sweep(SWEEP_NAME, new Criteria(), batches::add);
+
+    assertThat("Unexpected swept count.", count, is(5L));
+    assertThat("Unexpected batches.", batches, is(List.of(
+        actions.subList(0, 2), actions.subList(2, 4), actions.subList(4, 5))));
+  }
+
+  @Test
+  void shouldCheckpointLastActionOfEachBatch() {
+    List<Action> actions = buildActions(3);
+    when(template.stream(any(), eq(Action.class))).thenReturn(actions.stream());
+
+    service.sweep(SWEEP_NAME, new Criteria(), batch -> { });
+
+    verify(checkpointService).advance(SWEEP_NAME, actions.get(1).id());
+    verify(checkpointService).advance(SWEEP_NAME, actions.get(2).id());
+    verify(checkpointService).reset(SWEEP_NAME);
+  }
+
+  @Test
+  void shouldStreamActionsInIdOrderWithCursorBatchSize() {
+    when(template.stream(any(), eq(Action.class))).thenReturn(Stream.empty());
+
+    service.sweep(SWEEP_NAME, Criteria.where("completed").is(null), batch -> { });
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(template).stream(queryCaptor.capture(), eq(Action.class));
+
+    Query query = queryCaptor.getValue();
+    assertThat("Unexpected sort.", query.getSortObject(), is(new Document("_id", 1)));
+    assertThat("Unexpected criteria.", query.getQueryObject(),
+        is(new Document("completed", null)));
+    assertThat("Unexpected cursor batch size.", query.getMeta().getCursorBatchSize(),
+        is(BATCH_SIZE));
+  }
+
+  @Test
+  void shouldResumeAfterCheckpointWhenCheckpointExists() {
+    ObjectId position = ObjectId.get();
+    when(checkpointService.getPosition(SWEEP_NAME)).thenReturn(Optional.of(position));
+    when(template.stream(any(), eq(Action.class))).thenReturn(Stream.empty());
+
+    service.sweep(SWEEP_NAME, Criteria.where("completed").is(null), batch -> { });
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(template).stream(queryCaptor.capture(), eq(Action.class));
+
+    Document expected = new Document("$and", List.of(
+        new Document("completed", null),
+        new Document("_id", new Document("$gt", position))));
+    assertThat("Unexpected criteria.", queryCaptor.getValue().getQueryObject(), is(expected));
+  }
+
+  @Test
+  void shouldNotCheckpointBatchWhenHandlerFails() {
+    List<Action> actions = buildActions(2);
+    when(template.stream(any(), eq(Action.class))).thenReturn(actions.stream());
+
+    assertThrows(IllegalStateException.class, () -> service.sweep(SWEEP_NAME, new Criteria(),
+        batch -> {
+          throw new IllegalStateException("Handler failed.");
+        }));
+
+    verify(checkpointService, never()).advance(any(), any());
+    verify(checkpointService, never()).reset(any());
+  }
+
+  @Test
+  void shouldCountSweptActions() {
+    when(template.stream(any(), eq(Action.class))).thenReturn(buildActions(3).stream());
+
+    service.sweep(SWEEP_NAME, new Criteria(), batch -> { });
+
+    double count = registry.get("actions.sweep.processed").tag("sweep", SWEEP_NAME).counter()
+        .count();
+    assertThat("Unexpected processed count.", count, is(3.0));
+  }
+
+  private List<Action> buildActions(int count) {
+    List<Action> actions = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      actions.add(new Action(ObjectId.get(), REVIEW_DATA, "traineeId", null, null, null, null));
+    }
+
+    return actions;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.nhs.tis.trainee.actions.model.Checkpoint;
+
+class CheckpointServiceTest {
+
+  private static final String NAME = "test-job";
+  private static final String OWNER = "owner";
+
+  private CheckpointService service;
+  private MongoTemplate template;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(MongoTemplate.class);
+    service = new CheckpointService(template);
+  }
+
+  @Test
+  void shouldReturnEmptyPositionWhenNoCheckpoint() {
+    when(template.findById(NAME, Checkpoint.class)).thenReturn(null);
+
+    Optional<ObjectId> position = service.getPosition(NAME);
+
+    assertThat("Unexpected position presence.", position.isPresent(), is(false));
+  }
+
+  @Test
+  void shouldReturnPositionWhenCheckpointExists() {
+    ObjectId id = ObjectId.get();
+    when(template.findById(NAME, Checkpoint.class)).thenReturn(
+        new Checkpoint(NAME, id, null, null, Instant.now()));
+
+    Optional<ObjectId> position = service.getPosition(NAME);
+
+    assertThat("Unexpected position.", position.orElseThrow(), is(id));
+  }
+
+  @Test
+  void shouldOnlyMovePositionForwardWhenAdvancing() {
+    ObjectId id = ObjectId.get();
+
+    service.advance(NAME, id);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+    verify(template).upsert(queryCaptor.capture(), updateCaptor.capture(), eq(Checkpoint.class));
+
+    assertThat("Unexpected checkpoint id.", queryCaptor.getValue().getQueryObject().get("_id"),
+        is(NAME));
+    Document max = (Document) updateCaptor.getValue().getUpdateObject().get("$max");
+    assertThat("Unexpected position.", max.get("position"), is(id));
+  }
+
+  @Test
+  void shouldClearPositionWhenReset() {
+    service.reset(NAME);
+
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+    verify(template).updateFirst(any(), updateCaptor.capture(), eq(Checkpoint.class));
+
+    Document unset = (Document) updateCaptor.getValue().getUpdateObject().get("$unset");
+    assertThat("Unexpected unset fields.", unset.keySet(), is(Set.of("position")));
+  }
+
+  @Test
+  void shouldGrantLeaseWhenUpsertSucceeds() {
+    boolean granted = service.acquireLease(NAME, OWNER, Duration.ofMinutes(1));
+
+    assertThat("Unexpected lease grant.", granted, is(true));
+
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+    verify(template).upsert(any(), updateCaptor.capture(), eq(Checkpoint.class));
+    Document set = (Document) updateCaptor.getValue().getUpdateObject().get("$set");
+    assertThat("Unexpected lease owner.", set.get("leaseOwner"), is(OWNER));
+  }
+
+  @Test
+  void shouldNotGrantLeaseWhenHeldByAnotherInstance() {
+    when(template.upsert(any(), any(), eq(Checkpoint.class))).thenThrow(
+        new DuplicateKeyException("duplicate"));
+
+    boolean granted = service.acquireLease(NAME, OWNER, Duration.ofMinutes(1));
+
+    assertThat("Unexpected lease grant.", granted, is(false));
+  }
+
+  @Test
+  void shouldOnlyReleaseLeaseHeldByOwner() {
+    service.releaseLease(NAME, OWNER);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(template).updateFirst(queryCaptor.capture(), any(), eq(Checkpoint.class));
+
+    Document query = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected checkpoint id.", query.get("_id"), is(NAME));
+    assertThat("Unexpected lease owner.", query.get("leaseOwner"), is(OWNER));
+  }
+}
@@ -21,31 +21,40 @@
 
 package uk.nhs.tis.trainee.actions.service;
 
-import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static uk.nhs.tis.trainee.actions.model.ActionType.REVIEW_DATA;
 import static uk.nhs.tis.trainee.actions.model.TisReferenceType.PLACEMENT;
 
-import io.awspring.cloud.sns.core.SnsNotification;
-import io.awspring.cloud.sns.core.SnsTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import java.net.URI;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
 import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
 import uk.nhs.tis.trainee.actions.mapper.ActionMapper;
 import uk.nhs.tis.trainee.actions.model.Action;
+import uk.nhs.tis.trainee.actions.service.EventPublishingService.PublishFailure;
 
 class EventPublishingServiceTest {
 
@@ -58,201 +67,159 @@ class EventPublishingServiceTest {
   private static final LocalDate NOW = LocalDate.now();
   private static final LocalDate PAST = NOW.minusDays(1);
   private static final LocalDate FUTURE = NOW.plusDays(1);
+  private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+      .findAndAddModules()
+      .build();
 
   private EventPublishingService service;
   private ActionMapper actionMapper;
-  private SnsTemplate snsTemplate;
+  private SnsClient snsClient;
 
   @BeforeEach
   void setUp() {
-    snsTemplate = mock(SnsTemplate.class);
+    snsClient = mock(SnsClient.class);
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder().build());
     actionMapper = mock(ActionMapper.class);
-    service = new EventPublishingService(snsTemplate, actionMapper, ACTION_TOPIC_ARN);
+    service = new EventPublishingService(snsClient, OBJECT_MAPPER, actionMapper,
+        ACTION_TOPIC_ARN);
   }
 
   @Test
-  void shouldSendToTopicWhenPublishingActionUpdateEvent() {
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        REVIEW_DATA.toString(), TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED, ActionStatus.CURRENT, Instant.now());
-
-    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
+  void shouldNotPublishBatchWhenNoActions() {
+    List<PublishFailure> failures = service.publishActionUpdateEvents(List.of());
 
-    service.publishActionUpdateEvent(action);
-
-    verify(snsTemplate).sendNotification(eq(ACTION_TOPIC_ARN.toString()),
-        any(SnsNotification.class));
+    assertThat("Unexpected failure count.", failures.size(), is(0));
+    verifyNoInteractions(snsClient);
   }
 
   @Test
-  void shouldSetGroupIdWhenPublishingActionUpdateEventIfFifo() {
-    URI fifoQueue = URI.create(ACTION_TOPIC_ARN + ".fifo");
-    service = new EventPublishingService(snsTemplate, actionMapper, fifoQueue);
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        REVIEW_DATA.toString(), TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED, ActionStatus.CURRENT, Instant.now());
-
-    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionUpdateEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    assertThat("Unexpected group ID.", message.getGroupId(), is(ACTION_ID_STRING));
+  void shouldPublishUpdateEventsInBatchesOfTen() {
+    List<Action> actions = new ArrayList<>();
+    for (int i = 0; i < 23; i++) {
+      Action action = buildAction(ObjectId.get());
+      actions.add(action);
+      when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(
+          buildBroadcast(action, ActionStatus.CURRENT));
+    }
+
+    List<PublishFailure> failures = service.publishActionUpdateEvents(actions);
+
+    assertThat("Unexpected failure count.", failures.size(), is(0));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.forClass(
+        PublishBatchRequest.class);
+    verify(snsClient, times(3)).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequest> requests = requestCaptor.getAllValues();
+    assertThat("Unexpected batch size.", requests.get(0).publishBatchRequestEntries().size(),
+        is(10));
+    assertThat("Unexpected batch size.", requests.get(1).publishBatchRequestEntries().size(),
+        is(10));
+    assertThat("Unexpected batch size.", requests.get(2).publishBatchRequestEntries().size(),
+        is(3));
+    requests.forEach(request ->
+        assertThat("Unexpected topic.", request.topicArn(), is(ACTION_TOPIC_ARN.toString())));
   }
 
   @Test
-  void shouldNotSetGroupIdWhenPublishingActionUpdateEventIfNotFifo() {
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        REVIEW_DATA.toString(), TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED, ActionStatus.CURRENT, Instant.now());
-
-    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionUpdateEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    assertThat("Unexpected group ID.", message.getGroupId(), nullValue());
+  void shouldIncludePayloadWhenPublishingBatch() throws JsonProcessingException {
+    Action action = buildAction(ACTION_ID);
+    ActionBroadcastDto broadcast = buildBroadcast(action, ActionStatus.CURRENT);
+    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(broadcast);
+
+    service.publishActionUpdateEvents(List.of(action));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.forClass(
+        PublishBatchRequest.class);
+    verify(snsClient).publishBatch(requestCaptor.capture());
+
+    PublishBatchRequestEntry entry = requestCaptor.getValue().publishBatchRequestEntries().get(0);
+    ActionBroadcastDto payload = OBJECT_MAPPER.readValue(entry.message(),
+        ActionBroadcastDto.class);
+    assertThat("Unexpected payload.", payload, is(broadcast));
+    assertThat("Unexpected content type.",
+        entry.messageAttributes().get("contentType").stringValue(), is("application/json"));
   }
 
   @Test
-  void shouldIncludePayloadWhenPublishingActionUpdateEvent() {
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        REVIEW_DATA.toString(), TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED, ActionStatus.CURRENT, Instant.now());
-
-    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionUpdateEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    ActionBroadcastDto payload = message.getPayload();
-    assertThat("Unexpected action id.", payload.id(), is(ACTION_ID_STRING));
-    assertThat("Unexpected action type.", payload.type(), is(REVIEW_DATA.toString()));
-    assertThat("Unexpected trainee id.", payload.traineeId(), is(TRAINEE_ID));
-    assertThat("Unexpected reference id", payload.tisReferenceInfo().id(), is(TIS_ID));
-    assertThat("Unexpected reference type.", payload.tisReferenceInfo().type(),
-        is(PLACEMENT));
-    assertThat("Unexpected available from date.", payload.availableFrom(), is(PAST));
-    assertThat("Unexpected due by date.", payload.dueBy(), is(FUTURE));
-    assertThat("Unexpected completed date.", payload.completed(), is(COMPLETED));
-    assertThat("Unexpected action status", payload.status(), is(ActionStatus.CURRENT));
-    assertThat("Unexpected action status date.", payload.statusDatetime(),
-        instanceOf(Instant.class));
+  void shouldSetGroupIdPerActionWhenPublishingBatchIfFifo() {
+    URI fifoQueue = URI.create(ACTION_TOPIC_ARN + ".fifo");
+    service = new EventPublishingService(snsClient, OBJECT_MAPPER, actionMapper,
+        fifoQueue);
+    Action action1 = buildAction(ObjectId.get());
+    Action action2 = buildAction(ObjectId.get());
+    when(actionMapper.toCurrentActionBroadcastDto(action1)).thenReturn(
+        buildBroadcast(action1, ActionStatus.CURRENT));
+    when(actionMapper.toCurrentActionBroadcastDto(action2)).thenReturn(
+        buildBroadcast(action2, ActionStatus.CURRENT));
+
+    service.publishActionUpdateEvents(List.of(action1, action2));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.forClass(
+        PublishBatchRequest.class);
+    verify(snsClient).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequestEntry> entries = requestCaptor.getValue()
+        .publishBatchRequestEntries();
+    assertThat("Unexpected group ID.", entries.get(0).messageGroupId(),
+        is(action1.id().toString()));
+    assertThat("Unexpected group ID.", entries.get(1).messageGroupId(),
+        is(action2.id().toString()));
   }
 
   @Test
-  void shouldSendToTopicWhenPublishingActionDeleteEvent() {
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        null, null, null, null, null,
-        null, ActionStatus.DELETED, Instant.now());
+  void shouldNotSetGroupIdWhenPublishingBatchIfNotFifo() {
+    Action action = buildAction(ACTION_ID);
+    when(actionMapper.toCurrentActionBroadcastDto(action)).thenReturn(
+        buildBroadcast(action, ActionStatus.CURRENT));
 
-    when(actionMapper.toDeletedActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
+    service.publishActionUpdateEvents(List.of(action));
 
-    service.publishActionDeleteEvent(action);
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.forClass(
+        PublishBatchRequest.class);
+    verify(snsClient).publishBatch(requestCaptor.capture());
 
-    verify(snsTemplate).sendNotification(eq(ACTION_TOPIC_ARN.toString()),
-        any(SnsNotification.class));
+    PublishBatchRequestEntry entry = requestCaptor.getValue().publishBatchRequestEntries().get(0);
+    assertThat("Unexpected group ID.", entry.messageGroupId(), nullValue());
   }
 
   @Test
-  void shouldSetGroupIdWhenPublishingActionDeleteEventIfFifo() {
-    URI fifoQueue = URI.create(ACTION_TOPIC_ARN + ".fifo");
-    service = new EventPublishingService(snsTemplate, actionMapper, fifoQueue);
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        null, null, null, null, null,
-        null, ActionStatus.DELETED, Instant.now());
-
-    when(actionMapper.toDeletedActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionDeleteEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    assertThat("Unexpected group ID.", message.getGroupId(), is(ACTION_ID_STRING));
+  void shouldReturnFailedEntriesWhenPublishingBatch() {
+    Action action1 = buildAction(ObjectId.get());
+    Action action2 = buildAction(ObjectId.get());
+    ActionBroadcastDto broadcast1 = buildBroadcast(action1, ActionStatus.DELETED);
+    ActionBroadcastDto broadcast2 = buildBroadcast(action2, ActionStatus.DELETED);
+    when(actionMapper.toDeletedActionBroadcastDto(action1)).thenReturn(broadcast1);
+    when(actionMapper.toDeletedActionBroadcastDto(action2)).thenReturn(broadcast2);
+
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder()
+            .failed(BatchResultErrorEntry.builder()
+                .id("1")
+                .code("InternalError")
+                .message("error message")
+                .senderFault(false)
+                .build())
+            .build());
+
+    List<PublishFailure> failures = service.publishActionDeleteEvents(List.of(action1, action2));
+
+    assertThat("Unexpected failure count.", failures.size(), is(1));
+    PublishFailure failure = failures.get(0);
+    assertThat("Unexpected failed action.", failure.action(), is(broadcast2));
+    assertThat("Unexpected failure code.", failure.code(), is("InternalError"));
+    assertThat("Unexpected failure message.", failure.message(), is("error message"));
   }
 
-  @Test
-  void shouldNotSetGroupIdWhenPublishingActionDeleteEventIfNotFifo() {
+  private Action buildAction(ObjectId id) {
     Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        null, null, null, null, null,
-        null, ActionStatus.DELETED, Instant.now());
-
-    when(actionMapper.toDeletedActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionDeleteEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    assertThat("Unexpected group ID.", message.getGroupId(), nullValue());
+    return new Action(id, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE, COMPLETED);
   }
 
-  @Test
-  void shouldNotIncludeDetailWhenPublishingActionDeleteEvent() {
-    Action.TisReferenceInfo tisReference = new Action.TisReferenceInfo(TIS_ID, PLACEMENT);
-    Action action = new Action(ACTION_ID, REVIEW_DATA, TRAINEE_ID, tisReference, PAST, FUTURE,
-        COMPLETED);
-    ActionBroadcastDto actionBroadcastDto = new ActionBroadcastDto(ACTION_ID.toString(),
-        REVIEW_DATA.toString(), null, null, null, null,
-        null, ActionStatus.DELETED, Instant.now());
-
-    when(actionMapper.toDeletedActionBroadcastDto(action)).thenReturn(actionBroadcastDto);
-
-    service.publishActionDeleteEvent(action);
-
-    ArgumentCaptor<SnsNotification<ActionBroadcastDto>> messageCaptor = ArgumentCaptor.forClass(
-        SnsNotification.class);
-    verify(snsTemplate).sendNotification(any(), messageCaptor.capture());
-
-    SnsNotification<ActionBroadcastDto> message = messageCaptor.getValue();
-    ActionBroadcastDto payload = message.getPayload();
-    assertThat("Unexpected action id.", payload.id(), is(ACTION_ID_STRING));
-    assertThat("Unexpected action type.", payload.type(), is(REVIEW_DATA.toString()));
-    assertThat("Unexpected trainee id.", payload.traineeId(), nullValue());
-    assertThat("Unexpected reference info", payload.tisReferenceInfo(), nullValue());
-    assertThat("Unexpected available from date.", payload.availableFrom(), nullValue());
-    assertThat("Unexpected due by date.", payload.dueBy(), nullValue());
-    assertThat("Unexpected completed date.", payload.completed(), nullValue());
-    assertThat("Unexpected action status", payload.status(), is(ActionStatus.DELETED));
-    assertThat("Unexpected action status date.", payload.statusDatetime(),
-        instanceOf(Instant.class));
+  private ActionBroadcastDto buildBroadcast(Action action, ActionStatus status) {
+    return new ActionBroadcastDto(action.id().toString(), action.type().toString(),
+        action.traineeId(), action.tisReferenceInfo(), action.availableFrom(), action.dueBy(),
+        action.completed(), status, Instant.now());
   }
 }
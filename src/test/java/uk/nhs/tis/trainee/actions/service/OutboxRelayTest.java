@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.actions.service.OutboxRelay.CHECKPOINT_NAME;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import uk.nhs.tis.trainee.actions.dto.ActionBroadcastDto;
+import uk.nhs.tis.trainee.actions.dto.enumeration.ActionStatus;
+import uk.nhs.tis.trainee.actions.model.ActionType;
+import uk.nhs.tis.trainee.actions.model.OutboxEntry;
+import uk.nhs.tis.trainee.actions.repository.OutboxRepository;
+import uk.nhs.tis.trainee.actions.service.EventPublishingService.PublishFailure;
+
+class OutboxRelayTest {
+
+  private static final int BATCH_SIZE = 2;
+  private static final Duration GRACE_PERIOD = Duration.ofMinutes(1);
+  private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+  private OutboxRelay relay;
+  private OutboxRepository outboxRepository;
+  private EventPublishingService eventPublishingService;
+  private CheckpointService checkpointService;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    outboxRepository = mock(OutboxRepository.class);
+    eventPublishingService = mock(EventPublishingService.class);
+    checkpointService = mock(CheckpointService.class);
+    registry = new SimpleMeterRegistry();
+    relay = new OutboxRelay(outboxRepository, eventPublishingService, checkpointService, registry,
+        BATCH_SIZE, GRACE_PERIOD, LEASE_DURATION);
+
+    when(checkpointService.acquireLease(eq(CHECKPOINT_NAME), any(), eq(LEASE_DURATION)))
+        .thenReturn(true);
+  }
+
+  @Test
+  void shouldNotPublishWhenSendingNoEntries() {
+    List<OutboxEntry> unsent = relay.send(List.of());
+
+    assertThat("Unexpected unsent count.", unsent.size(), is(0));
+    verifyNoInteractions(eventPublishingService, outboxRepository);
+  }
+
+  @Test
+  void shouldMarkPublishedEntriesAsSentWhenSending() {
+    OutboxEntry entry1 = buildEntry();
+    OutboxEntry entry2 = buildEntry();
+    OutboxEntry entry3 = buildEntry();
+
+    when(eventPublishingService.publishActionBroadcastEvents(
+        List.of(entry1.broadcast(), entry2.broadcast(), entry3.broadcast())))
+        .thenReturn(List.of(new PublishFailure(entry2.broadcast(), "InternalError", "error")));
+
+    List<OutboxEntry> unsent = relay.send(List.of(entry1, entry2, entry3));
+
+    assertThat("Unexpected unsent entries.", unsent, is(List.of(entry2)));
+    verify(outboxRepository).markSent(eq(List.of(entry1.id(), entry3.id())), any());
+  }
+
+  @Test
+  void shouldNotMarkSentWhenAllEntriesFailToSend() {
+    OutboxEntry entry = buildEntry();
+
+    when(eventPublishingService.publishActionBroadcastEvents(List.of(entry.broadcast())))
+        .thenReturn(List.of(new PublishFailure(entry.broadcast(), "InternalError", "error")));
+
+    List<OutboxEntry> unsent = relay.send(List.of(entry));
+
+    assertThat("Unexpected unsent entries.", unsent, is(List.of(entry)));
+    verify(outboxRepository, never()).markSent(any(), any());
+  }
+
+  @Test
+  void shouldNotRelayWhenLeaseHeldByAnotherInstance() {
+    when(checkpointService.acquireLease(eq(CHECKPOINT_NAME), any(), eq(LEASE_DURATION)))
+        .thenReturn(false);
+
+    relay.relay();
+
+    verifyNoInteractions(outboxRepository, eventPublishingService);
+    verify(checkpointService, never()).releaseLease(any(), any());
+  }
+
+  @Test
+  void shouldReleaseLeaseWhenRelayComplete() {
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of());
+
+    relay.relay();
+
+    ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+    verify(checkpointService).acquireLease(eq(CHECKPOINT_NAME), ownerCaptor.capture(),
+        eq(LEASE_DURATION));
+    verify(checkpointService).releaseLease(CHECKPOINT_NAME, ownerCaptor.getValue());
+  }
+
+  @Test
+  void shouldRelayFromStartWhenNoCheckpoint() {
+    when(checkpointService.getPosition(CHECKPOINT_NAME)).thenReturn(Optional.empty());
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of());
+
+    relay.relay();
+
+    ArgumentCaptor<ObjectId> afterCaptor = ArgumentCaptor.forClass(ObjectId.class);
+    verify(outboxRepository).findUnsent(afterCaptor.capture(), any(), any());
+    assertThat("Unexpected start position.", afterCaptor.getValue().getTimestamp(), is(0));
+  }
+
+  @Test
+  void shouldRelaySettledEntriesAfterCheckpoint() {
+    ObjectId position = ObjectId.get();
+    when(checkpointService.getPosition(CHECKPOINT_NAME)).thenReturn(Optional.of(position));
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of());
+
+    relay.relay();
+
+    ArgumentCaptor<ObjectId> beforeCaptor = ArgumentCaptor.forClass(ObjectId.class);
+    ArgumentCaptor<Pageable> pageCaptor = ArgumentCaptor.forClass(Pageable.class);
+    verify(outboxRepository).findUnsent(eq(position), beforeCaptor.capture(),
+        pageCaptor.capture());
+
+    Instant settled = beforeCaptor.getValue().getDate().toInstant();
+    assertThat("Unexpected settled time.", settled.isAfter(Instant.now().minus(GRACE_PERIOD)),
+        is(false));
+    assertThat("Unexpected page size.", pageCaptor.getValue().getPageSize(), is(BATCH_SIZE));
+  }
+
+  @Test
+  void shouldAdvanceCheckpointToLastEntryBeforeFailure() {
+    OutboxEntry entry1 = buildEntry();
+    OutboxEntry entry2 = buildEntry();
+    when(checkpointService.getPosition(CHECKPOINT_NAME)).thenReturn(Optional.empty());
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of(entry1, entry2));
+    when(eventPublishingService.publishActionBroadcastEvents(any())).thenReturn(
+        List.of(new PublishFailure(entry2.broadcast(), "InternalError", "error")));
+
+    relay.relay();
+
+    verify(checkpointService).advance(CHECKPOINT_NAME, entry1.id());
+    verify(outboxRepository, times(1)).findUnsent(any(), any(), any());
+    assertThat("Unexpected relayed count.", registry.get("actions.outbox.relayed").counter()
+        .count(), is(1.0));
+  }
+
+  @Test
+  void shouldNotAdvanceCheckpointWhenFirstEntryFails() {
+    OutboxEntry entry1 = buildEntry();
+    OutboxEntry entry2 = buildEntry();
+    when(checkpointService.getPosition(CHECKPOINT_NAME)).thenReturn(Optional.empty());
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of(entry1, entry2));
+    when(eventPublishingService.publishActionBroadcastEvents(any())).thenReturn(
+        List.of(new PublishFailure(entry1.broadcast(), "InternalError", "error")));
+
+    relay.relay();
+
+    verify(checkpointService, never()).advance(any(), any());
+    verify(outboxRepository).markSent(eq(List.of(entry2.id())), any());
+  }
+
+  @Test
+  void shouldRelayNextBatchWhenFullBatchRelayed() {
+    OutboxEntry entry1 = buildEntry();
+    OutboxEntry entry2 = buildEntry();
+    OutboxEntry entry3 = buildEntry();
+    when(checkpointService.getPosition(CHECKPOINT_NAME)).thenReturn(Optional.empty(),
+        Optional.of(entry2.id()));
+    when(outboxRepository.findUnsent(any(), any(), any())).thenReturn(List.of(entry1, entry2),
+        List.of(entry3));
+    when(eventPublishingService.publishActionBroadcastEvents(any())).thenReturn(List.of());
+
+    relay.relay();
+
+    verify(outboxRepository).findUnsent(eq(entry2.id()), any(), any());
+    verify(checkpointService).advance(CHECKPOINT_NAME, entry2.id());
+    verify(checkpointService).advance(CHECKPOINT_NAME, entry3.id());
+    assertThat("Unexpected relayed count.", registry.get("actions.outbox.relayed").counter()
+        .count(), is(3.0));
+  }
+
+  private OutboxEntry buildEntry() {
+    ActionBroadcastDto broadcast = new ActionBroadcastDto(ObjectId.get().toString(),
+        ActionType.REVIEW_DATA.toString(), "traineeId", null, LocalDate.now(), LocalDate.now(),
+        null, ActionStatus.CURRENT, Instant.now());
+    return OutboxEntry.of(broadcast);
+  }
+}
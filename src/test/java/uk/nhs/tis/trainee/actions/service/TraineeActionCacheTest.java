@@ -0,0 +1,320 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.actions.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import uk.nhs.tis.trainee.actions.dto.ActionDto;
+
+class TraineeActionCacheTest {
+
+  private static final String TRAINEE_ID = "40";
+  private static final String OTHER_TRAINEE_ID = "41";
+  private static final Duration TTL = Duration.ofMinutes(5);
+  private static final String INVALIDATION_QUEUE = "actionBroadcastQueue";
+
+  private TraineeActionCache cache;
+  private MeterRegistry registry;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    cache = new TraineeActionCache(registry, 2, TTL, INVALIDATION_QUEUE);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void shouldLoadActionsWhenNotCached() {
+    ActionDto action = new ActionDto("1", "REVIEW_DATA", TRAINEE_ID, null, null, null, null);
+
+    List<ActionDto> actions = cache.get(TRAINEE_ID, () -> List.of(action));
+
+    assertThat("Unexpected actions.", actions, is(List.of(action)));
+    assertThat("Unexpected miss count.", getCount("actions.cache.requests", "result", "miss"),
+        is(1.0));
+  }
+
+  @Test
+  void shouldGetCachedActionsWhenCached() {
+    cache.get(TRAINEE_ID, loader());
+    cache.get(TRAINEE_ID, loader());
+
+    assertThat("Unexpected load count.", loads.get(), is(1));
+    assertThat("Unexpected hit count.", getCount("actions.cache.requests", "result", "hit"),
+        is(1.0));
+  }
+
+  @Test
+  void shouldCacheActionsOfEachTraineeSeparately() {
+    cache.get(TRAINEE_ID, loader());
+    cache.get(OTHER_TRAINEE_ID, loader());
+
+    assertThat("Unexpected load count.", loads.get(), is(2));
+  }
+
+  @Test
+  void shouldLoadActionsWhenInvalidated() {
+    cache.get(TRAINEE_ID, loader());
+    cache.get(OTHER_TRAINEE_ID, loader());
+
+    cache.invalidate(TRAINEE_ID);
+
+    cache.get(TRAINEE_ID, loader());
+    cache.get(OTHER_TRAINEE_ID, loader());
+    assertThat("Unexpected load count.", loads.get(), is(3));
+    assertThat("Unexpected invalidation count.", getCount("actions.cache.invalidations"),
+        is(1.0));
+  }
+
+  @Test
+  void shouldNotCacheActionsWhenInvalidatedWhileLoading() {
+    cache.get(TRAINEE_ID, () -> {
+      cache.invalidate(TRAINEE_ID);
+      return List.of();
+    });
+
+    cache.get(TRAINEE_ID, loader());
+
+    assertThat("Unexpected load count.", loads.get(), is(1));
+  }
+
+  @Test
+  void shouldNotCacheActionsWhenLoadFails() {
+    Supplier<List<ActionDto>> failingLoader = () -> {
+      throw new IllegalStateException("Load failed.");
+    };
+
+    assertThrows(IllegalStateException.class, () -> cache.get(TRAINEE_ID, failingLoader));
+
+    cache.get(TRAINEE_ID, loader());
+    assertThat("Unexpected load count.", loads.get(), is(1));
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedActionsWhenFull() {
+    cache.get(TRAINEE_ID, loader());
+    cache.get(OTHER_TRAINEE_ID, loader());
+    cache.get(TRAINEE_ID, loader());
+    cache.get("42", loader());
+
+    assertThat("Unexpected cache size.", cache.size(), is(2));
+    assertThat("Unexpected eviction count.", getCount("actions.cache.evictions", "cause", "size"),
+        is(1.0));
+
+    cache.get(TRAINEE_ID, loader());
+    assertThat("Unexpected load count.", loads.get(), is(3));
+    cache.get(OTHER_TRAINEE_ID, loader());
+    assertThat("Unexpected load count.", loads.get(), is(4));
+  }
+
+  @Test
+  void shouldLoadActionsWhenExpired() {
+    cache = new TraineeActionCache(registry, 2, Duration.ZERO, INVALIDATION_QUEUE);
+
+    cache.get(TRAINEE_ID, loader());
+    cache.get(TRAINEE_ID, loader());
+
+    assertThat("Unexpected load count.", loads.get(), is(2));
+    assertThat("Unexpected eviction count.",
+        getCount("actions.cache.evictions", "cause", "expiry"), is(1.0));
+  }
+
+  @Test
+  void shouldLoadActionsWhenActionInvalidated() {
+    cache.get(TRAINEE_ID, loader("1"));
+    cache.get(OTHER_TRAINEE_ID, loader("2"));
+
+    cache.invalidateAction("1", null);
+
+    cache.get(TRAINEE_ID, loader("1"));
+    cache.get(OTHER_TRAINEE_ID, loader("2"));
+    assertThat("Unexpected load count.", loads.get(), is(3));
+  }
+
+  @Test
+  void shouldGetCachedActionsWhenUnknownActionInvalidated() {
+    cache.get(TRAINEE_ID, loader("1"));
+
+    cache.invalidateAction("2", null);
+
+    cache.get(TRAINEE_ID, loader("1"));
+    assertThat("Unexpected load count.", loads.get(), is(1));
+  }
+
+  @Test
+  void shouldNotCacheActionsWhenActionInvalidatedWhileLoading() {
+    cache.get(TRAINEE_ID, () -> {
+      loads.incrementAndGet();
+      cache.invalidateAction("1", null);
+      return List.of();
+    });
+    cache.get(TRAINEE_ID, loader());
+
+    assertThat("Unexpected load count.", loads.get(), is(2));
+  }
+
+  @Test
+  void shouldKeepActionIndexOfNewTraineeWhenPreviousTraineeInvalidated() {
+    cache.get(TRAINEE_ID, loader("1"));
+    cache.get(OTHER_TRAINEE_ID, loader("1"));
+
+    cache.invalidate(TRAINEE_ID);
+    cache.invalidateAction("1", null);
+
+    cache.get(OTHER_TRAINEE_ID, loader("1"));
+    assertThat("Unexpected load count.", loads.get(), is(3));
+  }
+
+  @ParameterizedTest
+  @NullAndEmptySource
+  void shouldAlwaysLoadActionsWhenInvalidationQueueNotConfigured(String invalidationQueue) {
+    cache = new TraineeActionCache(registry, 2, TTL, invalidationQueue);
+    ActionDto action = new ActionDto("1", "REVIEW_DATA", TRAINEE_ID, null, null, null, null);
+
+    List<ActionDto> actions = cache.get(TRAINEE_ID, () -> {
+      loads.incrementAndGet();
+      return List.of(action);
+    });
+    cache.get(TRAINEE_ID, loader());
+
+    assertThat("Unexpected actions.", actions, is(List.of(action)));
+    assertThat("Unexpected load count.", loads.get(), is(2));
+    assertThat("Unexpected cache size.", cache.size(), is(0));
+  }
+
+  @ParameterizedTest
+  @NullAndEmptySource
+  void shouldNotGetVersionWhenInvalidationQueueNotConfigured(String invalidationQueue) {
+    cache = new TraineeActionCache(registry, 2, TTL, invalidationQueue);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), is(Optional.empty()));
+  }
+
+  @Test
+  void shouldGetSameVersionWhenNotInvalidated() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), is(version));
+  }
+
+  @Test
+  void shouldGetDifferentVersionsForEachTrainee() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+
+    assertThat("Unexpected version.", cache.getVersion(OTHER_TRAINEE_ID), not(version));
+  }
+
+  @Test
+  void shouldGetDifferentVersionsForEachCache() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    TraineeActionCache otherCache = new TraineeActionCache(registry, 2, TTL, INVALIDATION_QUEUE);
+
+    assertThat("Unexpected version.", otherCache.getVersion(TRAINEE_ID), not(version));
+  }
+
+  @Test
+  void shouldGetNewVersionWhenInvalidated() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    Optional<String> otherVersion = cache.getVersion(OTHER_TRAINEE_ID);
+
+    cache.invalidate(TRAINEE_ID);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), not(version));
+    assertThat("Unexpected version.", cache.getVersion(OTHER_TRAINEE_ID), is(otherVersion));
+  }
+
+  @Test
+  void shouldGetNewVersionWhenEvicted() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    cache.getVersion(OTHER_TRAINEE_ID);
+    cache.getVersion("42");
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), not(version));
+  }
+
+  @Test
+  void shouldGetNewVersionOfActionTraineeWhenActionInvalidated() {
+    cache.get(TRAINEE_ID, loader("1"));
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    Optional<String> otherVersion = cache.getVersion(OTHER_TRAINEE_ID);
+
+    cache.invalidateAction("1", null);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), not(version));
+    assertThat("Unexpected version.", cache.getVersion(OTHER_TRAINEE_ID), is(otherVersion));
+  }
+
+  @Test
+  void shouldGetNewVersionOfAllTraineesWhenUnknownActionInvalidated() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    Optional<String> otherVersion = cache.getVersion(OTHER_TRAINEE_ID);
+
+    cache.invalidateAction("1", null);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), not(version));
+    assertThat("Unexpected version.", cache.getVersion(OTHER_TRAINEE_ID), not(otherVersion));
+  }
+
+  @Test
+  void shouldGetNewVersionOfGivenTraineeWhenUnknownActionInvalidated() {
+    Optional<String> version = cache.getVersion(TRAINEE_ID);
+    Optional<String> otherVersion = cache.getVersion(OTHER_TRAINEE_ID);
+
+    cache.invalidateAction("1", TRAINEE_ID);
+
+    assertThat("Unexpected version.", cache.getVersion(TRAINEE_ID), not(version));
+    assertThat("Unexpected version.", cache.getVersion(OTHER_TRAINEE_ID), is(otherVersion));
+  }
+
+  private Supplier<List<ActionDto>> loader() {
+    return () -> {
+      loads.incrementAndGet();
+      return List.of();
+    };
+  }
+
+  private Supplier<List<ActionDto>> loader(String actionId) {
+    return () -> {
+      loads.incrementAndGet();
+      return List.of(new ActionDto(actionId, "REVIEW_DATA", TRAINEE_ID, null, null, null, null));
+    };
+  }
+
+  private double getCount(String name, String... tags) {
+    return registry.get(name).tags(tags).counter().count();
+  }
+}